@@ -5,11 +5,13 @@
  */
 package com.opengamma.strata.basics;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.date.HolidayCalendarId;
 import com.opengamma.strata.basics.date.HolidayCalendars;
 
 /**
@@ -19,15 +21,10 @@ final class StandardReferenceData {
 
   /**
    * Standard reference data.
+   * <p>
+   * The holiday calendars are looked up when first requested, rather than all being loaded at startup.
    */
-  static final ImmutableReferenceData STANDARD;
-  static {
-    Map<ReferenceDataId<?>, Object> map = new HashMap<>();
-    for (HolidayCalendar cal : HolidayCalendars.extendedEnum().lookupAllNormalized().values()) {
-      map.put(cal.getId(), cal);
-    }
-    STANDARD = ImmutableReferenceData.of(map);
-  }
+  static final ReferenceData STANDARD = new LazyStandardReferenceData();
   /**
    * Minimal reference data.
    */
@@ -45,4 +42,42 @@ final class StandardReferenceData {
   private StandardReferenceData() {
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The standard reference data, with each holiday calendar looked up when first requested.
+   */
+  private static final class LazyStandardReferenceData implements ReferenceData, Serializable {
+    private static final long serialVersionUID = 1L;
+    private final transient ConcurrentHashMap<ReferenceDataId<?>, Object> values = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> Optional<T> findValue(ReferenceDataId<T> id) {
+      return Optional.ofNullable(id.queryValueOrNull(this));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T queryValueOrNull(ReferenceDataId<T> id) {
+      return (T) values.computeIfAbsent(id, LazyStandardReferenceData::load);
+    }
+
+    // loads the value, null if not found
+    private static Object load(ReferenceDataId<?> id) {
+      if (id instanceof HolidayCalendarId) {
+        HolidayCalendar cal = HolidayCalendars.extendedEnum().find(((HolidayCalendarId) id).getName()).orElse(null);
+        return cal != null && cal.getId().equals(id) ? cal : null;
+      }
+      return null;
+    }
+
+    private Object readResolve() {
+      return STANDARD;
+    }
+
+    @Override
+    public String toString() {
+      return "StandardReferenceData";
+    }
+  }
+
 }
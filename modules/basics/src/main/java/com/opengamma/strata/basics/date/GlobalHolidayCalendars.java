@@ -27,6 +27,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
+
 /**
  * Implementation of some common global holiday calendars.
  * <p>
@@ -234,6 +236,21 @@ final class GlobalHolidayCalendars {
   private GlobalHolidayCalendars() {
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains all the calendars defined in this class.
+   * <p>
+   * This is used to write the precompiled calendars read by {@link HolidayCalendarBinaryLookup},
+   * and as a fallback if they cannot be read.
+   *
+   * @return the calendars
+   */
+  static ImmutableList<HolidayCalendar> calendars() {
+    return ImmutableList.of(
+        GBLO, FRPA, CHZU, EUTA, USGS, USNY, NYFD, NYSE, JPTO, AUSY,
+        BRBD, CATO, CZPR, DKCO, HUBU, MXMC, NOOS, PLWA, SEST, ZAJO);
+  }
+
   //-------------------------------------------------------------------------
   // generate GBLO
   // common law (including before 1871) good friday and christmas day (unadjusted for weekends)
@@ -0,0 +1,269 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics.date;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.named.NamedLookup;
+
+/**
+ * Loads the global holiday calendars from a precompiled binary resource.
+ * <p>
+ * The calendars of {@link GlobalHolidayCalendars} are generated from rules covering 150 years,
+ * which is slow compared to the rest of the startup of an application.
+ * Instead, the holidays are precompiled to a resource holding one bitmap of holidays per month.
+ * The resource is read when this class is loaded, but each calendar is only decoded when first requested.
+ * <p>
+ * If the resource cannot be read, the calendars are generated from the rules.
+ * The calendars will form part of the standard holiday calendars available in {@link ReferenceData#standard()}.
+ */
+final class HolidayCalendarBinaryLookup
+    implements NamedLookup<HolidayCalendar> {
+
+  /**
+   * The logger.
+   */
+  private static final Logger log = Logger.getLogger(HolidayCalendarBinaryLookup.class.getName());
+  /**
+   * The name of the resource, relative to this class.
+   */
+  static final String RESOURCE = "GlobalHolidayCalendars.bin";
+  /**
+   * The version of the binary format.
+   */
+  private static final int VERSION = 1;
+  /**
+   * The singleton instance of the lookup.
+   */
+  public static final HolidayCalendarBinaryLookup INSTANCE = new HolidayCalendarBinaryLookup();
+
+  /**
+   * The binary data, null if the calendars are generated.
+   */
+  private final byte[] data;
+  /**
+   * The offset of each calendar in the data, keyed by name and upper-case name.
+   */
+  private final ImmutableMap<String, Integer> offsets;
+  /**
+   * The decoded calendars, keyed by offset.
+   */
+  private final Map<Integer, HolidayCalendar> decoded = new ConcurrentHashMap<>();
+  /**
+   * The generated calendars, used if the binary data is not available.
+   */
+  private final ImmutableMap<String, HolidayCalendar> generated;
+
+  /**
+   * Restricted constructor.
+   */
+  private HolidayCalendarBinaryLookup() {
+    byte[] bytes = null;
+    ImmutableMap<String, Integer> index = null;
+    try (InputStream in = HolidayCalendarBinaryLookup.class.getResourceAsStream(RESOURCE)) {
+      if (in == null) {
+        log.log(Level.WARNING, "Precompiled holiday calendars not found, generating from rules: " + RESOURCE);
+      } else {
+        bytes = ByteStreams.toByteArray(in);
+        index = readIndex(bytes);
+      }
+    } catch (IOException | RuntimeException ex) {
+      log.log(Level.SEVERE, "Error reading precompiled holiday calendars, generating from rules: " + RESOURCE, ex);
+      bytes = null;
+    }
+    if (bytes == null) {
+      this.data = null;
+      this.offsets = ImmutableMap.of();
+      this.generated = generate();
+    } else {
+      this.data = bytes;
+      this.offsets = index;
+      this.generated = null;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public HolidayCalendar lookup(String name) {
+    if (generated != null) {
+      return generated.get(name);
+    }
+    Integer offset = offsets.get(name);
+    if (offset == null) {
+      return null;
+    }
+    return decoded.computeIfAbsent(offset, this::decode);
+  }
+
+  @Override
+  public Map<String, HolidayCalendar> lookupAll() {
+    if (generated != null) {
+      return generated;
+    }
+    ImmutableMap.Builder<String, HolidayCalendar> builder = ImmutableMap.builder();
+    for (String name : offsets.keySet()) {
+      builder.put(name, lookup(name));
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes the calendars in the binary format.
+   * <p>
+   * The format has a header, listing the name and offset of each calendar, followed by the calendars.
+   * The offsets are relative to the end of the header.
+   * Each calendar consists of the name, the weekend days as a bitmask, the first year and the number of years,
+   * then one int for each month where bit {@code n} is set if day {@code n + 1} is a holiday.
+   *
+   * @param calendars  the calendars to write
+   * @param out  the output stream
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  static void write(List<ImmutableHolidayCalendar> calendars, OutputStream out) {
+    try {
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      DataOutputStream bodyOut = new DataOutputStream(body);
+      int[] bodyOffsets = new int[calendars.size()];
+      for (int i = 0; i < calendars.size(); i++) {
+        bodyOffsets[i] = bodyOut.size();
+        writeCalendar(calendars.get(i), bodyOut);
+      }
+      DataOutputStream dataOut = new DataOutputStream(out);
+      dataOut.writeInt(VERSION);
+      dataOut.writeInt(calendars.size());
+      for (int i = 0; i < calendars.size(); i++) {
+        dataOut.writeUTF(calendars.get(i).getName());
+        dataOut.writeInt(bodyOffsets[i]);
+      }
+      body.writeTo(dataOut);
+      dataOut.flush();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // writes a single calendar
+  private static void writeCalendar(ImmutableHolidayCalendar calendar, DataOutputStream out) throws IOException {
+    out.writeUTF(calendar.getName());
+    int weekendMask = 0;
+    for (DayOfWeek dow : calendar.getWeekendDays()) {
+      weekendMask |= 1 << (dow.getValue() - 1);
+    }
+    out.writeByte(weekendMask);
+    if (calendar.getHolidays().isEmpty()) {
+      out.writeShort(0);
+      out.writeShort(0);
+      return;
+    }
+    int startYear = calendar.getHolidays().first().getYear();
+    int endYear = calendar.getHolidays().last().getYear();
+    int[] months = new int[(endYear - startYear + 1) * 12];
+    for (LocalDate holiday : calendar.getHolidays()) {
+      months[(holiday.getYear() - startYear) * 12 + holiday.getMonthValue() - 1] |= 1 << (holiday.getDayOfMonth() - 1);
+    }
+    out.writeShort(startYear);
+    out.writeShort(endYear - startYear + 1);
+    for (int bits : months) {
+      out.writeInt(bits);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // reads the header, returning the offset of each calendar
+  private static ImmutableMap<String, Integer> readIndex(byte[] bytes) throws IOException {
+    ByteArrayInputStream stream = new ByteArrayInputStream(bytes);
+    DataInputStream in = new DataInputStream(stream);
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported version of precompiled holiday calendars: " + version);
+    }
+    int count = in.readInt();
+    String[] names = new String[count];
+    int[] offsets = new int[count];
+    for (int i = 0; i < count; i++) {
+      names[i] = in.readUTF();
+      offsets[i] = in.readInt();
+    }
+    int headerSize = bytes.length - stream.available();
+    ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < count; i++) {
+      String name = names[i];
+      Integer offset = headerSize + offsets[i];
+      builder.put(name, offset);
+      String upperName = name.toUpperCase(Locale.ENGLISH);
+      if (!upperName.equals(name)) {
+        builder.put(upperName, offset);
+      }
+    }
+    return builder.build();
+  }
+
+  // decodes the calendar at the offset
+  private HolidayCalendar decode(int offset) {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, data.length - offset));
+      String name = in.readUTF();
+      int weekendMask = in.readUnsignedByte();
+      Set<DayOfWeek> weekendDays = EnumSet.noneOf(DayOfWeek.class);
+      for (DayOfWeek dow : DayOfWeek.values()) {
+        if ((weekendMask & (1 << (dow.getValue() - 1))) != 0) {
+          weekendDays.add(dow);
+        }
+      }
+      int startYear = in.readUnsignedShort();
+      int monthCount = in.readUnsignedShort() * 12;
+      List<LocalDate> holidays = new ArrayList<>();
+      for (int i = 0; i < monthCount; i++) {
+        int bits = in.readInt();
+        while (bits != 0) {
+          holidays.add(LocalDate.of(startYear + i / 12, i % 12 + 1, Integer.numberOfTrailingZeros(bits) + 1));
+          bits &= bits - 1;
+        }
+      }
+      return ImmutableHolidayCalendar.of(HolidayCalendarId.of(name), holidays, weekendDays);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // generates the calendars from the rules
+  private static ImmutableMap<String, HolidayCalendar> generate() {
+    ImmutableMap.Builder<String, HolidayCalendar> builder = ImmutableMap.builder();
+    ImmutableList<HolidayCalendar> calendars = GlobalHolidayCalendars.calendars();
+    for (HolidayCalendar calendar : calendars) {
+      builder.put(calendar.getName(), calendar);
+      String upperName = calendar.getName().toUpperCase(Locale.ENGLISH);
+      if (!upperName.equals(calendar.getName())) {
+        builder.put(upperName, calendar);
+      }
+    }
+    return builder.build();
+  }
+
+}
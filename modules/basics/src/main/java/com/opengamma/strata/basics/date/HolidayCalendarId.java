@@ -9,6 +9,7 @@ import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
@@ -26,6 +27,7 @@ import com.opengamma.strata.basics.Resolvable;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.named.Named;
+import com.opengamma.strata.collect.tuple.Pair;
 
 /**
  * An identifier for a holiday calendar.
@@ -93,22 +95,7 @@ public final class HolidayCalendarId
         .sorted(comparing(HolidayCalendarId::getName))
         .collect(toList());
     String normalizedName = Joiner.on('+').join(ids);
-    BiFunction<HolidayCalendarId, ReferenceData, HolidayCalendar> resolver = (id, refData) -> {
-      HolidayCalendar cal = refData.queryValueOrNull(id);
-      if (cal != null) {
-        return cal;
-      }
-      cal = HolidayCalendars.NO_HOLIDAYS;
-      for (HolidayCalendarId splitId : ids) {
-        HolidayCalendar splitCal = refData.queryValueOrNull(splitId);
-        if (splitCal == null) {
-          throw new ReferenceDataNotFoundException(Messages.format(
-              "Reference data not found for '{}' of type 'HolidayCalendarId' when finding '{}'", splitId, id));
-        }
-        cal = cal.combinedWith(splitCal);
-      }
-      return cal;
-    };
+    BiFunction<HolidayCalendarId, ReferenceData, HolidayCalendar> resolver = new CombinedResolver(ids);
     // cache under the normalized and non-normalized names
     HolidayCalendarId id = CACHE.computeIfAbsent(normalizedName, n -> new HolidayCalendarId(normalizedName, resolver));
     CACHE.putIfAbsent(name, id);
@@ -211,6 +198,83 @@ public final class HolidayCalendarId
     return HolidayCalendarId.of(name + '+' + other.name);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The resolver for an identifier combining two or more calendars.
+   * <p>
+   * When all the underlying calendars are {@link ImmutableHolidayCalendar}, they are flattened into
+   * a single {@code ImmutableHolidayCalendar}, which checks each date with one lookup and
+   * shifts dates a month at a time. The flattened calendar is relatively slow to create,
+   * thus it is cached, and reused as long as the reference data returns the same underlying calendars.
+   */
+  private static final class CombinedResolver implements BiFunction<HolidayCalendarId, ReferenceData, HolidayCalendar> {
+    /**
+     * The identifiers of the underlying calendars.
+     */
+    private final List<HolidayCalendarId> ids;
+    /**
+     * The cached flattened calendar, keyed by the underlying calendars, null if none.
+     */
+    private volatile Pair<HolidayCalendar[], HolidayCalendar> cached;
+
+    private CombinedResolver(List<HolidayCalendarId> ids) {
+      this.ids = ids;
+    }
+
+    @Override
+    public HolidayCalendar apply(HolidayCalendarId id, ReferenceData refData) {
+      HolidayCalendar cal = refData.queryValueOrNull(id);
+      if (cal != null) {
+        return cal;
+      }
+      HolidayCalendar[] splitCals = new HolidayCalendar[ids.size()];
+      boolean flattenable = true;
+      for (int i = 0; i < splitCals.length; i++) {
+        HolidayCalendarId splitId = ids.get(i);
+        HolidayCalendar splitCal = refData.queryValueOrNull(splitId);
+        if (splitCal == null) {
+          throw new ReferenceDataNotFoundException(Messages.format(
+              "Reference data not found for '{}' of type 'HolidayCalendarId' when finding '{}'", splitId, id));
+        }
+        splitCals[i] = splitCal;
+        flattenable &= splitCal instanceof ImmutableHolidayCalendar;
+      }
+      if (!flattenable) {
+        cal = HolidayCalendars.NO_HOLIDAYS;
+        for (HolidayCalendar splitCal : splitCals) {
+          cal = cal.combinedWith(splitCal);
+        }
+        return cal;
+      }
+      return flattened(id, splitCals);
+    }
+
+    // obtains the flattened calendar, using the cache if the underlying calendars are the same instances
+    private HolidayCalendar flattened(HolidayCalendarId id, HolidayCalendar[] splitCals) {
+      Pair<HolidayCalendar[], HolidayCalendar> cached = this.cached;
+      if (cached != null && isSameInstances(cached.getFirst(), splitCals)) {
+        return cached.getSecond();
+      }
+      List<ImmutableHolidayCalendar> immutableCals = new ArrayList<>(splitCals.length);
+      for (HolidayCalendar splitCal : splitCals) {
+        immutableCals.add((ImmutableHolidayCalendar) splitCal);
+      }
+      HolidayCalendar combined = ImmutableHolidayCalendar.combined(id, immutableCals);
+      this.cached = Pair.of(splitCals, combined);
+      return combined;
+    }
+
+    // checks the calendars are the same instances
+    private static boolean isSameInstances(HolidayCalendar[] calendars1, HolidayCalendar[] calendars2) {
+      for (int i = 0; i < calendars1.length; i++) {
+        if (calendars1[i] != calendars2[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Checks if this identifier equals another identifier.
@@ -8,6 +8,8 @@ package com.opengamma.strata.basics.date;
 import java.io.Serializable;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -152,6 +154,17 @@ public final class ImmutableHolidayCalendar
     return new ImmutableHolidayCalendar(cal1.id.combinedWith(cal2.id), newHolidays, newWeekends);
   }
 
+  // combines many calendars in one step, used when resolving a combined identifier
+  static ImmutableHolidayCalendar combined(HolidayCalendarId id, List<ImmutableHolidayCalendar> calendars) {
+    ImmutableSortedSet.Builder<LocalDate> newHolidays = ImmutableSortedSet.naturalOrder();
+    Set<DayOfWeek> newWeekends = EnumSet.noneOf(DayOfWeek.class);
+    for (ImmutableHolidayCalendar calendar : calendars) {
+      newHolidays.addAll(calendar.holidays);
+      newWeekends.addAll(calendar.weekendDays);
+    }
+    return new ImmutableHolidayCalendar(id, newHolidays.build(), newWeekends);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Creates an instance calculating the supported range.
@@ -282,25 +295,31 @@ public final class ImmutableHolidayCalendar
 
   // shift to a later working day, following nextOrSame semantics
   // input day-of-month is zero-based
+  // whole months are skipped by counting their business days
   private LocalDate shiftNext(int baseYear, int baseMonth, int baseDom0, int amount) {
     // find data for month
     int index = (baseYear - startYear) * 12 + baseMonth - 1;
-    int monthData = lookup[index];
-    // loop around amount, the number of days to shift by
-    // use domOffset to keep track of day-of-month
+    // shift to move the target day-of-month into bit-0, removing earlier days
+    int monthData = lookup[index] >> baseDom0;
     int domOffset = baseDom0;
-    for (int amt = amount; amt > 0; amt--) {
-      // shift to move the target day-of-month into bit-0, removing earlier days
-      int shifted = monthData >> domOffset;
-      // recurse to next month if no more business days in the month
-      if (shifted == 0) {
-        return baseMonth == 12 ? shiftNext(baseYear + 1, 1, 0, amt) : shiftNext(baseYear, baseMonth + 1, 0, amt);
-      }
-      // find least significant bit, which is next business day
-      // use JDK numberOfTrailingZeros() method which is mapped to a fast intrinsic
-      domOffset += (Integer.numberOfTrailingZeros(shifted) + 1);
-    }
-    return LocalDate.of(baseYear, baseMonth, domOffset);
+    // move to next month while the month has fewer business days than the amount
+    // use JDK bitCount() method which is mapped to a fast intrinsic
+    int amt = amount;
+    int count = Integer.bitCount(monthData);
+    while (count < amt) {
+      amt -= count;
+      index++;
+      monthData = lookup[index];
+      domOffset = 0;
+      count = Integer.bitCount(monthData);
+    }
+    // unset the earlier business days, leaving the target as the least significant bit
+    for (; amt > 1; amt--) {
+      monthData &= monthData - 1;
+    }
+    // use JDK numberOfTrailingZeros() method which is mapped to a fast intrinsic
+    int dom = domOffset + Integer.numberOfTrailingZeros(monthData) + 1;
+    return LocalDate.of(startYear + index / 12, index % 12 + 1, dom);
   }
 
   //-------------------------------------------------------------------------
@@ -316,26 +335,30 @@ public final class ImmutableHolidayCalendar
   }
 
   // shift to an earlier working day, following previousOrSame semantics
-  // input day-of-month is one-based and may be zero or negative
+  // input day-of-month is one-based and may be zero
+  // whole months are skipped by counting their business days
   private LocalDate shiftPrev(int baseYear, int baseMonth, int baseDom, int amount) {
     // find data for month
     int index = (baseYear - startYear) * 12 + baseMonth - 1;
-    int monthData = lookup[index];
-    // loop around amount, the number of days to shift by
-    // use domOffset to keep track of day-of-month
-    int domOffset = baseDom;
-    for (int amt = amount; amt < 0; amt++) {
-      // shift to move the target day-of-month into bit-31, removing later days
-      int shifted = (monthData << (32 - domOffset));
-      // recurse to previous month if no more business days in the month
-      if (shifted == 0 || domOffset <= 0) {
-        return baseMonth == 1 ? shiftPrev(baseYear - 1, 12, 31, amt) : shiftPrev(baseYear, baseMonth - 1, 31, amt);
-      }
-      // find most significant bit, which is previous business day
-      // use JDK numberOfLeadingZeros() method which is mapped to a fast intrinsic
-      domOffset -= (Integer.numberOfLeadingZeros(shifted) + 1);
-    }
-    return LocalDate.of(baseYear, baseMonth, domOffset + 1);
+    // mask to remove the target day-of-month and later days
+    int monthData = lookup[index] & ((1 << baseDom) - 1);
+    // move to previous month while the month has fewer business days than the amount
+    // use JDK bitCount() method which is mapped to a fast intrinsic
+    int amt = -amount;
+    int count = Integer.bitCount(monthData);
+    while (count < amt) {
+      amt -= count;
+      index--;
+      monthData = lookup[index];
+      count = Integer.bitCount(monthData);
+    }
+    // unset the later business days, leaving the target as the most significant bit
+    for (; amt > 1; amt--) {
+      monthData &= ~Integer.highestOneBit(monthData);
+    }
+    // use JDK numberOfLeadingZeros() method which is mapped to a fast intrinsic
+    int dom = 32 - Integer.numberOfLeadingZeros(monthData);
+    return LocalDate.of(startYear + index / 12, index % 12 + 1, dom);
   }
 
   // pulled out to aid hotspot inlining
@@ -433,6 +456,38 @@ public final class ImmutableHolidayCalendar
     throw new IllegalArgumentException("Date is outside the accepted range (year 0000 to 10,000): " + date);
   }
 
+  //-------------------------------------------------------------------------
+  @Override
+  public int daysBetween(LocalDate startInclusive, LocalDate endExclusive) {
+    if (!endExclusive.isAfter(startInclusive)) {
+      return HolidayCalendar.super.daysBetween(startInclusive, endExclusive);
+    }
+    try {
+      return daysBetweenInRange(startInclusive, endExclusive);
+
+    } catch (ArrayIndexOutOfBoundsException ex) {
+      return HolidayCalendar.super.daysBetween(startInclusive, endExclusive);
+    }
+  }
+
+  // count the business days of each month using JDK bitCount() method which is mapped to a fast intrinsic
+  private int daysBetweenInRange(LocalDate startInclusive, LocalDate endExclusive) {
+    int startIndex = (startInclusive.getYear() - startYear) * 12 + startInclusive.getMonthValue() - 1;
+    int endIndex = (endExclusive.getYear() - startYear) * 12 + endExclusive.getMonthValue() - 1;
+    int startDom0 = startInclusive.getDayOfMonth() - 1;
+    // the minus one part converts a single set bit into each lower bit being set
+    int endMask = (1 << (endExclusive.getDayOfMonth() - 1)) - 1;
+    if (startIndex == endIndex) {
+      return Integer.bitCount((lookup[startIndex] >> startDom0) & (endMask >> startDom0));
+    }
+    int count = Integer.bitCount(lookup[startIndex] >> startDom0);
+    for (int i = startIndex + 1; i < endIndex; i++) {
+      count += Integer.bitCount(lookup[i]);
+    }
+    // avoid reading the month after the range when the end is the first of the month
+    return endMask == 0 ? count : count + Integer.bitCount(lookup[endIndex] & endMask);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public boolean equals(Object obj) {
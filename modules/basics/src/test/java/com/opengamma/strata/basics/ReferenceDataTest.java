@@ -19,7 +19,9 @@ import java.util.Optional;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.date.HolidayCalendarId;
 import com.opengamma.strata.basics.date.HolidayCalendarIds;
+import com.opengamma.strata.basics.date.HolidayCalendars;
 
 /**
  * Test {@link ReferenceData} and {@link ImmutableReferenceData}.
@@ -70,6 +72,13 @@ public class ReferenceDataTest {
     assertEquals(test.containsValue(HolidayCalendarIds.FRI_SAT), true);
     assertEquals(test.containsValue(HolidayCalendarIds.THU_FRI), true);
     assertEquals(test.containsValue(HolidayCalendarIds.GBLO), true);
+    assertEquals(test.getValue(HolidayCalendarIds.GBLO), HolidayCalendars.of("GBLO"));
+    assertEquals(test.getValue(HolidayCalendarIds.GBLO), test.getValue(HolidayCalendarIds.GBLO));
+    assertEquals(test.containsValue(HolidayCalendarId.of("Weekends")), false);
+    assertEquals(test.containsValue(HolidayCalendarId.of("Unknown")), false);
+    assertEquals(test.containsValue(HolidayCalendarId.of("GBLO+USNY")), true);
+    assertEquals(test.containsValue(ID1), false);
+    assertEquals(test.toString(), "StandardReferenceData");
   }
 
   public void test_minimal() {
@@ -258,4 +267,8 @@ public class ReferenceDataTest {
     assertSerialization(test);
   }
 
+  public void test_serialization_standard() {
+    assertSerialization(ReferenceData.standard());
+  }
+
 }
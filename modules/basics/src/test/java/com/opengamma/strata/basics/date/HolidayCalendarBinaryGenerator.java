@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics.date;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Generates the precompiled holiday calendars read by {@link HolidayCalendarBinaryLookup}.
+ * <p>
+ * This must be run, from the basics module directory, whenever {@link GlobalHolidayCalendars} changes.
+ */
+public final class HolidayCalendarBinaryGenerator {
+
+  /**
+   * Generates the resource.
+   * 
+   * @param args  the optional output file
+   * @throws IOException if an IO error occurs
+   */
+  public static void main(String[] args) throws IOException {
+    File file = new File(args.length > 0 ?
+        args[0] :
+        "src/main/resources/com/opengamma/strata/basics/date/" + HolidayCalendarBinaryLookup.RESOURCE);
+    try (OutputStream out = new FileOutputStream(file)) {
+      HolidayCalendarBinaryLookup.write(
+          GlobalHolidayCalendars.calendars().stream()
+              .map(ImmutableHolidayCalendar.class::cast)
+              .collect(toImmutableList()),
+          out);
+    }
+    System.out.println("Written " + file.getAbsolutePath() + ", " + file.length() + " bytes");
+  }
+
+}
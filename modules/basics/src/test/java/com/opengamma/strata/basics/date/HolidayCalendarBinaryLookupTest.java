@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics.date;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Test {@link HolidayCalendarBinaryLookup}.
+ */
+@Test
+public class HolidayCalendarBinaryLookupTest {
+
+  private static final ImmutableList<ImmutableHolidayCalendar> CALENDARS = GlobalHolidayCalendars.calendars().stream()
+      .map(ImmutableHolidayCalendar.class::cast)
+      .collect(toImmutableList());
+
+  //-------------------------------------------------------------------------
+  public void test_resource_upToDate() throws Exception {
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    HolidayCalendarBinaryLookup.write(CALENDARS, expected);
+    try (InputStream in = HolidayCalendarBinaryLookup.class.getResourceAsStream(HolidayCalendarBinaryLookup.RESOURCE)) {
+      assertTrue(
+          Arrays.equals(ByteStreams.toByteArray(in), expected.toByteArray()),
+          "Precompiled holiday calendars are out of date, run HolidayCalendarBinaryGenerator");
+    }
+  }
+
+  public void test_lookup() {
+    for (ImmutableHolidayCalendar expected : CALENDARS) {
+      HolidayCalendar test = HolidayCalendarBinaryLookup.INSTANCE.lookup(expected.getName());
+      assertEquals(test, expected);
+      assertSame(HolidayCalendarBinaryLookup.INSTANCE.lookup(expected.getName()), test);
+      assertSame(HolidayCalendars.of(expected.getName()), test);
+    }
+  }
+
+  public void test_lookup_notFound() {
+    assertNull(HolidayCalendarBinaryLookup.INSTANCE.lookup("Unknown"));
+    assertNull(HolidayCalendarBinaryLookup.INSTANCE.lookup("gblo"));
+  }
+
+  public void test_lookupAll() {
+    Map<String, HolidayCalendar> test = HolidayCalendarBinaryLookup.INSTANCE.lookupAll();
+    assertEquals(test.size(), CALENDARS.size());
+    for (ImmutableHolidayCalendar expected : CALENDARS) {
+      assertEquals(test.get(expected.getName()), expected);
+    }
+  }
+
+}
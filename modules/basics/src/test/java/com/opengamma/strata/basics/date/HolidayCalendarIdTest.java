@@ -9,6 +9,10 @@ import static com.opengamma.strata.basics.date.HolidayCalendarIds.NO_HOLIDAYS;
 import static com.opengamma.strata.collect.TestHelper.assertSerialization;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static java.time.DayOfWeek.FRIDAY;
+import static java.time.DayOfWeek.SATURDAY;
+import static java.time.DayOfWeek.SUNDAY;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertSame;
 
@@ -16,6 +20,7 @@ import java.time.LocalDate;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ImmutableReferenceData;
 import com.opengamma.strata.basics.ReferenceData;
@@ -86,6 +91,32 @@ public class HolidayCalendarIdTest {
     assertEquals(refData.getValue(combined), combinedCal);
   }
 
+  public void test_resolve_combined_flattened() {
+    HolidayCalendarId gb = HolidayCalendarId.of("GB");
+    HolidayCalendar gbCal = ImmutableHolidayCalendar.of(gb, ImmutableList.of(date(2016, 8, 29)), SATURDAY, SUNDAY);
+    HolidayCalendarId us = HolidayCalendarId.of("US");
+    HolidayCalendar usCal = ImmutableHolidayCalendar.of(us, ImmutableList.of(date(2016, 9, 5)), SATURDAY, SUNDAY);
+    HolidayCalendarId eu = HolidayCalendarId.of("EU");
+    HolidayCalendar euCal = ImmutableHolidayCalendar.of(eu, ImmutableList.of(date(2016, 8, 15)), FRIDAY, SATURDAY);
+    HolidayCalendarId combined = gb.combinedWith(us).combinedWith(eu);
+    ReferenceData refData = ImmutableReferenceData.of(ImmutableMap.of(gb, gbCal, us, usCal, eu, euCal));
+    HolidayCalendar test = combined.resolve(refData);
+    assertEquals(test instanceof ImmutableHolidayCalendar, true);
+    assertEquals(test.getId(), combined);
+    assertSame(combined.resolve(refData), test);
+    HolidayCalendar expected = gbCal.combinedWith(usCal).combinedWith(euCal);
+    LocalDateUtils.stream(date(2016, 1, 1), date(2017, 1, 1)).forEach(date -> {
+      assertEquals(test.isHoliday(date), expected.isHoliday(date));
+      assertEquals(test.shift(date, 3), expected.shift(date, 3));
+    });
+    // different underlying calendar
+    HolidayCalendar usCal2 = ImmutableHolidayCalendar.of(us, ImmutableList.of(date(2016, 9, 6)), SATURDAY, SUNDAY);
+    ReferenceData refData2 = ImmutableReferenceData.of(ImmutableMap.of(gb, gbCal, us, usCal2, eu, euCal));
+    HolidayCalendar test2 = combined.resolve(refData2);
+    assertEquals(test2.isHoliday(date(2016, 9, 5)), false);
+    assertEquals(test2.isHoliday(date(2016, 9, 6)), true);
+  }
+
   @Test
   public void testImmutableReferenceDataWithMergedHolidays() {
     HolidayCalendar hc = HolidayCalendars.FRI_SAT.combinedWith(HolidayCalendars.SAT_SUN);
@@ -0,0 +1,30 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics.date;
+
+import com.opengamma.strata.basics.ReferenceData;
+
+/**
+ * Vague performance test.
+ * <p>
+ * This must be run in a new JVM, as it measures the time taken by the first use of the holiday calendars.
+ */
+public class HolidayCalendarStartupPerformance {
+
+  public static void main(String[] args) throws Exception {
+    long start = System.nanoTime();
+    HolidayCalendar calendar = ReferenceData.standard().getValue(HolidayCalendarIds.GBLO);
+    long lookupOne = System.nanoTime();
+    HolidayCalendarBinaryLookup.INSTANCE.lookupAll();
+    long lookupAll = System.nanoTime();
+    GlobalHolidayCalendars.calendars();
+    long generateAll = System.nanoTime();
+    System.out.println("First lookup of " + calendar + ": " + ((lookupOne - start) / 1_000_000d) + "ms");
+    System.out.println("Decode all precompiled calendars: " + ((lookupAll - lookupOne) / 1_000_000d) + "ms");
+    System.out.println("Generate all calendars from rules: " + ((generateAll - lookupAll) / 1_000_000d) + "ms");
+  }
+
+}
@@ -833,6 +833,44 @@ public class ImmutableHolidayCalendarTest {
     }
   }
 
+  public void test_broadCheck_shift_daysBetween() {
+    LocalDate start = LocalDate.of(2010, 1, 1);
+    LocalDate end = LocalDate.of(2014, 1, 1);
+    Random random = new Random(547698);
+    // create sample holiday dates
+    LocalDate date = start;
+    SortedSet<LocalDate> set = new TreeSet<>();
+    while (date.isBefore(end)) {
+      set.add(date);
+      date = date.plusDays(random.nextInt(10) + 1);
+    }
+    ImmutableHolidayCalendar test = ImmutableHolidayCalendar.of(
+        HolidayCalendarId.of("TestBroadShift"), set, SATURDAY, SUNDAY);
+    // check against the one day at a time algorithms
+    HolidayCalendar simple = new CombinedHolidayCalendar(test, HolidayCalendars.NO_HOLIDAYS);
+    LocalDate checkDate = start.plusDays(40);
+    while (checkDate.isBefore(end.minusDays(40))) {
+      for (int amount : new int[] {-70, -23, -1, 0, 1, 5, 23, 70}) {
+        assertEquals(test.shift(checkDate, amount), simple.shift(checkDate, amount));
+      }
+      assertEquals(test.next(checkDate), simple.next(checkDate));
+      assertEquals(test.previous(checkDate), simple.previous(checkDate));
+      for (int days : new int[] {0, 1, 3, 17, 31, 95}) {
+        LocalDate endDate = checkDate.plusDays(days);
+        assertEquals(test.daysBetween(checkDate, endDate), simple.daysBetween(checkDate, endDate));
+      }
+      checkDate = checkDate.plusDays(3);
+    }
+  }
+
+  public void test_daysBetween_range() {
+    assertEquals(HOLCAL_MON_WED.daysBetween(date(2014, 7, 1), date(2015, 1, 1)), 130);
+    assertEquals(HOLCAL_MON_WED.daysBetween(date(2013, 12, 30), date(2014, 1, 2)), 3);
+    assertEquals(HOLCAL_MON_WED.daysBetween(date(2015, 1, 1), date(2015, 1, 8)), 5);
+    assertEquals(HOLCAL_SAT_SUN.daysBetween(MON_2014_07_14, MON_2014_07_21), 5);
+    assertThrowsIllegalArg(() -> HOLCAL_MON_WED.daysBetween(LocalDate.MIN, date(2014, 1, 1)));
+  }
+
   //-------------------------------------------------------------------------
   public void test_equals() {
     ImmutableHolidayCalendar a1 = ImmutableHolidayCalendar.of(TEST_ID, Arrays.asList(WED_2014_07_16), SATURDAY, SUNDAY);
@@ -12,6 +12,7 @@ import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationListener;
 import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.TaskDeduplicator;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -66,6 +67,22 @@ public interface CalculationRunner extends AutoCloseable {
     return DefaultCalculationRunner.of(executor);
   }
 
+  /**
+   * Creates a calculation runner capable of performing calculations, specifying the executor
+   * and the deduplicator of the tasks.
+   * <p>
+   * Economically identical targets, as determined by the deduplicator, are calculated once.
+   * See {@link TaskDeduplicator} for details.
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param deduplicator  the deduplicator of the tasks of economically identical targets
+   * @return the calculation runner
+   */
+  public static CalculationRunner of(ExecutorService executor, TaskDeduplicator deduplicator) {
+    return DefaultCalculationRunner.of(executor, deduplicator);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
@@ -13,6 +13,7 @@ import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationListener;
 import com.opengamma.strata.calc.runner.CalculationTaskRunner;
 import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.calc.runner.TaskDeduplicator;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
@@ -59,6 +60,20 @@ class DefaultCalculationRunner implements CalculationRunner {
     return new DefaultCalculationRunner(CalculationTaskRunner.of(executor));
   }
 
+  /**
+   * Creates a calculation runner capable of performing calculations, specifying the executor
+   * and the deduplicator of the tasks.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param deduplicator  the deduplicator of the tasks of economically identical targets
+   * @return the calculation runner
+   */
+  static DefaultCalculationRunner of(ExecutorService executor, TaskDeduplicator deduplicator) {
+    return new DefaultCalculationRunner(CalculationTaskRunner.of(executor, deduplicator));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Creates an instance specifying the underlying task runner to use.
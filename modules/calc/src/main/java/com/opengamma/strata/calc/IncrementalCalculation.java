@@ -0,0 +1,412 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.runner.CalculationListener;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.calc.runner.CalculationTask;
+import com.opengamma.strata.calc.runner.CalculationTaskCell;
+import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+
+/**
+ * A calculation that is updated incrementally when market data changes.
+ * <p>
+ * Calling {@link CalculationRunner#calculate} for every change to the market data builds all the
+ * market data and calculates all the targets, even if a single quote has changed.
+ * This class keeps the market data and the results of the previous calculation, together with
+ * the market data required by each calculation task.
+ * <p>
+ * When {@link #update(MarketData, Set)} is called with the identifiers of the market data that has changed,
+ * the market data factory determines which market data is affected, using the dependencies between the
+ * market data. For example, a change to a quote affects the curve group calibrated from the quote, and the
+ * curves of the group. Only the affected market data is built, the rest is reused from the previous calculation.
+ * Only the targets that require affected market data are calculated, and only their results are passed
+ * to the listener. The results of the other targets are reused.
+ * <p>
+ * Each update must identify all the market data values that have changed since the previous calculation.
+ * If the valuation date changes, all the market data is built and all the targets are calculated.
+ * <p>
+ * This class is mutable, with the calculations being performed one at a time.
+ */
+public final class IncrementalCalculation {
+
+  /**
+   * The runner used to perform the calculations.
+   */
+  private final CalculationRunner runner;
+  /**
+   * The tasks that perform the calculations.
+   */
+  private final CalculationTasks tasks;
+  /**
+   * The market data required by each task, in the order of the tasks.
+   */
+  private final ImmutableList<MarketDataRequirements> taskRequirements;
+  /**
+   * The market data required by all the tasks.
+   */
+  private final MarketDataRequirements requirements;
+  /**
+   * The factory used to build the market data.
+   */
+  private final MarketDataFactory marketDataFactory;
+  /**
+   * The configuration used to build the market data.
+   */
+  private final MarketDataConfig marketDataConfig;
+  /**
+   * The reference data.
+   */
+  private final ReferenceData refData;
+  /**
+   * The market data used by the previous calculation, null if not calculated.
+   */
+  private MarketData marketData;
+  /**
+   * The results of the previous calculation, null if not calculated.
+   */
+  private Results results;
+  /**
+   * The number of tasks performed by the previous calculation.
+   */
+  private int calculatedTaskCount;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance for a set of targets, columns and rules.
+   * <p>
+   * The market data required by each calculation task is determined once.
+   * No calculation is performed until {@link #calculate(MarketData)} is called.
+   *
+   * @param runner  the runner used to perform the calculations
+   * @param calculationRules  the rules defining how the calculation is performed
+   * @param targets  the targets to calculate, typically trades
+   * @param columns  the configuration for the columns that will be calculated, including the measure and
+   *   any column-specific overrides
+   * @param marketDataFactory  the factory used to build the market data
+   * @param marketDataConfig  the configuration used to build the market data, for example curves or surfaces
+   * @param refData  the reference data to use in the calculation
+   * @return the incremental calculation
+   */
+  public static IncrementalCalculation of(
+      CalculationRunner runner,
+      CalculationRules calculationRules,
+      List<? extends CalculationTarget> targets,
+      List<Column> columns,
+      MarketDataFactory marketDataFactory,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData) {
+
+    CalculationTasks tasks = CalculationTasks.of(calculationRules, targets, columns);
+    return new IncrementalCalculation(runner, tasks, marketDataFactory, marketDataConfig, refData);
+  }
+
+  // restricted constructor
+  private IncrementalCalculation(
+      CalculationRunner runner,
+      CalculationTasks tasks,
+      MarketDataFactory marketDataFactory,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData) {
+
+    this.runner = ArgChecker.notNull(runner, "runner");
+    this.tasks = tasks;
+    this.marketDataFactory = ArgChecker.notNull(marketDataFactory, "marketDataFactory");
+    this.marketDataConfig = ArgChecker.notNull(marketDataConfig, "marketDataConfig");
+    this.refData = ArgChecker.notNull(refData, "refData");
+    // use for loop not streams for shorter stack traces
+    ImmutableList.Builder<MarketDataRequirements> builder = ImmutableList.builder();
+    for (CalculationTask task : tasks.getTasks()) {
+      builder.add(task.requirements(refData));
+    }
+    this.taskRequirements = builder.build();
+    this.requirements = MarketDataRequirements.combine(taskRequirements);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the tasks that perform the calculations.
+   *
+   * @return the tasks
+   */
+  public CalculationTasks getTasks() {
+    return tasks;
+  }
+
+  /**
+   * Gets the market data required by the calculations.
+   *
+   * @return the market data requirements
+   */
+  public MarketDataRequirements getRequirements() {
+    return requirements;
+  }
+
+  /**
+   * Gets the market data used by the previous calculation, including the market data that was built.
+   *
+   * @return the market data, null if not calculated
+   */
+  public synchronized MarketData getMarketData() {
+    return marketData;
+  }
+
+  /**
+   * Gets the results of the previous calculation.
+   *
+   * @return the results, null if not calculated
+   */
+  public synchronized Results getResults() {
+    return results;
+  }
+
+  /**
+   * Gets the number of tasks performed by the previous calculation.
+   * <p>
+   * Following an update, this is the number of tasks of the targets that were affected by the changes.
+   *
+   * @return the number of tasks performed
+   */
+  public synchronized int getCalculatedTaskCount() {
+    return calculatedTaskCount;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builds all the market data and calculates all the targets.
+   *
+   * @param suppliedData  the market data supplied by the user, such as quotes
+   * @return the results
+   */
+  public Results calculate(MarketData suppliedData) {
+    return calculate(suppliedData, null);
+  }
+
+  /**
+   * Builds all the market data and calculates all the targets, passing the results to the listener.
+   *
+   * @param suppliedData  the market data supplied by the user, such as quotes
+   * @param listener  the listener receiving the result of each cell, null if not required
+   * @return the results
+   */
+  public synchronized Results calculate(MarketData suppliedData, CalculationListener listener) {
+    ArgChecker.notNull(suppliedData, "suppliedData");
+    MarketData builtData = marketDataFactory.create(requirements, marketDataConfig, suppliedData, refData);
+    boolean[] affectedRows = new boolean[tasks.getTargets().size()];
+    Arrays.fill(affectedRows, true);
+    return calculate(builtData, affectedRows, listener);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Updates the results following changes to the market data.
+   * <p>
+   * Only the market data affected by the changes is built and only the targets requiring
+   * affected market data are calculated. If no calculation has been performed, or if the
+   * valuation date has changed, all the market data is built and all the targets are calculated.
+   *
+   * @param suppliedData  the market data supplied by the user, such as quotes, including the changes
+   * @param changedIds  the identifiers of the market data values that have changed
+   * @return the updated results
+   */
+  public Results update(MarketData suppliedData, Set<? extends MarketDataId<?>> changedIds) {
+    return update(suppliedData, changedIds, null);
+  }
+
+  /**
+   * Updates the results following changes to the market data, passing the updated cells to the listener.
+   * <p>
+   * Only the market data affected by the changes is built and only the targets requiring
+   * affected market data are calculated. If no calculation has been performed, or if the
+   * valuation date has changed, all the market data is built and all the targets are calculated.
+   * <p>
+   * The listener only receives the results of the targets that are calculated.
+   * The row and column indices of the results are those of the full set of results.
+   *
+   * @param suppliedData  the market data supplied by the user, such as quotes, including the changes
+   * @param changedIds  the identifiers of the market data values that have changed
+   * @param listener  the listener receiving the result of each updated cell, null if not required
+   * @return the updated results
+   */
+  public synchronized Results update(
+      MarketData suppliedData,
+      Set<? extends MarketDataId<?>> changedIds,
+      CalculationListener listener) {
+
+    ArgChecker.notNull(suppliedData, "suppliedData");
+    ArgChecker.notNull(changedIds, "changedIds");
+    if (marketData == null || !marketData.getValuationDate().equals(suppliedData.getValuationDate())) {
+      return calculate(suppliedData, listener);
+    }
+    Set<MarketDataId<?>> affectedIds =
+        marketDataFactory.affectedIds(requirements, marketDataConfig, suppliedData, changedIds);
+
+    // the previous market data that is not affected is supplied to the factory, so it is not built again
+    MarketData builtData = marketDataFactory.update(
+        requirements, marketDataConfig, suppliedData, marketData, affectedIds, refData);
+
+    // a target is calculated if any of its tasks requires affected market data
+    boolean[] affectedRows = new boolean[tasks.getTargets().size()];
+    for (int i = 0; i < taskRequirements.size(); i++) {
+      if (isAffected(taskRequirements.get(i), affectedIds)) {
+        affectedRows[tasks.getTasks().get(i).getRowIndex()] = true;
+      }
+    }
+    return calculate(builtData, affectedRows, listener);
+  }
+
+  // checks if the requirements contain an affected value
+  private static boolean isAffected(MarketDataRequirements requirements, Set<MarketDataId<?>> affectedIds) {
+    for (MarketDataId<?> id : requirements.getObservables()) {
+      if (affectedIds.contains(id)) {
+        return true;
+      }
+    }
+    for (MarketDataId<?> id : requirements.getNonObservables()) {
+      if (affectedIds.contains(id)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  //-------------------------------------------------------------------------
+  // calculates the affected rows, merging the results into the previous results
+  private Results calculate(MarketData builtData, boolean[] affectedRows, CalculationListener listener) {
+    // the tasks of the affected rows are renumbered, as the tasks of a calculation must cover all rows
+    int[] rows = new int[affectedRows.length];
+    int[] renumberedRows = new int[affectedRows.length];
+    int rowCount = 0;
+    for (int row = 0; row < affectedRows.length; row++) {
+      if (affectedRows[row]) {
+        rows[rowCount] = row;
+        renumberedRows[row] = rowCount++;
+      }
+    }
+    List<CalculationTask> affectedTasks = tasks.getTasks().stream()
+        .filter(task -> affectedRows[task.getRowIndex()])
+        .map(task -> renumber(task, renumberedRows[task.getRowIndex()]))
+        .collect(toImmutableList());
+
+    UpdatingListener updatingListener = new UpdatingListener(Arrays.copyOf(rows, rowCount), listener);
+    if (affectedTasks.isEmpty()) {
+      updatingListener.calculationsStarted(ImmutableList.of(), tasks.getColumns());
+      updatingListener.calculationsComplete();
+    } else {
+      CalculationTasks calculationTasks = CalculationTasks.of(affectedTasks, tasks.getColumns());
+      runner.getTaskRunner().calculateAsync(calculationTasks, builtData, refData, updatingListener);
+    }
+    results = updatingListener.result();
+    marketData = builtData;
+    calculatedTaskCount = affectedTasks.size();
+    return results;
+  }
+
+  // creates a copy of the task with the cells in the specified row
+  private static CalculationTask renumber(CalculationTask task, int row) {
+    if (task.getRowIndex() == row) {
+      return task;
+    }
+    List<CalculationTaskCell> cells = task.getCells().stream()
+        .map(cell -> CalculationTaskCell.of(
+            row, cell.getColumnIndex(), cell.getMeasure(), cell.getReportingCurrency()))
+        .collect(toImmutableList());
+    return CalculationTask.of(task.getTarget(), task.getFunction(), task.getParameters(), cells);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "IncrementalCalculation[" + tasks.getTargets().size() + " targets, " +
+        tasks.getColumns().size() + " columns]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Listener that merges the results of the calculated rows into the previous results.
+   * <p>
+   * The row indices of the results are mapped back to those of the full set of results
+   * before the results are passed to the delegate listener.
+   */
+  private final class UpdatingListener implements CalculationListener {
+
+    /** The row of the full results of each calculated row. */
+    private final int[] rows;
+    /** The listener receiving the results, null if none. */
+    private final CalculationListener delegate;
+    /** The cells of the results, initially those of the previous results. */
+    private final Result<?>[] cells;
+    /** A future representing the results. */
+    private final CompletableFuture<Results> future = new CompletableFuture<>();
+
+    private UpdatingListener(int[] rows, CalculationListener delegate) {
+      this.rows = rows;
+      this.delegate = delegate;
+      this.cells = results != null ?
+          results.getCells().toArray(new Result<?>[0]) :
+          new Result<?>[tasks.getTargets().size() * tasks.getColumns().size()];
+    }
+
+    @Override
+    public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+      if (delegate != null) {
+        delegate.calculationsStarted(tasks.getTargets(), tasks.getColumns());
+      }
+    }
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      int row = rows[result.getRowIndex()];
+      CalculationResult mapped = CalculationResult.of(row, result.getColumnIndex(), result.getResult());
+      cells[row * tasks.getColumns().size() + result.getColumnIndex()] = mapped.getResult();
+      if (delegate != null) {
+        delegate.resultReceived(target, mapped);
+      }
+    }
+
+    @Override
+    public void calculationsComplete() {
+      try {
+        if (delegate != null) {
+          delegate.calculationsComplete();
+        }
+      } finally {
+        List<ColumnHeader> headers = tasks.getColumns().stream()
+            .map(Column::toHeader)
+            .collect(toImmutableList());
+        future.complete(Results.of(headers, ImmutableList.copyOf(cells)));
+      }
+    }
+
+    // returns the results, blocking until they are available
+    private Results result() {
+      try {
+        return future.get();
+      } catch (InterruptedException | ExecutionException ex) {
+        throw new RuntimeException("Exception getting result", ex);
+      }
+    }
+  }
+
+}
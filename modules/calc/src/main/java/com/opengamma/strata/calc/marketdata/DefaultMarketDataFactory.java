@@ -17,9 +17,11 @@ import java.util.Set;
 
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.MapStream;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.ObservableId;
@@ -201,6 +203,45 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     return builtData;
   }
 
+  //-------------------------------------------------------------------------
+  @Override
+  public Set<MarketDataId<?>> affectedIds(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      Set<? extends MarketDataId<?>> changedIds) {
+
+    // the dependency tree is the same as the one used to build the market data
+    ScenarioMarketData md = ScenarioMarketData.of(1, suppliedData);
+    MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, md, marketDataConfig, functions);
+    return root.affectedIds(changedIds);
+  }
+
+  @Override
+  public BuiltMarketData update(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      MarketData previousData,
+      Set<? extends MarketDataId<?>> affectedIds,
+      ReferenceData refData) {
+
+    ArgChecker.isTrue(
+        previousData.getValuationDate().equals(suppliedData.getValuationDate()),
+        "Valuation date of the previous data {} must match that of the supplied data {}",
+        previousData.getValuationDate(),
+        suppliedData.getValuationDate());
+    // the previous values that are not affected are supplied, so they are not built again
+    Map<MarketDataId<?>, Object> unaffectedValues = new HashMap<>();
+    for (MarketDataId<?> id : previousData.getIds()) {
+      if (!affectedIds.contains(id)) {
+        unaffectedValues.put(id, previousData.getValue(id));
+      }
+    }
+    MarketData unaffectedData = ImmutableMarketData.of(suppliedData.getValuationDate(), unaffectedValues);
+    return create(requirements, marketDataConfig, suppliedData.combinedWith(unaffectedData), refData);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds items of non-observable market data using a market data function.
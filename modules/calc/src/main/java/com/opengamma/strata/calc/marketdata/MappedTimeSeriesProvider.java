@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.MappedLocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * A time-series provider that reads time-series from memory-mapped files in a directory.
+ * <p>
+ * The directory contains one file for each time-series, as written by {@link #write(Path, Map)}.
+ * The file is identified by the standard identifier, field name and source of the observable ID.
+ * <p>
+ * Each file is only mapped when its time-series is first requested, and the resulting
+ * {@link MappedLocalDateDoubleTimeSeries} is then cached. This allows a long history of fixings
+ * to be converted once, for example from the output of the CSV fixing loader, and then
+ * read lazily on each start-up without parsing or copying the data onto the heap.
+ */
+public final class MappedTimeSeriesProvider implements TimeSeriesProvider {
+
+  /** The file extension of the time-series files. */
+  private static final String EXTENSION = ".ts";
+
+  /**
+   * The directory containing the time-series files.
+   */
+  private final Path directory;
+  /**
+   * The time-series that have been mapped, keyed by file name.
+   */
+  private final ConcurrentMap<String, LocalDateDoubleTimeSeries> cache = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a provider that reads the time-series files in the specified directory.
+   *
+   * @param directory  the directory containing the time-series files
+   * @return the provider
+   */
+  public static MappedTimeSeriesProvider of(Path directory) {
+    return new MappedTimeSeriesProvider(directory);
+  }
+
+  /**
+   * Writes time-series to the specified directory, in the format read by this provider.
+   * <p>
+   * The directory is created if necessary. Any existing file for the same ID is replaced.
+   *
+   * @param directory  the directory to write to
+   * @param timeSeries  the time-series to write, keyed by ID
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public static void write(Path directory, Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries) {
+    ArgChecker.notNull(directory, "directory");
+    ArgChecker.notNull(timeSeries, "timeSeries");
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    for (Map.Entry<? extends ObservableId, LocalDateDoubleTimeSeries> entry : timeSeries.entrySet()) {
+      MappedLocalDateDoubleTimeSeries.write(entry.getValue(), directory.resolve(fileName(entry.getKey())));
+    }
+  }
+
+  // creates an instance
+  private MappedTimeSeriesProvider(Path directory) {
+    this.directory = ArgChecker.notNull(directory, "directory");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Result<LocalDateDoubleTimeSeries> provideTimeSeries(ObservableId identifier) {
+    String fileName = fileName(identifier);
+    LocalDateDoubleTimeSeries cached = cache.get(fileName);
+    if (cached != null) {
+      return Result.success(cached);
+    }
+    Path file = directory.resolve(fileName);
+    if (!Files.isRegularFile(file)) {
+      return Result.failure(FailureReason.MISSING_DATA, "No time-series found for '{}'", identifier);
+    }
+    return Result.of(() -> {
+      LocalDateDoubleTimeSeries mapped = MappedLocalDateDoubleTimeSeries.of(file);
+      LocalDateDoubleTimeSeries existing = cache.putIfAbsent(fileName, mapped);
+      return existing != null ? existing : mapped;
+    });
+  }
+
+  // the file name of the time-series, encoded to be safe on any file system
+  private static String fileName(ObservableId id) {
+    String key = id.getStandardId() + "~" + id.getFieldName() + "~" + id.getObservableSource();
+    try {
+      return URLEncoder.encode(key, StandardCharsets.UTF_8.name()) + EXTENSION;
+    } catch (UnsupportedEncodingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "MappedTimeSeriesProvider[" + directory + "]";
+  }
+
+}
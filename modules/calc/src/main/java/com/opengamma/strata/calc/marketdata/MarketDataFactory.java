@@ -5,12 +5,16 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
@@ -154,4 +158,76 @@ public interface MarketDataFactory {
       ReferenceData refData,
       ScenarioDefinition scenarioDefinition);
 
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the market data affected by changes to a set of market data values.
+   * <p>
+   * This uses the dependencies between the market data required for the calculations,
+   * the same dependencies that determine the order in which market data is built.
+   * A value is affected if it has changed, or if it is built from a value that is affected.
+   * For example, if a quote changes, the curve group calibrated using the quote is affected,
+   * as are the curves of the group.
+   * <p>
+   * Market data present in {@code suppliedData} is not built, thus it is only affected if it has changed.
+   * <p>
+   * The default implementation is conservative, returning the changed IDs and all the IDs of the requirements,
+   * thus all the market data is rebuilt. Implementations that know the dependencies between the market data
+   * should override this to only return the market data that is required, directly or indirectly,
+   * by the requirements and that depends on the changes.
+   *
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  market data supplied by the user
+   * @param changedIds  the IDs of the market data values that have changed
+   * @return the IDs of the market data values that have changed or must be rebuilt
+   */
+  public default Set<MarketDataId<?>> affectedIds(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      Set<? extends MarketDataId<?>> changedIds) {
+
+    Set<MarketDataId<?>> affectedIds = new HashSet<>(changedIds);
+    affectedIds.addAll(requirements.getObservables());
+    affectedIds.addAll(requirements.getNonObservables());
+    return affectedIds;
+  }
+
+  /**
+   * Builds the market data required for performing calculations, reusing previously built data that is not affected.
+   * <p>
+   * Implementations may reuse the previously built values whose IDs are not in {@code affectedIds},
+   * thus only building the affected market data. The affected IDs must be obtained from
+   * {@link #affectedIds(MarketDataRequirements, MarketDataConfig, MarketData, Set)}.
+   * <p>
+   * The valuation date of the previous data must match that of the supplied data.
+   * <p>
+   * The default implementation builds all the market data, consistent with the default
+   * implementation of {@code affectedIds}, which does not identify the market data built
+   * from the changes, such as the curves calibrated from quotes.
+   *
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  market data supplied by the user, including the changes
+   * @param previousData  the market data previously built for the same requirements
+   * @param affectedIds  the IDs of the market data values that have changed or must be rebuilt
+   * @param refData  the reference data
+   * @return the market data required by the calculations
+   */
+  public default BuiltMarketData update(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      MarketData previousData,
+      Set<? extends MarketDataId<?>> affectedIds,
+      ReferenceData refData) {
+
+    ArgChecker.isTrue(
+        previousData.getValuationDate().equals(suppliedData.getValuationDate()),
+        "Valuation date of the previous data {} must match that of the supplied data {}",
+        previousData.getValuationDate(),
+        suppliedData.getValuationDate());
+    return create(requirements, marketDataConfig, suppliedData, refData);
+  }
+
 }
@@ -5,10 +5,12 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.ArgChecker;
@@ -162,6 +164,34 @@ final class MarketDataNode {
     return Pair.of(node, requirements);
   }
 
+  /**
+   * Finds the market data in this tree affected by changes to a set of market data values.
+   * <p>
+   * A node is affected if its value has changed or if any of its dependencies is affected.
+   * Time series are not affected by changes to values.
+   *
+   * @param changedIds  the IDs of the market data values that have changed
+   * @return the IDs of the market data in the tree whose value has changed or must be rebuilt
+   */
+  Set<MarketDataId<?>> affectedIds(Set<? extends MarketDataId<?>> changedIds) {
+    Set<MarketDataId<?>> affectedIds = new HashSet<>();
+    collectAffectedIds(changedIds, affectedIds);
+    return affectedIds;
+  }
+
+  // adds the ID of this node and its dependencies if affected, returning true if this node is affected
+  private boolean collectAffectedIds(Set<? extends MarketDataId<?>> changedIds, Set<MarketDataId<?>> affectedIds) {
+    boolean affected = dataType == DataType.SINGLE_VALUE && changedIds.contains(id);
+    for (MarketDataNode child : dependencies) {
+      // all children are visited to collect the affected IDs below each of them
+      affected |= child.collectAffectedIds(changedIds, affectedIds);
+    }
+    if (affected && id != null) {
+      affectedIds.add(id);
+    }
+    return affected;
+  }
+
   /**
    * Returns true if this node has no children.
    *
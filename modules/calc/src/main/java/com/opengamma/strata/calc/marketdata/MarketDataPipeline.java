@@ -0,0 +1,438 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjDoubleConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * A pipeline that builds market data from a stream of real-time ticks, publishing immutable snapshots.
+ * <p>
+ * When started, the pipeline builds the market data required by a set of requirements and subscribes
+ * to the observable market data it depends on. Ticks received from the {@link ObservableDataStream}
+ * are coalesced for the duration of the coalescing window, the latest value of each identifier winning.
+ * At the end of the window, the market data affected by the ticks, such as the curve groups calibrated
+ * from the quotes, is rebuilt on the executor and a {@link MarketDataSnapshot} is published.
+ * Market data that is not affected by the ticks is reused from the previous snapshot.
+ * <p>
+ * Snapshots are held in a bounded queue until they are consumed using {@link #poll(Duration)}.
+ * When the queue is full, no market data is built and ticks continue to be coalesced, thus a slow
+ * consumer receives fewer snapshots containing more ticks. The stream is never blocked.
+ * <p>
+ * Only one snapshot is built at a time, thus the time between a tick and the publication of the
+ * snapshot containing it is bounded by the coalescing window plus the time taken to build two snapshots,
+ * provided the consumer keeps up. The latency of each snapshot is available from the snapshot.
+ * <p>
+ * The executor is not shut down when the pipeline is closed.
+ * This class is thread-safe.
+ */
+public final class MarketDataPipeline implements AutoCloseable {
+
+  /** The logger. */
+  private static final Logger log = LoggerFactory.getLogger(MarketDataPipeline.class);
+
+  /**
+   * The factory used to build the market data.
+   */
+  private final MarketDataFactory marketDataFactory;
+  /**
+   * The market data required.
+   */
+  private final MarketDataRequirements requirements;
+  /**
+   * The configuration needed to build non-observable market data.
+   */
+  private final MarketDataConfig marketDataConfig;
+  /**
+   * The reference data.
+   */
+  private final ReferenceData refData;
+  /**
+   * The executor used to build the market data.
+   */
+  private final ScheduledExecutorService executor;
+  /**
+   * The coalescing window, in nanoseconds.
+   */
+  private final long windowNanos;
+  /**
+   * The snapshots that have been published but not consumed.
+   */
+  private final BlockingQueue<MarketDataSnapshot> snapshots;
+  /**
+   * The listener subscribed to the stream.
+   */
+  private final ObjDoubleConsumer<ObservableId> listener = this::tick;
+  /**
+   * The lock guarding the pending ticks and the state of the pipeline.
+   */
+  private final Object lock = new Object();
+
+  /**
+   * The ticks received since the last snapshot, guarded by the lock.
+   */
+  private final Map<ObservableId, Double> pendingTicks = new HashMap<>();
+  /**
+   * The number of ticks received since the last snapshot, guarded by the lock.
+   */
+  private int pendingTickCount;
+  /**
+   * The time of the earliest tick received since the last snapshot, guarded by the lock.
+   */
+  private long pendingNanos;
+  /**
+   * Whether a snapshot is being built or is scheduled to be built, guarded by the lock.
+   */
+  private boolean building;
+  /**
+   * The stream, null until started, guarded by the lock.
+   */
+  private ObservableDataStream stream;
+  /**
+   * Whether the pipeline has been closed, guarded by the lock.
+   */
+  private boolean closed;
+
+  /**
+   * The market data supplied when the pipeline was started, only accessed when building.
+   */
+  private MarketData baseData;
+  /**
+   * The latest value of every tick received, only accessed when building.
+   */
+  private final Map<ObservableId, Double> tickValues = new HashMap<>();
+  /**
+   * The market data of the latest snapshot, only accessed when building.
+   */
+  private MarketData builtData;
+  /**
+   * The identifiers of ticks whose market data failed to build, only accessed when building.
+   */
+  private final Set<MarketDataId<?>> failedIds = new HashSet<>();
+  /**
+   * The sequence number of the latest snapshot, only accessed when building.
+   */
+  private long sequence;
+
+  /**
+   * The latest snapshot.
+   */
+  private volatile MarketDataSnapshot latestSnapshot;
+  /**
+   * The number of ticks received.
+   */
+  private final AtomicLong tickCount = new AtomicLong();
+  /**
+   * The number of snapshots published, excluding the initial snapshot.
+   */
+  private final AtomicLong snapshotCount = new AtomicLong();
+  /**
+   * The maximum time taken to build a snapshot, in nanoseconds.
+   */
+  private final AtomicLong maxBuildNanos = new AtomicLong();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param marketDataFactory  the factory used to build the market data
+   * @param requirements  the market data required
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param refData  the reference data
+   * @param executor  the executor used to build the market data
+   * @param coalescingWindow  the time for which ticks are coalesced before the market data is built
+   * @param capacity  the maximum number of snapshots published but not consumed
+   * @return the pipeline
+   */
+  public static MarketDataPipeline of(
+      MarketDataFactory marketDataFactory,
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData,
+      ScheduledExecutorService executor,
+      Duration coalescingWindow,
+      int capacity) {
+
+    return new MarketDataPipeline(
+        marketDataFactory, requirements, marketDataConfig, refData, executor, coalescingWindow, capacity);
+  }
+
+  // restricted constructor
+  private MarketDataPipeline(
+      MarketDataFactory marketDataFactory,
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData,
+      ScheduledExecutorService executor,
+      Duration coalescingWindow,
+      int capacity) {
+
+    this.marketDataFactory = ArgChecker.notNull(marketDataFactory, "marketDataFactory");
+    this.requirements = ArgChecker.notNull(requirements, "requirements");
+    this.marketDataConfig = ArgChecker.notNull(marketDataConfig, "marketDataConfig");
+    this.refData = ArgChecker.notNull(refData, "refData");
+    this.executor = ArgChecker.notNull(executor, "executor");
+    ArgChecker.notNull(coalescingWindow, "coalescingWindow");
+    ArgChecker.isFalse(coalescingWindow.isNegative(), "Coalescing window must not be negative");
+    this.windowNanos = coalescingWindow.toNanos();
+    this.snapshots = new ArrayBlockingQueue<>(ArgChecker.notNegativeOrZero(capacity, "capacity"));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Starts the pipeline, building the initial market data and subscribing to the stream.
+   * <p>
+   * The stream is subscribed to the observable market data required, directly or indirectly,
+   * by the requirements. The initial snapshot is returned rather than published.
+   * <p>
+   * Ticks replace the values in the supplied data. The valuation date of every snapshot
+   * is that of the supplied data.
+   *
+   * @param suppliedData  the market data supplied by the user, such as time-series and the initial quotes
+   * @param stream  the stream of ticks
+   * @return the initial snapshot
+   * @throws IllegalStateException if the pipeline has already been started
+   */
+  public MarketDataSnapshot start(MarketData suppliedData, ObservableDataStream stream) {
+    ArgChecker.notNull(suppliedData, "suppliedData");
+    ArgChecker.notNull(stream, "stream");
+    synchronized (lock) {
+      if (this.stream != null || closed) {
+        throw new IllegalStateException("Pipeline has already been started");
+      }
+      this.stream = stream;
+      // building is set until the initial data is built, so ticks received in the meantime are coalesced
+      building = true;
+    }
+    long startNanos = System.nanoTime();
+    BuiltMarketData initialData = marketDataFactory.create(requirements, marketDataConfig, suppliedData, refData);
+    MarketDataSnapshot snapshot =
+        new MarketDataSnapshot(0, initialData, ImmutableSet.of(), 0, startNanos, System.nanoTime());
+    baseData = suppliedData;
+    builtData = initialData;
+    latestSnapshot = snapshot;
+    stream.subscribe(observableIds(initialData), listener);
+    synchronized (lock) {
+      building = false;
+    }
+    scheduleBuild();
+    return snapshot;
+  }
+
+  // the observable market data required, including any that failed to be provided
+  private Set<ObservableId> observableIds(BuiltMarketData initialData) {
+    Set<ObservableId> ids = new HashSet<>(requirements.getObservables());
+    for (MarketDataId<?> id : initialData.getIds()) {
+      if (id instanceof ObservableId) {
+        ids.add((ObservableId) id);
+      }
+    }
+    for (MarketDataId<?> id : initialData.getValueFailures().keySet()) {
+      if (id instanceof ObservableId) {
+        ids.add((ObservableId) id);
+      }
+    }
+    return ids;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Retrieves and removes the oldest snapshot that has not been consumed, waiting if necessary.
+   * <p>
+   * Consuming a snapshot makes room in the queue, allowing the ticks coalesced while the
+   * queue was full to be built.
+   *
+   * @param timeout  the maximum time to wait for a snapshot
+   * @return the snapshot, empty if none was published before the timeout elapsed
+   */
+  public Optional<MarketDataSnapshot> poll(Duration timeout) {
+    ArgChecker.notNull(timeout, "timeout");
+    MarketDataSnapshot snapshot;
+    try {
+      snapshot = snapshots.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Exception polling for snapshot", ex);
+    }
+    if (snapshot != null) {
+      scheduleBuild();
+    }
+    return Optional.ofNullable(snapshot);
+  }
+
+  /**
+   * Returns the latest snapshot, whether or not it has been consumed.
+   *
+   * @return the latest snapshot, null if the pipeline has not been started
+   */
+  public MarketDataSnapshot getLatestSnapshot() {
+    return latestSnapshot;
+  }
+
+  /**
+   * Returns the number of ticks received.
+   *
+   * @return the number of ticks
+   */
+  public long getTickCount() {
+    return tickCount.get();
+  }
+
+  /**
+   * Returns the number of snapshots published, excluding the initial snapshot.
+   *
+   * @return the number of snapshots
+   */
+  public long getSnapshotCount() {
+    return snapshotCount.get();
+  }
+
+  /**
+   * Returns the maximum time between the earliest tick coalesced into a snapshot and its publication.
+   *
+   * @return the maximum build latency of the published snapshots
+   */
+  public Duration getMaxBuildLatency() {
+    return Duration.ofNanos(maxBuildNanos.get());
+  }
+
+  /**
+   * Closes the pipeline, unsubscribing from the stream.
+   * <p>
+   * Pending ticks are discarded and no further snapshots are published.
+   * Snapshots that have been published can still be consumed.
+   */
+  @Override
+  public void close() {
+    ObservableDataStream subscribed;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      pendingTicks.clear();
+      subscribed = stream;
+    }
+    if (subscribed != null) {
+      subscribed.unsubscribe(listener);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // receives a tick from the stream
+  private void tick(ObservableId id, double value) {
+    tickCount.incrementAndGet();
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      if (pendingTicks.isEmpty()) {
+        pendingNanos = System.nanoTime();
+      }
+      pendingTicks.put(id, value);
+      pendingTickCount++;
+    }
+    scheduleBuild();
+  }
+
+  // schedules a build at the end of the coalescing window, unless a build is in progress or the queue is full
+  private void scheduleBuild() {
+    long delayNanos;
+    synchronized (lock) {
+      if (closed || building || pendingTicks.isEmpty() || snapshots.remainingCapacity() == 0) {
+        return;
+      }
+      building = true;
+      delayNanos = Math.max(0, windowNanos - (System.nanoTime() - pendingNanos));
+    }
+    try {
+      executor.schedule(this::build, delayNanos, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException ex) {
+      log.warn("Unable to schedule market data build", ex);
+      synchronized (lock) {
+        building = false;
+      }
+    }
+  }
+
+  // builds the market data affected by the pending ticks and publishes the snapshot
+  private void build() {
+    Map<ObservableId, Double> ticks;
+    int ticksCoalesced;
+    long tickNanos;
+    synchronized (lock) {
+      if (closed) {
+        building = false;
+        return;
+      }
+      ticks = new HashMap<>(pendingTicks);
+      ticksCoalesced = pendingTickCount;
+      tickNanos = pendingNanos;
+      pendingTicks.clear();
+      pendingTickCount = 0;
+    }
+    try {
+      // the ticks replace the supplied data, avoiding nesting the market data of every snapshot
+      tickValues.putAll(ticks);
+      MarketData suppliedData =
+          ImmutableMarketData.of(baseData.getValuationDate(), tickValues).combinedWith(baseData);
+      Set<MarketDataId<?>> changedIds = new HashSet<>(failedIds);
+      changedIds.addAll(ticks.keySet());
+      Set<MarketDataId<?>> affectedIds =
+          marketDataFactory.affectedIds(requirements, marketDataConfig, suppliedData, changedIds);
+      BuiltMarketData marketData = marketDataFactory.update(
+          requirements, marketDataConfig, suppliedData, builtData, affectedIds, refData);
+      builtData = marketData;
+      failedIds.clear();
+      long createdNanos = System.nanoTime();
+      MarketDataSnapshot snapshot =
+          new MarketDataSnapshot(++sequence, marketData, affectedIds, ticksCoalesced, tickNanos, createdNanos);
+      maxBuildNanos.accumulateAndGet(createdNanos - tickNanos, Math::max);
+      snapshotCount.incrementAndGet();
+      latestSnapshot = snapshot;
+      // only one build runs at a time and it is only scheduled if the queue has capacity
+      snapshots.add(snapshot);
+    } catch (RuntimeException ex) {
+      // the ticks are retained in the supplied data, so only their identifiers are needed to rebuild
+      failedIds.addAll(ticks.keySet());
+      log.warn("Exception building market data from {} ticks", ticksCoalesced, ex);
+    } finally {
+      synchronized (lock) {
+        building = false;
+      }
+      scheduleBuild();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "MarketDataPipeline[ticks=" + tickCount.get() + ", snapshots=" + snapshotCount.get() + "]";
+  }
+
+}
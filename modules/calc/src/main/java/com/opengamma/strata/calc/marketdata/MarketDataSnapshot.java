@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.time.Duration;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+
+/**
+ * An immutable snapshot of market data published by a {@link MarketDataPipeline}.
+ * <p>
+ * Each snapshot contains the market data built from the ticks received since the previous snapshot,
+ * together with the identifiers of the market data that has changed since the previous snapshot.
+ * The changed identifiers include the market data built from the ticks, such as calibrated curves,
+ * thus they can be passed directly to an incremental calculation.
+ */
+public final class MarketDataSnapshot {
+
+  /**
+   * The sequence number of the snapshot, zero for the initial snapshot.
+   */
+  private final long sequence;
+  /**
+   * The market data.
+   */
+  private final MarketData marketData;
+  /**
+   * The identifiers of the market data that has changed since the previous snapshot.
+   */
+  private final ImmutableSet<MarketDataId<?>> changedIds;
+  /**
+   * The number of ticks coalesced into the snapshot.
+   */
+  private final int tickCount;
+  /**
+   * The time of the earliest tick coalesced into the snapshot, from {@link System#nanoTime()}.
+   */
+  private final long tickNanos;
+  /**
+   * The time the snapshot was created, from {@link System#nanoTime()}.
+   */
+  private final long createdNanos;
+
+  // restricted constructor
+  MarketDataSnapshot(
+      long sequence,
+      MarketData marketData,
+      Set<? extends MarketDataId<?>> changedIds,
+      int tickCount,
+      long tickNanos,
+      long createdNanos) {
+
+    this.sequence = sequence;
+    this.marketData = marketData;
+    this.changedIds = ImmutableSet.copyOf(changedIds);
+    this.tickCount = tickCount;
+    this.tickNanos = tickNanos;
+    this.createdNanos = createdNanos;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the sequence number of the snapshot.
+   * <p>
+   * The initial snapshot has a sequence number of zero, with each subsequent snapshot incrementing it by one.
+   *
+   * @return the sequence number
+   */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Returns the market data.
+   *
+   * @return the market data
+   */
+  public MarketData getMarketData() {
+    return marketData;
+  }
+
+  /**
+   * Returns the identifiers of the market data that has changed since the previous snapshot.
+   * <p>
+   * This contains the identifiers of the ticks and of the market data built from them.
+   *
+   * @return the identifiers of the changed market data
+   */
+  public ImmutableSet<MarketDataId<?>> getChangedIds() {
+    return changedIds;
+  }
+
+  /**
+   * Returns the number of ticks coalesced into the snapshot.
+   *
+   * @return the number of ticks
+   */
+  public int getTickCount() {
+    return tickCount;
+  }
+
+  /**
+   * Returns the time between the earliest tick coalesced into the snapshot and the creation of the snapshot.
+   * <p>
+   * This includes the coalescing window and the time taken to build the market data.
+   *
+   * @return the time taken to create the snapshot
+   */
+  public Duration getBuildLatency() {
+    return Duration.ofNanos(createdNanos - tickNanos);
+  }
+
+  /**
+   * Returns the time elapsed since the earliest tick coalesced into the snapshot.
+   * <p>
+   * When called after the results have been calculated from the snapshot, this is the tick-to-price latency.
+   *
+   * @return the time elapsed since the earliest tick
+   */
+  public Duration latency() {
+    return Duration.ofNanos(System.nanoTime() - tickNanos);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "MarketDataSnapshot[sequence=" + sequence + ", ticks=" + tickCount + ", changed=" + changedIds.size() + "]";
+  }
+
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.util.Set;
+import java.util.function.ObjDoubleConsumer;
+
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * A source of real-time updates to observable market data, such as quotes.
+ * <p>
+ * This plugin point allows a streaming market data supplier to be provided.
+ * Implementations might receive ticks from an external data provider, such as Bloomberg or Reuters.
+ * <p>
+ * Updates are pushed to the listener on a thread of the implementation's choosing.
+ * Listeners must therefore be thread-safe and must return quickly, as they may
+ * otherwise delay the delivery of subsequent updates.
+ */
+public interface ObservableDataStream {
+
+  /**
+   * Subscribes to updates of the specified identifiers.
+   * <p>
+   * The listener is invoked with the identifier and the new value each time one of the values changes.
+   * Implementations may also push updates for identifiers that were not requested.
+   *
+   * @param identifiers  the market data identifiers
+   * @param listener  the listener receiving the updates
+   */
+  public abstract void subscribe(Set<? extends ObservableId> identifiers, ObjDoubleConsumer<ObservableId> listener);
+
+  /**
+   * Unsubscribes the listener, which will not receive any further updates.
+   * <p>
+   * If the listener is not subscribed, this method has no effect.
+   *
+   * @param listener  the listener to unsubscribe
+   */
+  public abstract void unsubscribe(ObjDoubleConsumer<ObservableId> listener);
+
+}
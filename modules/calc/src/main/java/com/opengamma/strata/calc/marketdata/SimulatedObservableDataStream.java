@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ObjDoubleConsumer;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * An in-process stream of observable market data, where updates are published by the application.
+ * <p>
+ * This is intended for testing and simulation, where ticks are generated rather than received
+ * from an external data provider. Updates are delivered synchronously on the publishing thread
+ * to the listeners subscribed to the identifier.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class SimulatedObservableDataStream implements ObservableDataStream {
+
+  /**
+   * The subscriptions.
+   */
+  private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+  /**
+   * Obtains an instance with no subscriptions.
+   *
+   * @return the stream
+   */
+  public static SimulatedObservableDataStream of() {
+    return new SimulatedObservableDataStream();
+  }
+
+  // restricted constructor
+  private SimulatedObservableDataStream() {
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void subscribe(Set<? extends ObservableId> identifiers, ObjDoubleConsumer<ObservableId> listener) {
+    ArgChecker.notNull(identifiers, "identifiers");
+    ArgChecker.notNull(listener, "listener");
+    subscriptions.add(new Subscription(ImmutableSet.copyOf(identifiers), listener));
+  }
+
+  @Override
+  public void unsubscribe(ObjDoubleConsumer<ObservableId> listener) {
+    subscriptions.removeIf(subscription -> subscription.listener == listener);
+  }
+
+  /**
+   * Returns the identifiers that have been subscribed to.
+   *
+   * @return the subscribed identifiers
+   */
+  public ImmutableSet<ObservableId> getSubscribedIds() {
+    ImmutableSet.Builder<ObservableId> builder = ImmutableSet.builder();
+    subscriptions.forEach(subscription -> builder.addAll(subscription.identifiers));
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Publishes an update to the listeners subscribed to the identifier.
+   *
+   * @param id  the market data identifier
+   * @param value  the new value
+   */
+  public void publish(ObservableId id, double value) {
+    ArgChecker.notNull(id, "id");
+    for (Subscription subscription : subscriptions) {
+      if (subscription.identifiers.contains(id)) {
+        subscription.listener.accept(id, value);
+      }
+    }
+  }
+
+  /**
+   * Publishes a set of updates to the listeners subscribed to the identifiers.
+   * <p>
+   * The updates are published in the iteration order of the map.
+   *
+   * @param values  the new values, keyed by identifier
+   */
+  public void publish(Map<? extends ObservableId, Double> values) {
+    ArgChecker.notNull(values, "values");
+    values.forEach(this::publish);
+  }
+
+  //-------------------------------------------------------------------------
+  // a listener and the identifiers it is subscribed to
+  private static final class Subscription {
+    private final ImmutableSet<ObservableId> identifiers;
+    private final ObjDoubleConsumer<ObservableId> listener;
+
+    private Subscription(ImmutableSet<ObservableId> identifiers, ObjDoubleConsumer<ObservableId> listener) {
+      this.identifiers = identifiers;
+      this.listener = listener;
+    }
+  }
+
+}
@@ -25,7 +25,12 @@ public abstract class AggregatingCalculationListener<T>
 
   @Override
   public final void calculationsComplete() {
-    future.complete(createAggregateResult());
+    try {
+      future.complete(createAggregateResult());
+    } catch (RuntimeException ex) {
+      future.completeExceptionally(ex);
+      throw ex;
+    }
   }
 
   /**
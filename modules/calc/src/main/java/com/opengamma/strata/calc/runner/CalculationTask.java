@@ -35,6 +35,8 @@ import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirementsBuilder;
+import com.opengamma.strata.collect.result.Failure;
+import com.opengamma.strata.collect.result.FailureItem;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.FxRateId;
@@ -280,12 +282,13 @@ public final class CalculationTask implements ImmutableBean {
     Optional<String> id = function.identifier(target);
     String msg = id.map(v -> " for ID '" + v + "': " + exMsg).orElse(": " + exMsg + ": for target '" + target.toString() + "'");
     if (ex instanceof MarketDataNotFoundException) {
-      failure = Result.failure(
+      // missing market data is expected, thus the stack frames are not retained
+      failure = Result.failure(Failure.of(FailureItem.ofExpected(
           FailureReason.MISSING_DATA,
           ex,
           "Missing market data when invoking function '{}'{}",
           fnName,
-          msg);
+          msg)));
 
     } else if (ex instanceof ReferenceDataNotFoundException) {
       failure = Result.failure(
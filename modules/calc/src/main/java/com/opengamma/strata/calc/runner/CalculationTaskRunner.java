@@ -79,6 +79,22 @@ public interface CalculationTaskRunner extends AutoCloseable {
     return DefaultCalculationTaskRunner.of(executor);
   }
 
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the deduplicator of the tasks.
+   * <p>
+   * Economically identical targets, as determined by the deduplicator, are calculated once.
+   * See {@link TaskDeduplicator} for details.
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param deduplicator  the deduplicator of the tasks of economically identical targets
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner of(ExecutorService executor, TaskDeduplicator deduplicator) {
+    return DefaultCalculationTaskRunner.of(executor, deduplicator);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
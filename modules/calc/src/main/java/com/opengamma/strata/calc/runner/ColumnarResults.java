@@ -0,0 +1,375 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+
+/**
+ * Calculation results read from the columnar files written by {@link ColumnarResultsListener}.
+ * <p>
+ * This defines a grid of results where the grid contains a row for each target and a column for each measure,
+ * in the same way as {@link Results}. The scenario values of {@link DoubleScenarioArray} and
+ * {@link CurrencyScenarioArray} results are not held on the heap. Instead, they are read from
+ * memory-mapped files when requested.
+ * <p>
+ * The methods {@link #getValue(int, int, int)} and {@link #getValues(int, int)} access the values
+ * without creating a {@code Result}. The method {@link #get(int, int)} rebuilds the original result.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class ColumnarResults {
+
+  /** Cell kind for a cell that has not been received. */
+  static final byte CELL_MISSING = 0;
+  /** Cell kind for a {@code DoubleScenarioArray} stored in the file. */
+  static final byte CELL_DOUBLE = 1;
+  /** Cell kind for a {@code CurrencyScenarioArray} stored in the file. */
+  static final byte CELL_CURRENCY = 2;
+  /** Cell kind for a result held on the heap. */
+  static final byte CELL_HEAP = 3;
+  /** The maximum number of bytes in a single mapped segment. */
+  private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+  /** The column headers. */
+  private final ImmutableList<ColumnHeader> columns;
+  /** The number of rows. */
+  private final int rowCount;
+  /** The mapped columns. */
+  private final ImmutableList<MappedColumn> mappedColumns;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance.
+   *
+   * @param columns  the column headers
+   * @param rowCount  the number of rows
+   * @param mappedColumns  the mapped columns, one for each header
+   */
+  ColumnarResults(List<ColumnHeader> columns, int rowCount, List<MappedColumn> mappedColumns) {
+    this.columns = ImmutableList.copyOf(columns);
+    this.rowCount = rowCount;
+    this.mappedColumns = ImmutableList.copyOf(mappedColumns);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the column headers.
+   *
+   * @return the column headers
+   */
+  public ImmutableList<ColumnHeader> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Gets the number of rows in the results.
+   * <p>
+   * The number of rows equals the number of targets input to the calculation.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns in the results.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  /**
+   * Gets the number of scenarios of the values stored in the file for a column.
+   * <p>
+   * This is zero if no scenario arrays were received for the column.
+   *
+   * @param columnIndex  the index of the column
+   * @return the number of scenarios
+   * @throws IllegalArgumentException if the column index is invalid
+   */
+  public int getScenarioCount(int columnIndex) {
+    return column(columnIndex).scenarioCount;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the values of a cell are stored in the columnar file.
+   * <p>
+   * This returns true if the cell holds a {@link DoubleScenarioArray} or {@link CurrencyScenarioArray}
+   * that can be accessed using {@link #getValue(int, int, int)} and {@link #getValues(int, int)}.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return true if the values are stored in the file
+   * @throws IllegalArgumentException if the row or column index is invalid
+   */
+  public boolean isStored(int rowIndex, int columnIndex) {
+    byte kind = column(columnIndex).kinds[row(rowIndex)];
+    return kind == CELL_DOUBLE || kind == CELL_CURRENCY;
+  }
+
+  /**
+   * Returns the value of a single scenario of a cell stored in the columnar file.
+   * <p>
+   * This reads the value directly from the mapped file without allocating.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @param scenarioIndex  the index of the scenario
+   * @return the value
+   * @throws IllegalArgumentException if the row or column index is invalid, or the cell is not stored
+   * @throws IndexOutOfBoundsException if the scenario index is invalid
+   */
+  public double getValue(int rowIndex, int columnIndex, int scenarioIndex) {
+    MappedColumn column = storedColumn(rowIndex, columnIndex);
+    if (scenarioIndex < 0 || scenarioIndex >= column.scenarioCount) {
+      throw new IndexOutOfBoundsException("Invalid scenario index: " + scenarioIndex);
+    }
+    return column.value(rowIndex, scenarioIndex);
+  }
+
+  /**
+   * Returns the values of all scenarios of a cell stored in the columnar file.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the values, one for each scenario
+   * @throws IllegalArgumentException if the row or column index is invalid, or the cell is not stored
+   */
+  public DoubleArray getValues(int rowIndex, int columnIndex) {
+    return storedColumn(rowIndex, columnIndex).values(rowIndex);
+  }
+
+  /**
+   * Returns the currency of a cell stored in the columnar file.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the currency, empty if the cell holds a {@link DoubleScenarioArray}
+   * @throws IllegalArgumentException if the row or column index is invalid, or the cell is not stored
+   */
+  public Optional<Currency> getCurrency(int rowIndex, int columnIndex) {
+    return Optional.ofNullable(storedColumn(rowIndex, columnIndex).currencies[rowIndex]);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the results for a target and column index.
+   * <p>
+   * Cells stored in the columnar file are read from the file and returned
+   * as {@link DoubleScenarioArray} or {@link CurrencyScenarioArray}.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the result for the specified row and column for a set of scenarios
+   * @throws IllegalArgumentException if the row or column index is invalid
+   */
+  public Result<?> get(int rowIndex, int columnIndex) {
+    return column(columnIndex).result(row(rowIndex));
+  }
+
+  /**
+   * Returns the results for a target and column name.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnName  the name of the column
+   * @return the result for the specified row and column for a set of scenarios
+   * @throws IllegalArgumentException if the row index or column name is invalid
+   */
+  public Result<?> get(int rowIndex, ColumnName columnName) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i).getName().equals(columnName)) {
+        return get(rowIndex, i);
+      }
+    }
+    throw new IllegalArgumentException(Messages.format("Column name not found: {}", columnName));
+  }
+
+  /**
+   * Converts these results to a standard set of {@link Results} held on the heap.
+   *
+   * @return the results
+   */
+  public Results toResults() {
+    List<Result<?>> cells = new ArrayList<>(rowCount * columns.size());
+    for (int row = 0; row < rowCount; row++) {
+      for (MappedColumn column : mappedColumns) {
+        cells.add(column.result(row));
+      }
+    }
+    return Results.of(columns, cells);
+  }
+
+  //-------------------------------------------------------------------------
+  // validates the row index
+  private int row(int rowIndex) {
+    if (rowIndex < 0 || rowIndex >= rowCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Row index must be greater than or equal to zero and less than the row count ({}), but it was {}",
+          rowCount,
+          rowIndex));
+    }
+    return rowIndex;
+  }
+
+  // validates the column index, returning the column
+  private MappedColumn column(int columnIndex) {
+    if (columnIndex < 0 || columnIndex >= mappedColumns.size()) {
+      throw new IllegalArgumentException(Messages.format(
+          "Column index must be greater than or equal to zero and less than the column count ({}), but it was {}",
+          mappedColumns.size(),
+          columnIndex));
+    }
+    return mappedColumns.get(columnIndex);
+  }
+
+  // validates that the cell is stored in the file, returning the column
+  private MappedColumn storedColumn(int rowIndex, int columnIndex) {
+    if (!isStored(rowIndex, columnIndex)) {
+      throw new IllegalArgumentException(Messages.format(
+          "Cell at row {} and column {} is not stored in the columnar file", rowIndex, columnIndex));
+    }
+    return mappedColumns.get(columnIndex);
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format("ColumnarResults[rows={}, columns={}]", rowCount, columns);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A single column, with the stored values memory-mapped from the file.
+   */
+  static final class MappedColumn {
+
+    /** The number of scenarios. */
+    private final int scenarioCount;
+    /** The number of rows in each mapped segment. */
+    private final int rowsPerSegment;
+    /** The mapped segments. */
+    private final DoubleBuffer[] segments;
+    /** The kind of each cell. */
+    private final byte[] kinds;
+    /** The currency of each cell holding a currency scenario array. */
+    private final Currency[] currencies;
+    /** The cells not stored in the file, keyed by row index. */
+    private final ImmutableMap<Integer, Result<?>> heapResults;
+
+    /**
+     * Maps the file written for a column.
+     *
+     * @param file  the file
+     * @param scenarioCount  the number of scenarios, zero if no values are stored in the file
+     * @param kinds  the kind of each cell
+     * @param currencies  the currency of each cell
+     * @param heapResults  the cells not stored in the file
+     * @return the mapped column
+     * @throws IOException if the file cannot be mapped
+     */
+    static MappedColumn map(
+        Path file,
+        int scenarioCount,
+        byte[] kinds,
+        Currency[] currencies,
+        Map<Integer, Result<?>> heapResults) throws IOException {
+
+      if (scenarioCount == 0) {
+        return new MappedColumn(0, 0, new DoubleBuffer[0], kinds, currencies, heapResults);
+      }
+      long stride = (long) scenarioCount * Double.BYTES;
+      int rowsPerSegment = (int) Math.max(1, Math.min(kinds.length, MAX_SEGMENT_BYTES / stride));
+      int segmentCount = (kinds.length + rowsPerSegment - 1) / rowsPerSegment;
+      DoubleBuffer[] segments = new DoubleBuffer[segmentCount];
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        for (int i = 0; i < segmentCount; i++) {
+          int rows = Math.min(rowsPerSegment, kinds.length - i * rowsPerSegment);
+          segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, i * rowsPerSegment * stride, rows * stride)
+              .order(ByteOrder.LITTLE_ENDIAN)
+              .asDoubleBuffer();
+        }
+      }
+      return new MappedColumn(scenarioCount, rowsPerSegment, segments, kinds, currencies, heapResults);
+    }
+
+    private MappedColumn(
+        int scenarioCount,
+        int rowsPerSegment,
+        DoubleBuffer[] segments,
+        byte[] kinds,
+        Currency[] currencies,
+        Map<Integer, Result<?>> heapResults) {
+
+      this.scenarioCount = scenarioCount;
+      this.rowsPerSegment = rowsPerSegment;
+      this.segments = segments;
+      this.kinds = kinds;
+      this.currencies = currencies;
+      this.heapResults = ImmutableMap.copyOf(heapResults);
+    }
+
+    // reads a single value from the mapped file
+    private double value(int rowIndex, int scenarioIndex) {
+      DoubleBuffer segment = segments[rowIndex / rowsPerSegment];
+      return segment.get((rowIndex % rowsPerSegment) * scenarioCount + scenarioIndex);
+    }
+
+    // reads all the values of a row from the mapped file
+    private DoubleArray values(int rowIndex) {
+      DoubleBuffer segment = segments[rowIndex / rowsPerSegment];
+      int offset = (rowIndex % rowsPerSegment) * scenarioCount;
+      double[] values = new double[scenarioCount];
+      for (int i = 0; i < scenarioCount; i++) {
+        values[i] = segment.get(offset + i);
+      }
+      return DoubleArray.ofUnsafe(values);
+    }
+
+    // rebuilds the result of a row
+    private Result<?> result(int rowIndex) {
+      switch (kinds[rowIndex]) {
+        case CELL_DOUBLE:
+          return Result.success(DoubleScenarioArray.of(values(rowIndex)));
+        case CELL_CURRENCY:
+          return Result.success(CurrencyScenarioArray.of(currencies[rowIndex], values(rowIndex)));
+        case CELL_HEAP:
+          return heapResults.get(rowIndex);
+        default:
+          return Result.failure(FailureReason.MISSING_DATA, "No result was received for row {}", rowIndex);
+      }
+    }
+  }
+
+}
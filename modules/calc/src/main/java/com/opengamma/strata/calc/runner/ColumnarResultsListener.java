@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+
+/**
+ * Calculation listener that writes the results of individual calculations to columnar files.
+ * <p>
+ * {@link ResultsListener} holds every result in memory until the calculations are complete.
+ * This listener instead writes each {@link DoubleScenarioArray} and {@link CurrencyScenarioArray}
+ * to disk as soon as it is received, so the heap required does not grow with the number of scenarios.
+ * <p>
+ * One file is written for each column, named {@code column-<index>.bin}.
+ * Each file holds the scenario values as raw little-endian doubles, with the cell for row {@code r}
+ * stored at offset {@code r * scenarioCount * 8}. The currency of each cell is held in memory,
+ * as are failures and results of any other type, which are expected to be small.
+ * <p>
+ * When the calculations are complete the files are memory-mapped and exposed as {@link ColumnarResults}.
+ */
+public final class ColumnarResultsListener extends AggregatingCalculationListener<ColumnarResults> {
+
+  /** The directory that the column files are written to. */
+  private final Path directory;
+
+  /** The column headers. */
+  private List<ColumnHeader> headers;
+  /** The number of rows. */
+  private int rowCount;
+  /** The writers, one for each column. */
+  private List<ColumnWriter> writers;
+  /** The first exception thrown when writing, null if none. */
+  private UncheckedIOException writeFailure;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a listener that writes the results to the specified directory.
+   * <p>
+   * The directory is created if it does not exist.
+   * Any existing column files in the directory are overwritten.
+   *
+   * @param directory  the directory to write the column files to
+   * @return the listener
+   */
+  public static ColumnarResultsListener of(Path directory) {
+    return new ColumnarResultsListener(directory);
+  }
+
+  private ColumnarResultsListener(Path directory) {
+    this.directory = ArgChecker.notNull(directory, "directory");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+    this.headers = columns.stream()
+        .map(Column::toHeader)
+        .collect(toImmutableList());
+    this.rowCount = targets.size();
+    try {
+      Files.createDirectories(directory);
+      List<ColumnWriter> columnWriters = new ArrayList<>(columns.size());
+      for (int i = 0; i < columns.size(); i++) {
+        columnWriters.add(new ColumnWriter(directory.resolve("column-" + i + ".bin"), rowCount));
+      }
+      this.writers = columnWriters;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    try {
+      writers.get(result.getColumnIndex()).write(result.getRowIndex(), result.getResult());
+    } catch (IOException ex) {
+      if (writeFailure == null) {
+        writeFailure = new UncheckedIOException(ex);
+      }
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  protected ColumnarResults createAggregateResult() {
+    if (writeFailure != null) {
+      throw writeFailure;
+    }
+    try {
+      List<ColumnarResults.MappedColumn> columns = new ArrayList<>(writers.size());
+      for (ColumnWriter writer : writers) {
+        columns.add(writer.complete());
+      }
+      return new ColumnarResults(headers, rowCount, columns);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes the cells of a single column.
+   */
+  private static final class ColumnWriter {
+
+    /** The file the values are written to. */
+    private final Path file;
+    /** The channel used to write the file. */
+    private final FileChannel channel;
+    /** The kind of each cell, see the constants in {@link ColumnarResults}. */
+    private final byte[] kinds;
+    /** The currency of each cell holding a currency scenario array. */
+    private final Currency[] currencies;
+    /** The cells not stored in the file, keyed by row index. */
+    private final Map<Integer, Result<?>> heapResults = new HashMap<>();
+    /** The number of scenarios, zero until the first scenario array is received. */
+    private int scenarioCount;
+    /** The buffer used to write a cell, reused for each cell. */
+    private ByteBuffer buffer;
+
+    private ColumnWriter(Path file, int rowCount) throws IOException {
+      this.file = file;
+      this.channel = FileChannel.open(
+          file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      this.kinds = new byte[rowCount];
+      this.currencies = new Currency[rowCount];
+    }
+
+    // writes the cell, holding the result in memory if it cannot be stored in the file
+    private void write(int rowIndex, Result<?> result) throws IOException {
+      if (result.isSuccess()) {
+        Object value = result.getValue();
+        if (value instanceof CurrencyScenarioArray) {
+          CurrencyScenarioArray array = (CurrencyScenarioArray) value;
+          if (writeValues(rowIndex, array.getAmounts().getValues())) {
+            kinds[rowIndex] = ColumnarResults.CELL_CURRENCY;
+            currencies[rowIndex] = array.getCurrency();
+            return;
+          }
+        } else if (value instanceof DoubleScenarioArray) {
+          if (writeValues(rowIndex, ((DoubleScenarioArray) value).getValues())) {
+            kinds[rowIndex] = ColumnarResults.CELL_DOUBLE;
+            return;
+          }
+        }
+      }
+      kinds[rowIndex] = ColumnarResults.CELL_HEAP;
+      heapResults.put(rowIndex, result);
+    }
+
+    // writes the values at the position of the row, returning false if the scenario count does not match
+    private boolean writeValues(int rowIndex, DoubleArray values) throws IOException {
+      if (scenarioCount == 0) {
+        scenarioCount = values.size();
+        buffer = ByteBuffer.allocateDirect(scenarioCount * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      } else if (values.size() != scenarioCount) {
+        return false;
+      }
+      buffer.clear();
+      for (int i = 0; i < scenarioCount; i++) {
+        buffer.putDouble(values.get(i));
+      }
+      buffer.flip();
+      long position = (long) rowIndex * scenarioCount * Double.BYTES;
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+      return true;
+    }
+
+    // closes the file and maps it for reading
+    private ColumnarResults.MappedColumn complete() throws IOException {
+      try {
+        // extend the file to cover all rows so that it can be mapped
+        long expectedSize = (long) kinds.length * scenarioCount * Double.BYTES;
+        if (channel.size() < expectedSize) {
+          channel.write(ByteBuffer.allocate(Double.BYTES), expectedSize - Double.BYTES);
+        }
+      } finally {
+        channel.close();
+      }
+      return ColumnarResults.MappedColumn.map(file, scenarioCount, kinds, currencies, heapResults);
+    }
+  }
+
+}
@@ -38,6 +38,10 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * This will typically be multi-threaded, but single or direct executors also work.
    */
   private final ExecutorService executor;
+  /**
+   * Deduplicates the tasks of economically identical targets, null if tasks are not deduplicated.
+   */
+  private final TaskDeduplicator deduplicator;
 
   //-------------------------------------------------------------------------
   /**
@@ -54,7 +58,7 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner ofMultiThreaded() {
-    return new DefaultCalculationTaskRunner(createExecutor(Runtime.getRuntime().availableProcessors()));
+    return new DefaultCalculationTaskRunner(createExecutor(Runtime.getRuntime().availableProcessors()), null);
   }
 
   /**
@@ -66,7 +70,21 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner of(ExecutorService executor) {
-    return new DefaultCalculationTaskRunner(executor);
+    return new DefaultCalculationTaskRunner(executor, null);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the deduplicator of the tasks.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   *
+   * @param executor  the executor to use
+   * @param deduplicator  the deduplicator of the tasks of economically identical targets
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner of(ExecutorService executor, TaskDeduplicator deduplicator) {
+    return new DefaultCalculationTaskRunner(executor, ArgChecker.notNull(deduplicator, "deduplicator"));
   }
 
   // create an executor with daemon threads
@@ -86,9 +104,11 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * Creates an instance specifying the executor to use.
    *
    * @param executor  the executor that is used to perform the calculations
+   * @param deduplicator  the deduplicator of the tasks, null if tasks are not deduplicated
    */
-  private DefaultCalculationTaskRunner(ExecutorService executor) {
+  private DefaultCalculationTaskRunner(ExecutorService executor, TaskDeduplicator deduplicator) {
     this.executor = ArgChecker.notNull(executor, "executor");
+    this.deduplicator = deduplicator;
   }
 
   //-------------------------------------------------------------------------
@@ -172,6 +192,10 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       ReferenceData refData,
       CalculationListener listener) {
 
+    if (deduplicator != null) {
+      calculateDeduplicated(tasks, marketData, refData, listener);
+      return;
+    }
     List<CalculationTask> taskList = tasks.getTasks();
     // the listener is invoked via this wrapper
     // the wrapper ensures thread-safety for the listener
@@ -196,6 +220,26 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
   }
 
+  // runs the tasks, calculating each group of economically identical targets once
+  private void calculateDeduplicated(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    // splitting a task into deduplicated and other measures changes the number of tasks
+    List<TaskDeduplicator.TaskGroup> groups = deduplicator.group(tasks.getTasks(), refData);
+    int taskCount = groups.stream().mapToInt(TaskDeduplicator.TaskGroup::size).sum();
+    Consumer<CalculationResults> consumer =
+        new ListenerWrapper(listener, taskCount, tasks.getTargets(), tasks.getColumns());
+
+    // the results of each task of the group are passed to the consumer
+    for (TaskDeduplicator.TaskGroup group : groups) {
+      Supplier<List<CalculationResults>> groupExecutor = () -> group.execute(marketData, refData);
+      CompletableFuture.supplyAsync(groupExecutor, executor).thenAccept(results -> results.forEach(consumer));
+    }
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public void close() {
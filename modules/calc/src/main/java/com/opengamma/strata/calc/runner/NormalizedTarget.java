@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Set;
+
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.ImmutableValidator;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * The normalized form of a calculation target, as produced by a {@link TargetNormalizer}.
+ * <p>
+ * Two targets with equal keys are economically identical, except for their size.
+ * The results of measures that are linear in the size, such as present value, are
+ * proportional to the size, thus the results of one target can be derived from
+ * those of another by multiplying by the ratio of their sizes.
+ */
+@BeanDefinition(style = "light")
+public final class NormalizedTarget
+    implements ImmutableBean {
+
+  /**
+   * The key identifying the economics of the target, excluding its size.
+   * <p>
+   * The key must implement {@code equals} and {@code hashCode}, typically by being an immutable bean.
+   * It is typically the product of the target, with its notional set to one.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Object key;
+  /**
+   * The size of the target, typically the notional.
+   * <p>
+   * This must not be zero.
+   */
+  @PropertyDefinition
+  private final double size;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param key  the key identifying the economics of the target, excluding its size
+   * @param size  the size of the target, not zero
+   * @return the normalized target
+   */
+  public static NormalizedTarget of(Object key, double size) {
+    return new NormalizedTarget(key, size);
+  }
+
+  @ImmutableValidator
+  private void validate() {
+    ArgChecker.isFalse(size == 0d, "Size must not be zero");
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  ///CLOVER:OFF
+  /**
+   * The meta-bean for {@code NormalizedTarget}.
+   */
+  private static MetaBean META_BEAN = LightMetaBean.of(NormalizedTarget.class);
+
+  /**
+   * The meta-bean for {@code NormalizedTarget}.
+   * @return the meta-bean, not null
+   */
+  public static MetaBean meta() {
+    return META_BEAN;
+  }
+
+  static {
+    JodaBeanUtils.registerMetaBean(META_BEAN);
+  }
+
+  private NormalizedTarget(
+      Object key,
+      double size) {
+    JodaBeanUtils.notNull(key, "key");
+    this.key = key;
+    this.size = size;
+    validate();
+  }
+
+  @Override
+  public MetaBean metaBean() {
+    return META_BEAN;
+  }
+
+  @Override
+  public <R> Property<R> property(String propertyName) {
+    return metaBean().<R>metaProperty(propertyName).createProperty(this);
+  }
+
+  @Override
+  public Set<String> propertyNames() {
+    return metaBean().metaPropertyMap().keySet();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the key identifying the economics of the target, excluding its size.
+   * <p>
+   * The key must implement {@code equals} and {@code hashCode}, typically by being an immutable bean.
+   * It is typically the product of the target, with its notional set to one.
+   * @return the value of the property, not null
+   */
+  public Object getKey() {
+    return key;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the size of the target, typically the notional.
+   * <p>
+   * This must not be zero.
+   * @return the value of the property
+   */
+  public double getSize() {
+    return size;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      NormalizedTarget other = (NormalizedTarget) obj;
+      return JodaBeanUtils.equal(key, other.key) &&
+          JodaBeanUtils.equal(size, other.size);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(key);
+    hash = hash * 31 + JodaBeanUtils.hashCode(size);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(96);
+    buf.append("NormalizedTarget{");
+    buf.append("key").append('=').append(key).append(',').append(' ');
+    buf.append("size").append('=').append(JodaBeanUtils.toString(size));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  ///CLOVER:ON
+  //-------------------------- AUTOGENERATED END --------------------------
+}
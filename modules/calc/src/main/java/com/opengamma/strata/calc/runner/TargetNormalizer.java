@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Optional;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+
+/**
+ * Normalizes calculation targets, such that economically identical targets can be calculated once.
+ * <p>
+ * This is used by {@link TaskDeduplicator} to find targets, such as trades, that differ only
+ * by their trade information and size. The normalizer is typically implemented by the component
+ * that knows the types of trade, as the calculation engine has no knowledge of them.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface TargetNormalizer {
+
+  /**
+   * Normalizes the target.
+   * <p>
+   * Two targets normalizing to the same key must produce the same results for all the measures
+   * that are not linear in the size, and proportional results for the measures that are linear.
+   * An empty result is returned if the target is not supported, in which case it is always calculated.
+   *
+   * @param target  the target, such as a trade
+   * @param refData  the reference data
+   * @return the normalized target, empty if not supported
+   */
+  public abstract Optional<NormalizedTarget> normalize(CalculationTarget target, ReferenceData refData);
+
+  /**
+   * Multiplies a value of a type that is not known to the calculation engine by a factor.
+   * <p>
+   * {@link TaskDeduplicator} directly scales numbers, currency amounts and scenario arrays of them.
+   * This is called for the other types of value, such as sensitivities.
+   * An empty result is returned if the type is not supported, in which case the target is calculated.
+   * <p>
+   * The default implementation supports no type.
+   *
+   * @param value  the value
+   * @param factor  the factor to multiply by
+   * @return the scaled value, empty if the type is not supported
+   */
+  public default Optional<Object> scale(Object value, double factor) {
+    return Optional.empty();
+  }
+
+}
@@ -0,0 +1,397 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Deduplicates calculation tasks, such that economically identical targets are calculated once.
+ * <p>
+ * Large portfolios often contain many trades that differ only in their trade information and notional,
+ * such as standardized cleared swaps. Each target is normalized using a {@link TargetNormalizer}.
+ * The tasks of targets with the same normalized key, calculation function, parameters and cells
+ * are grouped. The first task of each group is calculated, and the results of the others are derived
+ * from its results.
+ * <p>
+ * Only the measures declared as linear or invariant are deduplicated:
+ * <ul>
+ *  <li>the result of a linear measure, such as present value, is multiplied by the ratio of the sizes
+ *  <li>the result of an invariant measure, such as par rate, is shared
+ * </ul>
+ * The other measures of a duplicate target are calculated as normal. If the result of a linear measure
+ * cannot be scaled, because the type of the value is not supported, the duplicate target is calculated.
+ * A failure is shared, thus the failure message refers to the first target of the group.
+ * <p>
+ * The deduplicator records the number of tasks and the number of tasks derived from another task,
+ * providing the hit rate of the deduplication. These statistics accumulate over all the calculations
+ * performed with the deduplicator.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class TaskDeduplicator {
+
+  /**
+   * The normalizer.
+   */
+  private final TargetNormalizer normalizer;
+  /**
+   * The measures that are linear in the size of the target.
+   */
+  private final ImmutableSet<Measure> linearMeasures;
+  /**
+   * The measures that are independent of the size of the target.
+   */
+  private final ImmutableSet<Measure> invariantMeasures;
+  /**
+   * The number of tasks.
+   */
+  private final LongAdder taskCount = new LongAdder();
+  /**
+   * The number of tasks whose results were derived from those of another task.
+   */
+  private final LongAdder sharedTaskCount = new LongAdder();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   * <p>
+   * A measure must not be both linear and invariant.
+   *
+   * @param normalizer  the normalizer of the targets
+   * @param linearMeasures  the measures that are linear in the size of the target, such as present value
+   * @param invariantMeasures  the measures that are independent of the size of the target, such as par rate
+   * @return the deduplicator
+   */
+  public static TaskDeduplicator of(
+      TargetNormalizer normalizer,
+      Set<Measure> linearMeasures,
+      Set<Measure> invariantMeasures) {
+
+    return new TaskDeduplicator(normalizer, linearMeasures, invariantMeasures);
+  }
+
+  // restricted constructor
+  private TaskDeduplicator(TargetNormalizer normalizer, Set<Measure> linearMeasures, Set<Measure> invariantMeasures) {
+    this.normalizer = ArgChecker.notNull(normalizer, "normalizer");
+    this.linearMeasures = ImmutableSet.copyOf(ArgChecker.noNulls(linearMeasures, "linearMeasures"));
+    this.invariantMeasures = ImmutableSet.copyOf(ArgChecker.noNulls(invariantMeasures, "invariantMeasures"));
+    ArgChecker.isTrue(
+        Sets.intersection(this.linearMeasures, this.invariantMeasures).isEmpty(),
+        "Measures must not be both linear and invariant: {}",
+        Sets.intersection(this.linearMeasures, this.invariantMeasures));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the normalizer of the targets.
+   *
+   * @return the normalizer
+   */
+  public TargetNormalizer getNormalizer() {
+    return normalizer;
+  }
+
+  /**
+   * Gets the measures that are linear in the size of the target.
+   *
+   * @return the linear measures
+   */
+  public ImmutableSet<Measure> getLinearMeasures() {
+    return linearMeasures;
+  }
+
+  /**
+   * Gets the measures that are independent of the size of the target.
+   *
+   * @return the invariant measures
+   */
+  public ImmutableSet<Measure> getInvariantMeasures() {
+    return invariantMeasures;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of tasks that have been executed.
+   * <p>
+   * A task with both deduplicated measures and other measures counts as two tasks.
+   *
+   * @return the number of tasks
+   */
+  public long getTaskCount() {
+    return taskCount.sum();
+  }
+
+  /**
+   * Gets the number of tasks whose results were derived from those of another task.
+   *
+   * @return the number of shared tasks
+   */
+  public long getSharedTaskCount() {
+    return sharedTaskCount.sum();
+  }
+
+  /**
+   * Gets the hit rate, the proportion of tasks whose results were derived from those of another task.
+   * <p>
+   * This is zero if no tasks have been executed.
+   *
+   * @return the hit rate, from zero to one
+   */
+  public double getHitRate() {
+    long tasks = taskCount.sum();
+    return tasks == 0 ? 0d : (double) sharedTaskCount.sum() / tasks;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Groups the tasks, such that each group is calculated once.
+   * <p>
+   * The order of the groups is the order of the first task of each group.
+   *
+   * @param tasks  the tasks
+   * @param refData  the reference data
+   * @return the groups
+   */
+  List<TaskGroup> group(List<CalculationTask> tasks, ReferenceData refData) {
+    Map<CalculationTarget, Optional<NormalizedTarget>> normalized = new IdentityHashMap<>();
+    Map<List<Object>, TaskGroup> groupsByKey = new HashMap<>();
+    List<TaskGroup> groups = new ArrayList<>();
+    int count = 0;
+    for (CalculationTask task : tasks) {
+      Optional<NormalizedTarget> normalizedTarget =
+          normalized.computeIfAbsent(task.getTarget(), target -> normalize(target, refData));
+      List<CalculationTaskCell> sharedCells = new ArrayList<>();
+      List<CalculationTaskCell> otherCells = new ArrayList<>();
+      for (CalculationTaskCell cell : task.getCells()) {
+        Measure measure = cell.getMeasure();
+        boolean shared = linearMeasures.contains(measure) || invariantMeasures.contains(measure);
+        (shared ? sharedCells : otherCells).add(cell);
+      }
+      if (!normalizedTarget.isPresent() || sharedCells.isEmpty()) {
+        groups.add(new TaskGroup(task, 1d));
+        count++;
+        continue;
+      }
+      CalculationTask sharedTask = task;
+      if (!otherCells.isEmpty()) {
+        sharedTask = CalculationTask.of(task.getTarget(), task.getFunction(), task.getParameters(), sharedCells);
+        groups.add(new TaskGroup(
+            CalculationTask.of(task.getTarget(), task.getFunction(), task.getParameters(), otherCells), 1d));
+        count++;
+      }
+      List<Object> key = ImmutableList.of(
+          normalizedTarget.get().getKey(),
+          task.getFunction(),
+          task.getParameters(),
+          sharedCells.stream()
+              .map(cell -> ImmutableList.of(cell.getMeasure(), cell.getReportingCurrency()))
+              .collect(toImmutableList()));
+      TaskGroup group = groupsByKey.get(key);
+      if (group == null) {
+        group = new TaskGroup(sharedTask, normalizedTarget.get().getSize());
+        groupsByKey.put(key, group);
+        groups.add(group);
+      } else {
+        group.addDuplicate(sharedTask, normalizedTarget.get().getSize());
+      }
+      count++;
+    }
+    taskCount.add(count);
+    return groups;
+  }
+
+  // normalizes the target, a target that cannot be normalized is not deduplicated
+  private Optional<NormalizedTarget> normalize(CalculationTarget target, ReferenceData refData) {
+    try {
+      return normalizer.normalize(target, refData);
+    } catch (RuntimeException ex) {
+      return Optional.empty();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Multiplies a value by a factor.
+   * <p>
+   * Numbers, currency amounts and scenario arrays of them are scaled directly.
+   * Other types are scaled by the normalizer.
+   *
+   * @param value  the value
+   * @param factor  the factor to multiply by
+   * @return the scaled value, empty if the type is not supported
+   */
+  Optional<Object> scale(Object value, double factor) {
+    if (value instanceof Double) {
+      return Optional.of((Double) value * factor);
+    }
+    if (value instanceof CurrencyAmount) {
+      return Optional.of(((CurrencyAmount) value).multipliedBy(factor));
+    }
+    if (value instanceof MultiCurrencyAmount) {
+      return Optional.of(((MultiCurrencyAmount) value).multipliedBy(factor));
+    }
+    if (value instanceof DoubleScenarioArray) {
+      return Optional.of(DoubleScenarioArray.of(((DoubleScenarioArray) value).getValues().multipliedBy(factor)));
+    }
+    if (value instanceof CurrencyScenarioArray) {
+      CurrencyScenarioArray array = (CurrencyScenarioArray) value;
+      return Optional.of(CurrencyScenarioArray.of(
+          array.getCurrency(), array.getAmounts().getValues().multipliedBy(factor)));
+    }
+    if (value instanceof MultiCurrencyScenarioArray) {
+      MultiCurrencyScenarioArray array = (MultiCurrencyScenarioArray) value;
+      if (array.getCurrencies().isEmpty()) {
+        return Optional.of(array);
+      }
+      Map<Currency, DoubleArray> values = new HashMap<>();
+      for (Currency currency : array.getCurrencies()) {
+        values.put(currency, array.getValues(currency).multipliedBy(factor));
+      }
+      return Optional.of(MultiCurrencyScenarioArray.of(values));
+    }
+    if (value instanceof ScenarioArray) {
+      ScenarioArray<?> array = (ScenarioArray<?>) value;
+      List<Object> values = new ArrayList<>(array.getScenarioCount());
+      for (int i = 0; i < array.getScenarioCount(); i++) {
+        Optional<Object> scaled = scale(array.get(i), factor);
+        if (!scaled.isPresent()) {
+          return Optional.empty();
+        }
+        values.add(scaled.get());
+      }
+      return Optional.of(ScenarioArray.of(values));
+    }
+    return normalizer.scale(value, factor);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "TaskDeduplicator[" + getSharedTaskCount() + " of " + getTaskCount() + " tasks shared]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A group of tasks, the first of which is calculated, with the results of the others derived from it.
+   */
+  final class TaskGroup {
+    /**
+     * The task that is calculated.
+     */
+    private final CalculationTask task;
+    /**
+     * The size of the target of the task.
+     */
+    private final double size;
+    /**
+     * The tasks whose results are derived.
+     */
+    private final List<CalculationTask> duplicates = new ArrayList<>();
+    /**
+     * The size of the target of each duplicate.
+     */
+    private final List<Double> duplicateSizes = new ArrayList<>();
+
+    // restricted constructor
+    private TaskGroup(CalculationTask task, double size) {
+      this.task = task;
+      this.size = size;
+    }
+
+    // adds a task whose results are derived
+    private void addDuplicate(CalculationTask duplicate, double duplicateSize) {
+      duplicates.add(duplicate);
+      duplicateSizes.add(duplicateSize);
+    }
+
+    /**
+     * Gets the number of tasks in the group.
+     *
+     * @return the number of tasks
+     */
+    int size() {
+      return 1 + duplicates.size();
+    }
+
+    /**
+     * Executes the group, returning the results of each task.
+     *
+     * @param marketData  the market data used in the calculation
+     * @param refData  the reference data
+     * @return the results, one for each task in the group
+     */
+    List<CalculationResults> execute(ScenarioMarketData marketData, ReferenceData refData) {
+      CalculationResults results = task.execute(marketData, refData);
+      if (duplicates.isEmpty()) {
+        return ImmutableList.of(results);
+      }
+      ImmutableList.Builder<CalculationResults> builder = ImmutableList.builder();
+      builder.add(results);
+      for (int i = 0; i < duplicates.size(); i++) {
+        builder.add(derive(duplicates.get(i), duplicateSizes.get(i) / size, results, marketData, refData));
+      }
+      return builder.build();
+    }
+
+    // derives the results of a duplicate, calculating them if a value cannot be scaled
+    private CalculationResults derive(
+        CalculationTask duplicate,
+        double factor,
+        CalculationResults results,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      List<CalculationTaskCell> cells = duplicate.getCells();
+      ImmutableList.Builder<CalculationResult> builder = ImmutableList.builder();
+      for (int i = 0; i < cells.size(); i++) {
+        CalculationTaskCell cell = cells.get(i);
+        Optional<Result<?>> result = deriveResult(cell.getMeasure(), results.getCells().get(i).getResult(), factor);
+        if (!result.isPresent()) {
+          return duplicate.execute(marketData, refData);
+        }
+        builder.add(CalculationResult.of(cell.getRowIndex(), cell.getColumnIndex(), result.get()));
+      }
+      sharedTaskCount.increment();
+      return CalculationResults.of(duplicate.getTarget(), builder.build());
+    }
+
+    // derives a single result
+    private Optional<Result<?>> deriveResult(Measure measure, Result<?> result, double factor) {
+      if (result.isFailure() || factor == 1d || invariantMeasures.contains(measure)) {
+        return Optional.of(result);
+      }
+      return scale(result.getValue(), factor).<Result<?>>map(Result::success);
+    }
+  }
+
+}
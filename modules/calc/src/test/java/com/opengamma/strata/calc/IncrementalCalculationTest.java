@@ -0,0 +1,372 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.marketdata.BuiltMarketData;
+import com.opengamma.strata.calc.marketdata.BuiltScenarioMarketData;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataFunction;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.marketdata.ObservableDataProvider;
+import com.opengamma.strata.calc.marketdata.ScenarioDefinition;
+import com.opengamma.strata.calc.marketdata.TestObservableId;
+import com.opengamma.strata.calc.marketdata.TimeSeriesProvider;
+import com.opengamma.strata.calc.runner.CalculationFunction;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.CalculationListener;
+import com.opengamma.strata.calc.runner.CalculationParameters;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.calc.runner.FunctionRequirements;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link IncrementalCalculation}.
+ */
+@Test
+public class IncrementalCalculationTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2016, 6, 30);
+  private static final TestObservableId QUOTE1 = TestObservableId.of("1");
+  private static final TestObservableId QUOTE2 = TestObservableId.of("2");
+  private static final MarketDataFactory FACTORY = MarketDataFactory.of(
+      ObservableDataProvider.none(), TimeSeriesProvider.none(), new DerivedFunction());
+  private static final List<TestTarget> TARGETS = ImmutableList.of(
+      new TestTarget("1"), new TestTarget("2"), new TestTarget("1"), new TestTarget("2"));
+  private static final List<Column> COLUMNS = ImmutableList.of(Column.of(TestingMeasures.PAR_RATE));
+  private static final MarketDataRequirements REQUIREMENTS =
+      MarketDataRequirements.builder().addValues(new DerivedId("1"), new DerivedId("2")).build();
+
+  //-------------------------------------------------------------------------
+  public void test_affectedIds() {
+    MarketData suppliedData = marketData(VAL_DATE, 1d, 2d);
+    assertEquals(
+        FACTORY.affectedIds(REQUIREMENTS, MarketDataConfig.empty(), suppliedData, ImmutableSet.of(QUOTE1)),
+        ImmutableSet.of(QUOTE1, new DerivedId("1")));
+    assertEquals(
+        FACTORY.affectedIds(REQUIREMENTS, MarketDataConfig.empty(), suppliedData, ImmutableSet.of()),
+        ImmutableSet.of());
+    // supplied data is not built, thus it is only affected if it changes
+    MarketData suppliedDerived = suppliedData.withValue(new DerivedId("1"), 5d);
+    assertEquals(
+        FACTORY.affectedIds(REQUIREMENTS, MarketDataConfig.empty(), suppliedDerived, ImmutableSet.of(QUOTE1)),
+        ImmutableSet.of());
+  }
+
+  public void test_affectedIds_default() {
+    // the default implementation conservatively returns all the requirements
+    MarketDataFactory factory = new DelegatingFactory(FACTORY);
+    MarketData suppliedData = marketData(VAL_DATE, 1d, 2d);
+    assertEquals(
+        factory.affectedIds(REQUIREMENTS, MarketDataConfig.empty(), suppliedData, ImmutableSet.of(QUOTE1)),
+        ImmutableSet.of(QUOTE1, new DerivedId("1"), new DerivedId("2")));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() {
+    TestFunction function = new TestFunction();
+    IncrementalCalculation test = incrementalCalculation(function);
+    assertNull(test.getResults());
+    assertEquals(test.getRequirements(), REQUIREMENTS);
+    assertEquals(test.toString(), "IncrementalCalculation[4 targets, 1 columns]");
+
+    Results results = test.calculate(marketData(VAL_DATE, 1d, 2d));
+    assertEquals(function.invocations.get(), 4);
+    assertEquals(test.getCalculatedTaskCount(), 4);
+    assertEquals(values(results), ImmutableList.of(10d, 20d, 10d, 20d));
+    assertEquals(test.getResults(), results);
+    assertEquals(test.getMarketData().getValue(new DerivedId("1")), 10d);
+  }
+
+  public void test_update() {
+    TestFunction function = new TestFunction();
+    DerivedFunction derivedFunction = new DerivedFunction();
+    MarketDataFactory factory =
+        MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none(), derivedFunction);
+    IncrementalCalculation test = incrementalCalculation(function, factory);
+    test.calculate(marketData(VAL_DATE, 1d, 2d));
+    assertEquals(derivedFunction.builds.get(), 2);
+
+    // only the market data and the targets depending on the first quote are calculated
+    RecordingListener listener = new RecordingListener();
+    Results results = test.update(marketData(VAL_DATE, 3d, 2d), ImmutableSet.of(QUOTE1), listener);
+    assertEquals(derivedFunction.builds.get(), 3);
+    assertEquals(function.invocations.get(), 6);
+    assertEquals(test.getCalculatedTaskCount(), 2);
+    assertEquals(values(results), ImmutableList.of(30d, 20d, 30d, 20d));
+    assertEquals(listener.targets, TARGETS);
+    assertEquals(listener.results.size(), 2);
+    assertEquals(listener.results.get(0).getRowIndex(), 0);
+    assertEquals(listener.results.get(1).getRowIndex(), 2);
+    assertEquals(listener.complete, true);
+
+    // nothing is calculated if nothing changes
+    Results unchanged = test.update(marketData(VAL_DATE, 3d, 2d), ImmutableSet.of());
+    assertEquals(function.invocations.get(), 6);
+    assertEquals(test.getCalculatedTaskCount(), 0);
+    assertEquals(unchanged, results);
+
+    // all targets are calculated if both quotes change
+    Results both = test.update(marketData(VAL_DATE, 4d, 5d), ImmutableSet.of(QUOTE1, QUOTE2));
+    assertEquals(function.invocations.get(), 10);
+    assertEquals(values(both), ImmutableList.of(40d, 50d, 40d, 50d));
+  }
+
+  public void test_update_defaultFactory() {
+    TestFunction function = new TestFunction();
+    DerivedFunction derivedFunction = new DerivedFunction();
+    MarketDataFactory factory = new DelegatingFactory(
+        MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none(), derivedFunction));
+    IncrementalCalculation test = incrementalCalculation(function, factory);
+    test.calculate(marketData(VAL_DATE, 1d, 2d));
+
+    // the default implementation rebuilds all the market data and calculates all the targets
+    Results results = test.update(marketData(VAL_DATE, 3d, 2d), ImmutableSet.of(QUOTE1));
+    assertEquals(derivedFunction.builds.get(), 4);
+    assertEquals(function.invocations.get(), 8);
+    assertEquals(values(results), ImmutableList.of(30d, 20d, 30d, 20d));
+  }
+
+  public void test_update_notCalculated() {
+    TestFunction function = new TestFunction();
+    IncrementalCalculation test = incrementalCalculation(function);
+    Results results = test.update(marketData(VAL_DATE, 1d, 2d), ImmutableSet.of(QUOTE1));
+    assertEquals(function.invocations.get(), 4);
+    assertEquals(values(results), ImmutableList.of(10d, 20d, 10d, 20d));
+  }
+
+  public void test_update_valuationDateChanged() {
+    TestFunction function = new TestFunction();
+    IncrementalCalculation test = incrementalCalculation(function);
+    test.calculate(marketData(VAL_DATE, 1d, 2d));
+    Results results = test.update(marketData(VAL_DATE.plusDays(1), 1d, 2d), ImmutableSet.of());
+    assertEquals(function.invocations.get(), 8);
+    assertEquals(values(results), ImmutableList.of(10d, 20d, 10d, 20d));
+  }
+
+  //-------------------------------------------------------------------------
+  private static IncrementalCalculation incrementalCalculation(TestFunction function) {
+    return incrementalCalculation(function, FACTORY);
+  }
+
+  private static IncrementalCalculation incrementalCalculation(TestFunction function, MarketDataFactory factory) {
+    CalculationRules rules = CalculationRules.of(CalculationFunctions.of(function));
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationRunner runner = CalculationRunner.of(MoreExecutors.newDirectExecutorService());
+    return IncrementalCalculation.of(runner, rules, TARGETS, COLUMNS, factory, MarketDataConfig.empty(), REF_DATA);
+  }
+
+  private static MarketData marketData(LocalDate valuationDate, double quote1, double quote2) {
+    return MarketData.of(valuationDate, ImmutableMap.of(QUOTE1, quote1, QUOTE2, quote2));
+  }
+
+  private static List<Object> values(Results results) {
+    List<Object> values = new ArrayList<>();
+    for (int i = 0; i < results.getRowCount(); i++) {
+      values.add(results.get(i, 0).getValue());
+    }
+    return values;
+  }
+
+  //-------------------------------------------------------------------------
+  // a factory that only implements the abstract methods, thus using the default incremental methods
+  private static final class DelegatingFactory implements MarketDataFactory {
+    private final MarketDataFactory underlying;
+
+    private DelegatingFactory(MarketDataFactory underlying) {
+      this.underlying = underlying;
+    }
+
+    @Override
+    public BuiltMarketData create(
+        MarketDataRequirements requirements,
+        MarketDataConfig marketDataConfig,
+        MarketData suppliedData,
+        ReferenceData refData) {
+
+      return underlying.create(requirements, marketDataConfig, suppliedData, refData);
+    }
+
+    @Override
+    public BuiltScenarioMarketData createMultiScenario(
+        MarketDataRequirements requirements,
+        MarketDataConfig marketDataConfig,
+        MarketData suppliedData,
+        ReferenceData refData,
+        ScenarioDefinition scenarioDefinition) {
+
+      return underlying.createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+    }
+
+    @Override
+    public BuiltScenarioMarketData createMultiScenario(
+        MarketDataRequirements requirements,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData suppliedData,
+        ReferenceData refData,
+        ScenarioDefinition scenarioDefinition) {
+
+      return underlying.createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class TestTarget implements CalculationTarget {
+    private final String key;
+
+    private TestTarget(String key) {
+      this.key = key;
+    }
+  }
+
+  private static final class DerivedId implements MarketDataId<Double> {
+    private final String key;
+
+    private DerivedId(String key) {
+      this.key = key;
+    }
+
+    @Override
+    public Class<Double> getMarketDataType() {
+      return Double.class;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof DerivedId && ((DerivedId) obj).key.equals(key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(key);
+    }
+
+    @Override
+    public String toString() {
+      return "DerivedId[" + key + "]";
+    }
+  }
+
+  // builds the derived value by multiplying the quote by ten
+  private static final class DerivedFunction implements MarketDataFunction<Double, DerivedId> {
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Override
+    public MarketDataRequirements requirements(DerivedId id, MarketDataConfig marketDataConfig) {
+      return MarketDataRequirements.of(TestObservableId.of(id.key));
+    }
+
+    @Override
+    public MarketDataBox<Double> build(
+        DerivedId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      builds.incrementAndGet();
+      return marketData.getValue(TestObservableId.of(id.key)).map(value -> value * 10);
+    }
+
+    @Override
+    public Class<DerivedId> getMarketDataIdType() {
+      return DerivedId.class;
+    }
+  }
+
+  // returns the derived value required by the target
+  private static final class TestFunction implements CalculationFunction<TestTarget> {
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PAR_RATE);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.builder().valueRequirements(new DerivedId(target.key)).build();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      invocations.incrementAndGet();
+      ScenarioArray<Double> value = ScenarioArray.of(marketData.getValue(new DerivedId(target.key)).getValue(0));
+      return ImmutableMap.of(TestingMeasures.PAR_RATE, Result.success(value));
+    }
+  }
+
+  // records the results it receives
+  private static final class RecordingListener implements CalculationListener {
+    private List<CalculationTarget> targets;
+    private final List<CalculationResult> results = new ArrayList<>();
+    private boolean complete;
+
+    @Override
+    public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+      this.targets = targets;
+    }
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      results.add(result);
+    }
+
+    @Override
+    public void calculationsComplete() {
+      complete = true;
+    }
+  }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.ObservableSource;
+
+/**
+ * Test {@link MappedTimeSeriesProvider}.
+ */
+@Test
+public class MappedTimeSeriesProviderTest {
+
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final TestObservableId ID3_SOURCE = TestObservableId.of("3", ObservableSource.of("Vendor"));
+  private static final LocalDateDoubleTimeSeries SERIES1 = LocalDateDoubleTimeSeries.builder()
+      .put(date(2016, 3, 1), 1.1)
+      .put(date(2016, 3, 2), 1.2)
+      .put(date(2016, 3, 4), 1.4)
+      .build();
+  private static final LocalDateDoubleTimeSeries SERIES2 = LocalDateDoubleTimeSeries.of(date(2016, 3, 1), 2);
+
+  public void test_provideTimeSeries() throws IOException {
+    Path directory = Files.createTempDirectory("timeseries");
+    try {
+      MappedTimeSeriesProvider.write(directory, ImmutableMap.of(ID1, SERIES1, ID3_SOURCE, SERIES2));
+      MappedTimeSeriesProvider test = MappedTimeSeriesProvider.of(directory);
+
+      Result<LocalDateDoubleTimeSeries> result1 = test.provideTimeSeries(ID1);
+      assertThat(result1.isSuccess()).isTrue();
+      assertEquals(result1.getValue().stream().toArray().length, 3);
+      assertEquals(result1.getValue().get(date(2016, 3, 4)).getAsDouble(), 1.4d);
+      assertThat(test.provideTimeSeries(ID1).getValue()).isSameAs(result1.getValue());
+      assertEquals(test.provideTimeSeries(ID3_SOURCE).getValue().getLatestValue(), 2d);
+      assertThat(test.provideTimeSeries(TestObservableId.of("3")).isFailure()).isTrue();
+
+      Result<LocalDateDoubleTimeSeries> result2 = test.provideTimeSeries(ID2);
+      assertThat(result2.isFailure()).isTrue();
+      assertEquals(result2.getFailure().getReason(), FailureReason.MISSING_DATA);
+      assertThat(test.toString()).contains(directory.toString());
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.deleteIfExists(file);
+        }
+      }
+      Files.deleteIfExists(directory);
+    }
+  }
+
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link MarketDataPipeline}.
+ */
+@Test
+public class MarketDataPipelineTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2016, 6, 30);
+  private static final TestObservableId QUOTE1 = TestObservableId.of("1");
+  private static final TestObservableId QUOTE2 = TestObservableId.of("2");
+  private static final MarketDataRequirements REQUIREMENTS =
+      MarketDataRequirements.builder().addValues(new DerivedId("1"), new DerivedId("2")).build();
+  private static final MarketData SUPPLIED_DATA = MarketData.of(VAL_DATE, ImmutableMap.of(QUOTE1, 1d, QUOTE2, 2d));
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private ScheduledExecutorService executor;
+
+  @BeforeMethod
+  public void setUp() {
+    executor = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_of_invalid() {
+    MarketDataFactory factory = factory(new DerivedFunction());
+    assertThrowsIllegalArg(() -> MarketDataPipeline.of(
+        factory, REQUIREMENTS, MarketDataConfig.empty(), REF_DATA, executor, Duration.ofMillis(-1), 1));
+    assertThrowsIllegalArg(() -> MarketDataPipeline.of(
+        factory, REQUIREMENTS, MarketDataConfig.empty(), REF_DATA, executor, Duration.ZERO, 0));
+  }
+
+  public void test_start() {
+    DerivedFunction function = new DerivedFunction();
+    SimulatedObservableDataStream stream = SimulatedObservableDataStream.of();
+    try (MarketDataPipeline test = pipeline(function, Duration.ZERO, 1)) {
+      MarketDataSnapshot snapshot = test.start(SUPPLIED_DATA, stream);
+      assertEquals(snapshot.getSequence(), 0);
+      assertEquals(snapshot.getTickCount(), 0);
+      assertEquals(snapshot.getChangedIds(), ImmutableSet.of());
+      assertEquals(snapshot.getMarketData().getValue(new DerivedId("1")), 10d);
+      assertEquals(snapshot.getMarketData().getValue(new DerivedId("2")), 20d);
+      assertEquals(test.getLatestSnapshot(), snapshot);
+      assertEquals(stream.getSubscribedIds(), ImmutableSet.of(QUOTE1, QUOTE2));
+      assertEquals(function.builds.get(), 2);
+      assertThrows(() -> test.start(SUPPLIED_DATA, stream), IllegalStateException.class);
+    }
+  }
+
+  public void test_coalescing() {
+    DerivedFunction function = new DerivedFunction();
+    SimulatedObservableDataStream stream = SimulatedObservableDataStream.of();
+    try (MarketDataPipeline test = pipeline(function, Duration.ofMillis(200), 4)) {
+      test.start(SUPPLIED_DATA, stream);
+      // the ticks are received within the window, thus only the latest value is built
+      stream.publish(QUOTE1, 3d);
+      stream.publish(QUOTE1, 4d);
+      stream.publish(QUOTE1, 5d);
+      MarketDataSnapshot snapshot = test.poll(TIMEOUT).get();
+      assertEquals(snapshot.getSequence(), 1);
+      assertEquals(snapshot.getTickCount(), 3);
+      assertEquals(snapshot.getChangedIds(), ImmutableSet.of(QUOTE1, new DerivedId("1")));
+      assertEquals(snapshot.getMarketData().getValue(QUOTE1), 5d);
+      assertEquals(snapshot.getMarketData().getValue(new DerivedId("1")), 50d);
+      assertEquals(snapshot.getMarketData().getValue(new DerivedId("2")), 20d);
+      assertTrue(snapshot.getBuildLatency().compareTo(Duration.ofMillis(200)) >= 0);
+      assertFalse(snapshot.latency().isNegative());
+      // the market data not affected by the ticks is reused
+      assertEquals(function.builds.get(), 3);
+      assertEquals(test.getTickCount(), 3);
+      assertEquals(test.getSnapshotCount(), 1);
+      assertEquals(test.getMaxBuildLatency(), snapshot.getBuildLatency());
+      assertEquals(test.getLatestSnapshot(), snapshot);
+      assertFalse(test.poll(Duration.ofMillis(1)).isPresent());
+    }
+  }
+
+  public void test_backpressure() throws Exception {
+    DerivedFunction function = new DerivedFunction();
+    SimulatedObservableDataStream stream = SimulatedObservableDataStream.of();
+    try (MarketDataPipeline test = pipeline(function, Duration.ZERO, 1)) {
+      test.start(SUPPLIED_DATA, stream);
+      stream.publish(QUOTE1, 3d);
+      awaitSnapshotCount(test, 1);
+
+      // the queue is full, thus the ticks are coalesced until the snapshot is consumed
+      stream.publish(QUOTE2, 4d);
+      stream.publish(QUOTE2, 5d);
+      Thread.sleep(100);
+      assertEquals(test.getSnapshotCount(), 1);
+      MarketDataSnapshot snapshot1 = test.poll(TIMEOUT).get();
+      assertEquals(snapshot1.getChangedIds(), ImmutableSet.of(QUOTE1, new DerivedId("1")));
+
+      MarketDataSnapshot snapshot2 = test.poll(TIMEOUT).get();
+      assertEquals(snapshot2.getSequence(), 2);
+      assertEquals(snapshot2.getTickCount(), 2);
+      assertEquals(snapshot2.getChangedIds(), ImmutableSet.of(QUOTE2, new DerivedId("2")));
+      assertEquals(snapshot2.getMarketData().getValue(new DerivedId("1")), 30d);
+      assertEquals(snapshot2.getMarketData().getValue(new DerivedId("2")), 50d);
+      assertEquals(test.getTickCount(), 3);
+      assertEquals(function.builds.get(), 4);
+    }
+  }
+
+  public void test_close() {
+    SimulatedObservableDataStream stream = SimulatedObservableDataStream.of();
+    MarketDataPipeline test = pipeline(new DerivedFunction(), Duration.ZERO, 1);
+    test.start(SUPPLIED_DATA, stream);
+    test.close();
+    assertEquals(stream.getSubscribedIds(), ImmutableSet.of());
+    stream.publish(QUOTE1, 3d);
+    assertFalse(test.poll(Duration.ofMillis(50)).isPresent());
+    assertEquals(test.getSnapshotCount(), 0);
+    assertThrows(() -> test.start(SUPPLIED_DATA, stream), IllegalStateException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  private MarketDataPipeline pipeline(DerivedFunction function, Duration window, int capacity) {
+    return MarketDataPipeline.of(
+        factory(function), REQUIREMENTS, MarketDataConfig.empty(), REF_DATA, executor, window, capacity);
+  }
+
+  private static MarketDataFactory factory(DerivedFunction function) {
+    return MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none(), function);
+  }
+
+  // waits until the pipeline has published the specified number of snapshots
+  private static void awaitSnapshotCount(MarketDataPipeline pipeline, long count) throws InterruptedException {
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (pipeline.getSnapshotCount() < count && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(pipeline.getSnapshotCount(), count);
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class DerivedId implements MarketDataId<Double> {
+    private final String key;
+
+    private DerivedId(String key) {
+      this.key = key;
+    }
+
+    @Override
+    public Class<Double> getMarketDataType() {
+      return Double.class;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof DerivedId && ((DerivedId) obj).key.equals(key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(key);
+    }
+
+    @Override
+    public String toString() {
+      return "DerivedId[" + key + "]";
+    }
+  }
+
+  // builds the derived value by multiplying the quote by ten
+  private static final class DerivedFunction implements MarketDataFunction<Double, DerivedId> {
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Override
+    public MarketDataRequirements requirements(DerivedId id, MarketDataConfig marketDataConfig) {
+      return MarketDataRequirements.of(TestObservableId.of(id.key));
+    }
+
+    @Override
+    public MarketDataBox<Double> build(
+        DerivedId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      builds.incrementAndGet();
+      return marketData.getValue(TestObservableId.of(id.key)).map(value -> value * 10);
+    }
+
+    @Override
+    public Class<DerivedId> getMarketDataIdType() {
+      return DerivedId.class;
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjDoubleConsumer;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Test {@link SimulatedObservableDataStream}.
+ */
+@Test
+public class SimulatedObservableDataStreamTest {
+
+  private static final TestObservableId QUOTE1 = TestObservableId.of("1");
+  private static final TestObservableId QUOTE2 = TestObservableId.of("2");
+  private static final TestObservableId QUOTE3 = TestObservableId.of("3");
+
+  public void test_publish() {
+    SimulatedObservableDataStream test = SimulatedObservableDataStream.of();
+    Map<ObservableId, Double> received1 = new LinkedHashMap<>();
+    Map<ObservableId, Double> received2 = new LinkedHashMap<>();
+    ObjDoubleConsumer<ObservableId> listener1 = received1::put;
+    test.subscribe(ImmutableSet.of(QUOTE1, QUOTE2), listener1);
+    test.subscribe(ImmutableSet.of(QUOTE2), received2::put);
+    assertEquals(test.getSubscribedIds(), ImmutableSet.of(QUOTE1, QUOTE2));
+
+    test.publish(QUOTE1, 1d);
+    test.publish(ImmutableMap.of(QUOTE2, 2d, QUOTE3, 3d));
+    assertEquals(received1, ImmutableMap.of(QUOTE1, 1d, QUOTE2, 2d));
+    assertEquals(received2, ImmutableMap.of(QUOTE2, 2d));
+
+    test.unsubscribe(listener1);
+    test.publish(QUOTE1, 4d);
+    assertEquals(received1, ImmutableMap.of(QUOTE1, 1d, QUOTE2, 2d));
+    assertEquals(test.getSubscribedIds(), ImmutableSet.of(QUOTE2));
+  }
+
+}
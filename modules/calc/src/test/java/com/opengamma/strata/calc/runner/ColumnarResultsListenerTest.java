@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+
+/**
+ * Test {@link ColumnarResultsListener} and {@link ColumnarResults}.
+ */
+@Test
+public class ColumnarResultsListenerTest {
+
+  private static final CalculationTarget TARGET = new CalculationTarget() {};
+  private static final Column COLUMN_PV = Column.of(TestingMeasures.PRESENT_VALUE);
+  private static final Column COLUMN_PAR = Column.of(TestingMeasures.PAR_RATE);
+  private static final ImmutableList<Column> COLUMNS = ImmutableList.of(COLUMN_PV, COLUMN_PAR);
+  private static final ImmutableList<CalculationTarget> TARGETS = ImmutableList.of(TARGET, TARGET, TARGET);
+
+  private static final CurrencyScenarioArray PV0 = CurrencyScenarioArray.of(GBP, DoubleArray.of(1, 2, 3));
+  private static final CurrencyScenarioArray PV1 = CurrencyScenarioArray.of(USD, DoubleArray.of(4, 5, 6));
+  private static final Result<?> PV2 = Result.failure(FailureReason.CALCULATION_FAILED, "Failed");
+  private static final DoubleScenarioArray PAR0 = DoubleScenarioArray.of(DoubleArray.of(0.01, 0.02, 0.03));
+  private static final String PAR1 = "NotAnArray";
+  private static final DoubleScenarioArray PAR2 = DoubleScenarioArray.of(DoubleArray.of(0.04, 0.05));
+
+  public void test_results() throws IOException {
+    Path directory = Files.createTempDirectory("columnar");
+    try {
+      ColumnarResults test = calculate(directory);
+      assertEquals(test.getRowCount(), 3);
+      assertEquals(test.getColumnCount(), 2);
+      assertEquals(test.getColumns(), ImmutableList.of(COLUMN_PV.toHeader(), COLUMN_PAR.toHeader()));
+      assertEquals(test.getScenarioCount(0), 3);
+      assertEquals(test.getScenarioCount(1), 3);
+      assertTrue(Files.exists(directory.resolve("column-0.bin")));
+      assertEquals(Files.size(directory.resolve("column-0.bin")), 3 * 3 * Double.BYTES);
+
+      assertEquals(test.get(0, 0), Result.success(PV0));
+      assertEquals(test.get(1, 0), Result.success(PV1));
+      assertEquals(test.get(2, 0), PV2);
+      assertEquals(test.get(0, 1), Result.success(PAR0));
+      assertEquals(test.get(1, 1), Result.success(PAR1));
+      assertEquals(test.get(2, 1), Result.success(PAR2));
+      assertEquals(test.get(0, ColumnName.of(TestingMeasures.PAR_RATE.getName())), Result.success(PAR0));
+      assertThrowsIllegalArg(() -> test.get(0, ColumnName.of("Unknown")), "Column name not found.*");
+      assertThrowsIllegalArg(() -> test.get(3, 0), "Row index must be greater than or.*");
+      assertThrowsIllegalArg(() -> test.get(0, 2), "Column index must be greater than or.*");
+
+      assertTrue(test.isStored(0, 0));
+      assertTrue(test.isStored(1, 0));
+      assertFalse(test.isStored(2, 0));
+      assertTrue(test.isStored(0, 1));
+      assertFalse(test.isStored(1, 1));
+      assertFalse(test.isStored(2, 1));
+      assertEquals(test.getValue(1, 0, 2), 6d);
+      assertEquals(test.getValue(0, 1, 1), 0.02d);
+      assertEquals(test.getValues(1, 0), DoubleArray.of(4, 5, 6));
+      assertEquals(test.getCurrency(1, 0), Optional.of(USD));
+      assertEquals(test.getCurrency(0, 1), Optional.empty());
+      assertThrows(() -> test.getValue(0, 0, 3), IndexOutOfBoundsException.class);
+      assertThrowsIllegalArg(() -> test.getValue(2, 0, 0), "Cell at row 2 and column 0 is not stored.*");
+      assertThrowsIllegalArg(() -> test.getValues(1, 1), "Cell at row 1 and column 1 is not stored.*");
+
+      Results results = test.toResults();
+      assertEquals(results.getRowCount(), 3);
+      assertEquals(results.getColumnCount(), 2);
+      assertEquals(results.get(1, 0), Result.success(PV1));
+      assertEquals(results.get(2, 1), Result.success(PAR2));
+    } finally {
+      deleteDirectory(directory);
+    }
+  }
+
+  public void test_missingResult() throws IOException {
+    Path directory = Files.createTempDirectory("columnar");
+    try {
+      ColumnarResultsListener listener = ColumnarResultsListener.of(directory);
+      listener.calculationsStarted(TARGETS, COLUMNS);
+      listener.resultReceived(TARGET, CalculationResult.of(1, 0, Result.success(PV1)));
+      listener.calculationsComplete();
+      ColumnarResults test = listener.result();
+      assertEquals(test.get(1, 0), Result.success(PV1));
+      assertTrue(test.get(2, 0).isFailure());
+      assertEquals(test.get(2, 0).getFailure().getReason(), FailureReason.MISSING_DATA);
+      assertEquals(test.getScenarioCount(1), 0);
+      assertTrue(test.get(0, 1).isFailure());
+      assertEquals(Files.size(directory.resolve("column-0.bin")), 3 * 3 * Double.BYTES);
+    } finally {
+      deleteDirectory(directory);
+    }
+  }
+
+  public void test_noTargets() throws IOException {
+    Path directory = Files.createTempDirectory("columnar");
+    try {
+      ColumnarResultsListener listener = ColumnarResultsListener.of(directory);
+      listener.calculationsStarted(ImmutableList.of(), COLUMNS);
+      listener.calculationsComplete();
+      ColumnarResults test = listener.result();
+      assertEquals(test.getRowCount(), 0);
+      assertEquals(test.getColumnCount(), 2);
+      assertEquals(test.toResults().getRowCount(), 0);
+    } finally {
+      deleteDirectory(directory);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // results arrive out of row order, as they do when the calculations run in parallel
+  private static ColumnarResults calculate(Path directory) {
+    ColumnarResultsListener listener = ColumnarResultsListener.of(directory);
+    listener.calculationsStarted(TARGETS, COLUMNS);
+    listener.resultReceived(TARGET, CalculationResult.of(1, 0, Result.success(PV1)));
+    listener.resultReceived(TARGET, CalculationResult.of(1, 1, Result.success(PAR1)));
+    listener.resultReceived(TARGET, CalculationResult.of(0, 0, Result.success(PV0)));
+    listener.resultReceived(TARGET, CalculationResult.of(0, 1, Result.success(PAR0)));
+    listener.resultReceived(TARGET, CalculationResult.of(2, 0, PV2));
+    listener.resultReceived(TARGET, CalculationResult.of(2, 1, Result.success(PAR2)));
+    listener.calculationsComplete();
+    return listener.result();
+  }
+
+  private static void deleteDirectory(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.deleteIfExists(file);
+      }
+    }
+    Files.deleteIfExists(directory);
+  }
+
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.CalculationRunner;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link TaskDeduplicator} and deduplication in {@link DefaultCalculationTaskRunner}.
+ */
+@Test
+public class TaskDeduplicatorTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final ScenarioMarketData MARKET_DATA = ScenarioMarketData.of(2, MarketData.empty(date(2016, 6, 30)));
+  private static final Set<Measure> LINEAR =
+      ImmutableSet.of(TestingMeasures.PRESENT_VALUE, TestingMeasures.BUCKETED_PV01);
+  private static final Set<Measure> INVARIANT = ImmutableSet.of(TestingMeasures.PAR_RATE);
+  private static final TargetNormalizer NORMALIZER = (target, refData) -> {
+    SizedTarget sized = (SizedTarget) target;
+    return sized.product == null ? Optional.empty() : Optional.of(NormalizedTarget.of(sized.product, sized.notional));
+  };
+
+  private static final List<SizedTarget> TARGETS = ImmutableList.of(
+      new SizedTarget("T1", "A", 1_000d),
+      new SizedTarget("T2", "A", 2_500d),
+      new SizedTarget("T3", "B", 1_000d),
+      new SizedTarget("T4", null, 1_000d),
+      new SizedTarget("T5", "A", -500d),
+      new SizedTarget("T6", "Fail", 1_000d),
+      new SizedTarget("T7", "Fail", 2_000d));
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    TaskDeduplicator test = TaskDeduplicator.of(NORMALIZER, LINEAR, INVARIANT);
+    assertEquals(test.getNormalizer(), NORMALIZER);
+    assertEquals(test.getLinearMeasures(), LINEAR);
+    assertEquals(test.getInvariantMeasures(), INVARIANT);
+    assertEquals(test.getTaskCount(), 0);
+    assertEquals(test.getSharedTaskCount(), 0);
+    assertEquals(test.getHitRate(), 0d);
+    assertEquals(test.toString(), "TaskDeduplicator[0 of 0 tasks shared]");
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> TaskDeduplicator.of(NORMALIZER, LINEAR, LINEAR));
+    assertThrowsIllegalArg(() -> NormalizedTarget.of("A", 0d));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() {
+    List<Column> columns = ImmutableList.of(
+        Column.of(TestingMeasures.PRESENT_VALUE), Column.of(TestingMeasures.PAR_RATE));
+    TaskDeduplicator deduplicator = TaskDeduplicator.of(NORMALIZER, LINEAR, INVARIANT);
+    TestFunction function = new TestFunction();
+    Results results = calculate(function, deduplicator, columns);
+    // only T1, T3, T4 and T6 are calculated
+    assertEquals(function.invocations.get(), 4);
+    assertEquals(deduplicator.getTaskCount(), 7);
+    assertEquals(deduplicator.getSharedTaskCount(), 3);
+    assertEquals(deduplicator.getHitRate(), 3d / 7d);
+    assertSameResults(results, calculate(new TestFunction(), null, columns));
+    assertEquals(results.get(1, 0).getValue(), CurrencyScenarioArray.of(USD, DoubleArray.of(2_500d, 5_000d)));
+    assertEquals(results.get(4, 0).getValue(), CurrencyScenarioArray.of(USD, DoubleArray.of(-500d, -1_000d)));
+    assertTrue(results.get(6, 0).isFailure());
+  }
+
+  public void test_calculate_otherMeasures() {
+    List<Column> columns = ImmutableList.of(
+        Column.of(TestingMeasures.PRESENT_VALUE), Column.of(TestingMeasures.CASH_FLOWS));
+    TaskDeduplicator deduplicator = TaskDeduplicator.of(NORMALIZER, LINEAR, INVARIANT);
+    TestFunction function = new TestFunction();
+    Results results = calculate(function, deduplicator, columns);
+    // the cash flows are calculated for each target, the present value for T1, T3, T4 and T6
+    assertEquals(function.invocations.get(), 10);
+    assertEquals(deduplicator.getTaskCount(), 13);
+    assertEquals(deduplicator.getSharedTaskCount(), 3);
+    assertSameResults(results, calculate(new TestFunction(), null, columns));
+  }
+
+  public void test_calculate_notScalable() {
+    List<Column> columns = ImmutableList.of(Column.of(TestingMeasures.BUCKETED_PV01));
+    TaskDeduplicator deduplicator = TaskDeduplicator.of(NORMALIZER, LINEAR, INVARIANT);
+    TestFunction function = new TestFunction();
+    Results results = calculate(function, deduplicator, columns);
+    // the value of T2 and T5 cannot be scaled, the failure of T7 is shared
+    assertEquals(function.invocations.get(), 6);
+    assertEquals(deduplicator.getSharedTaskCount(), 1);
+    assertSameResults(results, calculate(new TestFunction(), null, columns));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_scale() {
+    TaskDeduplicator test = TaskDeduplicator.of(NORMALIZER, LINEAR, INVARIANT);
+    assertEquals(test.scale(2d, 3d), Optional.of(6d));
+    assertEquals(test.scale(CurrencyAmount.of(GBP, 2d), 3d), Optional.of(CurrencyAmount.of(GBP, 6d)));
+    assertEquals(
+        test.scale(MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 2d)), 3d),
+        Optional.of(MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 6d))));
+    assertEquals(
+        test.scale(DoubleScenarioArray.of(DoubleArray.of(1d, 2d)), 3d),
+        Optional.of(DoubleScenarioArray.of(DoubleArray.of(3d, 6d))));
+    assertEquals(
+        test.scale(MultiCurrencyScenarioArray.of(ImmutableMap.of(GBP, DoubleArray.of(1d, 2d))), 3d),
+        Optional.of(MultiCurrencyScenarioArray.of(ImmutableMap.of(GBP, DoubleArray.of(3d, 6d)))));
+    assertEquals(test.scale(ScenarioArray.of(1d, 2d), 3d), Optional.of(ScenarioArray.of(3d, 6d)));
+    assertFalse(test.scale(ScenarioArray.of("A", "B"), 3d).isPresent());
+    assertFalse(test.scale("A", 3d).isPresent());
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the results match, failures being compared by message as they hold stack traces
+  private static void assertSameResults(Results actual, Results expected) {
+    assertEquals(actual.getColumns(), expected.getColumns());
+    assertEquals(actual.getCells().size(), expected.getCells().size());
+    for (int i = 0; i < actual.getCells().size(); i++) {
+      Result<?> actualResult = actual.getCells().get(i);
+      Result<?> expectedResult = expected.getCells().get(i);
+      if (expectedResult.isFailure()) {
+        assertEquals(actualResult.getFailure().getMessage(), expectedResult.getFailure().getMessage());
+      } else {
+        assertEquals(actualResult, expectedResult);
+      }
+    }
+  }
+
+  // calculates the results, with or without deduplication
+  private static Results calculate(TestFunction function, TaskDeduplicator deduplicator, List<Column> columns) {
+    CalculationRules rules = CalculationRules.of(CalculationFunctions.of(function));
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationRunner runner = deduplicator == null ?
+        CalculationRunner.of(MoreExecutors.newDirectExecutorService()) :
+        CalculationRunner.of(MoreExecutors.newDirectExecutorService(), deduplicator);
+    return runner.calculateMultiScenario(rules, TARGETS, columns, MARKET_DATA, REF_DATA);
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class SizedTarget implements CalculationTarget {
+    private final String id;
+    private final String product;
+    private final double notional;
+
+    private SizedTarget(String id, String product, double notional) {
+      this.id = id;
+      this.product = product;
+      this.notional = notional;
+    }
+
+    @Override
+    public String toString() {
+      return id;
+    }
+  }
+
+  private static final class TestFunction implements CalculationFunction<SizedTarget> {
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @Override
+    public Class<SizedTarget> targetType() {
+      return SizedTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(
+          TestingMeasures.PRESENT_VALUE,
+          TestingMeasures.PAR_RATE,
+          TestingMeasures.CASH_FLOWS,
+          TestingMeasures.BUCKETED_PV01);
+    }
+
+    @Override
+    public Currency naturalCurrency(SizedTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        SizedTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        SizedTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      invocations.incrementAndGet();
+      Map<Measure, Result<?>> results = new HashMap<>();
+      for (Measure measure : measures) {
+        if ("Fail".equals(target.product)) {
+          results.put(measure, Result.failure(FailureReason.CALCULATION_FAILED, "Failed"));
+        } else if (measure.equals(TestingMeasures.PRESENT_VALUE)) {
+          results.put(measure, Result.success(
+              CurrencyScenarioArray.of(USD, DoubleArray.of(target.notional, 2 * target.notional))));
+        } else if (measure.equals(TestingMeasures.PAR_RATE)) {
+          results.put(measure, Result.success(DoubleScenarioArray.of(DoubleArray.of(0.01, 0.02))));
+        } else if (measure.equals(TestingMeasures.CASH_FLOWS)) {
+          results.put(measure, Result.success(ScenarioArray.of(target.id, target.id)));
+        } else {
+          results.put(measure, Result.success(ScenarioArray.of("PV01 " + target.notional, "PV01 " + target.notional)));
+        }
+      }
+      return results;
+    }
+  }
+
+}
@@ -37,6 +37,9 @@ import com.opengamma.strata.collect.Messages;
  * <p>
  * This is used in {@link Failure} and {@link FailureItems} to capture details of a single failure.
  * Details include the reason, message and stack trace.
+ * <p>
+ * The stack trace is rendered to a string when first requested, not when the failure is created.
+ * This avoids the cost of rendering when a large number of failures are created but never examined.
  */
 @BeanDefinition(builderScope = "private")
 public final class FailureItem
@@ -67,13 +70,17 @@ public final class FailureItem
    * If the failure was caused by an {@code Exception} its stack trace is used, otherwise it's the
    * location where the failure was created.
    */
-  @PropertyDefinition(validate = "notNull")
+  @PropertyDefinition(validate = "notNull", get = "manual")
   private final String stackTrace;
   /**
    * The type of the exception that caused the failure, not present if it wasn't caused by an exception.
    */
   @PropertyDefinition(get = "optional")
   private final Class<? extends Exception> causeType;
+  /**
+   * The stack trace to be rendered on demand, null if the stack trace is already known.
+   */
+  private final transient LazyStackTrace lazyStackTrace;  // not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -112,20 +119,10 @@ public final class FailureItem
   static FailureItem of(FailureReason reason, String message, int skipFrames) {
     ArgChecker.notNull(reason, "reason");
     ArgChecker.notEmpty(message, "message");
-    String stackTrace = localGetStackTraceAsString(message, skipFrames);
-    return new FailureItem(reason, message, stackTrace, null);
-  }
-
-  private static String localGetStackTraceAsString(String message, int skipFrames) {
-    StringBuilder builder = new StringBuilder();
-    StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-    // simulate full stack trace, pretending this class is a Throwable subclass
-    builder.append(FAILURE_EXCEPTION).append(message).append(System.lineSeparator());
+    // the frames are captured now, but only converted to elements and rendered when requested
     // drop the first few frames because they are part of the immediate calling code
-    for (int i = skipFrames + 3; i < stackTrace.length; i++) {
-      builder.append("\tat ").append(stackTrace[i]).append(System.lineSeparator());
-    }
-    return builder.toString();
+    LazyStackTrace stackTrace = new LazyStackTrace(new Throwable(), message, skipFrames + 1);
+    return new FailureItem(reason, message, stackTrace, null);
   }
 
   /**
@@ -163,8 +160,31 @@ public final class FailureItem
     ArgChecker.notNull(reason, "reason");
     ArgChecker.notNull(cause, "cause");
     String msg = Messages.format(message, messageArgs);
-    String stackTrace = Throwables.getStackTraceAsString(cause);
-    return new FailureItem(reason, msg, stackTrace, cause.getClass());
+    return new FailureItem(reason, msg, new LazyStackTrace(cause, null, 0), cause.getClass());
+  }
+
+  /**
+   * Obtains a failure from a reason, an expected exception and message, without the stack frames.
+   * <p>
+   * This is intended for exceptions that are part of the normal flow of a calculation, such as missing
+   * market data, where the message identifies the problem and the stack frames are of no interest.
+   * The stack trace of the failure only contains the summary line of the exception.
+   * This reduces the memory used when the same problem causes a large number of failures.
+   * <p>
+   * The message is produced using a template that contains zero to many "{}" placeholders.
+   * See {@link Messages#format(String, Object...)} for more details.
+   * 
+   * @param reason  the reason
+   * @param cause  the cause
+   * @param message  a message explaining the failure, not empty, uses "{}" for inserting {@code messageArgs}
+   * @param messageArgs  the arguments for the message
+   * @return the failure
+   */
+  public static FailureItem ofExpected(FailureReason reason, Exception cause, String message, Object... messageArgs) {
+    ArgChecker.notNull(reason, "reason");
+    ArgChecker.notNull(cause, "cause");
+    String msg = Messages.format(message, messageArgs);
+    return new FailureItem(reason, msg, cause.toString() + System.lineSeparator(), cause.getClass());
   }
 
   //-------------------------------------------------------------------------
@@ -181,6 +201,65 @@ public final class FailureItem
     this.message = message;
     this.stackTrace = INTERNER.intern(stackTrace);
     this.causeType = causeType;
+    this.lazyStackTrace = null;
+  }
+
+  // creates an instance with the stack trace rendered on demand
+  private FailureItem(
+      FailureReason reason,
+      String message,
+      LazyStackTrace lazyStackTrace,
+      Class<? extends Exception> causeType) {
+    JodaBeanUtils.notEmpty(message, "message");
+    this.reason = reason;
+    this.message = message;
+    this.stackTrace = null;
+    this.causeType = causeType;
+    this.lazyStackTrace = lazyStackTrace;
+  }
+
+  // render the stack trace before serialization
+  private Object writeReplace() {
+    return lazyStackTrace != null ? new FailureItem(reason, message, getStackTrace(), causeType) : this;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets stack trace where the failure occurred.
+   * If the failure was caused by an {@code Exception} its stack trace is used, otherwise it's the
+   * location where the failure was created.
+   * <p>
+   * The stack trace is rendered when first requested.
+   * 
+   * @return the value of the property, not null
+   */
+  public String getStackTrace() {
+    return lazyStackTrace != null ? lazyStackTrace.render() : stackTrace;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      FailureItem other = (FailureItem) obj;
+      return reason.equals(other.reason) &&
+          message.equals(other.message) &&
+          JodaBeanUtils.equal(causeType, other.causeType) &&
+          getStackTrace().equals(other.getStackTrace());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + reason.hashCode();
+    hash = hash * 31 + message.hashCode();
+    hash = hash * 31 + getStackTrace().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(causeType);
+    return hash;
   }
 
   /**
@@ -190,16 +269,88 @@ public final class FailureItem
    */
   @Override
   public String toString() {
+    if (lazyStackTrace != null) {
+      return toString(lazyStackTrace.firstLine());
+    }
     if (stackTrace.startsWith(FAILURE_EXCEPTION)) {
       return reason + ": " + message;
     }
-    String firstLine = stackTrace.substring(0, stackTrace.indexOf(System.lineSeparator()));
+    return toString(stackTrace.substring(0, stackTrace.indexOf(System.lineSeparator())));
+  }
+
+  // the summary, using the first line of the stack trace, null if generated internally
+  private String toString(String firstLine) {
+    if (firstLine == null) {
+      return reason + ": " + message;
+    }
     if (firstLine.endsWith(": " + message)) {
       return reason + ": " + message + ": " + firstLine.substring(0, firstLine.length() - message.length() - 2);
     }
     return reason + ": " + message + ": " + firstLine;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * A stack trace that is rendered to a string when first requested.
+   * <p>
+   * The rendered string is interned, thus identical stack traces share memory.
+   */
+  private static final class LazyStackTrace {
+    /**
+     * The throwable providing the stack frames.
+     */
+    private final Throwable throwable;
+    /**
+     * The message when simulating a stack trace of this class, null to render the throwable.
+     */
+    private final String message;
+    /**
+     * The number of frames to drop when simulating a stack trace of this class.
+     */
+    private final int skipFrames;
+    /**
+     * The rendered stack trace, null until first requested.
+     */
+    private volatile String rendered;
+
+    private LazyStackTrace(Throwable throwable, String message, int skipFrames) {
+      this.throwable = throwable;
+      this.message = message;
+      this.skipFrames = skipFrames;
+    }
+
+    // renders the stack trace, at most once unless called concurrently
+    private String render() {
+      String result = rendered;
+      if (result == null) {
+        result = INTERNER.intern(message != null ? renderSimulated() : Throwables.getStackTraceAsString(throwable));
+        rendered = result;
+      }
+      return result;
+    }
+
+    // simulate full stack trace, pretending this class is a Throwable subclass
+    private String renderSimulated() {
+      StringBuilder builder = new StringBuilder();
+      StackTraceElement[] stackTrace = throwable.getStackTrace();
+      builder.append(FAILURE_EXCEPTION).append(message).append(System.lineSeparator());
+      for (int i = skipFrames; i < stackTrace.length; i++) {
+        builder.append("\tat ").append(stackTrace[i]).append(System.lineSeparator());
+      }
+      return builder.toString();
+    }
+
+    // the first line of the rendered stack trace, without rendering it, null if simulated
+    private String firstLine() {
+      if (message != null) {
+        return null;
+      }
+      String summary = throwable.toString();
+      int index = summary.indexOf(System.lineSeparator());
+      return index < 0 ? summary : summary.substring(0, index);
+    }
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   ///CLOVER:OFF
   /**
@@ -252,17 +403,6 @@ public final class FailureItem
     return message;
   }
 
-  //-----------------------------------------------------------------------
-  /**
-   * Gets stack trace where the failure occurred.
-   * If the failure was caused by an {@code Exception} its stack trace is used, otherwise it's the
-   * location where the failure was created.
-   * @return the value of the property, not null
-   */
-  public String getStackTrace() {
-    return stackTrace;
-  }
-
   //-----------------------------------------------------------------------
   /**
    * Gets the type of the exception that caused the failure, not present if it wasn't caused by an exception.
@@ -272,32 +412,6 @@ public final class FailureItem
     return Optional.ofNullable(causeType);
   }
 
-  //-----------------------------------------------------------------------
-  @Override
-  public boolean equals(Object obj) {
-    if (obj == this) {
-      return true;
-    }
-    if (obj != null && obj.getClass() == this.getClass()) {
-      FailureItem other = (FailureItem) obj;
-      return JodaBeanUtils.equal(reason, other.reason) &&
-          JodaBeanUtils.equal(message, other.message) &&
-          JodaBeanUtils.equal(stackTrace, other.stackTrace) &&
-          JodaBeanUtils.equal(causeType, other.causeType);
-    }
-    return false;
-  }
-
-  @Override
-  public int hashCode() {
-    int hash = getClass().hashCode();
-    hash = hash * 31 + JodaBeanUtils.hashCode(reason);
-    hash = hash * 31 + JodaBeanUtils.hashCode(message);
-    hash = hash * 31 + JodaBeanUtils.hashCode(stackTrace);
-    hash = hash * 31 + JodaBeanUtils.hashCode(causeType);
-    return hash;
-  }
-
   //-----------------------------------------------------------------------
   /**
    * The meta-bean for {@code FailureItem}.
@@ -0,0 +1,399 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.timeseries;
+
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.OptionalDouble;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.function.ObjDoublePredicate;
+
+/**
+ * An immutable time-series backed by a memory-mapped file.
+ * <p>
+ * The file holds one slot for every calendar day between the earliest and latest date,
+ * with NaN stored for days that have no value. The value for a date is therefore found
+ * directly from the number of days since the earliest date, and reads do not copy the data
+ * onto the heap. Sub-series share the same mapped file.
+ * <p>
+ * This is intended for long histories, such as decades of daily fixings, that are loaded
+ * on every start-up. The file is written once using {@link #write(LocalDateDoubleTimeSeries, Path)}
+ * and then mapped using {@link #of(Path)}, which is very fast and uses little heap.
+ * Operations that create a new time-series, such as {@link #mapValues(DoubleUnaryOperator)},
+ * return a standard heap-based time-series.
+ * <p>
+ * When serialized, an equivalent heap-based time-series is written.
+ */
+public final class MappedLocalDateDoubleTimeSeries
+    implements LocalDateDoubleTimeSeries, Serializable {
+
+  /** The identifying value at the start of the file, 'SLTS'. */
+  private static final int MAGIC = 0x534C5453;
+  /** The version of the file format. */
+  private static final int VERSION = 1;
+  /** The size of the header, keeping the values aligned. */
+  private static final int HEADER_BYTES = 24;
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The epoch day of the earliest date, corresponding to the first value in the buffer.
+   */
+  private final long startEpochDay;
+  /**
+   * The values, one for each calendar day, NaN if there is no value for the day.
+   * The first and last values are never NaN.
+   */
+  private final transient DoubleBuffer values;
+  /**
+   * The number of values that are not NaN.
+   */
+  private final int size;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a time-series to a file in the format that can be mapped.
+   * <p>
+   * The file is written to a temporary file in the same directory and then moved
+   * into place, replacing any existing file, so a partially written file is never mapped.
+   *
+   * @param series  the time-series to write
+   * @param file  the file to write to
+   * @throws UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if the time-series spans too many days to be stored
+   */
+  public static void write(LocalDateDoubleTimeSeries series, Path file) {
+    ArgChecker.notNull(series, "series");
+    ArgChecker.notNull(file, "file");
+    long startEpochDay = series.isEmpty() ? 0 : series.getEarliestDate().toEpochDay();
+    long length = series.isEmpty() ? 0 : series.getLatestDate().toEpochDay() - startEpochDay + 1;
+    if (length > (Integer.MAX_VALUE - HEADER_BYTES) / Double.BYTES) {
+      throw new IllegalArgumentException(Messages.format(
+          "Time-series spans {} days, which is too many to be stored", length));
+    }
+    ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + (int) length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buf.putInt(MAGIC).putInt(VERSION).putLong(startEpochDay).putInt(series.size()).putInt((int) length);
+    DoubleBuffer values = buf.asDoubleBuffer();
+    for (int i = 0; i < length; i++) {
+      values.put(i, Double.NaN);
+    }
+    series.forEach((date, value) -> values.put((int) (date.toEpochDay() - startEpochDay), value));
+    buf.rewind();
+    try {
+      Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+      try (FileChannel channel = FileChannel.open(
+          temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (buf.hasRemaining()) {
+          channel.write(buf);
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Obtains a time-series by mapping a file written by {@link #write(LocalDateDoubleTimeSeries, Path)}.
+   * <p>
+   * The file is mapped read-only. The data is only read from disk when it is accessed.
+   * The file must not be modified while the time-series is in use.
+   *
+   * @param file  the file to map
+   * @return the time-series, which will be a standard empty time-series if the file contains no values
+   * @throws UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if the file is not a valid time-series file
+   */
+  public static LocalDateDoubleTimeSeries of(Path file) {
+    ArgChecker.notNull(file, "file");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_BYTES) {
+        throw new IllegalArgumentException(Messages.format("File is not a valid time-series file: {}", file));
+      }
+      ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+      int magic = buf.getInt();
+      int version = buf.getInt();
+      long startEpochDay = buf.getLong();
+      int size = buf.getInt();
+      int length = buf.getInt();
+      if (magic != MAGIC || fileSize != HEADER_BYTES + (long) length * Double.BYTES) {
+        throw new IllegalArgumentException(Messages.format("File is not a valid time-series file: {}", file));
+      }
+      if (version != VERSION) {
+        throw new IllegalArgumentException(Messages.format(
+            "Time-series file has unsupported version {}, expected {}: {}", version, VERSION, file));
+      }
+      if (size == 0) {
+        return LocalDateDoubleTimeSeries.empty();
+      }
+      return new MappedLocalDateDoubleTimeSeries(startEpochDay, buf.asDoubleBuffer(), size);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // creates an instance, the buffer must be non-empty and start and end with a value
+  private MappedLocalDateDoubleTimeSeries(long startEpochDay, DoubleBuffer values, int size) {
+    this.startEpochDay = startEpochDay;
+    this.values = values;
+    this.size = size;
+  }
+
+  // creates a time-series from part of the buffer, trimming days without values at each end
+  private LocalDateDoubleTimeSeries slice(int startIndex, int endIndex) {
+    int start = startIndex;
+    int end = endIndex;
+    while (start < end && Double.isNaN(values.get(start))) {
+      start++;
+    }
+    while (end > start && Double.isNaN(values.get(end - 1))) {
+      end--;
+    }
+    if (start == end) {
+      return LocalDateDoubleTimeSeries.empty();
+    }
+    if (start == 0 && end == values.limit()) {
+      return this;
+    }
+    DoubleBuffer duplicate = values.duplicate();
+    duplicate.position(start);
+    duplicate.limit(end);
+    DoubleBuffer sliced = duplicate.slice();
+    int count = 0;
+    for (int i = 0; i < sliced.limit(); i++) {
+      if (!Double.isNaN(sliced.get(i))) {
+        count++;
+      }
+    }
+    return new MappedLocalDateDoubleTimeSeries(startEpochDay + start, sliced, count);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return false;
+  }
+
+  @Override
+  public boolean containsDate(LocalDate date) {
+    return get(date).isPresent();
+  }
+
+  @Override
+  public OptionalDouble get(LocalDate date) {
+    long index = date.toEpochDay() - startEpochDay;
+    if (index >= 0 && index < values.limit()) {
+      double value = values.get((int) index);
+      if (!Double.isNaN(value)) {
+        return OptionalDouble.of(value);
+      }
+    }
+    return OptionalDouble.empty();
+  }
+
+  @Override
+  public LocalDate getEarliestDate() {
+    return LocalDate.ofEpochDay(startEpochDay);
+  }
+
+  @Override
+  public double getEarliestValue() {
+    return values.get(0);
+  }
+
+  @Override
+  public LocalDate getLatestDate() {
+    return LocalDate.ofEpochDay(startEpochDay + values.limit() - 1);
+  }
+
+  @Override
+  public double getLatestValue() {
+    return values.get(values.limit() - 1);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public LocalDateDoubleTimeSeries subSeries(LocalDate startInclusive, LocalDate endExclusive) {
+    ArgChecker.notNull(startInclusive, "startInclusive");
+    ArgChecker.notNull(endExclusive, "endExclusive");
+    if (endExclusive.isBefore(startInclusive)) {
+      throw new IllegalArgumentException(
+          "Invalid sub series, end before start: " + startInclusive + " to " + endExclusive);
+    }
+    long start = Math.max(startInclusive.toEpochDay() - startEpochDay, 0);
+    long end = Math.min(endExclusive.toEpochDay() - startEpochDay, values.limit());
+    if (start >= end) {
+      return LocalDateDoubleTimeSeries.empty();
+    }
+    return slice((int) start, (int) end);
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries headSeries(int numPoints) {
+    ArgChecker.notNegative(numPoints, "numPoints");
+    if (numPoints >= size) {
+      return this;
+    }
+    int end = 0;
+    for (int found = 0; found < numPoints; end++) {
+      if (!Double.isNaN(values.get(end))) {
+        found++;
+      }
+    }
+    return slice(0, end);
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries tailSeries(int numPoints) {
+    ArgChecker.notNegative(numPoints, "numPoints");
+    if (numPoints >= size) {
+      return this;
+    }
+    int start = values.limit();
+    for (int found = 0; found < numPoints; ) {
+      start--;
+      if (!Double.isNaN(values.get(start))) {
+        found++;
+      }
+    }
+    return slice(start, values.limit());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Stream<LocalDateDoublePoint> stream() {
+    return validIndices().mapToObj(i -> LocalDateDoublePoint.of(LocalDate.ofEpochDay(startEpochDay + i), values.get(i)));
+  }
+
+  @Override
+  public Stream<LocalDate> dates() {
+    return validIndices().mapToObj(i -> LocalDate.ofEpochDay(startEpochDay + i));
+  }
+
+  @Override
+  public DoubleStream values() {
+    return validIndices().mapToDouble(values::get);
+  }
+
+  @Override
+  public void forEach(ObjDoubleConsumer<LocalDate> action) {
+    for (int i = 0; i < values.limit(); i++) {
+      double value = values.get(i);
+      if (!Double.isNaN(value)) {
+        action.accept(LocalDate.ofEpochDay(startEpochDay + i), value);
+      }
+    }
+  }
+
+  private IntStream validIndices() {
+    return IntStream.range(0, values.limit()).filter(i -> !Double.isNaN(values.get(i)));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public LocalDateDoubleTimeSeries mapDates(Function<? super LocalDate, ? extends LocalDate> mapper) {
+    ArgChecker.notNull(mapper, "mapper");
+    // the sparse form holds exactly the points, so the dates can be mapped one-to-one
+    return SparseLocalDateDoubleTimeSeries.of(dates().collect(toList()), values().boxed().collect(toList()))
+        .mapDates(mapper);
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries mapValues(DoubleUnaryOperator mapper) {
+    return toHeap().mapValues(mapper);
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries filter(ObjDoublePredicate<LocalDate> predicate) {
+    return toHeap().filter(predicate);
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeriesBuilder toBuilder() {
+    return new LocalDateDoubleTimeSeriesBuilder(stream());
+  }
+
+  // copies the data onto the heap
+  private LocalDateDoubleTimeSeries toHeap() {
+    return toBuilder().build();
+  }
+
+  // serializes a heap-based copy, as the mapped buffer cannot be serialized
+  private Object writeReplace() {
+    return toHeap();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if this time-series is equal to another mapped time-series.
+   * <p>
+   * Compares the dates and values of the two time-series.
+   *
+   * @param obj  the other object, null returns false
+   * @return true if equal
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof MappedLocalDateDoubleTimeSeries) {
+      MappedLocalDateDoubleTimeSeries other = (MappedLocalDateDoubleTimeSeries) obj;
+      return startEpochDay == other.startEpochDay && size == other.size && values.equals(other.values);
+    }
+    return false;
+  }
+
+  /**
+   * A hash code for this time-series.
+   *
+   * @return a suitable hash code
+   */
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(startEpochDay) + values.hashCode();
+  }
+
+  /**
+   * Returns a string representation of the time-series.
+   *
+   * @return the string
+   */
+  @Override
+  public String toString() {
+    return stream()
+        .map(LocalDateDoublePoint::toString)
+        .collect(Collectors.joining(", ", "[", "]"));
+  }
+
+}
@@ -5,10 +5,15 @@
  */
 package com.opengamma.strata.collect.result;
 
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 import org.testng.annotations.Test;
 
+import com.google.common.base.Throwables;
+
 /**
  * Test {@link FailureItem}.
  */
@@ -64,4 +69,38 @@ public class FailureItemTest {
     assertEquals(test.toString(), "INVALID: my big bad failure: java.lang.IllegalArgumentException: message");
   }
 
+  //-------------------------------------------------------------------------
+  public void test_ofExpected() {
+    IllegalArgumentException ex = new IllegalArgumentException("message");
+    FailureItem test = FailureItem.ofExpected(FailureReason.MISSING_DATA, ex, "my {} failure", "big");
+    assertEquals(test.getReason(), FailureReason.MISSING_DATA);
+    assertEquals(test.getMessage(), "my big failure");
+    assertEquals(test.getCauseType().get(), IllegalArgumentException.class);
+    assertEquals(test.getStackTrace(), "java.lang.IllegalArgumentException: message" + System.lineSeparator());
+    assertEquals(test.toString(), "MISSING_DATA: my big failure: java.lang.IllegalArgumentException: message");
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_stackTrace_shared() {
+    IllegalArgumentException ex = new IllegalArgumentException("message");
+    FailureItem test1 = FailureItem.of(FailureReason.INVALID, ex, "my failure");
+    FailureItem test2 = FailureItem.of(FailureReason.INVALID, new IllegalArgumentException("message"), "my failure");
+    FailureItem test3 = FailureItem.of(FailureReason.INVALID, ex, "my failure");
+    assertEquals(test1.getStackTrace(), Throwables.getStackTraceAsString(ex));
+    assertSame(test1.getStackTrace(), test1.getStackTrace());
+    assertSame(test3.getStackTrace(), test1.getStackTrace());
+    assertEquals(test1.equals(test3), true);
+    assertEquals(test1.hashCode(), test3.hashCode());
+    assertEquals(test1.equals(test2), false);
+  }
+
+  public void test_serialization() {
+    assertSerialization(FailureItem.of(FailureReason.INVALID, "my failure"));
+    assertSerialization(FailureItem.of(FailureReason.INVALID, new IllegalArgumentException("message"), "my failure"));
+  }
+
+  public void coverage() {
+    coverImmutableBean(FailureItem.of(FailureReason.INVALID, new IllegalArgumentException("message"), "my failure"));
+  }
+
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.timeseries;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link MappedLocalDateDoubleTimeSeries}.
+ */
+@Test
+public class MappedLocalDateDoubleTimeSeriesTest {
+
+  // weekdays only, from Friday 2015-01-02 to Friday 2015-01-16
+  private static final LocalDateDoubleTimeSeries SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2015, 1, 2), 1)
+      .put(date(2015, 1, 5), 2)
+      .put(date(2015, 1, 6), 3)
+      .put(date(2015, 1, 7), 4)
+      .put(date(2015, 1, 8), 5)
+      .put(date(2015, 1, 9), 6)
+      .put(date(2015, 1, 12), 7)
+      .put(date(2015, 1, 16), 8)
+      .build();
+
+  private Path directory;
+  private LocalDateDoubleTimeSeries test;
+
+  @BeforeClass
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("timeseries");
+    Path file = directory.resolve("series.ts");
+    MappedLocalDateDoubleTimeSeries.write(SERIES, file);
+    test = MappedLocalDateDoubleTimeSeries.of(file);
+  }
+
+  @AfterClass(alwaysRun = true)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(directory.resolve("series.ts"));
+    Files.deleteIfExists(directory.resolve("empty.ts"));
+    Files.deleteIfExists(directory.resolve("invalid.ts"));
+    Files.deleteIfExists(directory);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    assertThat(test).isInstanceOf(MappedLocalDateDoubleTimeSeries.class);
+    assertEquals(test.size(), 8);
+    assertEquals(test.isEmpty(), false);
+    assertEquals(test.getEarliestDate(), date(2015, 1, 2));
+    assertEquals(test.getEarliestValue(), 1d);
+    assertEquals(test.getLatestDate(), date(2015, 1, 16));
+    assertEquals(test.getLatestValue(), 8d);
+    assertEquals(test.get(date(2015, 1, 12)), OptionalDouble.of(7));
+    assertEquals(test.get(date(2015, 1, 3)), OptionalDouble.empty());
+    assertEquals(test.get(date(2014, 12, 31)), OptionalDouble.empty());
+    assertEquals(test.get(date(2015, 1, 17)), OptionalDouble.empty());
+    assertEquals(test.containsDate(date(2015, 1, 5)), true);
+    assertEquals(test.containsDate(date(2015, 1, 13)), false);
+    assertEquals(test.stream().collect(toList()), SERIES.stream().collect(toList()));
+    assertEquals(test.dates().collect(toList()), SERIES.dates().collect(toList()));
+    assertThat(test.values().toArray()).containsExactly(SERIES.values().toArray());
+    assertEquals(test.toBuilder().build(), SERIES);
+    assertThat(test.toString()).contains("2015-01-16=8.0");
+  }
+
+  public void test_forEach() {
+    List<LocalDate> dates = new ArrayList<>();
+    test.forEach((date, value) -> dates.add(date));
+    assertEquals(dates, SERIES.dates().collect(toList()));
+  }
+
+  public void test_subSeries() {
+    LocalDateDoubleTimeSeries sub = test.subSeries(date(2015, 1, 3), date(2015, 1, 10));
+    assertThat(sub).isInstanceOf(MappedLocalDateDoubleTimeSeries.class);
+    assertEquals(sub.getEarliestDate(), date(2015, 1, 5));
+    assertEquals(sub.getLatestDate(), date(2015, 1, 9));
+    assertEquals(sub.size(), 5);
+    assertEquals(sub.stream().collect(toList()), SERIES.subSeries(date(2015, 1, 3), date(2015, 1, 10)).stream().collect(toList()));
+    assertEquals(test.subSeries(date(2014, 1, 1), date(2016, 1, 1)), test);
+    assertEquals(test.subSeries(date(2015, 1, 13), date(2015, 1, 16)), LocalDateDoubleTimeSeries.empty());
+    assertEquals(test.subSeries(date(2016, 1, 1), date(2016, 1, 1)), LocalDateDoubleTimeSeries.empty());
+    assertThrowsIllegalArg(() -> test.subSeries(date(2015, 1, 5), date(2015, 1, 2)));
+  }
+
+  public void test_headTailSeries() {
+    assertEquals(test.headSeries(0), LocalDateDoubleTimeSeries.empty());
+    assertEquals(test.headSeries(3).stream().collect(toList()), SERIES.headSeries(3).stream().collect(toList()));
+    assertEquals(test.headSeries(8), test);
+    assertEquals(test.tailSeries(0), LocalDateDoubleTimeSeries.empty());
+    assertEquals(test.tailSeries(2).stream().collect(toList()), SERIES.tailSeries(2).stream().collect(toList()));
+    assertEquals(test.tailSeries(9), test);
+    assertThrowsIllegalArg(() -> test.headSeries(-1));
+  }
+
+  public void test_transforms() {
+    assertEquals(test.mapValues(v -> v * 2), SERIES.mapValues(v -> v * 2));
+    assertEquals(
+        test.mapDates(d -> d.plusDays(1)).stream().collect(toList()),
+        SERIES.stream().map(pt -> pt.withDate(pt.getDate().plusDays(1))).collect(toList()));
+    assertThrowsIllegalArg(() -> test.mapDates(d -> date(2015, 1, 1)));
+    assertEquals(test.filter((d, v) -> v > 4), SERIES.filter((d, v) -> v > 4));
+  }
+
+  public void test_empty() {
+    Path file = directory.resolve("empty.ts");
+    MappedLocalDateDoubleTimeSeries.write(LocalDateDoubleTimeSeries.empty(), file);
+    assertEquals(MappedLocalDateDoubleTimeSeries.of(file), LocalDateDoubleTimeSeries.empty());
+  }
+
+  public void test_invalidFile() throws IOException {
+    Path file = directory.resolve("invalid.ts");
+    Files.write(file, new byte[] {1, 2, 3});
+    assertThrowsIllegalArg(() -> MappedLocalDateDoubleTimeSeries.of(file), "File is not a valid time-series file.*");
+  }
+
+  public void test_equalsHashCode() {
+    LocalDateDoubleTimeSeries sub = test.subSeries(date(2015, 1, 1), date(2015, 1, 20));
+    assertEquals(test, test);
+    assertEquals(test, sub);
+    assertEquals(test.hashCode(), sub.hashCode());
+    assertNotEquals(test, test.headSeries(2));
+    assertNotEquals(test, "");
+  }
+
+  public void test_serialization() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+      oos.writeObject(test);
+    }
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+      assertEquals(ois.readObject(), SERIES);
+    }
+  }
+
+}
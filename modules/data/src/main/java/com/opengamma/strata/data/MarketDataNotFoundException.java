@@ -7,6 +7,10 @@ package com.opengamma.strata.data;
 
 /**
  * Exception thrown if market data cannot be found.
+ * <p>
+ * Missing market data is expected when running calculations, and is reported as a failure
+ * of the affected results. As such, the stack trace is not filled in, avoiding the cost
+ * of capturing the stack frames each time the exception is thrown.
  */
 public class MarketDataNotFoundException extends IllegalArgumentException {
 
@@ -22,4 +26,15 @@ public class MarketDataNotFoundException extends IllegalArgumentException {
     super(message);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Does not fill in the stack trace, as missing market data is expected.
+   * 
+   * @return this exception
+   */
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
 }
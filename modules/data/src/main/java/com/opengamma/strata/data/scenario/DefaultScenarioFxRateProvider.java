@@ -6,8 +6,13 @@
 package com.opengamma.strata.data.scenario;
 
 import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyPair;
 import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.MarketDataFxRateProvider;
 import com.opengamma.strata.data.ObservableSource;
 
@@ -29,6 +34,10 @@ class DefaultScenarioFxRateProvider
    * The source of the FX rates.
    */
   private final ObservableSource source;
+  /**
+   * The FX rates for all scenarios, keyed by currency pair, resolved when first requested.
+   */
+  private final transient ConcurrentMap<CurrencyPair, DoubleArray> rates = new ConcurrentHashMap<>();
 
   // creates an instance
   DefaultScenarioFxRateProvider(ScenarioMarketData marketData, ObservableSource source) {
@@ -46,4 +55,25 @@ class DefaultScenarioFxRateProvider
     return MarketDataFxRateProvider.of(marketData.scenario(scenarioIndex), source);
   }
 
+  // the rates of each pair are only resolved from the market data once, however many arrays are converted
+  @Override
+  public DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return ScenarioFxRateProvider.super.fxRates(baseCurrency, counterCurrency);
+    }
+    CurrencyPair pair = CurrencyPair.of(baseCurrency, counterCurrency);
+    DoubleArray cached = rates.get(pair);
+    if (cached != null) {
+      return cached;
+    }
+    DoubleArray resolved = ScenarioFxRateProvider.super.fxRates(baseCurrency, counterCurrency);
+    rates.putIfAbsent(pair, resolved);
+    return resolved;
+  }
+
+  // ensure the cache is recreated on deserialization
+  private Object readResolve() {
+    return new DefaultScenarioFxRateProvider(marketData, source);
+  }
+
 }
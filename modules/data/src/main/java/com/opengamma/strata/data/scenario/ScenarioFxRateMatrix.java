@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxMatrix;
+import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * A dense matrix of FX rates for a set of currencies in every scenario.
+ * <p>
+ * Each currency is assigned an integer index when the matrix is created.
+ * The rates between every pair of currencies are triangulated once, up front, and held
+ * as one primitive array per currency pair containing the rate in each scenario.
+ * Looking up the rates of a pair is therefore two map lookups and an array access,
+ * and converting an array of scenario values is a simple multiply-add loop.
+ * <p>
+ * This is useful when many sets of scenario values are converted to a reporting currency
+ * using the same rates, for example when aggregating a large portfolio.
+ */
+public final class ScenarioFxRateMatrix
+    implements ScenarioFxRateProvider, Serializable {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The index of each currency in the matrix.
+   */
+  private final ImmutableMap<Currency, Integer> currencies;
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+  /**
+   * The rates of each currency pair, indexed by {@code baseIndex * currencyCount + counterIndex}.
+   * Each array holds the rate in each scenario, NaN if no rate is available in the scenario.
+   */
+  private final DoubleArray[] rates;
+  /**
+   * Whether the rates of each currency pair are available in all scenarios, indexed as for the rates.
+   */
+  private final boolean[] complete;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from an FX matrix for each scenario.
+   * <p>
+   * The matrix contains every currency in any of the FX matrices.
+   * The rates of an FX matrix are already triangulated, so they are used directly.
+   * If a currency is not present in the FX matrix of a scenario, requests for its rates
+   * in that scenario will fail.
+   *
+   * @param fxMatrices  the FX matrix of each scenario
+   * @return the matrix of FX rates
+   */
+  public static ScenarioFxRateMatrix of(List<FxMatrix> fxMatrices) {
+    ArgChecker.notEmpty(fxMatrices, "fxMatrices");
+    Set<Currency> currencySet = new LinkedHashSet<>();
+    for (FxMatrix fxMatrix : fxMatrices) {
+      currencySet.addAll(fxMatrix.getCurrencies());
+    }
+    Currency[] ccys = currencySet.toArray(new Currency[currencySet.size()]);
+    int count = ccys.length;
+    int scenarioCount = fxMatrices.size();
+    double[][] values = new double[count * count][scenarioCount];
+    for (int scenarioIndex = 0; scenarioIndex < scenarioCount; scenarioIndex++) {
+      FxMatrix fxMatrix = fxMatrices.get(scenarioIndex);
+      ImmutableSet<Currency> available = fxMatrix.getCurrencies();
+      for (int i = 0; i < count; i++) {
+        boolean baseAvailable = available.contains(ccys[i]);
+        for (int j = 0; j < count; j++) {
+          values[i * count + j][scenarioIndex] = i == j ? 1d :
+              baseAvailable && available.contains(ccys[j]) ? fxMatrix.fxRate(ccys[i], ccys[j]) : Double.NaN;
+        }
+      }
+    }
+    return new ScenarioFxRateMatrix(ccys, scenarioCount, values);
+  }
+
+  /**
+   * Obtains an instance by resolving the rates of a set of currencies from a scenario FX rate provider.
+   * <p>
+   * The rate of each currency against the first currency is resolved from the provider,
+   * and the remaining cross rates are triangulated from them.
+   * As such, the provider is only queried once for each currency in each scenario.
+   *
+   * @param fxRateProvider  the provider of the FX rates
+   * @param currencies  the currencies to include in the matrix
+   * @return the matrix of FX rates
+   * @throws RuntimeException if no FX rate could be found for one of the currencies
+   */
+  public static ScenarioFxRateMatrix of(ScenarioFxRateProvider fxRateProvider, Collection<Currency> currencies) {
+    ArgChecker.notNull(fxRateProvider, "fxRateProvider");
+    ArgChecker.notEmpty(currencies, "currencies");
+    Currency[] ccys = new LinkedHashSet<>(currencies).toArray(new Currency[0]);
+    int count = ccys.length;
+    int scenarioCount = fxRateProvider.getScenarioCount();
+    // rate of each currency in terms of the reference currency, the first currency
+    double[][] referenceRates = new double[count][];
+    for (int i = 0; i < count; i++) {
+      referenceRates[i] = fxRateProvider.fxRates(ccys[i], ccys[0]).toArrayUnsafe();
+    }
+    double[][] values = new double[count * count][scenarioCount];
+    for (int i = 0; i < count; i++) {
+      for (int j = 0; j < count; j++) {
+        double[] pairValues = values[i * count + j];
+        for (int scenarioIndex = 0; scenarioIndex < scenarioCount; scenarioIndex++) {
+          pairValues[scenarioIndex] = i == j ? 1d : referenceRates[i][scenarioIndex] / referenceRates[j][scenarioIndex];
+        }
+      }
+    }
+    return new ScenarioFxRateMatrix(ccys, scenarioCount, values);
+  }
+
+  // creates an instance
+  private ScenarioFxRateMatrix(Currency[] currencies, int scenarioCount, double[][] values) {
+    ImmutableMap.Builder<Currency, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < currencies.length; i++) {
+      builder.put(currencies[i], i);
+    }
+    this.currencies = builder.build();
+    this.scenarioCount = scenarioCount;
+    this.rates = new DoubleArray[values.length];
+    this.complete = new boolean[values.length];
+    for (int i = 0; i < values.length; i++) {
+      rates[i] = DoubleArray.ofUnsafe(values[i]);
+      complete[i] = !rates[i].stream().anyMatch(Double::isNaN);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the currencies in the matrix, in index order.
+   *
+   * @return the currencies
+   */
+  public ImmutableSet<Currency> getCurrencies() {
+    return currencies.keySet();
+  }
+
+  /**
+   * Gets the index of a currency in the matrix.
+   *
+   * @param currency  the currency
+   * @return the index of the currency
+   * @throws IllegalArgumentException if the currency is not in the matrix
+   */
+  public int index(Currency currency) {
+    Integer index = currencies.get(currency);
+    if (index == null) {
+      throw new IllegalArgumentException(Messages.format(
+          "No FX rates found for {}, matrix only contains rates for {}", currency, currencies.keySet()));
+    }
+    return index;
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double fxRate(Currency baseCurrency, Currency counterCurrency, int scenarioIndex) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return 1d;
+    }
+    double rate = rates[pairIndex(baseCurrency, counterCurrency)].get(scenarioIndex);
+    if (Double.isNaN(rate)) {
+      throw new IllegalArgumentException(Messages.format(
+          "No FX rate found for {}/{} in scenario {}", baseCurrency, counterCurrency, scenarioIndex));
+    }
+    return rate;
+  }
+
+  @Override
+  public DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return DoubleArray.filled(scenarioCount, 1d);
+    }
+    int pairIndex = pairIndex(baseCurrency, counterCurrency);
+    if (!complete[pairIndex]) {
+      throw new IllegalArgumentException(Messages.format(
+          "No FX rate found for {}/{} in all scenarios", baseCurrency, counterCurrency));
+    }
+    return rates[pairIndex];
+  }
+
+  @Override
+  public FxRateProvider fxRateProvider(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+    return (baseCurrency, counterCurrency) -> fxRate(baseCurrency, counterCurrency, scenarioIndex);
+  }
+
+  // finds the index of the rates of the pair
+  private int pairIndex(Currency baseCurrency, Currency counterCurrency) {
+    return index(baseCurrency) * currencies.size() + index(counterCurrency);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("ScenarioFxRateMatrix[currencies={}, scenarioCount={}]", currencies.keySet(), scenarioCount);
+  }
+
+}
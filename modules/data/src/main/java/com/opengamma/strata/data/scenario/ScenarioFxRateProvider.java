@@ -7,6 +7,7 @@ package com.opengamma.strata.data.scenario;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.ObservableSource;
 
 /**
@@ -80,6 +81,29 @@ public interface ScenarioFxRateProvider {
     return fxRateProvider(scenarioIndex).fxRate(baseCurrency, counterCurrency);
   }
 
+  /**
+   * Gets the FX rates for the specified currency pair in all scenarios.
+   * <p>
+   * The rates returned are the rates from the base currency to the counter currency
+   * as defined by this formula: {@code (1 * baseCurrency = fxRate * counterCurrency)}.
+   * The array contains one rate for each scenario.
+   * <p>
+   * This is used when converting an array of scenario values, allowing the rates to be
+   * obtained once rather than once for each value. Implementations that can resolve the
+   * rates more efficiently than one scenario at a time should override this method.
+   *
+   * @param baseCurrency  the base currency, to convert from
+   * @param counterCurrency  the counter currency, to convert to
+   * @return the FX rates for the currency pair, one for each scenario
+   * @throws RuntimeException if no FX rate could be found
+   */
+  public default DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return DoubleArray.filled(getScenarioCount(), 1d);
+    }
+    return DoubleArray.of(getScenarioCount(), i -> fxRate(baseCurrency, counterCurrency, i));
+  }
+
   /**
    * Gets the FX rate provider for the specified scenario index.
    * 
@@ -0,0 +1,30 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link MarketDataNotFoundException}.
+ */
+@Test
+public class MarketDataNotFoundExceptionTest {
+
+  public void test_constructor_message() {
+    MarketDataNotFoundException test = new MarketDataNotFoundException("Hello");
+    assertEquals(test.getMessage(), "Hello");
+  }
+
+  public void test_stackTrace() {
+    MarketDataNotFoundException test = new MarketDataNotFoundException("Hello");
+    assertEquals(test.getStackTrace().length, 0);
+    assertEquals(test.fillInStackTrace(), test);
+    assertEquals(test.getStackTrace().length, 0);
+  }
+
+}
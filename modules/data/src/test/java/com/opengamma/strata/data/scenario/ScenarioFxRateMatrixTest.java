@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.JPY;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.FxMatrix;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link ScenarioFxRateMatrix}.
+ */
+@Test
+public class ScenarioFxRateMatrixTest {
+
+  private static final double TOL = 1e-12;
+  private static final FxMatrix MATRIX1 = FxMatrix.builder()
+      .addRate(GBP, USD, 1.4)
+      .addRate(EUR, USD, 1.1)
+      .build();
+  private static final FxMatrix MATRIX2 = FxMatrix.builder()
+      .addRate(GBP, USD, 1.5)
+      .addRate(EUR, USD, 1.2)
+      .build();
+  private static final FxMatrix MATRIX3 = FxMatrix.of(GBP, USD, 1.6);
+
+  //-------------------------------------------------------------------------
+  public void test_of_fxMatrices() {
+    ScenarioFxRateMatrix test = ScenarioFxRateMatrix.of(ImmutableList.of(MATRIX1, MATRIX2));
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(test.getCurrencies()).containsExactlyElementsOf(MATRIX1.getCurrencies());
+    assertThat(test.fxRate(GBP, USD, 0)).isEqualTo(1.4);
+    assertThat(test.fxRate(GBP, USD, 1)).isEqualTo(1.5);
+    assertThat(test.fxRate(GBP, EUR, 1)).isEqualTo(MATRIX2.fxRate(GBP, EUR));
+    assertThat(test.fxRate(EUR, EUR, 1)).isEqualTo(1d);
+    assertThat(test.fxRates(USD, GBP)).isEqualTo(DoubleArray.of(MATRIX1.fxRate(USD, GBP), MATRIX2.fxRate(USD, GBP)));
+    assertThat(test.fxRates(USD, USD)).isEqualTo(DoubleArray.of(1, 1));
+    assertThat(test.convert(10, GBP, USD, 1)).isEqualTo(15d, offset(TOL));
+    assertThat(test.fxRateProvider(0).fxRate(EUR, GBP)).isEqualTo(MATRIX1.fxRate(EUR, GBP));
+    assertThat(test.index(test.getCurrencies().asList().get(1))).isEqualTo(1);
+  }
+
+  public void test_of_fxMatrices_missingCurrency() {
+    ScenarioFxRateMatrix test = ScenarioFxRateMatrix.of(ImmutableList.of(MATRIX1, MATRIX3));
+    assertThat(test.fxRates(GBP, USD)).isEqualTo(DoubleArray.of(1.4, 1.6));
+    assertThat(test.fxRate(EUR, USD, 0)).isEqualTo(1.1);
+    assertThrowsIllegalArg(() -> test.fxRate(EUR, USD, 1), "No FX rate found for EUR/USD in scenario 1");
+    assertThrowsIllegalArg(() -> test.fxRates(EUR, USD), "No FX rate found for EUR/USD in all scenarios");
+    assertThrowsIllegalArg(() -> test.fxRate(JPY, USD, 0), "No FX rates found for JPY.*");
+    assertThrowsIllegalArg(() -> test.fxRateProvider(2));
+  }
+
+  public void test_of_provider() {
+    DoubleArray gbpUsd = DoubleArray.of(1.4, 1.5, 1.6);
+    DoubleArray eurUsd = DoubleArray.of(1.1, 1.2, 1.3);
+    ScenarioFxRateProvider provider = new TestScenarioFxRateProvider(
+        FxRateScenarioArray.of(GBP, USD, gbpUsd),
+        FxRateScenarioArray.of(EUR, USD, eurUsd));
+    ScenarioFxRateMatrix test = ScenarioFxRateMatrix.of(provider, ImmutableList.of(USD, GBP, EUR));
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    assertThat(test.getCurrencies()).containsExactly(USD, GBP, EUR);
+    assertThat(test.index(EUR)).isEqualTo(2);
+    for (int i = 0; i < 3; i++) {
+      assertThat(test.fxRate(GBP, USD, i)).isEqualTo(gbpUsd.get(i), offset(TOL));
+      assertThat(test.fxRate(USD, EUR, i)).isEqualTo(1 / eurUsd.get(i), offset(TOL));
+      assertThat(test.fxRate(GBP, EUR, i)).isEqualTo(gbpUsd.get(i) / eurUsd.get(i), offset(TOL));
+    }
+  }
+
+  public void test_convertedTo() {
+    ScenarioFxRateMatrix test = ScenarioFxRateMatrix.of(ImmutableList.of(MATRIX1, MATRIX2));
+    MultiCurrencyScenarioArray array = MultiCurrencyScenarioArray.total(ImmutableList.of(
+        CurrencyScenarioArray.of(GBP, DoubleArray.of(10, 20)),
+        CurrencyScenarioArray.of(EUR, DoubleArray.of(30, 40))));
+    CurrencyScenarioArray converted = array.convertedTo(USD, test);
+    assertThat(converted.getCurrency()).isEqualTo(USD);
+    assertThat(converted.get(0).getAmount()).isEqualTo(10 * 1.4 + 30 * 1.1, offset(TOL));
+    assertThat(converted.get(1).getAmount()).isEqualTo(20 * 1.5 + 40 * 1.2, offset(TOL));
+  }
+
+  public void coverage() {
+    ScenarioFxRateMatrix test = ScenarioFxRateMatrix.of(ImmutableList.of(MATRIX1));
+    assertThat(test.toString()).contains("scenarioCount=1");
+  }
+
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.convert.StringConvert;
+import org.joda.convert.StringConverter;
+import org.joda.convert.StringConverterFactory;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+
+/**
+ * Reads and writes compact binary snapshots of calibrated market data.
+ * <p>
+ * A snapshot holds a single Joda-Bean, such as a {@code CurveGroup}, an {@code ImmutableRatesProvider}
+ * or a surface, together with everything it refers to, including curve metadata such as
+ * the calibration Jacobian and the sensitivity to market quotes.
+ * <p>
+ * The numeric data, which makes up the bulk of a calibrated market, is held separately from the structure.
+ * Every {@link DoubleArray}, {@link DoubleMatrix} and {@link LocalDateDoubleTimeSeries} is stored as
+ * raw little-endian doubles and replaced in the structure by a reference to them.
+ * The structure is then written using the Joda-Beans binary format, which is small as a result.
+ * <p>
+ * The file starts with a versioned header, followed by the numeric data and then the structure.
+ * When reading, the file is memory-mapped and the numeric data is copied directly into the arrays,
+ * so restoring a full market does not involve parsing any text.
+ */
+public final class BinarySnapshot {
+
+  /** The identifying value at the start of the file, 'SSNP'. */
+  private static final int MAGIC = 0x53534E50;
+  /** The version of the file format. */
+  private static final int VERSION = 1;
+  /** The size of the header, keeping the numeric data aligned. */
+  private static final int HEADER_BYTES = 32;
+  /** The maximum number of doubles, such that the file can be mapped. */
+  private static final int MAX_DOUBLES = (Integer.MAX_VALUE - HEADER_BYTES) / Double.BYTES;
+
+  /**
+   * Restricted constructor.
+   */
+  private BinarySnapshot() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a snapshot of the bean to a file.
+   * <p>
+   * The file is written to a temporary file in the same directory and then moved
+   * into place, replacing any existing file, so a partially written snapshot is never read.
+   *
+   * @param bean  the bean to write, such as a curve group or rates provider
+   * @param file  the file to write to
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public static void write(Bean bean, Path file) {
+    ArgChecker.notNull(bean, "bean");
+    ArgChecker.notNull(file, "file");
+    Writer writer = new Writer();
+    byte[] structure = serializer(writer, writer).binWriter().write(bean);
+    int doubleCount = writer.size;
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MAGIC).putInt(VERSION).putLong(doubleCount).putLong(structure.length).putLong(0);
+    header.flip();
+    ByteBuffer doubles = ByteBuffer.allocate(doubleCount * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    doubles.asDoubleBuffer().put(writer.doubles, 0, doubleCount);
+    try {
+      Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+      try (FileChannel channel = FileChannel.open(
+          temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        for (ByteBuffer buf : new ByteBuffer[] {header, doubles, ByteBuffer.wrap(structure)}) {
+          while (buf.hasRemaining()) {
+            channel.write(buf);
+          }
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Reads a snapshot from a file.
+   *
+   * @param <T>  the type of the bean
+   * @param file  the file to read
+   * @param type  the expected type of the bean
+   * @return the bean
+   * @throws UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if the file is not a valid snapshot or has an unsupported version
+   */
+  public static <T extends Bean> T read(Path file, Class<T> type) {
+    ArgChecker.notNull(file, "file");
+    ArgChecker.notNull(type, "type");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_BYTES) {
+        throw new IllegalArgumentException(Messages.format("File is not a valid snapshot: {}", file));
+      }
+      ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+      int magic = buf.getInt();
+      int version = buf.getInt();
+      long doubleCount = buf.getLong();
+      long structureLength = buf.getLong();
+      // the counts are checked before the expected size is calculated, so it cannot overflow
+      if (magic != MAGIC || doubleCount < 0 || doubleCount > MAX_DOUBLES || structureLength < 0 ||
+          fileSize != HEADER_BYTES + doubleCount * Double.BYTES + structureLength) {
+        throw new IllegalArgumentException(Messages.format("File is not a valid snapshot: {}", file));
+      }
+      if (version != VERSION) {
+        throw new IllegalArgumentException(Messages.format(
+            "Snapshot has unsupported version {}, expected {}: {}", version, VERSION, file));
+      }
+      long structureOffset = HEADER_BYTES + doubleCount * Double.BYTES;
+      buf.position(HEADER_BYTES);
+      DoubleBuffer doubles = buf.asDoubleBuffer();
+      doubles.limit(Math.toIntExact(doubleCount));
+      byte[] structure = new byte[Math.toIntExact(structureLength)];
+      buf.position(Math.toIntExact(structureOffset));
+      buf.get(structure);
+      // the structure is only decoded, thus the numeric data written by the encoder is discarded
+      return serializer(new Writer(), new Reader(doubles)).binReader().read(structure, type);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // creates a serializer that converts the numeric types using the specified encoder and decoder
+  private static JodaBeanSer serializer(NumericEncoder encoder, NumericDecoder decoder) {
+    NumericConverter converter = new NumericConverter(encoder, decoder);
+    StringConvert stringConvert = new StringConvert(true, new StringConverterFactory() {
+      @Override
+      public StringConverter<?> findConverter(Class<?> cls) {
+        if (cls == DoubleArray.class || cls == DoubleMatrix.class || LocalDateDoubleTimeSeries.class.isAssignableFrom(cls)) {
+          return converter;
+        }
+        return null;
+      }
+    });
+    return JodaBeanSer.COMPACT.withConverter(stringConvert);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Converts numeric types to and from references to the numeric data.
+   * <p>
+   * A reference is the offset of the data, followed by the dimensions, separated by colons.
+   */
+  private static final class NumericConverter implements StringConverter<Object> {
+    private final NumericEncoder encoder;
+    private final NumericDecoder decoder;
+
+    private NumericConverter(NumericEncoder encoder, NumericDecoder decoder) {
+      this.encoder = encoder;
+      this.decoder = decoder;
+    }
+
+    @Override
+    public String convertToString(Object object) {
+      if (object instanceof DoubleArray) {
+        DoubleArray array = (DoubleArray) object;
+        return encoder.write(array.toArrayUnsafe(), object) + ":" + array.size();
+      }
+      if (object instanceof DoubleMatrix) {
+        DoubleMatrix matrix = (DoubleMatrix) object;
+        double[] values = new double[matrix.size()];
+        for (int i = 0; i < matrix.rowCount(); i++) {
+          System.arraycopy(matrix.rowArray(i), 0, values, i * matrix.columnCount(), matrix.columnCount());
+        }
+        return encoder.write(values, object) + ":" + matrix.rowCount() + ":" + matrix.columnCount();
+      }
+      // time-series are held as the epoch days followed by the values
+      LocalDateDoubleTimeSeries series = (LocalDateDoubleTimeSeries) object;
+      double[] values = new double[series.size() * 2];
+      int[] index = {0};
+      series.forEach((date, value) -> {
+        values[index[0]] = date.toEpochDay();
+        values[series.size() + index[0]] = value;
+        index[0]++;
+      });
+      return encoder.write(values, object) + ":" + series.size();
+    }
+
+    @Override
+    public Object convertFromString(Class<? extends Object> cls, String str) {
+      String[] parts = str.split(":");
+      int offset = Integer.parseInt(parts[0]);
+      int size = Integer.parseInt(parts[1]);
+      if (cls == DoubleArray.class) {
+        return DoubleArray.ofUnsafe(decoder.read(offset, size));
+      }
+      if (cls == DoubleMatrix.class) {
+        int columns = Integer.parseInt(parts[2]);
+        return DoubleMatrix.of(size, columns, decoder.read(offset, size * columns));
+      }
+      double[] values = decoder.read(offset, size * 2);
+      LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+      for (int i = 0; i < size; i++) {
+        builder.put(LocalDate.ofEpochDay((long) values[i]), values[size + i]);
+      }
+      return builder.build();
+    }
+  }
+
+  // encodes numeric data, returning its offset
+  private interface NumericEncoder {
+    // writes the values, returning the offset
+    int write(double[] values, Object source);
+  }
+
+  // decodes numeric data at an offset
+  private interface NumericDecoder {
+    // reads the values at the offset
+    double[] read(int offset, int count);
+  }
+
+  // accumulates the numeric data, writing identical instances once, allowing it to be read back
+  private static final class Writer implements NumericEncoder, NumericDecoder {
+    private final Map<Object, Integer> offsets = new IdentityHashMap<>();
+    private double[] doubles = new double[1024];
+    private int size;
+
+    @Override
+    public int write(double[] values, Object source) {
+      Integer existing = offsets.get(source);
+      if (existing != null) {
+        return existing;
+      }
+      if (values.length > MAX_DOUBLES - size) {
+        throw new IllegalArgumentException(Messages.format(
+            "Snapshot is too large, the numeric data exceeds {} values", MAX_DOUBLES));
+      }
+      if (size + values.length > doubles.length) {
+        long capacity = Math.max(doubles.length * 2L, size + values.length);
+        doubles = Arrays.copyOf(doubles, (int) Math.min(capacity, MAX_DOUBLES));
+      }
+      System.arraycopy(values, 0, doubles, size, values.length);
+      int offset = size;
+      size += values.length;
+      offsets.put(source, offset);
+      return offset;
+    }
+
+    @Override
+    public double[] read(int offset, int count) {
+      return Arrays.copyOfRange(doubles, offset, offset + count);
+    }
+  }
+
+  // reads the numeric data from the mapped file
+  private static final class Reader implements NumericDecoder {
+    private final DoubleBuffer doubles;
+
+    private Reader(DoubleBuffer doubles) {
+      this.doubles = doubles;
+    }
+
+    @Override
+    public double[] read(int offset, int count) {
+      double[] values = new double[count];
+      DoubleBuffer view = doubles.duplicate();
+      view.position(offset);
+      view.get(values);
+      return values;
+    }
+  }
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+
+/**
+ * Binary snapshots of calibrated market data.
+ */
+package com.opengamma.strata.market.snapshot;
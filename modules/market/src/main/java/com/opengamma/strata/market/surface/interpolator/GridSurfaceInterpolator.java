@@ -32,6 +32,7 @@ import com.opengamma.strata.market.curve.interpolator.BoundCurveExtrapolator;
 import com.opengamma.strata.market.curve.interpolator.BoundCurveInterpolator;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
 import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
 
 /**
  * A surface interpolator that is based on two curve interpolators.
@@ -149,11 +150,13 @@ public final class GridSurfaceInterpolator
     double[] uniqueX = new double[size];
     double[] tempY = new double[size];
     double[] tempZ = new double[size];
+    int[] offsets = new int[size];
     ImmutableList.Builder<BoundCurveInterpolator> yInterpBuilder = ImmutableList.builder();
     int i = 0;
     while (i < size) {
       double currentX = xValues.get(i);
       uniqueX[countUniqueX] = currentX;
+      offsets[countUniqueX] = i;
       if (countUniqueX > 0 && uniqueX[countUniqueX - 1] > uniqueX[countUniqueX]) {
         throw new IllegalArgumentException("Array of x-values must be sorted");
       }
@@ -185,12 +188,18 @@ public final class GridSurfaceInterpolator
     }
     DoubleArray uniqueXArray = DoubleArray.ofUnsafe(Arrays.copyOf(uniqueX, countUniqueX));
     BoundCurveInterpolator[] yInterps = yInterpBuilder.build().toArray(new BoundCurveInterpolator[0]);
-    return new Bound(xInterpolator, xExtrapolatorLeft, xExtrapolatorRight, size, uniqueXArray, yInterps);
+    int[] paramOffsets = Arrays.copyOf(offsets, countUniqueX);
+    return new Bound(xInterpolator, xExtrapolatorLeft, xExtrapolatorRight, size, uniqueXArray, yInterps, paramOffsets);
   }
 
   //-------------------------------------------------------------------------
   /**
    * Bound interpolator.
+   * <p>
+   * When the x-interpolator is linear with flat extrapolation, which is the common case for volatility surfaces,
+   * only the two y-interpolators either side of the x-value are evaluated and no objects are allocated.
+   * Otherwise, the x-interpolator bound at the last y-value is cached and reused while the y-value is unchanged,
+   * avoiding the cost of binding, such as solving a spline, for each lookup of the same expiry or tenor.
    */
   static class Bound implements BoundSurfaceInterpolator {
     private final CurveInterpolator xInterpolator;
@@ -199,6 +208,12 @@ public final class GridSurfaceInterpolator
     private final DoubleArray xValuesUnique;
     private final int paramSize;
     private final BoundCurveInterpolator[] yInterpolators;
+    /** The unique x-values, or null if the linear fast path does not apply. */
+    private final double[] xValuesLinear;
+    /** The index of the first parameter of each y-interpolator. */
+    private final int[] paramOffsets;
+    /** The x-interpolator bound at the last y-value, racy single-check caching of an immutable value. */
+    private CachedBound cached;
 
     Bound(
         CurveInterpolator xInterpolator,
@@ -206,7 +221,8 @@ public final class GridSurfaceInterpolator
         CurveExtrapolator xExtrapolatorRight,
         int paramSize,
         DoubleArray xValuesUnique,
-        BoundCurveInterpolator[] yInterpolators) {
+        BoundCurveInterpolator[] yInterpolators,
+        int[] paramOffsets) {
 
       this.xInterpolator = xInterpolator;
       this.xExtrapolatorLeft = xExtrapolatorLeft;
@@ -214,35 +230,96 @@ public final class GridSurfaceInterpolator
       this.xValuesUnique = xValuesUnique;
       this.paramSize = paramSize;
       this.yInterpolators = yInterpolators;
+      boolean linear = xInterpolator.equals(CurveInterpolators.LINEAR) &&
+          xExtrapolatorLeft.equals(FLAT) && xExtrapolatorRight.equals(FLAT);
+      this.xValuesLinear = linear ? xValuesUnique.toArrayUnsafe() : null;
+      this.paramOffsets = paramOffsets;
     }
 
     //-------------------------------------------------------------------------
     @Override
     public double interpolate(double x, double y) {
-      // use each y-interpolator to find the z-value for each unique x
-      DoubleArray zValuesEffective = DoubleArray.of(yInterpolators.length, i -> yInterpolators[i].interpolate(y));
-      // interpolate unique x-values against derived z-values
-      return xInterpolator.bind(xValuesUnique, zValuesEffective, xExtrapolatorLeft, xExtrapolatorRight).interpolate(x);
+      if (xValuesLinear != null) {
+        return interpolateLinear(x, y);
+      }
+      // interpolate unique x-values against the z-values derived from each y-interpolator
+      return xBound(y).interpolate(x);
+    }
+
+    // linear interpolation in x with flat extrapolation, matching the formula of the linear interpolator
+    private double interpolateLinear(double x, double y) {
+      double[] xValues = xValuesLinear;
+      int last = xValues.length - 1;
+      if (x < xValues[0]) {
+        return yInterpolators[0].interpolate(y);
+      }
+      if (x >= xValues[last]) {
+        return yInterpolators[last].interpolate(y);
+      }
+      int lower = lowerBoundIndex(x, xValues);
+      double z1 = yInterpolators[lower].interpolate(y);
+      double z2 = yInterpolators[lower + 1].interpolate(y);
+      double gradient = (z2 - z1) / (xValues[lower + 1] - xValues[lower]);
+      return z1 + (x - xValues[lower]) * gradient;
     }
 
     @Override
     public DoubleArray parameterSensitivity(double x, double y) {
+      if (xValuesLinear != null) {
+        return parameterSensitivityLinear(x, y);
+      }
       int uniqueX = yInterpolators.length;
       final DoubleArray[] ySens = new DoubleArray[uniqueX];
       // use each y-interpolator to find the z-value sensitivity for each unique x
       for (int i = 0; i < uniqueX; i++) {
         ySens[i] = yInterpolators[i].parameterSensitivity(y);
       }
-      // use each y-interpolator to find the z-value for each unique x
-      DoubleArray zValuesEffective = DoubleArray.of(uniqueX, i -> yInterpolators[i].interpolate(y));
       // find the sensitivity of the unique x-values against derived z-values
-      DoubleArray xSens = xInterpolator
-          .bind(xValuesUnique, zValuesEffective, xExtrapolatorLeft, xExtrapolatorRight)
-          .parameterSensitivity(x);
-
+      DoubleArray xSens = xBound(y).parameterSensitivity(x);
       return project(xSens, ySens);
     }
 
+    // sensitivity of linear interpolation in x with flat extrapolation, only two y-interpolators contribute
+    private DoubleArray parameterSensitivityLinear(double x, double y) {
+      double[] xValues = xValuesLinear;
+      int last = xValues.length - 1;
+      double[] paramSens = new double[paramSize];
+      if (x < xValues[0]) {
+        projectInto(paramSens, 0, 1d, y);
+      } else if (x >= xValues[last]) {
+        projectInto(paramSens, last, 1d, y);
+      } else {
+        int lower = lowerBoundIndex(x, xValues);
+        double a = (xValues[lower + 1] - x) / (xValues[lower + 1] - xValues[lower]);
+        projectInto(paramSens, lower, a, y);
+        projectInto(paramSens, lower + 1, 1 - a, y);
+      }
+      return DoubleArray.ofUnsafe(paramSens);
+    }
+
+    // projects the sensitivity of a single y-interpolator into the parameter sensitivity
+    private void projectInto(double[] paramSens, int index, double xs, double y) {
+      DoubleArray ys = yInterpolators[index].parameterSensitivity(y);
+      int offset = paramOffsets[index];
+      for (int j = 0; j < ys.size(); j++) {
+        paramSens[offset + j] = xs * ys.get(j);
+      }
+    }
+
+    // finds the x-interpolator bound at the y-value, reusing the last one if the y-value is unchanged
+    private BoundCurveInterpolator xBound(double y) {
+      CachedBound last = cached;
+      if (last != null && last.y == y) {
+        return last.bound;
+      }
+      // use each y-interpolator to find the z-value for each unique x
+      DoubleArray zValuesEffective = DoubleArray.of(yInterpolators.length, i -> yInterpolators[i].interpolate(y));
+      BoundCurveInterpolator bound =
+          xInterpolator.bind(xValuesUnique, zValuesEffective, xExtrapolatorLeft, xExtrapolatorRight);
+      cached = new CachedBound(y, bound);
+      return bound;
+    }
+
     // project sensitivities back to parameters
     private DoubleArray project(DoubleArray xSens, DoubleArray[] ySens) {
       int countParam = 0;
@@ -256,6 +333,37 @@ public final class GridSurfaceInterpolator
       }
       return DoubleArray.ofUnsafe(paramSens);
     }
+
+    // finds the index of the node at or below the x-value, where the x-value is within the nodes
+    private static int lowerBoundIndex(double x, double[] xValues) {
+      int low = 0;
+      int high = xValues.length - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        double midVal = xValues[mid];
+        if (midVal < x) {
+          low = mid + 1;
+        } else if (midVal > x) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return low - 1;
+    }
+  }
+
+  /**
+   * The x-interpolator bound at a y-value.
+   */
+  private static final class CachedBound {
+    private final double y;
+    private final BoundCurveInterpolator bound;
+
+    private CachedBound(double y, BoundCurveInterpolator bound) {
+      this.y = y;
+      this.bound = bound;
+    }
   }
 
   //-------------------------------------------------------------------------
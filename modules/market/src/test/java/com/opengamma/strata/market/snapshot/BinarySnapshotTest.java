@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.snapshot;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.market.curve.interpolator.CurveInterpolators.LINEAR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.joda.beans.ser.JodaBeanSer;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveGroup;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveInfoType;
+import com.opengamma.strata.market.curve.CurveMetadata;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveParameterSize;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
+import com.opengamma.strata.market.surface.InterpolatedNodalSurface;
+import com.opengamma.strata.market.surface.SurfaceName;
+import com.opengamma.strata.market.surface.Surfaces;
+import com.opengamma.strata.market.surface.interpolator.GridSurfaceInterpolator;
+
+/**
+ * Test {@link BinarySnapshot}.
+ */
+@Test
+public class BinarySnapshotTest {
+
+  private static final CurveName GBP_NAME = CurveName.of("GBP-Disc");
+  private static final CurveName USD_NAME = CurveName.of("USD-3M");
+  private static final CurveMetadata GBP_METADATA = Curves.zeroRates(GBP_NAME, ACT_365F)
+      .withInfo(CurveInfoType.JACOBIAN, JacobianCalibrationMatrix.of(
+          ImmutableList.of(CurveParameterSize.of(GBP_NAME, 3)),
+          DoubleMatrix.of(3, 3, 1, 0.1, 0, 0, 1, 0.2, 0, 0, 1)))
+      .withInfo(CurveInfoType.PV_SENSITIVITY_TO_MARKET_QUOTE, DoubleArray.of(1.5, 2.5, 3.5));
+  private static final Curve GBP_CURVE = InterpolatedNodalCurve.of(
+      GBP_METADATA, DoubleArray.of(0.5, 1, 5), DoubleArray.of(0.01, 0.015, 0.02), LINEAR);
+  private static final Curve USD_CURVE = InterpolatedNodalCurve.of(
+      Curves.zeroRates(USD_NAME, ACT_365F), DoubleArray.of(1, 2), DoubleArray.of(0.02, 0.025), LINEAR);
+  private static final CurveGroup GROUP = CurveGroup.of(
+      CurveGroupName.of("Group"), ImmutableMap.of(GBP, GBP_CURVE, USD, USD_CURVE), ImmutableMap.of(USD_LIBOR_3M, USD_CURVE));
+
+  //-------------------------------------------------------------------------
+  public void test_curveGroup() throws IOException {
+    Path file = Files.createTempFile("snapshot", ".bin");
+    try {
+      BinarySnapshot.write(GROUP, file);
+      CurveGroup test = BinarySnapshot.read(file, CurveGroup.class);
+      assertThat(test).isEqualTo(GROUP);
+      InterpolatedNodalCurve curve = (InterpolatedNodalCurve) test.findDiscountCurve(GBP).get();
+      assertThat(curve.getMetadata().getInfo(CurveInfoType.JACOBIAN).getJacobianMatrix())
+          .isEqualTo(DoubleMatrix.of(3, 3, 1, 0.1, 0, 0, 1, 0.2, 0, 0, 1));
+      assertThat(curve.getMetadata().getInfo(CurveInfoType.PV_SENSITIVITY_TO_MARKET_QUOTE))
+          .isEqualTo(DoubleArray.of(1.5, 2.5, 3.5));
+      assertThat(Files.size(file)).isLessThan(JodaBeanSer.COMPACT.xmlWriter().write(GROUP).length());
+      // the nodes, Jacobian and sensitivity of the GBP curve and the nodes of the USD curve, which is written once
+      assertThat(doubleCount(file)).isEqualTo(3 + 3 + 9 + 3 + 2 + 2);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  public void test_surface() throws IOException {
+    InterpolatedNodalSurface surface = InterpolatedNodalSurface.of(
+        Surfaces.blackVolatilityByExpiryLogMoneyness(SurfaceName.of("Vol"), ACT_365F),
+        DoubleArray.of(1, 1, 2, 2),
+        DoubleArray.of(-0.1, 0.1, -0.1, 0.1),
+        DoubleArray.of(0.2, 0.21, 0.22, 0.23),
+        GridSurfaceInterpolator.of(LINEAR, LINEAR));
+    Path file = Files.createTempFile("snapshot", ".bin");
+    try {
+      BinarySnapshot.write(surface, file);
+      assertThat(BinarySnapshot.read(file, InterpolatedNodalSurface.class)).isEqualTo(surface);
+      assertThat(doubleCount(file)).isEqualTo(4 * 3);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  public void test_invalid() throws IOException {
+    Path file = Files.createTempFile("snapshot", ".bin");
+    try {
+      Files.write(file, new byte[] {1, 2, 3});
+      assertThrowsIllegalArg(() -> BinarySnapshot.read(file, CurveGroup.class), "File is not a valid snapshot.*");
+      Files.write(file, new byte[40]);
+      assertThrowsIllegalArg(() -> BinarySnapshot.read(file, CurveGroup.class), "File is not a valid snapshot.*");
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  public void test_truncated() throws IOException {
+    Path file = Files.createTempFile("snapshot", ".bin");
+    try {
+      BinarySnapshot.write(GROUP, file);
+      byte[] bytes = Files.readAllBytes(file);
+      Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+      assertThrowsIllegalArg(() -> BinarySnapshot.read(file, CurveGroup.class), "File is not a valid snapshot.*");
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  public void test_unsupportedVersion() throws IOException {
+    Path file = Files.createTempFile("snapshot", ".bin");
+    try {
+      BinarySnapshot.write(GROUP, file);
+      byte[] bytes = Files.readAllBytes(file);
+      ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, 2);
+      Files.write(file, bytes);
+      assertThrowsIllegalArg(
+          () -> BinarySnapshot.read(file, CurveGroup.class), "Snapshot has unsupported version 2, expected 1.*");
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  public void test_doubleCountTooLarge() throws IOException {
+    Path file = Files.createTempFile("snapshot", ".bin");
+    try {
+      BinarySnapshot.write(GROUP, file);
+      byte[] bytes = Files.readAllBytes(file);
+      ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putLong(8, Long.MAX_VALUE / Double.BYTES);
+      Files.write(file, bytes);
+      assertThrowsIllegalArg(() -> BinarySnapshot.read(file, CurveGroup.class), "File is not a valid snapshot.*");
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // reads the number of doubles from the header
+  private static long doubleCount(Path file) throws IOException {
+    return ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN).getLong(8);
+  }
+
+}
@@ -14,11 +14,19 @@ import static com.opengamma.strata.market.curve.interpolator.CurveExtrapolators.
 import static com.opengamma.strata.market.curve.interpolator.CurveExtrapolators.LOG_LINEAR;
 import static com.opengamma.strata.market.curve.interpolator.CurveInterpolators.DOUBLE_QUADRATIC;
 import static com.opengamma.strata.market.curve.interpolator.CurveInterpolators.LINEAR;
+import static com.opengamma.strata.market.curve.interpolator.CurveInterpolators.NATURAL_SPLINE;
 import static org.testng.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.testng.annotations.Test;
 
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.interpolator.BoundCurveInterpolator;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
 
 /**
  * Test {@link GridSurfaceInterpolator}.
@@ -43,6 +51,8 @@ public class GridSurfaceInterpolatorTest {
   private static final DoubleArray X_TEST = DoubleArray.of(0.2, 1.3, 2.5);
   private static final DoubleArray Y_TEST = DoubleArray.of(3.4, 4.1, 4.5);
   private static final DoubleArray Z_TEST = DoubleArray.of(3.6, 3.9 + (0.4 * 0.3), 3.5 + (2.2 * 0.5));
+  private static final DoubleArray X_SAMPLES = DoubleArray.of(-0.5, 0.0, 0.2, 1.0, 1.3, 2.0, 2.5, 3.0, 3.5);
+  private static final DoubleArray Y_SAMPLES = DoubleArray.of(2.5, 3.0, 3.4, 4.1, 4.5, 5.0, 5.5);
   private static final double TOL = 1.e-12;
 
   //-------------------------------------------------------------------------
@@ -105,6 +115,57 @@ public class GridSurfaceInterpolatorTest {
     }
   }
 
+  public void test_interpolation_linearFlat() {
+    assertMatchesReference(LINEAR, FLAT, FLAT);
+  }
+
+  public void test_interpolation_spline() {
+    assertMatchesReference(NATURAL_SPLINE, FLAT, FLAT);
+    assertMatchesReference(DOUBLE_QUADRATIC, CurveExtrapolators.LINEAR, CurveExtrapolators.LINEAR);
+  }
+
+  // checks values and sensitivities against binding the x-interpolator for every lookup
+  // the y-values are in the outer loop to exercise the cache of the bound x-interpolator
+  private void assertMatchesReference(CurveInterpolator xInterp, CurveExtrapolator xLeft, CurveExtrapolator xRight) {
+    GridSurfaceInterpolator test = GridSurfaceInterpolator.of(xInterp, xLeft, xRight, LINEAR, FLAT, FLAT);
+    BoundSurfaceInterpolator bound = test.bind(X_DATA, Y_DATA, Z_DATA);
+    for (int k = 0; k < 2; k++) {
+      for (int j = 0; j < Y_SAMPLES.size(); j++) {
+        for (int i = 0; i < X_SAMPLES.size(); i++) {
+          double x = X_SAMPLES.get(i);
+          double y = Y_SAMPLES.get(j);
+          BoundCurveInterpolator[] yInterps = referenceYInterpolators();
+          DoubleArray z = DoubleArray.of(yInterps.length, n -> yInterps[n].interpolate(y));
+          BoundCurveInterpolator xBound = xInterp.bind(DoubleArray.of(0, 1, 2, 3), z, xLeft, xRight);
+          assertEquals(bound.interpolate(x, y), xBound.interpolate(x), 0d);
+          DoubleArray xSens = xBound.parameterSensitivity(x);
+          List<Double> expected = new ArrayList<>();
+          for (int n = 0; n < yInterps.length; n++) {
+            DoubleArray ySens = yInterps[n].parameterSensitivity(y);
+            for (int m = 0; m < ySens.size(); m++) {
+              expected.add(xSens.get(n) * ySens.get(m));
+            }
+          }
+          DoubleArray sens = bound.parameterSensitivity(x, y);
+          assertEquals(sens.size(), expected.size());
+          for (int n = 0; n < sens.size(); n++) {
+            assertEquals(sens.get(n), expected.get(n), 0d);
+          }
+        }
+      }
+    }
+  }
+
+  // the y-interpolators for each unique x-value of the test data
+  private static BoundCurveInterpolator[] referenceYInterpolators() {
+    BoundCurveInterpolator[] yInterps = new BoundCurveInterpolator[4];
+    for (int i = 0; i < 3; i++) {
+      yInterps[i] = LINEAR.bind(Y_DATA.subArray(i * 3, i * 3 + 3), Z_DATA.subArray(i * 3, i * 3 + 3), FLAT, FLAT);
+    }
+    yInterps[3] = new GridSurfaceInterpolator.ConstantCurveInterpolator(Z_DATA.get(9));
+    return yInterps;
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     GridSurfaceInterpolator test = GridSurfaceInterpolator.of(
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Decomposition of a square matrix that exploits a block lower-triangular structure.
+ * <p>
+ * Matrices arising in curve calibration are typically close to lower-triangular,
+ * as the value of each instrument depends mainly on the nodes up to its maturity.
+ * This decomposition finds the finest partition of the matrix into diagonal blocks such that
+ * all elements above the diagonal blocks are zero. Each diagonal block is then decomposed
+ * using LU with partial pivoting, and systems are solved by block forward substitution.
+ * A matrix with no such structure is handled as a single block.
+ * <p>
+ * If the matrix is not square, or one of the diagonal blocks is singular or ill-conditioned,
+ * the fallback decomposition is used instead, by default singular value decomposition.
+ * The conditioning is estimated as the ratio of the smallest to the largest pivot over all blocks.
+ */
+public class BlockTriangularDecomposition extends Decomposition<DecompositionResult> {
+
+  /**
+   * The default threshold for the ratio of the smallest to the largest pivot.
+   */
+  public static final double DEFAULT_PIVOT_RATIO = 1e-12;
+
+  /**
+   * The threshold for the ratio of the smallest to the largest pivot, below which the fallback is used.
+   */
+  private final double pivotRatio;
+  /**
+   * The decomposition used when the matrix is ill-conditioned.
+   */
+  private final Decomposition<?> fallback;
+
+  /**
+   * Creates an instance using the default pivot ratio and singular value decomposition as the fallback.
+   */
+  public BlockTriangularDecomposition() {
+    this(DEFAULT_PIVOT_RATIO, new SVDecompositionCommons());
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param pivotRatio  the ratio of the smallest to the largest pivot, below which the fallback is used
+   * @param fallback  the decomposition used when the matrix is not square or is ill-conditioned
+   */
+  public BlockTriangularDecomposition(double pivotRatio, Decomposition<?> fallback) {
+    this.pivotRatio = ArgChecker.notNegative(pivotRatio, "pivotRatio");
+    this.fallback = ArgChecker.notNull(fallback, "fallback");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DecompositionResult apply(DoubleMatrix x) {
+    ArgChecker.notNull(x, "x");
+    int n = x.rowCount();
+    if (n == 0 || n != x.columnCount()) {
+      return fallback.apply(x);
+    }
+    double[][] matrix = x.toArrayUnsafe();
+    int[] blockStarts = blockStarts(matrix);
+    int blockCount = blockStarts.length - 1;
+    double[] pivotRange = {Double.POSITIVE_INFINITY, 0d};
+    double[][][] lu = new double[blockCount][][];
+    int[][] pivots = new int[blockCount][];
+    for (int b = 0; b < blockCount; b++) {
+      int start = blockStarts[b];
+      int size = blockStarts[b + 1] - start;
+      double[][] block = new double[size][size];
+      for (int i = 0; i < size; i++) {
+        System.arraycopy(matrix[start + i], start, block[i], 0, size);
+      }
+      int[] pivot = new int[size];
+      if (!decompose(block, pivot, pivotRange)) {
+        return fallback.apply(x);
+      }
+      lu[b] = block;
+      pivots[b] = pivot;
+    }
+    if (pivotRange[0] < pivotRatio * pivotRange[1]) {
+      return fallback.apply(x);
+    }
+    return new BlockTriangularDecompositionResult(matrix, blockStarts, lu, pivots);
+  }
+
+  // finds the start of each diagonal block, with an additional element for the size of the matrix
+  // a block ends at row i when no row up to i has a non-zero element to the right of column i
+  private static int[] blockStarts(double[][] matrix) {
+    int n = matrix.length;
+    int[] starts = new int[n + 1];
+    int count = 0;
+    int reach = -1;
+    for (int i = 0; i < n; i++) {
+      double[] row = matrix[i];
+      for (int j = n - 1; j > reach; j--) {
+        if (row[j] != 0d) {
+          reach = j;
+          break;
+        }
+      }
+      if (reach <= i) {
+        starts[++count] = i + 1;
+      }
+    }
+    int[] result = new int[count + 1];
+    System.arraycopy(starts, 0, result, 0, count + 1);
+    return result;
+  }
+
+  // decomposes the block in place using LU with partial pivoting, returning false if singular
+  // the smallest and largest absolute pivots are accumulated in the range
+  private static boolean decompose(double[][] a, int[] pivot, double[] pivotRange) {
+    int size = a.length;
+    for (int k = 0; k < size; k++) {
+      int p = k;
+      double max = Math.abs(a[k][k]);
+      for (int i = k + 1; i < size; i++) {
+        double abs = Math.abs(a[i][k]);
+        if (abs > max) {
+          max = abs;
+          p = i;
+        }
+      }
+      if (!(max > 0d) || Double.isInfinite(max)) {
+        return false;
+      }
+      pivotRange[0] = Math.min(pivotRange[0], max);
+      pivotRange[1] = Math.max(pivotRange[1], max);
+      pivot[k] = p;
+      if (p != k) {
+        double[] temp = a[p];
+        a[p] = a[k];
+        a[k] = temp;
+      }
+      double[] rowK = a[k];
+      double inverse = 1d / rowK[k];
+      for (int i = k + 1; i < size; i++) {
+        double[] rowI = a[i];
+        double factor = rowI[k] * inverse;
+        rowI[k] = factor;
+        if (factor != 0d) {
+          for (int j = k + 1; j < size; j++) {
+            rowI[j] -= factor * rowK[j];
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+}
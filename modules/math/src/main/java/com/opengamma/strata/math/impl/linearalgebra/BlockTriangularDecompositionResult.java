@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * The result of a {@link BlockTriangularDecomposition}.
+ * <p>
+ * This holds the LU decomposition of each diagonal block, together with the original matrix,
+ * which provides the elements below the diagonal blocks used in the forward substitution.
+ */
+public class BlockTriangularDecompositionResult implements DecompositionResult {
+
+  /**
+   * The original matrix, which must not be altered.
+   */
+  private final double[][] matrix;
+  /**
+   * The start of each block, with an additional element for the size of the matrix.
+   */
+  private final int[] blockStarts;
+  /**
+   * The LU decomposition of each block, L being unit lower-triangular.
+   */
+  private final double[][][] lu;
+  /**
+   * The row interchanges of each block.
+   */
+  private final int[][] pivots;
+
+  /**
+   * Creates an instance.
+   *
+   * @param matrix  the original matrix
+   * @param blockStarts  the start of each block, with an additional element for the size of the matrix
+   * @param lu  the LU decomposition of each block
+   * @param pivots  the row interchanges of each block
+   */
+  BlockTriangularDecompositionResult(double[][] matrix, int[] blockStarts, double[][][] lu, int[][] pivots) {
+    this.matrix = matrix;
+    this.blockStarts = blockStarts;
+    this.lu = lu;
+    this.pivots = pivots;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of diagonal blocks found in the matrix.
+   *
+   * @return the number of blocks
+   */
+  public int getBlockCount() {
+    return lu.length;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArray()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(b.length == matrix.length, "Vector size {} does not match matrix size {}", b.length, matrix.length);
+    double[] x = b.clone();
+    solveInPlace(x);
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(
+        b.rowCount() == matrix.length, "Matrix row count {} does not match matrix size {}", b.rowCount(), matrix.length);
+    int columns = b.columnCount();
+    double[][] result = new double[matrix.length][columns];
+    double[] x = new double[matrix.length];
+    for (int j = 0; j < columns; j++) {
+      for (int i = 0; i < x.length; i++) {
+        x[i] = b.get(i, j);
+      }
+      solveInPlace(x);
+      for (int i = 0; i < x.length; i++) {
+        result[i][j] = x[i];
+      }
+    }
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
+  // solves by block forward substitution, replacing the right hand side by the solution
+  private void solveInPlace(double[] x) {
+    for (int b = 0; b < lu.length; b++) {
+      int start = blockStarts[b];
+      int size = blockStarts[b + 1] - start;
+      // subtract the contribution of the previous blocks
+      if (start > 0) {
+        for (int i = start; i < start + size; i++) {
+          double[] row = matrix[i];
+          double sum = x[i];
+          for (int j = 0; j < start; j++) {
+            sum -= row[j] * x[j];
+          }
+          x[i] = sum;
+        }
+      }
+      // solve the diagonal block
+      double[][] a = lu[b];
+      int[] pivot = pivots[b];
+      for (int k = 0; k < size; k++) {
+        int p = pivot[k];
+        if (p != k) {
+          double temp = x[start + p];
+          x[start + p] = x[start + k];
+          x[start + k] = temp;
+        }
+      }
+      for (int i = 1; i < size; i++) {
+        double[] row = a[i];
+        double sum = x[start + i];
+        for (int j = 0; j < i; j++) {
+          sum -= row[j] * x[start + j];
+        }
+        x[start + i] = sum;
+      }
+      for (int i = size - 1; i >= 0; i--) {
+        double[] row = a[i];
+        double sum = x[start + i];
+        for (int j = i + 1; j < size; j++) {
+          sum -= row[j] * x[start + j];
+        }
+        x[start + i] = sum / row[i];
+      }
+    }
+  }
+
+}
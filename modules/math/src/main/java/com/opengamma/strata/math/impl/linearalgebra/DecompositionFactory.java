@@ -19,12 +19,16 @@ public final class DecompositionFactory {
   public static final String QR_COMMONS_NAME = "QR_COMMONS";
   /** Commons SV decomposition */
   public static final String SV_COMMONS_NAME = "SV_COMMONS";
+  /** Block triangular decomposition, with SV fallback */
+  public static final String BLOCK_TRIANGULAR_NAME = "BLOCK_TRIANGULAR";
   /** {@link LUDecompositionCommons} */
   public static final Decomposition<?> LU_COMMONS = new LUDecompositionCommons();
   /** {@link QRDecompositionCommons} */
   public static final Decomposition<?> QR_COMMONS = new QRDecompositionCommons();
   /** {@link SVDecompositionCommons} */
   public static final Decomposition<?> SV_COMMONS = new SVDecompositionCommons();
+  /** {@link BlockTriangularDecomposition} */
+  public static final Decomposition<?> BLOCK_TRIANGULAR = new BlockTriangularDecomposition();
   private static final Map<String, Decomposition<?>> STATIC_INSTANCES;
   private static final Map<Class<?>, String> INSTANCE_NAMES;
 
@@ -33,10 +37,12 @@ public final class DecompositionFactory {
     STATIC_INSTANCES.put(LU_COMMONS_NAME, LU_COMMONS);
     STATIC_INSTANCES.put(QR_COMMONS_NAME, QR_COMMONS);
     STATIC_INSTANCES.put(SV_COMMONS_NAME, SV_COMMONS);
+    STATIC_INSTANCES.put(BLOCK_TRIANGULAR_NAME, BLOCK_TRIANGULAR);
     INSTANCE_NAMES = new HashMap<>();
     INSTANCE_NAMES.put(LU_COMMONS.getClass(), LU_COMMONS_NAME);
     INSTANCE_NAMES.put(QR_COMMONS.getClass(), QR_COMMONS_NAME);
     INSTANCE_NAMES.put(SV_COMMONS.getClass(), SV_COMMONS_NAME);
+    INSTANCE_NAMES.put(BLOCK_TRIANGULAR.getClass(), BLOCK_TRIANGULAR_NAME);
   }
 
   private DecompositionFactory() {
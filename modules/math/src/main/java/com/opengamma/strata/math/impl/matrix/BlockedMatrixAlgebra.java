@@ -0,0 +1,350 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.Matrix;
+
+/**
+ * Matrix algebra with cache-blocked multiplication operating directly on arrays.
+ * <p>
+ * Matrix products are calculated without copying the inputs, using loops over blocks of the matrices
+ * so that the data in use stays in the processor cache. The innermost loop runs along a row of
+ * the result, which allows the JIT compiler to vectorize it. Each element of the result is
+ * summed in the same order as the textbook algorithm, so the results match {@link OGMatrixAlgebra} exactly.
+ * <p>
+ * Products with more than {@link #PARALLEL_THRESHOLD} multiplications are split by rows of the result
+ * and calculated using the common fork-join pool, unless parallel mode is disabled.
+ * As each row is calculated by a single thread, the results do not depend on the number of threads.
+ * <p>
+ * In addition to the {@link MatrixAlgebra} methods, variants are provided that write to, or accumulate into,
+ * an existing result held as a {@code double[][]} or as a flat array in row-major order.
+ * <p>
+ * Operations other than multiplication, such as the inverse, are provided by {@link CommonsMatrixAlgebra}.
+ */
+public class BlockedMatrixAlgebra extends CommonsMatrixAlgebra {
+
+  /**
+   * The number of multiplications above which the product is calculated in parallel.
+   */
+  public static final long PARALLEL_THRESHOLD = 1L << 20;
+  /**
+   * The size of the blocks, chosen so that a block of each matrix fits in the L1 cache.
+   */
+  private static final int BLOCK = 64;
+
+  /**
+   * Whether large products are calculated in parallel.
+   */
+  private final boolean parallel;
+
+  /**
+   * Creates an instance that calculates large products in parallel.
+   */
+  public BlockedMatrixAlgebra() {
+    this(true);
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param parallel  whether products above the threshold are calculated in parallel
+   */
+  public BlockedMatrixAlgebra(boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * {@inheritDoc} The following combinations of input matrices m1 and m2 use blocked multiplication:
+   * <ul>
+   * <li>m1 = 2-D matrix, m2 = 2-D matrix, returns $\mathbf{C} = \mathbf{AB}$
+   * <li>m1 = 2-D matrix, m2 = 1-D matrix, returns $\mathbf{C} = \mathbf{A}b$
+   * <li>m1 = 1-D matrix, m2 = 2-D matrix, returns $\mathbf{C} = a^T\mathbf{B}$
+   * </ul>
+   * Other combinations are handled by {@link CommonsMatrixAlgebra}.
+   */
+  @Override
+  public Matrix multiply(Matrix m1, Matrix m2) {
+    ArgChecker.notNull(m1, "m1");
+    ArgChecker.notNull(m2, "m2");
+    if (m1 instanceof DoubleMatrix && m2 instanceof DoubleMatrix) {
+      return multiply((DoubleMatrix) m1, (DoubleMatrix) m2);
+    } else if (m1 instanceof DoubleMatrix && m2 instanceof DoubleArray) {
+      return multiply((DoubleMatrix) m1, (DoubleArray) m2);
+    } else if (m1 instanceof DoubleArray && m2 instanceof DoubleMatrix) {
+      return multiply((DoubleArray) m1, (DoubleMatrix) m2);
+    }
+    return super.multiply(m1, m2);
+  }
+
+  /**
+   * Multiplies two matrices, $\mathbf{C} = \mathbf{AB}$.
+   *
+   * @param a  the first matrix
+   * @param b  the second matrix
+   * @return the product
+   */
+  public DoubleMatrix multiply(DoubleMatrix a, DoubleMatrix b) {
+    ArgChecker.notNull(a, "a");
+    ArgChecker.notNull(b, "b");
+    double[][] result = new double[a.rowCount()][b.columnCount()];
+    multiplyAccumulate(a.toArrayUnsafe(), b.toArrayUnsafe(), result);
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
+  /**
+   * Multiplies the transpose of a matrix by a matrix, $\mathbf{C} = \mathbf{A}^T\mathbf{B}$.
+   * <p>
+   * The transpose is not created.
+   *
+   * @param a  the first matrix, which is transposed
+   * @param b  the second matrix
+   * @return the product
+   */
+  public DoubleMatrix transposeMultiply(DoubleMatrix a, DoubleMatrix b) {
+    ArgChecker.notNull(a, "a");
+    ArgChecker.notNull(b, "b");
+    double[][] result = new double[a.columnCount()][b.columnCount()];
+    transposeMultiplyAccumulate(a.toArrayUnsafe(), b.toArrayUnsafe(), result);
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
+  @Override
+  public DoubleMatrix matrixTransposeMultiplyMatrix(DoubleMatrix a) {
+    ArgChecker.notNull(a, "a");
+    return transposeMultiply(a, a);
+  }
+
+  @Override
+  public DoubleMatrix getTranspose(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      double[][] a = ((DoubleMatrix) m).toArrayUnsafe();
+      int rows = a.length;
+      int columns = rows == 0 ? 0 : a[0].length;
+      double[][] result = new double[columns][rows];
+      for (int ii = 0; ii < rows; ii += BLOCK) {
+        int iMax = Math.min(ii + BLOCK, rows);
+        for (int jj = 0; jj < columns; jj += BLOCK) {
+          int jMax = Math.min(jj + BLOCK, columns);
+          for (int i = ii; i < iMax; i++) {
+            double[] row = a[i];
+            for (int j = jj; j < jMax; j++) {
+              result[j][i] = row[j];
+            }
+          }
+        }
+      }
+      return DoubleMatrix.ofUnsafe(result);
+    }
+    return super.getTranspose(m);
+  }
+
+  // multiplies a matrix by a vector
+  private DoubleArray multiply(DoubleMatrix matrix, DoubleArray vector) {
+    ArgChecker.isTrue(matrix.columnCount() == vector.size(), "Matrix/vector size mismatch");
+    double[][] a = matrix.toArrayUnsafe();
+    double[] x = vector.toArrayUnsafe();
+    double[] result = new double[a.length];
+    for (int i = 0; i < a.length; i++) {
+      double[] row = a[i];
+      double sum = 0d;
+      for (int j = 0; j < x.length; j++) {
+        sum += row[j] * x[j];
+      }
+      result[i] = sum;
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  // multiplies a vector by a matrix, accumulating along the rows of the matrix
+  private DoubleArray multiply(DoubleArray vector, DoubleMatrix matrix) {
+    ArgChecker.isTrue(matrix.rowCount() == vector.size(), "Matrix/vector size mismatch");
+    double[][] a = matrix.toArrayUnsafe();
+    double[] x = vector.toArrayUnsafe();
+    double[] result = new double[matrix.columnCount()];
+    for (int k = 0; k < a.length; k++) {
+      double[] row = a[k];
+      double xk = x[k];
+      for (int j = 0; j < result.length; j++) {
+        result[j] += xk * row[j];
+      }
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Multiplies two matrices, writing the result to an existing matrix, $\mathbf{C} = \mathbf{AB}$.
+   * <p>
+   * The result must not be the same array as either input.
+   *
+   * @param a  the first matrix, n by p
+   * @param b  the second matrix, p by m
+   * @param result  the result, n by m, which is overwritten
+   */
+  public void multiplyInto(double[][] a, double[][] b, double[][] result) {
+    for (double[] row : result) {
+      Arrays.fill(row, 0d);
+    }
+    multiplyAccumulate(a, b, result);
+  }
+
+  /**
+   * Multiplies two matrices, adding the product to an existing matrix, $\mathbf{C} = \mathbf{C} + \mathbf{AB}$.
+   * <p>
+   * The result must not be the same array as either input.
+   *
+   * @param a  the first matrix, n by p
+   * @param b  the second matrix, p by m
+   * @param result  the result, n by m, which is added to
+   */
+  public void multiplyAccumulate(double[][] a, double[][] b, double[][] result) {
+    int n = a.length;
+    int p = b.length;
+    int m = result.length == 0 ? 0 : result[0].length;
+    ArgChecker.isTrue(result.length == n, "Result has {} rows, expected {}", result.length, n);
+    ArgChecker.isTrue(n == 0 || a[0].length == p,
+        "Matrix size mismatch, first has {} columns, second has {} rows", n == 0 ? 0 : a[0].length, p);
+    ArgChecker.isTrue(p == 0 || b[0].length == m, "Result has {} columns, expected {}", m, p == 0 ? 0 : b[0].length);
+    forRowBlocks(n, (long) n * p * m, (iMin, iMax) -> {
+      for (int kk = 0; kk < p; kk += BLOCK) {
+        int kMax = Math.min(kk + BLOCK, p);
+        for (int jj = 0; jj < m; jj += BLOCK) {
+          int jMax = Math.min(jj + BLOCK, m);
+          for (int i = iMin; i < iMax; i++) {
+            double[] ai = a[i];
+            double[] ci = result[i];
+            for (int k = kk; k < kMax; k++) {
+              double aik = ai[k];
+              double[] bk = b[k];
+              for (int j = jj; j < jMax; j++) {
+                ci[j] += aik * bk[j];
+              }
+            }
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Multiplies the transpose of a matrix by a matrix, adding the product to an existing matrix,
+   * $\mathbf{C} = \mathbf{C} + \mathbf{A}^T\mathbf{B}$.
+   * <p>
+   * The result must not be the same array as either input.
+   *
+   * @param a  the first matrix, p by n, which is transposed
+   * @param b  the second matrix, p by m
+   * @param result  the result, n by m, which is added to
+   */
+  public void transposeMultiplyAccumulate(double[][] a, double[][] b, double[][] result) {
+    int p = a.length;
+    int n = result.length;
+    int m = n == 0 ? 0 : result[0].length;
+    ArgChecker.isTrue(b.length == p, "Matrix size mismatch, first has {} rows, second has {} rows", p, b.length);
+    ArgChecker.isTrue(p == 0 || a[0].length == n, "Result has {} rows, expected {}", n, p == 0 ? 0 : a[0].length);
+    ArgChecker.isTrue(p == 0 || b[0].length == m, "Result has {} columns, expected {}", m, p == 0 ? 0 : b[0].length);
+    forRowBlocks(n, (long) n * p * m, (iMin, iMax) -> {
+      for (int kk = 0; kk < p; kk += BLOCK) {
+        int kMax = Math.min(kk + BLOCK, p);
+        for (int jj = 0; jj < m; jj += BLOCK) {
+          int jMax = Math.min(jj + BLOCK, m);
+          for (int i = iMin; i < iMax; i++) {
+            double[] ci = result[i];
+            for (int k = kk; k < kMax; k++) {
+              double aki = a[k][i];
+              double[] bk = b[k];
+              for (int j = jj; j < jMax; j++) {
+                ci[j] += aki * bk[j];
+              }
+            }
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Multiplies two matrices held as flat arrays in row-major order, writing the result to an existing array.
+   * <p>
+   * The result must not be the same array as either input.
+   *
+   * @param a  the first matrix, n by p
+   * @param b  the second matrix, p by m
+   * @param result  the result, n by m, which is overwritten
+   * @param n  the number of rows of the first matrix
+   * @param p  the number of columns of the first matrix
+   * @param m  the number of columns of the second matrix
+   */
+  public void multiplyInto(double[] a, double[] b, double[] result, int n, int p, int m) {
+    ArgChecker.isTrue(result.length >= n * m, "Result has {} elements, expected {}", result.length, n * m);
+    Arrays.fill(result, 0, n * m, 0d);
+    multiplyAccumulate(a, b, result, n, p, m);
+  }
+
+  /**
+   * Multiplies two matrices held as flat arrays in row-major order, adding the product to an existing array.
+   * <p>
+   * The result must not be the same array as either input.
+   *
+   * @param a  the first matrix, n by p
+   * @param b  the second matrix, p by m
+   * @param result  the result, n by m, which is added to
+   * @param n  the number of rows of the first matrix
+   * @param p  the number of columns of the first matrix
+   * @param m  the number of columns of the second matrix
+   */
+  public void multiplyAccumulate(double[] a, double[] b, double[] result, int n, int p, int m) {
+    ArgChecker.isTrue(a.length >= n * p, "First matrix has {} elements, expected {}", a.length, n * p);
+    ArgChecker.isTrue(b.length >= p * m, "Second matrix has {} elements, expected {}", b.length, p * m);
+    ArgChecker.isTrue(result.length >= n * m, "Result has {} elements, expected {}", result.length, n * m);
+    forRowBlocks(n, (long) n * p * m, (iMin, iMax) -> {
+      for (int kk = 0; kk < p; kk += BLOCK) {
+        int kMax = Math.min(kk + BLOCK, p);
+        for (int jj = 0; jj < m; jj += BLOCK) {
+          int jMax = Math.min(jj + BLOCK, m);
+          for (int i = iMin; i < iMax; i++) {
+            int aRow = i * p;
+            int cRow = i * m;
+            for (int k = kk; k < kMax; k++) {
+              double aik = a[aRow + k];
+              int bRow = k * m;
+              for (int j = jj; j < jMax; j++) {
+                result[cRow + j] += aik * b[bRow + j];
+              }
+            }
+          }
+        }
+      }
+    });
+  }
+
+  //-------------------------------------------------------------------------
+  // runs the kernel over blocks of rows, in parallel if the product is large enough
+  private void forRowBlocks(int rows, long multiplications, RowKernel kernel) {
+    if (parallel && multiplications > PARALLEL_THRESHOLD && rows > BLOCK) {
+      int blocks = (rows + BLOCK - 1) / BLOCK;
+      IntStream.range(0, blocks)
+          .parallel()
+          .forEach(block -> kernel.apply(block * BLOCK, Math.min((block + 1) * BLOCK, rows)));
+    } else {
+      kernel.apply(0, rows);
+    }
+  }
+
+  // a kernel that calculates a range of rows of the result
+  private interface RowKernel {
+    void apply(int rowMin, int rowMax);
+  }
+
+}
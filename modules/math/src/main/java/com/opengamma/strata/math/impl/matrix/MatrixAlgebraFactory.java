@@ -18,10 +18,14 @@ public final class MatrixAlgebraFactory {
   public static final String COMMONS = "Commons";
   /** Label for OpenGamma matrix algebra */
   public static final String OG = "OG";
+  /** Label for blocked matrix algebra */
+  public static final String BLOCKED = "Blocked";
   /** {@link CommonsMatrixAlgebra} */
   public static final CommonsMatrixAlgebra COMMONS_ALGEBRA = new CommonsMatrixAlgebra();
   /** {@link OGMatrixAlgebra} */
   public static final OGMatrixAlgebra OG_ALGEBRA = new OGMatrixAlgebra();
+  /** {@link BlockedMatrixAlgebra} */
+  public static final BlockedMatrixAlgebra BLOCKED_ALGEBRA = new BlockedMatrixAlgebra();
   private static final Map<String, MatrixAlgebra> STATIC_INSTANCES;
   private static final Map<Class<?>, String> INSTANCE_NAMES;
 
@@ -32,6 +36,8 @@ public final class MatrixAlgebraFactory {
     INSTANCE_NAMES.put(CommonsMatrixAlgebra.class, COMMONS);
     STATIC_INSTANCES.put(OG, OG_ALGEBRA);
     INSTANCE_NAMES.put(OGMatrixAlgebra.class, OG);
+    STATIC_INSTANCES.put(BLOCKED, BLOCKED_ALGEBRA);
+    INSTANCE_NAMES.put(BlockedMatrixAlgebra.class, BLOCKED);
   }
 
   private MatrixAlgebraFactory() {
@@ -0,0 +1,251 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Generator of the Sobol low-discrepancy sequence in the unit hypercube.
+ * <p>
+ * The points are generated using the Gray code ordering of Antonov and Saleev, with 32 bits of precision.
+ * The first dimension is the van der Corput sequence in base 2. The other dimensions use the primitive
+ * polynomials modulo two in increasing order of degree, which are found on construction.
+ * <p>
+ * The initial direction numbers are drawn at random from a fixed seed, subject to the usual constraints
+ * that they are odd and less than the relevant power of two. This follows the approach of Jäckel,
+ * "Monte Carlo methods in finance", and avoids the need for a table of direction numbers.
+ * <p>
+ * The initial point, which is zero in every dimension, is skipped, thus all of the coordinates
+ * are strictly between 0 and 1. The sequence can be restarted at any point using {@link #skipTo(long)},
+ * which allows blocks of the sequence to be generated independently.
+ * <p>
+ * Instances are not thread-safe. Use {@link #copy()} to obtain a generator for another thread,
+ * sharing the direction numbers.
+ */
+public final class SobolSequenceGenerator
+    implements RandomNumberGenerator {
+
+  /**
+   * The number of bits of precision.
+   */
+  private static final int BITS = 32;
+  /**
+   * The scale converting the 32 bits to a double.
+   */
+  private static final double SCALE = 0x1.0p-32;
+  /**
+   * The seed used to choose the initial direction numbers.
+   */
+  private static final long INITIALIZATION_SEED = 20160801L;
+
+  /**
+   * The direction numbers, indexed by dimension and bit.
+   */
+  private final int[][] directions;
+  /**
+   * The current point, as integers.
+   */
+  private final int[] current;
+  /**
+   * The index of the current point in the sequence.
+   */
+  private long index;
+
+  /**
+   * Creates an instance.
+   *
+   * @param dimension  the dimension of the points
+   */
+  public SobolSequenceGenerator(int dimension) {
+    this(directionNumbers(ArgChecker.notNegativeOrZero(dimension, "dimension")));
+  }
+
+  // creates an instance from the direction numbers
+  private SobolSequenceGenerator(int[][] directions) {
+    this.directions = directions;
+    this.current = new int[directions.length];
+    skipTo(1);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the dimension of the points.
+   *
+   * @return the dimension
+   */
+  public int getDimension() {
+    return directions.length;
+  }
+
+  /**
+   * Returns a generator for the same sequence, starting at the first point.
+   * <p>
+   * The direction numbers are shared, thus this is much cheaper than creating a new instance.
+   *
+   * @return the generator
+   */
+  public SobolSequenceGenerator copy() {
+    return new SobolSequenceGenerator(directions);
+  }
+
+  /**
+   * Moves the generator to the specified point of the sequence.
+   * <p>
+   * The next call to {@link #nextPoint(double[])} will return the point with the specified index.
+   * The first point returned by a new generator has index 1.
+   *
+   * @param index  the index of the next point, from 1 to 2^32 - 1
+   */
+  public void skipTo(long index) {
+    ArgChecker.isTrue(index >= 1 && index < (1L << BITS), "Index must be from 1 to 2^32 - 1, but was {}", index);
+    long gray = index ^ (index >>> 1);
+    for (int d = 0; d < directions.length; d++) {
+      int[] direction = directions[d];
+      int value = 0;
+      for (int j = 0; j < BITS; j++) {
+        if (((gray >>> j) & 1L) != 0) {
+          value ^= direction[j];
+        }
+      }
+      current[d] = value;
+    }
+    this.index = index;
+  }
+
+  /**
+   * Fills the array with the next point of the sequence.
+   * <p>
+   * This allows a single array to be reused for all of the points.
+   *
+   * @param point  the array to fill, of size equal to the dimension
+   */
+  public void nextPoint(double[] point) {
+    ArgChecker.isTrue(point.length == directions.length,
+        "Array size {} does not match dimension {}", point.length, directions.length);
+    for (int d = 0; d < current.length; d++) {
+      point[d] = (current[d] & 0xffffffffL) * SCALE;
+    }
+    index++;
+    int bit = Long.numberOfTrailingZeros(index);
+    ArgChecker.isTrue(bit < BITS, "Sobol sequence exhausted");
+    for (int d = 0; d < current.length; d++) {
+      current[d] ^= directions[d][bit];
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double[] getVector(int size) {
+    double[] result = new double[size];
+    nextPoint(result);
+    return result;
+  }
+
+  @Override
+  public List<double[]> getVectors(int arraySize, int listSize) {
+    ArgChecker.notNegative(listSize, "listSize");
+    List<double[]> result = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      result.add(getVector(arraySize));
+    }
+    return result;
+  }
+
+  //-------------------------------------------------------------------------
+  // computes the direction numbers for each dimension
+  private static int[][] directionNumbers(int dimension) {
+    int[][] directions = new int[dimension][BITS];
+    for (int j = 0; j < BITS; j++) {
+      directions[0][j] = 1 << (BITS - 1 - j);
+    }
+    SplittableRandom random = new SplittableRandom(INITIALIZATION_SEED);
+    int d = 1;
+    for (int degree = 1; d < dimension; degree++) {
+      for (long polynomial = (1L << degree) | 1L; polynomial < (2L << degree) && d < dimension; polynomial += 2) {
+        if (isPrimitive(polynomial, degree)) {
+          long[] m = new long[BITS];
+          for (int i = 0; i < Math.min(degree, BITS); i++) {
+            m[i] = 2 * random.nextLong(1L << i) + 1;
+          }
+          for (int i = degree; i < BITS; i++) {
+            long value = m[i - degree] ^ (m[i - degree] << degree);
+            for (int k = 1; k < degree; k++) {
+              if (((polynomial >>> (degree - k)) & 1L) != 0) {
+                value ^= m[i - k] << k;
+              }
+            }
+            m[i] = value;
+          }
+          for (int i = 0; i < BITS; i++) {
+            directions[d][i] = (int) (m[i] << (BITS - 1 - i));
+          }
+          d++;
+        }
+      }
+    }
+    return directions;
+  }
+
+  // checks if the polynomial modulo two is primitive, i.e., x has order 2^degree - 1
+  private static boolean isPrimitive(long polynomial, int degree) {
+    long order = (1L << degree) - 1;
+    if (powerOfX(order, polynomial, degree) != 1L) {
+      return false;
+    }
+    long remaining = order;
+    for (long factor = 2; factor * factor <= remaining; factor++) {
+      if (remaining % factor == 0) {
+        if (powerOfX(order / factor, polynomial, degree) == 1L) {
+          return false;
+        }
+        while (remaining % factor == 0) {
+          remaining /= factor;
+        }
+      }
+    }
+    return remaining == 1 || powerOfX(order / remaining, polynomial, degree) != 1L;
+  }
+
+  // computes x^exponent modulo the polynomial
+  private static long powerOfX(long exponent, long polynomial, int degree) {
+    long result = 1L;
+    long base = reduce(2L, polynomial, degree);
+    long e = exponent;
+    while (e > 0) {
+      if ((e & 1L) != 0) {
+        result = multiply(result, base, polynomial, degree);
+      }
+      base = multiply(base, base, polynomial, degree);
+      e >>>= 1;
+    }
+    return result;
+  }
+
+  // multiplies two reduced polynomials modulo the polynomial
+  private static long multiply(long a, long b, long polynomial, int degree) {
+    long result = 0L;
+    long shifted = a;
+    long remaining = b;
+    while (remaining != 0) {
+      if ((remaining & 1L) != 0) {
+        result ^= shifted;
+      }
+      remaining >>>= 1;
+      shifted = reduce(shifted << 1, polynomial, degree);
+    }
+    return result;
+  }
+
+  // reduces a polynomial of degree at most the specified degree
+  private static long reduce(long a, long polynomial, int degree) {
+    return ((a >>> degree) & 1L) != 0 ? a ^ polynomial : a;
+  }
+
+}
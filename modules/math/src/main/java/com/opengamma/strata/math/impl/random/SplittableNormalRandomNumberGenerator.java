@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+import cern.jet.stat.Probability;
+
+/**
+ * Generator of standard normal random numbers that can be split into independent streams.
+ * <p>
+ * This is based on {@link SplittableRandom}. Each call to {@link #split()} returns a new generator
+ * whose stream is statistically independent of this one. The streams obtained by a given sequence
+ * of calls to {@code split()} depend only on the seed, thus a computation that assigns one stream
+ * to each fixed unit of work produces the same numbers however the units are distributed over threads.
+ * <p>
+ * Each normal number is obtained from a single uniform number by the inverse cumulative distribution.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class SplittableNormalRandomNumberGenerator
+    implements RandomNumberGenerator {
+
+  /**
+   * The scale converting 53 random bits to a double.
+   */
+  private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+  /**
+   * The underlying uniform generator.
+   */
+  private final SplittableRandom random;
+
+  /**
+   * Creates an instance.
+   *
+   * @param seed  the seed
+   */
+  public SplittableNormalRandomNumberGenerator(long seed) {
+    this(new SplittableRandom(seed));
+  }
+
+  // creates an instance from the uniform generator
+  private SplittableNormalRandomNumberGenerator(SplittableRandom random) {
+    this.random = random;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Splits this generator, returning a new generator with an independent stream.
+   * <p>
+   * The state of this generator is updated, thus successive calls return different streams.
+   *
+   * @return the new generator
+   */
+  public SplittableNormalRandomNumberGenerator split() {
+    return new SplittableNormalRandomNumberGenerator(random.split());
+  }
+
+  /**
+   * Fills the array with standard normal random numbers.
+   * <p>
+   * This allows a single array to be reused for all of the draws.
+   *
+   * @param result  the array to fill
+   */
+  public void nextNormals(double[] result) {
+    for (int i = 0; i < result.length; i++) {
+      result[i] = nextNormal();
+    }
+  }
+
+  // a uniform number strictly between 0 and 1 is used to avoid infinite values
+  private double nextNormal() {
+    double uniform = ((random.nextLong() >>> 11) + 0.5d) * DOUBLE_UNIT;
+    return Probability.normalInverse(uniform);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double[] getVector(int size) {
+    ArgChecker.notNegative(size, "size");
+    double[] result = new double[size];
+    nextNormals(result);
+    return result;
+  }
+
+  @Override
+  public List<double[]> getVectors(int arraySize, int listSize) {
+    ArgChecker.notNegative(arraySize, "arraySize");
+    ArgChecker.notNegative(listSize, "listSize");
+    List<double[]> result = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      result.add(getVector(arraySize));
+    }
+    return result;
+  }
+
+}
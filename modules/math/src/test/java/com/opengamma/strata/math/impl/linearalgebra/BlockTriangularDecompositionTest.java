@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Test {@link BlockTriangularDecomposition}.
+ */
+@Test
+public class BlockTriangularDecompositionTest {
+
+  private static final Decomposition<DecompositionResult> DECOMPOSITION = new BlockTriangularDecomposition();
+  private static final Decomposition<SVDecompositionResult> SVD = new SVDecompositionCommons();
+  // blocks of size 2, 1 and 2, the first needing a row interchange
+  private static final DoubleMatrix BLOCKS = DoubleMatrix.copyOf(new double[][] {
+      {0.5, 2.0, 0.0, 0.0, 0.0},
+      {3.0, 1.0, 0.0, 0.0, 0.0},
+      {1.0, 0.2, 4.0, 0.0, 0.0},
+      {0.3, 0.4, 0.5, 2.0, 1.0},
+      {0.1, 0.0, 0.7, 1.5, 3.0}});
+  private static final DoubleMatrix DENSE = DoubleMatrix.copyOf(new double[][] {
+      {4.0, 1.0, 0.5},
+      {1.0, 3.0, 0.2},
+      {0.5, 0.2, 2.0}});
+  private static final double TOL = 1e-12;
+
+  public void test_blocks() {
+    DecompositionResult test = DECOMPOSITION.apply(BLOCKS);
+    assertThat(test).isInstanceOf(BlockTriangularDecompositionResult.class);
+    assertEquals(((BlockTriangularDecompositionResult) test).getBlockCount(), 3);
+    assertSolves(test, BLOCKS);
+  }
+
+  public void test_lowerTriangular() {
+    DoubleMatrix lower = DoubleMatrix.of(4, 4, (i, j) -> j <= i ? 1d + i + 0.5 * j : 0d);
+    DecompositionResult test = DECOMPOSITION.apply(lower);
+    assertEquals(((BlockTriangularDecompositionResult) test).getBlockCount(), 4);
+    assertSolves(test, lower);
+  }
+
+  public void test_dense() {
+    DecompositionResult test = DECOMPOSITION.apply(DENSE);
+    assertEquals(((BlockTriangularDecompositionResult) test).getBlockCount(), 1);
+    assertSolves(test, DENSE);
+  }
+
+  public void test_fallback() {
+    DoubleMatrix singular = DoubleMatrix.copyOf(new double[][] {{1, 2, 0}, {2, 4, 0}, {1, 1, 1}});
+    assertThat(DECOMPOSITION.apply(singular)).isInstanceOf(SVDecompositionResult.class);
+    DoubleMatrix illConditioned = DoubleMatrix.copyOf(new double[][] {{1, 0}, {0, 1e-14}});
+    assertThat(DECOMPOSITION.apply(illConditioned)).isInstanceOf(SVDecompositionResult.class);
+    DoubleMatrix rectangular = DoubleMatrix.copyOf(new double[][] {{1, 2}, {2, 4}, {1, 1}});
+    assertThat(DECOMPOSITION.apply(rectangular)).isInstanceOf(SVDecompositionResult.class);
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> DECOMPOSITION.apply(null));
+    assertThrowsIllegalArg(() -> new BlockTriangularDecomposition(-1, SVD));
+    assertThrowsIllegalArg(() -> DECOMPOSITION.apply(DENSE).solve(DoubleArray.of(1, 2)));
+  }
+
+  // checks the solutions against singular value decomposition
+  private void assertSolves(DecompositionResult test, DoubleMatrix matrix) {
+    SVDecompositionResult expected = SVD.apply(matrix);
+    DoubleArray b = DoubleArray.of(matrix.rowCount(), i -> 1d + 0.5 * i);
+    assertArray(test.solve(b), expected.solve(b));
+    assertArray(DoubleArray.ofUnsafe(test.solve(b.toArray())), expected.solve(b));
+    DoubleMatrix identity = DoubleMatrix.identity(matrix.rowCount());
+    DoubleMatrix inverse = test.solve(identity);
+    DoubleMatrix expectedInverse = expected.solve(identity);
+    for (int i = 0; i < matrix.rowCount(); i++) {
+      assertArray(inverse.row(i), expectedInverse.row(i));
+    }
+  }
+
+  private void assertArray(DoubleArray actual, DoubleArray expected) {
+    assertEquals(actual.size(), expected.size());
+    for (int i = 0; i < actual.size(); i++) {
+      assertEquals(actual.get(i), expected.get(i), TOL);
+    }
+  }
+
+}
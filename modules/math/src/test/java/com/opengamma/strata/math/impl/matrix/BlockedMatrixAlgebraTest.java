@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Test {@link BlockedMatrixAlgebra}.
+ */
+@Test
+public class BlockedMatrixAlgebraTest {
+
+  private static final BlockedMatrixAlgebra ALGEBRA = new BlockedMatrixAlgebra();
+  private static final BlockedMatrixAlgebra SEQUENTIAL = new BlockedMatrixAlgebra(false);
+  private static final OGMatrixAlgebra OG = new OGMatrixAlgebra();
+  private static final Random RANDOM = new Random(0);
+  // large enough to use several blocks, and to be calculated in parallel
+  private static final DoubleMatrix A = random(150, 130);
+  private static final DoubleMatrix B = random(130, 140);
+  private static final double TOL = 1e-12;
+  private static final DoubleMatrix SMALL = DoubleMatrix.copyOf(new double[][] {{1, 2, 3}, {4, 5, 6}});
+
+  //-------------------------------------------------------------------------
+  public void test_multiply() {
+    DoubleMatrix expected = (DoubleMatrix) OG.multiply(A, B);
+    assertEquals(ALGEBRA.multiply(A, B), expected);
+    assertEquals(SEQUENTIAL.multiply(A, B), expected);
+    assertEquals(ALGEBRA.multiply(SMALL, OG.getTranspose(SMALL)), OG.multiply(SMALL, OG.getTranspose(SMALL)));
+  }
+
+  public void test_multiply_vector() {
+    DoubleArray vector = DoubleArray.of(130, i -> i * 0.1 - 3);
+    assertEquals(ALGEBRA.multiply(A, vector), OG.multiply(A, vector));
+    DoubleArray vector2 = DoubleArray.of(150, i -> i * 0.1 - 3);
+    assertEquals(ALGEBRA.multiply(vector2, A), OG.multiply(vector2, A));
+    assertThrowsIllegalArg(() -> ALGEBRA.multiply(A, vector2));
+  }
+
+  public void test_transpose() {
+    assertEquals(ALGEBRA.getTranspose(A), OG.getTranspose(A));
+    assertEquals(ALGEBRA.transposeMultiply(A, random(150, 20)).rowCount(), 130);
+    DoubleMatrix c = random(150, 20);
+    assertEquals(ALGEBRA.transposeMultiply(A, c), OG.multiply(OG.getTranspose(A), c));
+    assertEquals(ALGEBRA.matrixTransposeMultiplyMatrix(SMALL), OG.matrixTransposeMultiplyMatrix(SMALL));
+  }
+
+  public void test_inPlace() {
+    double[][] result = new double[150][140];
+    result[0][0] = 10;
+    ALGEBRA.multiplyInto(A.toArray(), B.toArray(), result);
+    assertEquals(DoubleMatrix.ofUnsafe(result), OG.multiply(A, B));
+    ALGEBRA.multiplyAccumulate(A.toArray(), B.toArray(), result);
+    assertArray(flatten(DoubleMatrix.ofUnsafe(result)), flatten((DoubleMatrix) OG.scale(OG.multiply(A, B), 2)));
+    assertThrowsIllegalArg(() -> ALGEBRA.multiplyAccumulate(A.toArray(), A.toArray(), new double[150][130]));
+  }
+
+  public void test_inPlace_flat() {
+    double[] a = flatten(A);
+    double[] b = flatten(B);
+    double[] result = new double[150 * 140];
+    ALGEBRA.multiplyInto(a, b, result, 150, 130, 140);
+    assertEquals(result, flatten((DoubleMatrix) OG.multiply(A, B)));
+    SEQUENTIAL.multiplyAccumulate(a, b, result, 150, 130, 140);
+    assertArray(result, flatten((DoubleMatrix) OG.scale(OG.multiply(A, B), 2)));
+    assertThrowsIllegalArg(() -> ALGEBRA.multiplyInto(a, b, new double[10], 150, 130, 140));
+  }
+
+  //-------------------------------------------------------------------------
+  private static DoubleMatrix random(int rows, int columns) {
+    return DoubleMatrix.of(rows, columns, (i, j) -> RANDOM.nextDouble() - 0.5);
+  }
+
+  private static void assertArray(double[] actual, double[] expected) {
+    assertEquals(actual.length, expected.length);
+    for (int i = 0; i < actual.length; i++) {
+      assertEquals(actual[i], expected[i], TOL);
+    }
+  }
+
+  private static double[] flatten(DoubleMatrix matrix) {
+    double[] flat = new double[matrix.size()];
+    for (int i = 0; i < matrix.rowCount(); i++) {
+      System.arraycopy(matrix.rowArray(i), 0, flat, i * matrix.columnCount(), matrix.columnCount());
+    }
+    return flat;
+  }
+
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import java.util.Random;
+
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Vague performance test comparing the matrix algebra implementations.
+ */
+public class MatrixAlgebraPerformance {
+
+  private static final Random RANDOM = new Random(0);
+
+  public static void main(String[] args) {
+    for (int size : new int[] {20, 60, 200, 500}) {
+      DoubleMatrix a = DoubleMatrix.of(size, size, (i, j) -> RANDOM.nextDouble());
+      DoubleMatrix b = DoubleMatrix.of(size, size, (i, j) -> RANDOM.nextDouble());
+      int count = Math.max(1, 20_000_000 / (size * size * size));
+      for (int loop = 0; loop < 5; loop++) {
+        System.out.println("Size " + size + ", " + count + " multiplications");
+        process("OG", MatrixAlgebraFactory.OG_ALGEBRA, a, b, count);
+        process("Commons", MatrixAlgebraFactory.COMMONS_ALGEBRA, a, b, count);
+        process("Blocked", new BlockedMatrixAlgebra(false), a, b, count);
+        process("Blocked parallel", MatrixAlgebraFactory.BLOCKED_ALGEBRA, a, b, count);
+      }
+    }
+  }
+
+  private static void process(String name, MatrixAlgebra algebra, DoubleMatrix a, DoubleMatrix b, int count) {
+    long start = System.nanoTime();
+    double total = 0d;
+    for (int i = 0; i < count; i++) {
+      total += ((DoubleMatrix) algebra.multiply(a, b)).get(0, 0);
+      total += algebra.matrixTransposeMultiplyMatrix(a).get(0, 0);
+    }
+    long end = System.nanoTime();
+    System.out.println("  " + name + ": " + (end - start) / 1_000_000d + " ms (" + total + ")");
+  }
+
+}
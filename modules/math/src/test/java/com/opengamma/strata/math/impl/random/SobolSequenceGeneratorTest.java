@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link SobolSequenceGenerator}.
+ */
+@Test
+public class SobolSequenceGeneratorTest {
+
+  private static final int DIMENSION = 40;
+
+  public void test_firstDimensions() {
+    SobolSequenceGenerator test = new SobolSequenceGenerator(2);
+    assertEquals(test.getDimension(), 2);
+    double[][] expected = {{0.5, 0.5}, {0.75, 0.25}, {0.25, 0.75}, {0.375, 0.375}, {0.875, 0.875}};
+    for (double[] point : expected) {
+      double[] computed = test.getVector(2);
+      assertEquals(computed[0], point[0]);
+      assertEquals(computed[1], point[1]);
+    }
+  }
+
+  public void test_skipTo() {
+    SobolSequenceGenerator base = new SobolSequenceGenerator(DIMENSION);
+    List<double[]> sequence = base.getVectors(DIMENSION, 100);
+    SobolSequenceGenerator test = base.copy();
+    test.skipTo(37);
+    double[] point = new double[DIMENSION];
+    for (int i = 36; i < 100; i++) {
+      test.nextPoint(point);
+      for (int d = 0; d < DIMENSION; d++) {
+        assertEquals(point[d], sequence.get(i)[d]);
+      }
+    }
+  }
+
+  public void test_uniformity() {
+    // each dimension of the first 2^k points, including the skipped zero point, is the regular grid
+    int k = 10;
+    int nPoints = (1 << k) - 1;
+    SobolSequenceGenerator test = new SobolSequenceGenerator(DIMENSION);
+    boolean[][] seen = new boolean[DIMENSION][1 << k];
+    double[] point = new double[DIMENSION];
+    for (int i = 0; i < nPoints; i++) {
+      test.nextPoint(point);
+      for (int d = 0; d < DIMENSION; d++) {
+        assertTrue(point[d] > 0d && point[d] < 1d);
+        int cell = (int) (point[d] * (1 << k));
+        assertEquals(cell * (1d / (1 << k)), point[d]);
+        assertTrue(!seen[d][cell]);
+        seen[d][cell] = true;
+      }
+    }
+    // the dimensions are distinct
+    SobolSequenceGenerator other = new SobolSequenceGenerator(DIMENSION);
+    double[] sum = new double[DIMENSION];
+    for (int i = 0; i < nPoints; i++) {
+      other.nextPoint(point);
+      for (int d = 1; d < DIMENSION; d++) {
+        sum[d] += Math.abs(point[d] - point[d - 1]);
+      }
+    }
+    for (int d = 1; d < DIMENSION; d++) {
+      assertTrue(sum[d] > 0.1 * nPoints);
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> new SobolSequenceGenerator(0));
+    SobolSequenceGenerator test = new SobolSequenceGenerator(3);
+    assertThrowsIllegalArg(() -> test.skipTo(0));
+    assertThrowsIllegalArg(() -> test.skipTo(1L << 32));
+    assertThrowsIllegalArg(() -> test.nextPoint(new double[2]));
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link SplittableNormalRandomNumberGenerator}.
+ */
+@Test
+public class SplittableNormalRandomNumberGeneratorTest {
+
+  private static final long SEED = 12345L;
+
+  public void test_list() {
+    List<double[]> result = new SplittableNormalRandomNumberGenerator(SEED).getVectors(10, 50);
+    assertEquals(result.size(), 50);
+    for (double[] d : result) {
+      assertEquals(d.length, 10);
+    }
+  }
+
+  public void test_seed() {
+    double[] first = new SplittableNormalRandomNumberGenerator(SEED).getVector(100);
+    double[] second = new double[100];
+    new SplittableNormalRandomNumberGenerator(SEED).nextNormals(second);
+    assertEquals(first, second);
+  }
+
+  public void test_split() {
+    SplittableNormalRandomNumberGenerator base1 = new SplittableNormalRandomNumberGenerator(SEED);
+    SplittableNormalRandomNumberGenerator base2 = new SplittableNormalRandomNumberGenerator(SEED);
+    SplittableNormalRandomNumberGenerator split11 = base1.split();
+    SplittableNormalRandomNumberGenerator split12 = base1.split();
+    SplittableNormalRandomNumberGenerator split21 = base2.split();
+    SplittableNormalRandomNumberGenerator split22 = base2.split();
+    // streams depend only on the sequence of splits, not on the order of use
+    double[] value22 = split22.getVector(20);
+    double[] value21 = split21.getVector(20);
+    assertEquals(split11.getVector(20), value21);
+    assertEquals(split12.getVector(20), value22);
+    assertFalse(Arrays.equals(value21, value22));
+  }
+
+  public void test_moments() {
+    int n = 200_000;
+    double[] values = new SplittableNormalRandomNumberGenerator(SEED).getVector(n);
+    double mean = Arrays.stream(values).sum() / n;
+    double variance = Arrays.stream(values).map(x -> (x - mean) * (x - mean)).sum() / n;
+    assertEquals(mean, 0d, 5d / Math.sqrt(n));
+    assertEquals(variance, 1d, 5d * Math.sqrt(2d / n));
+  }
+
+  public void test_invalid() {
+    SplittableNormalRandomNumberGenerator test = new SplittableNormalRandomNumberGenerator(SEED);
+    assertThrowsIllegalArg(() -> test.getVector(-1));
+    assertThrowsIllegalArg(() -> test.getVectors(-1, 4));
+    assertThrowsIllegalArg(() -> test.getVectors(1, -5));
+  }
+
+}
@@ -8,12 +8,15 @@ package com.opengamma.strata.measure;
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.calc.CalculationRunner;
 import com.opengamma.strata.calc.marketdata.MarketDataFactory;
 import com.opengamma.strata.calc.marketdata.MarketDataFunction;
 import com.opengamma.strata.calc.marketdata.ObservableDataProvider;
 import com.opengamma.strata.calc.marketdata.TimeSeriesProvider;
 import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.TargetNormalizer;
+import com.opengamma.strata.calc.runner.TaskDeduplicator;
 import com.opengamma.strata.measure.capfloor.IborCapFloorTradeCalculationFunction;
 import com.opengamma.strata.measure.credit.CdsTradeCalculationFunction;
 import com.opengamma.strata.measure.curve.CurveGroupMarketDataFunction;
@@ -179,4 +182,50 @@ public final class StandardComponents {
     return STANDARD;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the standard target normalizer.
+   * <p>
+   * This normalizes swap and FRA trades, such that trades that differ only by their
+   * trade information and notional can be calculated once, see {@link #taskDeduplicator()}.
+   * Swaps are normalized by the notional of their first leg if all legs have a constant notional.
+   *
+   * @return the standard target normalizer
+   */
+  public static TargetNormalizer targetNormalizer() {
+    return StandardTargetNormalizer.INSTANCE;
+  }
+
+  /**
+   * Returns a task deduplicator using the standard target normalizer.
+   * <p>
+   * The deduplicator is passed to {@link CalculationRunner#of(java.util.concurrent.ExecutorService, TaskDeduplicator)}.
+   * The results of a swap or FRA trade are then derived from those of an identical trade,
+   * scaled by the ratio of their notionals, rather than being calculated.
+   * <p>
+   * The present value, PV01, currency exposure, current cash and accrued interest are linear in the notional.
+   * The par rate and par spread are independent of the notional.
+   * Other measures are calculated for each trade.
+   * <p>
+   * A new instance is returned by each call, as the deduplicator records the number of shared tasks.
+   *
+   * @return a task deduplicator using the standard target normalizer
+   */
+  public static TaskDeduplicator taskDeduplicator() {
+    return TaskDeduplicator.of(
+        targetNormalizer(),
+        ImmutableSet.of(
+            Measures.PRESENT_VALUE,
+            Measures.PV01_CALIBRATED_SUM,
+            Measures.PV01_CALIBRATED_BUCKETED,
+            Measures.PV01_MARKET_QUOTE_SUM,
+            Measures.PV01_MARKET_QUOTE_BUCKETED,
+            Measures.CURRENCY_EXPOSURE,
+            Measures.CURRENT_CASH,
+            Measures.ACCRUED_INTEREST),
+        ImmutableSet.of(
+            Measures.PAR_RATE,
+            Measures.PAR_SPREAD));
+  }
+
 }
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure;
+
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.value.ValueSchedule;
+import com.opengamma.strata.calc.runner.NormalizedTarget;
+import com.opengamma.strata.calc.runner.TargetNormalizer;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.product.fra.Fra;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.product.swap.FixedRateCalculation;
+import com.opengamma.strata.product.swap.FixedRateStubCalculation;
+import com.opengamma.strata.product.swap.IborRateCalculation;
+import com.opengamma.strata.product.swap.IborRateStubCalculation;
+import com.opengamma.strata.product.swap.RateCalculationSwapLeg;
+import com.opengamma.strata.product.swap.Swap;
+import com.opengamma.strata.product.swap.SwapLeg;
+import com.opengamma.strata.product.swap.SwapTrade;
+
+/**
+ * The standard target normalizer, supporting swap and FRA trades.
+ * <p>
+ * A FRA is normalized to the same FRA with a notional of one, the size being the notional.
+ * A FRA with a notional of zero is normalized to itself with a size of one.
+ * <p>
+ * A swap whose legs all have a constant notional is normalized to the same swap with the notional
+ * of each leg divided by the notional of the first leg, the size being the notional of the first leg.
+ * Other swaps, such as amortizing swaps or swaps with a known amount stub, are normalized to
+ * themselves with a size of one, thus only swaps that are identical are calculated once.
+ */
+final class StandardTargetNormalizer implements TargetNormalizer {
+
+  /**
+   * The singleton instance.
+   */
+  static final StandardTargetNormalizer INSTANCE = new StandardTargetNormalizer();
+
+  /**
+   * Restricted constructor.
+   */
+  private StandardTargetNormalizer() {
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Optional<NormalizedTarget> normalize(CalculationTarget target, ReferenceData refData) {
+    if (target instanceof SwapTrade) {
+      return Optional.of(normalize(((SwapTrade) target).getProduct()));
+    }
+    if (target instanceof FraTrade) {
+      return Optional.of(normalize(((FraTrade) target).getProduct()));
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<Object> scale(Object value, double factor) {
+    if (value instanceof CurrencyParameterSensitivities) {
+      return Optional.of(((CurrencyParameterSensitivities) value).multipliedBy(factor));
+    }
+    return Optional.empty();
+  }
+
+  //-------------------------------------------------------------------------
+  // normalizes the FRA by its notional, unless the notional is zero
+  private static NormalizedTarget normalize(Fra fra) {
+    double size = fra.getNotional();
+    if (size == 0d) {
+      return NormalizedTarget.of(fra, 1d);
+    }
+    return NormalizedTarget.of(fra.toBuilder().notional(1d).build(), size);
+  }
+
+  // normalizes the swap by the notional of the first leg if all the notionals are constant
+  private static NormalizedTarget normalize(Swap swap) {
+    for (SwapLeg leg : swap.getLegs()) {
+      if (!isLinear(leg)) {
+        return NormalizedTarget.of(swap, 1d);
+      }
+    }
+    double size = notional(swap.getLegs().get(0));
+    if (size == 0d) {
+      return NormalizedTarget.of(swap, 1d);
+    }
+    ImmutableList.Builder<SwapLeg> legs = ImmutableList.builder();
+    for (SwapLeg leg : swap.getLegs()) {
+      RateCalculationSwapLeg rateLeg = (RateCalculationSwapLeg) leg;
+      legs.add(rateLeg.toBuilder()
+          .notionalSchedule(rateLeg.getNotionalSchedule().toBuilder()
+              .amount(ValueSchedule.of(notional(rateLeg) / size))
+              .build())
+          .build());
+    }
+    return NormalizedTarget.of(Swap.of(legs.build()), size);
+  }
+
+  // checks if the leg is linear in a constant notional
+  private static boolean isLinear(SwapLeg leg) {
+    if (!(leg instanceof RateCalculationSwapLeg)) {
+      return false;
+    }
+    RateCalculationSwapLeg rateLeg = (RateCalculationSwapLeg) leg;
+    ValueSchedule amount = rateLeg.getNotionalSchedule().getAmount();
+    if (!amount.getSteps().isEmpty() || amount.getStepSequence().isPresent()) {
+      return false;
+    }
+    if (rateLeg.getCalculation() instanceof FixedRateCalculation) {
+      FixedRateCalculation calculation = (FixedRateCalculation) rateLeg.getCalculation();
+      return !calculation.getInitialStub().map(FixedRateStubCalculation::isKnownAmount).orElse(false) &&
+          !calculation.getFinalStub().map(FixedRateStubCalculation::isKnownAmount).orElse(false);
+    }
+    if (rateLeg.getCalculation() instanceof IborRateCalculation) {
+      IborRateCalculation calculation = (IborRateCalculation) rateLeg.getCalculation();
+      return !calculation.getInitialStub().map(IborRateStubCalculation::isKnownAmount).orElse(false) &&
+          !calculation.getFinalStub().map(IborRateStubCalculation::isKnownAmount).orElse(false);
+    }
+    return true;
+  }
+
+  // the constant notional of a linear leg
+  private static double notional(SwapLeg leg) {
+    return ((RateCalculationSwapLeg) leg).getNotionalSchedule().getAmount().getInitialValue();
+  }
+
+}
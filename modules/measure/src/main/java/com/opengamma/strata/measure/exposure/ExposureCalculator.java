@@ -0,0 +1,304 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.exposure;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.measure.calc.TradeCounterpartyCalculationParameter;
+import com.opengamma.strata.pricer.fra.DiscountingFraProductPricer;
+import com.opengamma.strata.pricer.fx.DiscountingFxSingleProductPricer;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.Trade;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.product.fra.ResolvedFra;
+import com.opengamma.strata.product.fx.FxSingleTrade;
+import com.opengamma.strata.product.fx.ResolvedFxSingle;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+import com.opengamma.strata.product.swap.SwapTrade;
+
+/**
+ * Calculator of counterparty exposure profiles by simulation.
+ * <p>
+ * The trades are revalued on each path and each date of the time grid of {@link SimulatedRatesProviders}.
+ * The values of the trades with the same counterparty are netted, the counterparty being
+ * the one defined in the trade info, as used by {@link TradeCounterpartyCalculationParameter}.
+ * Trades without a counterparty are aggregated under {@link #UNKNOWN_COUNTERPARTY}.
+ * <p>
+ * Swap, FRA and FX single trades are supported. The trades are resolved once.
+ * At each date of the time grid, the payments before the date are removed from the resolved products
+ * and the products with no remaining payment are not valued. This is done once for each date,
+ * and the rolled products are shared by all of the paths.
+ * <p>
+ * The exposure is accumulated path by path. The expected exposure is a running sum and the
+ * potential future exposure is estimated with a streaming quantile estimator. Thus the memory used
+ * is proportional to the number of dates and counterparties, and does not depend on the number of paths.
+ * The dates are optionally processed in parallel, the paths for each date being processed in order.
+ * The results are thus the same whether or not the calculation is parallel.
+ */
+public final class ExposureCalculator {
+
+  /**
+   * The counterparty under which trades without a counterparty are aggregated.
+   */
+  public static final StandardId UNKNOWN_COUNTERPARTY = StandardId.of("OG-Exposure", "Unknown");
+
+  /**
+   * The swap pricer.
+   */
+  private static final DiscountingSwapProductPricer SWAP_PRICER = DiscountingSwapProductPricer.DEFAULT;
+  /**
+   * The FRA pricer.
+   */
+  private static final DiscountingFraProductPricer FRA_PRICER = DiscountingFraProductPricer.DEFAULT;
+  /**
+   * The FX single pricer.
+   */
+  private static final DiscountingFxSingleProductPricer FX_PRICER = DiscountingFxSingleProductPricer.DEFAULT;
+
+  /**
+   * The currency of the exposure.
+   */
+  private final Currency reportingCurrency;
+  /**
+   * The confidence level of the potential future exposure.
+   */
+  private final double confidenceLevel;
+  /**
+   * Whether the dates are processed in parallel.
+   */
+  private final boolean parallel;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance processing the dates in parallel.
+   *
+   * @param reportingCurrency  the currency of the exposure
+   * @param confidenceLevel  the confidence level of the potential future exposure, such as 0.95
+   * @return the calculator
+   */
+  public static ExposureCalculator of(Currency reportingCurrency, double confidenceLevel) {
+    return of(reportingCurrency, confidenceLevel, true);
+  }
+
+  /**
+   * Obtains an instance.
+   *
+   * @param reportingCurrency  the currency of the exposure
+   * @param confidenceLevel  the confidence level of the potential future exposure, such as 0.95
+   * @param parallel  whether the dates are processed in parallel
+   * @return the calculator
+   */
+  public static ExposureCalculator of(Currency reportingCurrency, double confidenceLevel, boolean parallel) {
+    ArgChecker.notNull(reportingCurrency, "reportingCurrency");
+    ArgChecker.inRangeExclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+    return new ExposureCalculator(reportingCurrency, confidenceLevel, parallel);
+  }
+
+  // restricted constructor
+  private ExposureCalculator(Currency reportingCurrency, double confidenceLevel, boolean parallel) {
+    this.reportingCurrency = reportingCurrency;
+    this.confidenceLevel = confidenceLevel;
+    this.parallel = parallel;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the exposure profile of each counterparty.
+   *
+   * @param trades  the trades
+   * @param simulation  the simulated market states
+   * @param refData  the reference data used to resolve the trades
+   * @return the exposure profiles, keyed by counterparty in the order first seen in the trades
+   * @throws IllegalArgumentException if a trade type is not supported
+   */
+  public ImmutableMap<StandardId, ExposureProfile> calculate(
+      List<? extends Trade> trades,
+      SimulatedRatesProviders simulation,
+      ReferenceData refData) {
+
+    ArgChecker.noNulls(trades, "trades");
+    ArgChecker.notNull(simulation, "simulation");
+    ArgChecker.notNull(refData, "refData");
+    // resolve the trades once
+    Map<StandardId, Integer> counterparties = new LinkedHashMap<>();
+    List<ExposureTrade> resolved = new ArrayList<>(trades.size());
+    for (Trade trade : trades) {
+      StandardId counterparty = trade.getInfo().getCounterparty().orElse(UNKNOWN_COUNTERPARTY);
+      Integer group = counterparties.computeIfAbsent(counterparty, c -> counterparties.size());
+      resolved.add(resolve(trade, group, refData));
+    }
+    ImmutableList<LocalDate> dates = ImmutableList.copyOf(simulation.getDates());
+    int nGroups = counterparties.size();
+    int nDates = dates.size();
+    double[][] expected = new double[nGroups][nDates];
+    double[][] potential = new double[nGroups][nDates];
+    IntStream dateIndices = IntStream.range(0, nDates);
+    if (parallel) {
+      dateIndices = dateIndices.parallel();
+    }
+    dateIndices.forEach(j -> exposureAtDate(resolved, simulation, dates.get(j), j, nGroups, expected, potential));
+    ImmutableMap.Builder<StandardId, ExposureProfile> builder = ImmutableMap.builder();
+    for (Map.Entry<StandardId, Integer> entry : counterparties.entrySet()) {
+      int group = entry.getValue();
+      builder.put(entry.getKey(), ExposureProfile.of(
+          reportingCurrency,
+          dates,
+          DoubleArray.ofUnsafe(expected[group]),
+          DoubleArray.ofUnsafe(potential[group]),
+          confidenceLevel));
+    }
+    return builder.build();
+  }
+
+  // computes the exposure of each counterparty at one date, over all of the paths
+  private void exposureAtDate(
+      List<ExposureTrade> trades,
+      SimulatedRatesProviders simulation,
+      LocalDate date,
+      int dateIndex,
+      int nGroups,
+      double[][] expected,
+      double[][] potential) {
+
+    List<ExposureTrade> live = trades.stream()
+        .map(trade -> trade.rollTo(date))
+        .filter(trade -> trade != null)
+        .collect(toImmutableList());
+    int nPaths = simulation.getPathCount();
+    double[] sum = new double[nGroups];
+    double[] netted = new double[nGroups];
+    StreamingQuantileEstimator[] quantiles = new StreamingQuantileEstimator[nGroups];
+    for (int g = 0; g < nGroups; g++) {
+      quantiles[g] = new StreamingQuantileEstimator(confidenceLevel);
+    }
+    for (int p = 0; p < nPaths; p++) {
+      RatesProvider provider = simulation.ratesProvider(p, dateIndex);
+      ArgChecker.isTrue(provider.getValuationDate().equals(date),
+          "Valuation date {} of simulated rates provider does not match date {}", provider.getValuationDate(), date);
+      Arrays.fill(netted, 0d);
+      for (ExposureTrade trade : live) {
+        netted[trade.group] += trade.presentValue(provider, reportingCurrency);
+      }
+      for (int g = 0; g < nGroups; g++) {
+        double exposure = Math.max(netted[g], 0d);
+        sum[g] += exposure;
+        quantiles[g].add(exposure);
+      }
+    }
+    for (int g = 0; g < nGroups; g++) {
+      expected[g][dateIndex] = nPaths == 0 ? 0d : sum[g] / nPaths;
+      potential[g][dateIndex] = quantiles[g].quantile();
+    }
+  }
+
+  // resolves the trade
+  private static ExposureTrade resolve(Trade trade, int group, ReferenceData refData) {
+    if (trade instanceof SwapTrade) {
+      return new ExposureTrade(group, ((SwapTrade) trade).resolve(refData).getProduct(), null, null);
+    }
+    if (trade instanceof FraTrade) {
+      return new ExposureTrade(group, null, ((FraTrade) trade).resolve(refData).getProduct(), null);
+    }
+    if (trade instanceof FxSingleTrade) {
+      return new ExposureTrade(group, null, null, ((FxSingleTrade) trade).resolve(refData).getProduct());
+    }
+    throw new IllegalArgumentException(Messages.format(
+        "Exposure is not supported for trade type '{}'", trade.getClass().getSimpleName()));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A resolved trade, with the index of its counterparty.
+   * <p>
+   * Exactly one of the products is non-null.
+   */
+  private static final class ExposureTrade {
+    private final int group;
+    private final ResolvedSwap swap;
+    private final ResolvedFra fra;
+    private final ResolvedFxSingle fx;
+
+    private ExposureTrade(int group, ResolvedSwap swap, ResolvedFra fra, ResolvedFxSingle fx) {
+      this.group = group;
+      this.swap = swap;
+      this.fra = fra;
+      this.fx = fx;
+    }
+
+    // the trade with the payments before the date removed, null if no payment remains
+    private ExposureTrade rollTo(LocalDate date) {
+      if (swap != null) {
+        ResolvedSwap rolled = rollSwap(swap, date);
+        if (rolled == null) {
+          return null;
+        }
+        return rolled == swap ? this : new ExposureTrade(group, rolled, null, null);
+      }
+      if (fra != null) {
+        return fra.getPaymentDate().isBefore(date) ? null : this;
+      }
+      return fx.getPaymentDate().isBefore(date) ? null : this;
+    }
+
+    // the present value in the reporting currency
+    private double presentValue(RatesProvider provider, Currency currency) {
+      if (swap != null) {
+        return SWAP_PRICER.presentValue(swap, currency, provider).getAmount();
+      }
+      if (fra != null) {
+        return FRA_PRICER.presentValue(fra, provider).convertedTo(currency, provider).getAmount();
+      }
+      return FX_PRICER.presentValue(fx, provider).convertedTo(currency, provider).getAmount();
+    }
+
+    // removes the payment periods and events before the date, returning the same swap if none are removed
+    private static ResolvedSwap rollSwap(ResolvedSwap swap, LocalDate date) {
+      boolean rolled = false;
+      List<ResolvedSwapLeg> legs = new ArrayList<>();
+      for (ResolvedSwapLeg leg : swap.getLegs()) {
+        ImmutableList<SwapPaymentPeriod> periods = leg.getPaymentPeriods().stream()
+            .filter(period -> !period.getPaymentDate().isBefore(date))
+            .collect(toImmutableList());
+        ImmutableList<SwapPaymentEvent> events = leg.getPaymentEvents().stream()
+            .filter(event -> !event.getPaymentDate().isBefore(date))
+            .collect(toImmutableList());
+        if (periods.size() == leg.getPaymentPeriods().size() && events.size() == leg.getPaymentEvents().size()) {
+          legs.add(leg);
+        } else {
+          rolled = true;
+          if (!periods.isEmpty() || !events.isEmpty()) {
+            legs.add(leg.toBuilder().paymentPeriods(periods).paymentEvents(events).build());
+          }
+        }
+      }
+      if (!rolled) {
+        return swap;
+      }
+      return legs.isEmpty() ? null : ResolvedSwap.builder().legs(legs).build();
+    }
+  }
+
+}
@@ -0,0 +1,520 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.exposure;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.ImmutableValidator;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * The exposure profile of a counterparty over a time grid.
+ * <p>
+ * The exposure at a date is the positive part of the value of the trades with the counterparty,
+ * the values of the trades being netted. The expected exposure (EE) is the average of the exposure
+ * over the simulated paths. The potential future exposure (PFE) is the quantile of the exposure
+ * at the confidence level.
+ */
+@BeanDefinition(builderScope = "private")
+public final class ExposureProfile
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The currency of the exposure.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Currency currency;
+  /**
+   * The dates of the time grid.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<LocalDate> dates;
+  /**
+   * The expected exposure at each date of the time grid.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray expectedExposure;
+  /**
+   * The potential future exposure at each date of the time grid.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray potentialFutureExposure;
+  /**
+   * The confidence level of the potential future exposure.
+   */
+  @PropertyDefinition
+  private final double confidenceLevel;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param currency  the currency of the exposure
+   * @param dates  the dates of the time grid
+   * @param expectedExposure  the expected exposure at each date
+   * @param potentialFutureExposure  the potential future exposure at each date
+   * @param confidenceLevel  the confidence level of the potential future exposure
+   * @return the instance
+   */
+  public static ExposureProfile of(
+      Currency currency,
+      List<LocalDate> dates,
+      DoubleArray expectedExposure,
+      DoubleArray potentialFutureExposure,
+      double confidenceLevel) {
+
+    return new ExposureProfile(
+        currency, ImmutableList.copyOf(dates), expectedExposure, potentialFutureExposure, confidenceLevel);
+  }
+
+  @ImmutableValidator
+  private void validate() {
+    ArgChecker.notEmpty(dates, "dates");
+    ArgChecker.isTrue(expectedExposure.size() == dates.size(), "Expected exposure must have one value for each date");
+    ArgChecker.isTrue(
+        potentialFutureExposure.size() == dates.size(), "Potential future exposure must have one value for each date");
+    ArgChecker.inRangeExclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the peak of the potential future exposure over the time grid.
+   *
+   * @return the peak exposure
+   */
+  public double getPeakPotentialFutureExposure() {
+    return potentialFutureExposure.max();
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  ///CLOVER:OFF
+  /**
+   * The meta-bean for {@code ExposureProfile}.
+   * @return the meta-bean, not null
+   */
+  public static ExposureProfile.Meta meta() {
+    return ExposureProfile.Meta.INSTANCE;
+  }
+
+  static {
+    JodaBeanUtils.registerMetaBean(ExposureProfile.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private ExposureProfile(
+      Currency currency,
+      List<LocalDate> dates,
+      DoubleArray expectedExposure,
+      DoubleArray potentialFutureExposure,
+      double confidenceLevel) {
+    JodaBeanUtils.notNull(currency, "currency");
+    JodaBeanUtils.notNull(dates, "dates");
+    JodaBeanUtils.notNull(expectedExposure, "expectedExposure");
+    JodaBeanUtils.notNull(potentialFutureExposure, "potentialFutureExposure");
+    this.currency = currency;
+    this.dates = ImmutableList.copyOf(dates);
+    this.expectedExposure = expectedExposure;
+    this.potentialFutureExposure = potentialFutureExposure;
+    this.confidenceLevel = confidenceLevel;
+    validate();
+  }
+
+  @Override
+  public ExposureProfile.Meta metaBean() {
+    return ExposureProfile.Meta.INSTANCE;
+  }
+
+  @Override
+  public <R> Property<R> property(String propertyName) {
+    return metaBean().<R>metaProperty(propertyName).createProperty(this);
+  }
+
+  @Override
+  public Set<String> propertyNames() {
+    return metaBean().metaPropertyMap().keySet();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the currency of the exposure.
+   * @return the value of the property, not null
+   */
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the dates of the time grid.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<LocalDate> getDates() {
+    return dates;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the expected exposure at each date of the time grid.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getExpectedExposure() {
+    return expectedExposure;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the potential future exposure at each date of the time grid.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getPotentialFutureExposure() {
+    return potentialFutureExposure;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the confidence level of the potential future exposure.
+   * @return the value of the property
+   */
+  public double getConfidenceLevel() {
+    return confidenceLevel;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ExposureProfile other = (ExposureProfile) obj;
+      return JodaBeanUtils.equal(currency, other.currency) &&
+          JodaBeanUtils.equal(dates, other.dates) &&
+          JodaBeanUtils.equal(expectedExposure, other.expectedExposure) &&
+          JodaBeanUtils.equal(potentialFutureExposure, other.potentialFutureExposure) &&
+          JodaBeanUtils.equal(confidenceLevel, other.confidenceLevel);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(currency);
+    hash = hash * 31 + JodaBeanUtils.hashCode(dates);
+    hash = hash * 31 + JodaBeanUtils.hashCode(expectedExposure);
+    hash = hash * 31 + JodaBeanUtils.hashCode(potentialFutureExposure);
+    hash = hash * 31 + JodaBeanUtils.hashCode(confidenceLevel);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(192);
+    buf.append("ExposureProfile{");
+    buf.append("currency").append('=').append(currency).append(',').append(' ');
+    buf.append("dates").append('=').append(dates).append(',').append(' ');
+    buf.append("expectedExposure").append('=').append(expectedExposure).append(',').append(' ');
+    buf.append("potentialFutureExposure").append('=').append(potentialFutureExposure).append(',').append(' ');
+    buf.append("confidenceLevel").append('=').append(JodaBeanUtils.toString(confidenceLevel));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code ExposureProfile}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code currency} property.
+     */
+    private final MetaProperty<Currency> currency = DirectMetaProperty.ofImmutable(
+        this, "currency", ExposureProfile.class, Currency.class);
+    /**
+     * The meta-property for the {@code dates} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableList<LocalDate>> dates = DirectMetaProperty.ofImmutable(
+        this, "dates", ExposureProfile.class, (Class) ImmutableList.class);
+    /**
+     * The meta-property for the {@code expectedExposure} property.
+     */
+    private final MetaProperty<DoubleArray> expectedExposure = DirectMetaProperty.ofImmutable(
+        this, "expectedExposure", ExposureProfile.class, DoubleArray.class);
+    /**
+     * The meta-property for the {@code potentialFutureExposure} property.
+     */
+    private final MetaProperty<DoubleArray> potentialFutureExposure = DirectMetaProperty.ofImmutable(
+        this, "potentialFutureExposure", ExposureProfile.class, DoubleArray.class);
+    /**
+     * The meta-property for the {@code confidenceLevel} property.
+     */
+    private final MetaProperty<Double> confidenceLevel = DirectMetaProperty.ofImmutable(
+        this, "confidenceLevel", ExposureProfile.class, Double.TYPE);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "currency",
+        "dates",
+        "expectedExposure",
+        "potentialFutureExposure",
+        "confidenceLevel");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 575402001:  // currency
+          return currency;
+        case 95356549:  // dates
+          return dates;
+        case 1446440927:  // expectedExposure
+          return expectedExposure;
+        case -268960856:  // potentialFutureExposure
+          return potentialFutureExposure;
+        case 35181338:  // confidenceLevel
+          return confidenceLevel;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends ExposureProfile> builder() {
+      return new ExposureProfile.Builder();
+    }
+
+    @Override
+    public Class<? extends ExposureProfile> beanType() {
+      return ExposureProfile.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code currency} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Currency> currency() {
+      return currency;
+    }
+
+    /**
+     * The meta-property for the {@code dates} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableList<LocalDate>> dates() {
+      return dates;
+    }
+
+    /**
+     * The meta-property for the {@code expectedExposure} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<DoubleArray> expectedExposure() {
+      return expectedExposure;
+    }
+
+    /**
+     * The meta-property for the {@code potentialFutureExposure} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<DoubleArray> potentialFutureExposure() {
+      return potentialFutureExposure;
+    }
+
+    /**
+     * The meta-property for the {@code confidenceLevel} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Double> confidenceLevel() {
+      return confidenceLevel;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 575402001:  // currency
+          return ((ExposureProfile) bean).getCurrency();
+        case 95356549:  // dates
+          return ((ExposureProfile) bean).getDates();
+        case 1446440927:  // expectedExposure
+          return ((ExposureProfile) bean).getExpectedExposure();
+        case -268960856:  // potentialFutureExposure
+          return ((ExposureProfile) bean).getPotentialFutureExposure();
+        case 35181338:  // confidenceLevel
+          return ((ExposureProfile) bean).getConfidenceLevel();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code ExposureProfile}.
+   */
+  private static final class Builder extends DirectFieldsBeanBuilder<ExposureProfile> {
+
+    private Currency currency;
+    private List<LocalDate> dates = ImmutableList.of();
+    private DoubleArray expectedExposure;
+    private DoubleArray potentialFutureExposure;
+    private double confidenceLevel;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 575402001:  // currency
+          return currency;
+        case 95356549:  // dates
+          return dates;
+        case 1446440927:  // expectedExposure
+          return expectedExposure;
+        case -268960856:  // potentialFutureExposure
+          return potentialFutureExposure;
+        case 35181338:  // confidenceLevel
+          return confidenceLevel;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 575402001:  // currency
+          this.currency = (Currency) newValue;
+          break;
+        case 95356549:  // dates
+          this.dates = (List<LocalDate>) newValue;
+          break;
+        case 1446440927:  // expectedExposure
+          this.expectedExposure = (DoubleArray) newValue;
+          break;
+        case -268960856:  // potentialFutureExposure
+          this.potentialFutureExposure = (DoubleArray) newValue;
+          break;
+        case 35181338:  // confidenceLevel
+          this.confidenceLevel = (Double) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public Builder set(MetaProperty<?> property, Object value) {
+      super.set(property, value);
+      return this;
+    }
+
+    @Override
+    public Builder setString(String propertyName, String value) {
+      setString(meta().metaProperty(propertyName), value);
+      return this;
+    }
+
+    @Override
+    public Builder setString(MetaProperty<?> property, String value) {
+      super.setString(property, value);
+      return this;
+    }
+
+    @Override
+    public Builder setAll(Map<String, ? extends Object> propertyValueMap) {
+      super.setAll(propertyValueMap);
+      return this;
+    }
+
+    @Override
+    public ExposureProfile build() {
+      return new ExposureProfile(
+          currency,
+          dates,
+          expectedExposure,
+          potentialFutureExposure,
+          confidenceLevel);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(192);
+      buf.append("ExposureProfile.Builder{");
+      buf.append("currency").append('=').append(JodaBeanUtils.toString(currency)).append(',').append(' ');
+      buf.append("dates").append('=').append(JodaBeanUtils.toString(dates)).append(',').append(' ');
+      buf.append("expectedExposure").append('=').append(JodaBeanUtils.toString(expectedExposure)).append(',').append(' ');
+      buf.append("potentialFutureExposure").append('=').append(JodaBeanUtils.toString(potentialFutureExposure)).append(',').append(' ');
+      buf.append("confidenceLevel").append('=').append(JodaBeanUtils.toString(confidenceLevel));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  ///CLOVER:ON
+  //-------------------------- AUTOGENERATED END --------------------------
+}
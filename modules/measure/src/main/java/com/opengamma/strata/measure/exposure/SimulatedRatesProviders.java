@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.exposure;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.opengamma.strata.pricer.rate.RatesProvider;
+
+/**
+ * Simulated states of the market on a time grid, used to compute exposure.
+ * <p>
+ * Each path provides a rates provider at each date of the time grid,
+ * typically built from curves simulated by a model.
+ * The valuation date of the rates provider must be the date of the time grid.
+ * <p>
+ * Implementations must be thread-safe, as different dates may be requested concurrently.
+ * The rates provider for a path and a date should be created on demand, rather than stored,
+ * so that the memory used does not grow with the number of paths.
+ */
+public interface SimulatedRatesProviders {
+
+  /**
+   * Gets the dates of the time grid, in increasing order.
+   *
+   * @return the dates
+   */
+  public abstract List<LocalDate> getDates();
+
+  /**
+   * Gets the number of simulated paths.
+   *
+   * @return the number of paths
+   */
+  public abstract int getPathCount();
+
+  /**
+   * Obtains the rates provider for the specified path and date.
+   *
+   * @param pathIndex  the index of the path
+   * @param dateIndex  the index of the date in the time grid
+   * @return the rates provider, with the valuation date of the time grid
+   */
+  public abstract RatesProvider ratesProvider(int pathIndex, int dateIndex);
+
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.exposure;
+
+import java.util.Arrays;
+
+/**
+ * Estimator of a quantile from a stream of observations, using constant memory.
+ * <p>
+ * This implements the P-square algorithm of Jain and Chlamtac, "The P2 algorithm for dynamic
+ * calculation of quantiles and histograms without storing observations", Communications of the ACM, 1985.
+ * Five markers are maintained, the middle marker tracking the quantile. The marker heights are adjusted
+ * by piecewise-parabolic interpolation as the observations arrive.
+ * <p>
+ * While there are fewer than five observations, the quantile is computed exactly from the observations.
+ * The estimate depends on the order of the observations.
+ * <p>
+ * Instances are not thread-safe.
+ */
+final class StreamingQuantileEstimator {
+
+  /**
+   * The number of markers.
+   */
+  private static final int MARKERS = 5;
+
+  /**
+   * The quantile level.
+   */
+  private final double level;
+  /**
+   * The increments of the desired marker positions.
+   */
+  private final double[] increments;
+  /**
+   * The marker heights.
+   */
+  private final double[] heights = new double[MARKERS];
+  /**
+   * The marker positions, starting at 1.
+   */
+  private final int[] positions = new int[MARKERS];
+  /**
+   * The desired marker positions.
+   */
+  private final double[] desired = new double[MARKERS];
+  /**
+   * The number of observations.
+   */
+  private int count;
+
+  /**
+   * Creates an instance.
+   *
+   * @param level  the quantile level, between 0 and 1
+   */
+  StreamingQuantileEstimator(double level) {
+    this.level = level;
+    this.increments = new double[] {0d, level / 2d, level, (1d + level) / 2d, 1d};
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds an observation.
+   *
+   * @param value  the observation
+   */
+  void add(double value) {
+    if (count < MARKERS) {
+      heights[count++] = value;
+      if (count == MARKERS) {
+        Arrays.sort(heights);
+        for (int i = 0; i < MARKERS; i++) {
+          positions[i] = i + 1;
+        }
+        desired[0] = 1d;
+        desired[1] = 1d + 2d * level;
+        desired[2] = 1d + 4d * level;
+        desired[3] = 3d + 2d * level;
+        desired[4] = 5d;
+      }
+      return;
+    }
+    count++;
+    // find the cell containing the observation, extending the extreme markers if necessary
+    int cell;
+    if (value < heights[0]) {
+      heights[0] = value;
+      cell = 0;
+    } else if (value >= heights[MARKERS - 1]) {
+      heights[MARKERS - 1] = value;
+      cell = MARKERS - 2;
+    } else {
+      cell = 0;
+      while (value >= heights[cell + 1]) {
+        cell++;
+      }
+    }
+    for (int i = cell + 1; i < MARKERS; i++) {
+      positions[i]++;
+    }
+    for (int i = 0; i < MARKERS; i++) {
+      desired[i] += increments[i];
+    }
+    // adjust the middle markers
+    for (int i = 1; i < MARKERS - 1; i++) {
+      double offset = desired[i] - positions[i];
+      if ((offset >= 1d && positions[i + 1] - positions[i] > 1) ||
+          (offset <= -1d && positions[i - 1] - positions[i] < -1)) {
+        int step = offset > 0 ? 1 : -1;
+        double candidate = parabolic(i, step);
+        if (heights[i - 1] < candidate && candidate < heights[i + 1]) {
+          heights[i] = candidate;
+        } else {
+          heights[i] += step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+        }
+        positions[i] += step;
+      }
+    }
+  }
+
+  // the piecewise-parabolic prediction of the marker height
+  private double parabolic(int i, int step) {
+    double below = positions[i] - positions[i - 1];
+    double above = positions[i + 1] - positions[i];
+    return heights[i] + step / (double) (positions[i + 1] - positions[i - 1]) *
+        ((below + step) * (heights[i + 1] - heights[i]) / above +
+            (above - step) * (heights[i] - heights[i - 1]) / below);
+  }
+
+  /**
+   * Gets the number of observations.
+   *
+   * @return the number of observations
+   */
+  int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the estimate of the quantile.
+   * <p>
+   * This is zero if there are no observations.
+   *
+   * @return the estimate
+   */
+  double quantile() {
+    if (count >= MARKERS) {
+      return heights[2];
+    }
+    if (count == 0) {
+      return 0d;
+    }
+    // exact quantile, interpolating linearly between the sorted observations
+    double[] sorted = Arrays.copyOf(heights, count);
+    Arrays.sort(sorted);
+    double index = level * (count - 1);
+    int lower = (int) Math.floor(index);
+    int upper = Math.min(lower + 1, count - 1);
+    return sorted[lower] + (index - lower) * (sorted[upper] - sorted[lower]);
+  }
+
+}
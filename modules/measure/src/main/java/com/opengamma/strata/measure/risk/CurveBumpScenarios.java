@@ -0,0 +1,310 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.risk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.CalculationRunner;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
+import com.opengamma.strata.math.impl.differentiation.FiniteDifferenceType;
+import com.opengamma.strata.measure.Measures;
+
+/**
+ * Finite difference curve sensitivities, calculated in a single multi-scenario run.
+ * <p>
+ * Calculating a bucketed sensitivity by finite difference for each trade bumps every parameter of
+ * every curve, builds the bumped curves and prices the trade once for each of them.
+ * Across a portfolio, the same bumped curves are built again for every trade.
+ * <p>
+ * This class declares the bumps once, as a set of scenarios. Each bumped curve is built once
+ * and shared by all the trades, see {@link #scenarioMarketData(MarketData)}. The trades are then
+ * priced in all the scenarios by the {@link CalculationRunner}, which schedules the calculations
+ * in parallel, and the present values are reassembled into {@link CurrencyParameterSensitivities}.
+ * <p>
+ * The first scenario is the base scenario, with no bump. It is followed by the scenarios of
+ * each curve, in the order of the identifiers, with the scenarios of each parameter in turn.
+ * A parameter has one scenario with the parameter bumped up for forward differences, one with
+ * the parameter bumped down for backward differences, and both for central differences.
+ * <p>
+ * The sensitivity is the derivative of the present value with respect to the curve parameters.
+ * It is expressed in the currency of the present value, which is the reporting currency of the
+ * rules if they define one. Curves to which the present value is not sensitive are omitted.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CurveBumpScenarios {
+
+  /**
+   * The identifiers of the curves that are bumped.
+   */
+  private final ImmutableList<CurveId> curveIds;
+  /**
+   * The size of the bump applied to each parameter.
+   */
+  private final double shift;
+  /**
+   * The type of finite difference.
+   */
+  private final FiniteDifferenceType differenceType;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance bumping the parameters of the specified curves.
+   * <p>
+   * The shift is added to the value of each parameter, such as a zero rate.
+   *
+   * @param curveIds  the identifiers of the curves to bump
+   * @param shift  the size of the bump applied to each parameter
+   * @param differenceType  the type of finite difference
+   * @return the scenarios
+   */
+  public static CurveBumpScenarios of(
+      List<CurveId> curveIds,
+      double shift,
+      FiniteDifferenceType differenceType) {
+
+    return new CurveBumpScenarios(curveIds, shift, differenceType);
+  }
+
+  // restricted constructor
+  private CurveBumpScenarios(List<CurveId> curveIds, double shift, FiniteDifferenceType differenceType) {
+    this.curveIds = ImmutableList.copyOf(ArgChecker.noNulls(curveIds, "curveIds"));
+    this.shift = ArgChecker.notNegativeOrZero(shift, "shift");
+    this.differenceType = ArgChecker.notNull(differenceType, "differenceType");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the identifiers of the curves that are bumped.
+   *
+   * @return the curve identifiers
+   */
+  public ImmutableList<CurveId> getCurveIds() {
+    return curveIds;
+  }
+
+  /**
+   * Gets the size of the bump applied to each parameter.
+   *
+   * @return the shift
+   */
+  public double getShift() {
+    return shift;
+  }
+
+  /**
+   * Gets the type of finite difference.
+   *
+   * @return the finite difference type
+   */
+  public FiniteDifferenceType getDifferenceType() {
+    return differenceType;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the scenario market data for the bumps.
+   * <p>
+   * Each bumped curve is built once. A scenario that does not bump a curve refers to the base curve.
+   *
+   * @param marketData  the base market data, containing the curves
+   * @return the scenario market data, with the base scenario followed by the bumped scenarios
+   * @throws IllegalArgumentException if a curve is not found
+   */
+  public ScenarioMarketData scenarioMarketData(MarketData marketData) {
+    List<Curve> curves = curves(marketData);
+    int scenarioCount = scenarioCount(curves);
+    int bumpsPerParameter = bumpsPerParameter();
+    ScenarioMarketData result = ScenarioMarketData.of(scenarioCount, marketData);
+    int offset = 1;
+    for (int i = 0; i < curves.size(); i++) {
+      Curve curve = curves.get(i);
+      List<Curve> values = new ArrayList<>(scenarioCount);
+      for (int j = 0; j < scenarioCount; j++) {
+        values.add(curve);
+      }
+      for (int j = 0; j < curve.getParameterCount(); j++) {
+        double value = curve.getParameter(j);
+        int scenario = offset + j * bumpsPerParameter;
+        if (differenceType != FiniteDifferenceType.BACKWARD) {
+          values.set(scenario++, curve.withParameter(j, value + shift));
+        }
+        if (differenceType != FiniteDifferenceType.FORWARD) {
+          values.set(scenario, curve.withParameter(j, value - shift));
+        }
+      }
+      offset += curve.getParameterCount() * bumpsPerParameter;
+      result = result.withValue(curveIds.get(i), MarketDataBox.ofScenarioValues(values));
+    }
+    return result;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value sensitivity of each target to the curve parameters.
+   * <p>
+   * The scenario market data is created once, then the present value of all the targets is
+   * calculated in all the scenarios using the runner. The result list contains one result
+   * for each target, in the order of the targets.
+   *
+   * @param runner  the runner used to perform the calculations
+   * @param rules  the rules defining how the calculation is performed
+   * @param targets  the targets, such as trades
+   * @param marketData  the base market data, containing the curves
+   * @param refData  the reference data
+   * @return the sensitivity of each target
+   * @throws IllegalArgumentException if a curve is not found
+   */
+  public List<Result<CurrencyParameterSensitivities>> calculate(
+      CalculationRunner runner,
+      CalculationRules rules,
+      List<? extends CalculationTarget> targets,
+      MarketData marketData,
+      ReferenceData refData) {
+
+    List<Curve> curves = curves(marketData);
+    ScenarioMarketData scenarioMarketData = scenarioMarketData(marketData);
+    Results results = runner.calculateMultiScenario(
+        rules, targets, ImmutableList.of(Column.of(Measures.PRESENT_VALUE)), scenarioMarketData, refData);
+    ImmutableList.Builder<Result<CurrencyParameterSensitivities>> builder = ImmutableList.builder();
+    for (int i = 0; i < targets.size(); i++) {
+      Result<?> result = results.get(i, 0);
+      builder.add(result.isFailure() ?
+          Result.failure(result) :
+          Result.of(() -> sensitivity(result.getValue(), curves)));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Calculates the sensitivity to the curve parameters from the present values in the scenarios.
+   * <p>
+   * The present values must have been calculated using {@link #scenarioMarketData(MarketData)}.
+   *
+   * @param presentValue  the present value in each scenario, either a {@link CurrencyScenarioArray}
+   *   or a {@link MultiCurrencyScenarioArray}
+   * @param marketData  the base market data, containing the curves
+   * @return the sensitivity
+   * @throws IllegalArgumentException if the value is not a supported type or has the wrong number of scenarios
+   */
+  public CurrencyParameterSensitivities sensitivity(Object presentValue, MarketData marketData) {
+    return sensitivity(presentValue, curves(marketData));
+  }
+
+  // reassembles the sensitivity from the present values
+  private CurrencyParameterSensitivities sensitivity(Object presentValue, List<Curve> curves) {
+    int scenarioCount = scenarioCount(curves);
+    if (presentValue instanceof CurrencyScenarioArray) {
+      CurrencyScenarioArray array = (CurrencyScenarioArray) presentValue;
+      checkScenarioCount(array.getScenarioCount(), scenarioCount);
+      return sensitivity(array.getCurrency(), array.getAmounts().getValues(), curves);
+    }
+    if (presentValue instanceof MultiCurrencyScenarioArray) {
+      MultiCurrencyScenarioArray array = (MultiCurrencyScenarioArray) presentValue;
+      checkScenarioCount(array.getScenarioCount(), scenarioCount);
+      CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
+      for (Currency currency : array.getCurrencies()) {
+        result = result.combinedWith(sensitivity(currency, array.getValues(currency), curves));
+      }
+      return result;
+    }
+    throw new IllegalArgumentException(Messages.format(
+        "Unable to calculate sensitivity from value of type {}, expected CurrencyScenarioArray or " +
+            "MultiCurrencyScenarioArray",
+        presentValue.getClass().getSimpleName()));
+  }
+
+  // reassembles the sensitivity from the present values in a single currency
+  private CurrencyParameterSensitivities sensitivity(Currency currency, DoubleArray values, List<Curve> curves) {
+    int bumpsPerParameter = bumpsPerParameter();
+    double base = values.get(0);
+    List<CurrencyParameterSensitivity> sensitivities = new ArrayList<>();
+    int offset = 1;
+    for (Curve curve : curves) {
+      int parameterCount = curve.getParameterCount();
+      double[] sensitivity = new double[parameterCount];
+      boolean sensitive = false;
+      for (int j = 0; j < parameterCount; j++) {
+        int scenario = offset + j * bumpsPerParameter;
+        switch (differenceType) {
+          case FORWARD:
+            sensitivity[j] = (values.get(scenario) - base) / shift;
+            break;
+          case BACKWARD:
+            sensitivity[j] = (base - values.get(scenario)) / shift;
+            break;
+          default:
+            sensitivity[j] = (values.get(scenario) - values.get(scenario + 1)) / (2d * shift);
+            break;
+        }
+        sensitive |= sensitivity[j] != 0d;
+      }
+      if (sensitive) {
+        sensitivities.add(curve.createParameterSensitivity(currency, DoubleArray.ofUnsafe(sensitivity)));
+      }
+      offset += parameterCount * bumpsPerParameter;
+    }
+    return CurrencyParameterSensitivities.of(sensitivities);
+  }
+
+  //-------------------------------------------------------------------------
+  // finds the curves in the market data
+  private List<Curve> curves(MarketData marketData) {
+    ImmutableList.Builder<Curve> builder = ImmutableList.builder();
+    for (CurveId curveId : curveIds) {
+      builder.add(marketData.findValue(curveId)
+          .orElseThrow(() -> new IllegalArgumentException(
+              Messages.format("Unable to bump curve '{}', it is not in the market data", curveId))));
+    }
+    return builder.build();
+  }
+
+  // the number of scenarios, including the base scenario
+  private int scenarioCount(List<Curve> curves) {
+    int parameterCount = curves.stream().mapToInt(Curve::getParameterCount).sum();
+    return 1 + parameterCount * bumpsPerParameter();
+  }
+
+  // the number of scenarios for each parameter
+  private int bumpsPerParameter() {
+    return differenceType == FiniteDifferenceType.CENTRAL ? 2 : 1;
+  }
+
+  // checks the number of scenarios of a value
+  private static void checkScenarioCount(int actual, int expected) {
+    if (actual != expected) {
+      throw new IllegalArgumentException(Messages.format(
+          "Scenario count mismatch: value has {} scenarios but the bumps define {}", actual, expected));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CurveBumpScenarios[" + curveIds.size() + " curves, " + differenceType + ", shift=" + shift + "]";
+  }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.risk;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.math.impl.statistics.descriptive.QuantileCalculationMethod;
+
+/**
+ * The result of aggregating scenario values over a hierarchy of groups.
+ * <p>
+ * This holds the total of each node in the hierarchy, one value for each scenario, in the reporting currency.
+ * Each node is identified by its path, the list of groups from the top of the hierarchy.
+ * The portfolio total is identified by the empty path.
+ * <p>
+ * Instances are created using {@link ScenarioAggregator}.
+ */
+@BeanDefinition(style = "light")
+public final class ScenarioAggregation
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The reporting currency of the totals.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Currency reportingCurrency;
+  /**
+   * The totals, keyed by the path of the node in the hierarchy.
+   * <p>
+   * The portfolio total is keyed by the empty list.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableMap<ImmutableList<String>, DoubleArray> totals;
+  /**
+   * The number of results that were not aggregated because they were failures.
+   */
+  @PropertyDefinition
+  private final int failureCount;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param reportingCurrency  the reporting currency of the totals
+   * @param totals  the totals, keyed by the path of the node in the hierarchy
+   * @param failureCount  the number of results that were not aggregated because they were failures
+   * @return the aggregation
+   */
+  public static ScenarioAggregation of(
+      Currency reportingCurrency,
+      ImmutableMap<ImmutableList<String>, DoubleArray> totals,
+      int failureCount) {
+
+    ArgChecker.isTrue(totals.containsKey(ImmutableList.of()), "Totals must contain the portfolio total");
+    return new ScenarioAggregation(reportingCurrency, totals, failureCount);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of scenarios.
+   *
+   * @return the number of scenarios
+   */
+  public int getScenarioCount() {
+    return getTotal().getScenarioCount();
+  }
+
+  /**
+   * Gets the paths of the nodes in the hierarchy.
+   *
+   * @return the paths, including the empty path of the portfolio total
+   */
+  public ImmutableSet<ImmutableList<String>> getPaths() {
+    return totals.keySet();
+  }
+
+  /**
+   * Gets the portfolio total.
+   *
+   * @return the portfolio total, one amount for each scenario
+   */
+  public CurrencyScenarioArray getTotal() {
+    return getTotal(ImmutableList.of());
+  }
+
+  /**
+   * Gets the total of a node in the hierarchy.
+   *
+   * @param path  the path of the node, such as {@code ["Desk1", "Book1"]}
+   * @return the total, one amount for each scenario
+   * @throws IllegalArgumentException if the node is not found
+   */
+  public CurrencyScenarioArray getTotal(List<String> path) {
+    return CurrencyScenarioArray.of(reportingCurrency, values(path));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the value-at-risk and expected shortfall of the portfolio total.
+   *
+   * @param confidenceLevel  the confidence level, such as 0.99 for 99%
+   * @param method  the method used to estimate the quantile
+   * @return the risk measures
+   */
+  public ScenarioRiskMeasures riskMeasures(double confidenceLevel, QuantileCalculationMethod method) {
+    return riskMeasures(ImmutableList.of(), confidenceLevel, method);
+  }
+
+  /**
+   * Calculates the value-at-risk and expected shortfall of a node in the hierarchy.
+   * <p>
+   * The value-at-risk is the negated quantile of the totals at level {@code 1 - confidenceLevel}.
+   * The quantile is computed with flat extrapolation.
+   * The expected shortfall is the negated average of the totals below that quantile.
+   *
+   * @param path  the path of the node, such as {@code ["Desk1", "Book1"]}
+   * @param confidenceLevel  the confidence level, such as 0.99 for 99%
+   * @param method  the method used to estimate the quantile
+   * @return the risk measures
+   * @throws IllegalArgumentException if the node is not found
+   */
+  public ScenarioRiskMeasures riskMeasures(List<String> path, double confidenceLevel, QuantileCalculationMethod method) {
+    ArgChecker.inRangeExclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+    return riskMeasures(values(path).sorted(), confidenceLevel, method);
+  }
+
+  /**
+   * Calculates the value-at-risk and expected shortfall of every node in the hierarchy.
+   * <p>
+   * The nodes are processed in parallel.
+   *
+   * @param confidenceLevel  the confidence level, such as 0.99 for 99%
+   * @param method  the method used to estimate the quantile
+   * @return the risk measures, keyed by the path of the node
+   */
+  public ImmutableMap<ImmutableList<String>, ScenarioRiskMeasures> riskMeasuresByPath(
+      double confidenceLevel,
+      QuantileCalculationMethod method) {
+
+    ArgChecker.inRangeExclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+    return totals.entrySet().parallelStream()
+        .collect(toImmutableMap(e -> e.getKey(), e -> riskMeasures(e.getValue().sorted(), confidenceLevel, method)));
+  }
+
+  //-------------------------------------------------------------------------
+  // finds the totals of the node
+  private DoubleArray values(List<String> path) {
+    DoubleArray values = totals.get(path);
+    if (values == null) {
+      throw new IllegalArgumentException(Messages.format("No aggregated values found for path: {}", path));
+    }
+    return values;
+  }
+
+  // calculates the risk measures from the sorted totals
+  private ScenarioRiskMeasures riskMeasures(
+      DoubleArray sorted,
+      double confidenceLevel,
+      QuantileCalculationMethod method) {
+
+    double level = 1d - confidenceLevel;
+    double quantile = method.quantileWithExtrapolationFromSorted(level, sorted);
+    double shortfall = method.expectedShortfallFromSorted(level, sorted);
+    return ScenarioRiskMeasures.of(
+        confidenceLevel,
+        CurrencyAmount.of(reportingCurrency, -quantile),
+        CurrencyAmount.of(reportingCurrency, -shortfall));
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  ///CLOVER:OFF
+  /**
+   * The meta-bean for {@code ScenarioAggregation}.
+   */
+  private static MetaBean META_BEAN = LightMetaBean.of(ScenarioAggregation.class);
+
+  /**
+   * The meta-bean for {@code ScenarioAggregation}.
+   * @return the meta-bean, not null
+   */
+  public static MetaBean meta() {
+    return META_BEAN;
+  }
+
+  static {
+    JodaBeanUtils.registerMetaBean(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private ScenarioAggregation(
+      Currency reportingCurrency,
+      Map<ImmutableList<String>, DoubleArray> totals,
+      int failureCount) {
+    JodaBeanUtils.notNull(reportingCurrency, "reportingCurrency");
+    JodaBeanUtils.notNull(totals, "totals");
+    this.reportingCurrency = reportingCurrency;
+    this.totals = ImmutableMap.copyOf(totals);
+    this.failureCount = failureCount;
+  }
+
+  @Override
+  public MetaBean metaBean() {
+    return META_BEAN;
+  }
+
+  @Override
+  public <R> Property<R> property(String propertyName) {
+    return metaBean().<R>metaProperty(propertyName).createProperty(this);
+  }
+
+  @Override
+  public Set<String> propertyNames() {
+    return metaBean().metaPropertyMap().keySet();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the reporting currency of the totals.
+   * @return the value of the property, not null
+   */
+  public Currency getReportingCurrency() {
+    return reportingCurrency;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the totals, keyed by the path of the node in the hierarchy.
+   * <p>
+   * The portfolio total is keyed by the empty list.
+   * @return the value of the property, not null
+   */
+  public ImmutableMap<ImmutableList<String>, DoubleArray> getTotals() {
+    return totals;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of results that were not aggregated because they were failures.
+   * @return the value of the property
+   */
+  public int getFailureCount() {
+    return failureCount;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ScenarioAggregation other = (ScenarioAggregation) obj;
+      return JodaBeanUtils.equal(reportingCurrency, other.reportingCurrency) &&
+          JodaBeanUtils.equal(totals, other.totals) &&
+          (failureCount == other.failureCount);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(reportingCurrency);
+    hash = hash * 31 + JodaBeanUtils.hashCode(totals);
+    hash = hash * 31 + JodaBeanUtils.hashCode(failureCount);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(128);
+    buf.append("ScenarioAggregation{");
+    buf.append("reportingCurrency").append('=').append(reportingCurrency).append(',').append(' ');
+    buf.append("totals").append('=').append(totals).append(',').append(' ');
+    buf.append("failureCount").append('=').append(JodaBeanUtils.toString(failureCount));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  ///CLOVER:ON
+  //-------------------------- AUTOGENERATED END --------------------------
+}
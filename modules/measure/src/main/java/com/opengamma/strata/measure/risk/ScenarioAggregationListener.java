@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.risk;
+
+import java.util.List;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.runner.AggregatingCalculationListener;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+
+/**
+ * Calculation listener that aggregates the results of a single column as they arrive.
+ * <p>
+ * Each result in the column is passed to a {@link ScenarioAggregator} as soon as it is received,
+ * so the results do not need to be retained. Results in other columns are ignored.
+ * <p>
+ * The aggregation of the results received so far can be obtained at any time using {@link #snapshot()},
+ * allowing risk measures to be monitored while the calculations are running.
+ */
+public final class ScenarioAggregationListener extends AggregatingCalculationListener<ScenarioAggregation> {
+
+  /** The aggregator, also used to guard access from other threads. */
+  private final ScenarioAggregator aggregator;
+  /** The name of the column to aggregate. */
+  private final ColumnName columnName;
+  /** The index of the column to aggregate. */
+  private int columnIndex = -1;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a listener that aggregates the results of the specified column.
+   *
+   * @param aggregator  the aggregator, typically empty
+   * @param columnName  the name of the column to aggregate
+   * @return the listener
+   */
+  public static ScenarioAggregationListener of(ScenarioAggregator aggregator, ColumnName columnName) {
+    return new ScenarioAggregationListener(aggregator, columnName);
+  }
+
+  private ScenarioAggregationListener(ScenarioAggregator aggregator, ColumnName columnName) {
+    this.aggregator = ArgChecker.notNull(aggregator, "aggregator");
+    this.columnName = ArgChecker.notNull(columnName, "columnName");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i).getName().equals(columnName)) {
+        columnIndex = i;
+        return;
+      }
+    }
+    throw new IllegalArgumentException(Messages.format("Column name not found: {}", columnName));
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    if (result.getColumnIndex() == columnIndex) {
+      synchronized (aggregator) {
+        aggregator.add(target, result.getResult());
+      }
+    }
+  }
+
+  /**
+   * Returns the aggregation of the results received so far.
+   * <p>
+   * This may be called from any thread while the calculations are running.
+   *
+   * @return the aggregation of the results received so far
+   */
+  public ScenarioAggregation snapshot() {
+    synchronized (aggregator) {
+      return aggregator.build();
+    }
+  }
+
+  @Override
+  protected ScenarioAggregation createAggregateResult() {
+    return snapshot();
+  }
+
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.risk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.ColumnarResults;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
+import com.opengamma.strata.product.Trade;
+import com.opengamma.strata.product.TradeAttributeType;
+
+/**
+ * Aggregates scenario values, such as present value, over a hierarchy of groups.
+ * <p>
+ * The hierarchy is defined by a list of grouping functions, for example desk then book.
+ * Each value added is converted to the reporting currency and added to the portfolio total
+ * and to the total of every group in the hierarchy that the target belongs to.
+ * <p>
+ * Values may be {@link CurrencyScenarioArray} or {@link MultiCurrencyScenarioArray}.
+ * The FX rate for each currency and scenario is obtained from the provider once and cached.
+ * <p>
+ * Values can be added one at a time as results arrive, see {@link ScenarioAggregationListener},
+ * or in bulk from a complete set of results, in which case the aggregation is performed in parallel.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+public final class ScenarioAggregator {
+
+  /** The value used for the group of a target that does not define the grouping, such as a trade with no counterparty. */
+  public static final String UNASSIGNED = "Unassigned";
+
+  /** The reporting currency. */
+  private final Currency reportingCurrency;
+  /** The FX rate provider. */
+  private final ScenarioFxRateProvider fxRateProvider;
+  /** The functions defining the group of a target at each level of the hierarchy. */
+  private final ImmutableList<Function<? super CalculationTarget, String>> levels;
+  /** The number of scenarios. */
+  private final int scenarioCount;
+  /** The FX rates to the reporting currency, one for each scenario, keyed by currency. */
+  private final Map<Currency, double[]> fxRates = new HashMap<>();
+  /** The root of the hierarchy, holding the portfolio total. */
+  private final Node root;
+  /** The buffer holding the converted values of a single target. */
+  private final double[] converted;
+  /** The number of results that could not be aggregated as they were failures. */
+  private int failureCount;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an aggregator for the specified hierarchy.
+   * <p>
+   * The first function defines the top level of the hierarchy, the second function the level below it, and so on.
+   * An empty list aggregates the portfolio total only.
+   *
+   * @param reportingCurrency  the currency that the values are converted to
+   * @param fxRateProvider  the provider of FX rates for each scenario
+   * @param levels  the functions defining the group of a target at each level of the hierarchy
+   * @return the aggregator
+   */
+  public static ScenarioAggregator of(
+      Currency reportingCurrency,
+      ScenarioFxRateProvider fxRateProvider,
+      List<? extends Function<? super CalculationTarget, String>> levels) {
+
+    return new ScenarioAggregator(reportingCurrency, fxRateProvider, levels);
+  }
+
+  private ScenarioAggregator(
+      Currency reportingCurrency,
+      ScenarioFxRateProvider fxRateProvider,
+      List<? extends Function<? super CalculationTarget, String>> levels) {
+
+    this.reportingCurrency = ArgChecker.notNull(reportingCurrency, "reportingCurrency");
+    this.fxRateProvider = ArgChecker.notNull(fxRateProvider, "fxRateProvider");
+    this.levels = ImmutableList.copyOf(ArgChecker.noNulls(levels, "levels"));
+    this.scenarioCount = fxRateProvider.getScenarioCount();
+    this.root = new Node(scenarioCount);
+    this.converted = new double[scenarioCount];
+  }
+
+  // creates an empty aggregator with the same definition, used when aggregating in parallel
+  private ScenarioAggregator emptyCopy() {
+    return new ScenarioAggregator(reportingCurrency, fxRateProvider, levels);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a grouping function that groups trades by counterparty.
+   * <p>
+   * Targets that are not trades, or that have no counterparty, are placed in the {@link #UNASSIGNED} group.
+   *
+   * @return the grouping function
+   */
+  public static Function<CalculationTarget, String> groupByCounterparty() {
+    return target -> target instanceof Trade ?
+        ((Trade) target).getInfo().getCounterparty().map(StandardId::toString).orElse(UNASSIGNED) :
+        UNASSIGNED;
+  }
+
+  /**
+   * Returns a grouping function that groups trades by the value of a trade attribute, such as the book.
+   * <p>
+   * Targets that are not trades, or that do not have the attribute, are placed in the {@link #UNASSIGNED} group.
+   *
+   * @param type  the type of the attribute
+   * @return the grouping function
+   */
+  public static Function<CalculationTarget, String> groupByAttribute(TradeAttributeType<?> type) {
+    ArgChecker.notNull(type, "type");
+    return target -> target instanceof Trade ?
+        ((Trade) target).getInfo().findAttribute(type).map(Object::toString).orElse(UNASSIGNED) :
+        UNASSIGNED;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds the result of a calculation.
+   * <p>
+   * Failure results are counted but do not contribute to the totals.
+   *
+   * @param target  the target, such as a trade
+   * @param result  the result of the calculation
+   * @return this aggregator, for chaining
+   * @throws IllegalArgumentException if the value is not a supported type or has the wrong number of scenarios
+   */
+  public ScenarioAggregator add(CalculationTarget target, Result<?> result) {
+    if (result.isFailure()) {
+      failureCount++;
+      return this;
+    }
+    return addValue(target, result.getValue());
+  }
+
+  /**
+   * Adds a value, either a {@link CurrencyScenarioArray} or a {@link MultiCurrencyScenarioArray}.
+   *
+   * @param target  the target, such as a trade
+   * @param value  the value
+   * @return this aggregator, for chaining
+   * @throws IllegalArgumentException if the value is not a supported type or has the wrong number of scenarios
+   */
+  public ScenarioAggregator addValue(CalculationTarget target, Object value) {
+    if (value instanceof CurrencyScenarioArray) {
+      CurrencyScenarioArray array = (CurrencyScenarioArray) value;
+      checkScenarioCount(array.getScenarioCount());
+      Arrays.fill(converted, 0d);
+      accumulateConverted(array.getCurrency(), array.getAmounts().getValues());
+    } else if (value instanceof MultiCurrencyScenarioArray) {
+      MultiCurrencyScenarioArray array = (MultiCurrencyScenarioArray) value;
+      checkScenarioCount(array.getScenarioCount());
+      Arrays.fill(converted, 0d);
+      for (Currency currency : array.getCurrencies()) {
+        accumulateConverted(currency, array.getValues(currency));
+      }
+    } else {
+      throw new IllegalArgumentException(Messages.format(
+          "Unable to aggregate value of type {}, expected CurrencyScenarioArray or MultiCurrencyScenarioArray",
+          value.getClass().getSimpleName()));
+    }
+    addConverted(target);
+    return this;
+  }
+
+  /**
+   * Adds a cell of a set of columnar results.
+   * <p>
+   * If the cell is stored in the columnar file, the values are read directly from the file.
+   *
+   * @param target  the target, such as a trade
+   * @param results  the results
+   * @param rowIndex  the index of the row containing the results for the target
+   * @param columnIndex  the index of the column
+   * @return this aggregator, for chaining
+   * @throws IllegalArgumentException if the value is not a supported type or has the wrong number of scenarios
+   */
+  public ScenarioAggregator add(CalculationTarget target, ColumnarResults results, int rowIndex, int columnIndex) {
+    Optional<Currency> currency = results.isStored(rowIndex, columnIndex) ?
+        results.getCurrency(rowIndex, columnIndex) :
+        Optional.empty();
+    if (!currency.isPresent()) {
+      return add(target, results.get(rowIndex, columnIndex));
+    }
+    checkScenarioCount(results.getScenarioCount(columnIndex));
+    double[] rates = fxRates(currency.get());
+    for (int i = 0; i < scenarioCount; i++) {
+      double value = results.getValue(rowIndex, columnIndex, i);
+      converted[i] = rates == null ? value : value * rates[i];
+    }
+    addConverted(target);
+    return this;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds all the results in a column, aggregating in parallel.
+   * <p>
+   * The list of targets must be the list passed to the calculation runner, such that
+   * row {@code i} of the results holds the values for the target at index {@code i}.
+   *
+   * @param targets  the targets, one for each row
+   * @param results  the results
+   * @param columnIndex  the index of the column to aggregate
+   * @return this aggregator, for chaining
+   * @throws IllegalArgumentException if a value is not a supported type or has the wrong number of scenarios
+   */
+  public ScenarioAggregator addAll(List<? extends CalculationTarget> targets, Results results, int columnIndex) {
+    ArgChecker.isTrue(targets.size() == results.getRowCount(), "Number of targets must match number of rows");
+    return combine(IntStream.range(0, targets.size())
+        .parallel()
+        .collect(
+            this::emptyCopy,
+            (aggregator, row) -> aggregator.add(targets.get(row), results.get(row, columnIndex)),
+            ScenarioAggregator::combine));
+  }
+
+  /**
+   * Adds all the columnar results in a column, aggregating in parallel.
+   * <p>
+   * The list of targets must be the list passed to the calculation runner, such that
+   * row {@code i} of the results holds the values for the target at index {@code i}.
+   *
+   * @param targets  the targets, one for each row
+   * @param results  the results
+   * @param columnIndex  the index of the column to aggregate
+   * @return this aggregator, for chaining
+   * @throws IllegalArgumentException if a value is not a supported type or has the wrong number of scenarios
+   */
+  public ScenarioAggregator addAll(List<? extends CalculationTarget> targets, ColumnarResults results, int columnIndex) {
+    ArgChecker.isTrue(targets.size() == results.getRowCount(), "Number of targets must match number of rows");
+    return combine(IntStream.range(0, targets.size())
+        .parallel()
+        .collect(
+            this::emptyCopy,
+            (aggregator, row) -> aggregator.add(targets.get(row), results, row, columnIndex),
+            ScenarioAggregator::combine));
+  }
+
+  /**
+   * Adds the totals of another aggregator to this aggregator.
+   * <p>
+   * The other aggregator must have the same reporting currency and number of scenarios,
+   * and is expected to have been created using the same grouping functions.
+   *
+   * @param other  the other aggregator
+   * @return this aggregator, for chaining
+   */
+  public ScenarioAggregator combine(ScenarioAggregator other) {
+    ArgChecker.isTrue(other.reportingCurrency.equals(reportingCurrency), "Reporting currencies must match");
+    checkScenarioCount(other.scenarioCount);
+    root.merge(other.root);
+    failureCount += other.failureCount;
+    return this;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builds the aggregation from the values added so far.
+   * <p>
+   * This may be called at any time, allowing intermediate results to be examined
+   * while values are still being added.
+   *
+   * @return the aggregation
+   */
+  public ScenarioAggregation build() {
+    ImmutableMap.Builder<ImmutableList<String>, DoubleArray> builder = ImmutableMap.builder();
+    root.build(new ArrayList<>(), builder);
+    return ScenarioAggregation.of(reportingCurrency, builder.build(), failureCount);
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the number of scenarios matches
+  private void checkScenarioCount(int count) {
+    if (count != scenarioCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Expected {} scenarios but received {}", scenarioCount, count));
+    }
+  }
+
+  // converts the values to the reporting currency, adding them to the buffer
+  private void accumulateConverted(Currency currency, DoubleArray values) {
+    double[] rates = fxRates(currency);
+    if (rates == null) {
+      for (int i = 0; i < scenarioCount; i++) {
+        converted[i] += values.get(i);
+      }
+    } else {
+      for (int i = 0; i < scenarioCount; i++) {
+        converted[i] += values.get(i) * rates[i];
+      }
+    }
+  }
+
+  // the FX rates from the currency to the reporting currency, null if no conversion is required
+  private double[] fxRates(Currency currency) {
+    if (currency.equals(reportingCurrency)) {
+      return null;
+    }
+    return fxRates.computeIfAbsent(currency, ccy -> fxRateProvider.fxRates(ccy, reportingCurrency).toArrayUnsafe());
+  }
+
+  // adds the buffer to each node in the hierarchy that the target belongs to
+  private void addConverted(CalculationTarget target) {
+    Node node = root;
+    node.add(converted);
+    for (Function<? super CalculationTarget, String> level : levels) {
+      node = node.child(level.apply(target));
+      node.add(converted);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A node in the hierarchy.
+   */
+  private static final class Node {
+
+    /** The total of the node, one value for each scenario. */
+    private final double[] total;
+    /** The child nodes, keyed by group. */
+    private final Map<String, Node> children = new HashMap<>();
+
+    private Node(int scenarioCount) {
+      this.total = new double[scenarioCount];
+    }
+
+    private Node child(String group) {
+      return children.computeIfAbsent(group == null ? UNASSIGNED : group, g -> new Node(total.length));
+    }
+
+    private void add(double[] values) {
+      for (int i = 0; i < total.length; i++) {
+        total[i] += values[i];
+      }
+    }
+
+    private void merge(Node other) {
+      add(other.total);
+      for (Map.Entry<String, Node> entry : other.children.entrySet()) {
+        child(entry.getKey()).merge(entry.getValue());
+      }
+    }
+
+    private void build(List<String> path, ImmutableMap.Builder<ImmutableList<String>, DoubleArray> builder) {
+      builder.put(ImmutableList.copyOf(path), DoubleArray.copyOf(total));
+      for (Map.Entry<String, Node> entry : children.entrySet()) {
+        path.add(entry.getKey());
+        entry.getValue().build(path, builder);
+        path.remove(path.size() - 1);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.risk;
+
+import java.io.Serializable;
+import java.util.Set;
+
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * The value-at-risk and expected shortfall of a set of scenario values.
+ * <p>
+ * Both measures are expressed as losses, such that a positive amount represents a loss.
+ */
+@BeanDefinition(style = "light")
+public final class ScenarioRiskMeasures
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The confidence level, such as 0.99 for 99%.
+   */
+  @PropertyDefinition
+  private final double confidenceLevel;
+  /**
+   * The value-at-risk, the loss that is not exceeded at the confidence level.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurrencyAmount valueAtRisk;
+  /**
+   * The expected shortfall, the average loss in the scenarios beyond the confidence level.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurrencyAmount expectedShortfall;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param confidenceLevel  the confidence level, such as 0.99 for 99%
+   * @param valueAtRisk  the value-at-risk, expressed as a loss
+   * @param expectedShortfall  the expected shortfall, expressed as a loss
+   * @return the risk measures
+   */
+  public static ScenarioRiskMeasures of(
+      double confidenceLevel,
+      CurrencyAmount valueAtRisk,
+      CurrencyAmount expectedShortfall) {
+
+    ArgChecker.inRangeExclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+    return new ScenarioRiskMeasures(confidenceLevel, valueAtRisk, expectedShortfall);
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  ///CLOVER:OFF
+  /**
+   * The meta-bean for {@code ScenarioRiskMeasures}.
+   */
+  private static MetaBean META_BEAN = LightMetaBean.of(ScenarioRiskMeasures.class);
+
+  /**
+   * The meta-bean for {@code ScenarioRiskMeasures}.
+   * @return the meta-bean, not null
+   */
+  public static MetaBean meta() {
+    return META_BEAN;
+  }
+
+  static {
+    JodaBeanUtils.registerMetaBean(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private ScenarioRiskMeasures(
+      double confidenceLevel,
+      CurrencyAmount valueAtRisk,
+      CurrencyAmount expectedShortfall) {
+    JodaBeanUtils.notNull(valueAtRisk, "valueAtRisk");
+    JodaBeanUtils.notNull(expectedShortfall, "expectedShortfall");
+    this.confidenceLevel = confidenceLevel;
+    this.valueAtRisk = valueAtRisk;
+    this.expectedShortfall = expectedShortfall;
+  }
+
+  @Override
+  public MetaBean metaBean() {
+    return META_BEAN;
+  }
+
+  @Override
+  public <R> Property<R> property(String propertyName) {
+    return metaBean().<R>metaProperty(propertyName).createProperty(this);
+  }
+
+  @Override
+  public Set<String> propertyNames() {
+    return metaBean().metaPropertyMap().keySet();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the confidence level, such as 0.99 for 99%.
+   * @return the value of the property
+   */
+  public double getConfidenceLevel() {
+    return confidenceLevel;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the value-at-risk, the loss that is not exceeded at the confidence level.
+   * @return the value of the property, not null
+   */
+  public CurrencyAmount getValueAtRisk() {
+    return valueAtRisk;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the expected shortfall, the average loss in the scenarios beyond the confidence level.
+   * @return the value of the property, not null
+   */
+  public CurrencyAmount getExpectedShortfall() {
+    return expectedShortfall;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ScenarioRiskMeasures other = (ScenarioRiskMeasures) obj;
+      return JodaBeanUtils.equal(confidenceLevel, other.confidenceLevel) &&
+          JodaBeanUtils.equal(valueAtRisk, other.valueAtRisk) &&
+          JodaBeanUtils.equal(expectedShortfall, other.expectedShortfall);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(confidenceLevel);
+    hash = hash * 31 + JodaBeanUtils.hashCode(valueAtRisk);
+    hash = hash * 31 + JodaBeanUtils.hashCode(expectedShortfall);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(128);
+    buf.append("ScenarioRiskMeasures{");
+    buf.append("confidenceLevel").append('=').append(confidenceLevel).append(',').append(' ');
+    buf.append("valueAtRisk").append('=').append(valueAtRisk).append(',').append(' ');
+    buf.append("expectedShortfall").append('=').append(JodaBeanUtils.toString(expectedShortfall));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  ///CLOVER:ON
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,11 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+
+/**
+ * Aggregation of scenario results, finite difference sensitivities using scenarios
+ * and portfolio risk measures, such as value-at-risk.
+ */
+package com.opengamma.strata.measure.risk;
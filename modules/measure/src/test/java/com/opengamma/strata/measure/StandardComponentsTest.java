@@ -11,6 +11,7 @@ import static org.testng.Assert.assertEquals;
 import org.testng.annotations.Test;
 
 import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.TaskDeduplicator;
 import com.opengamma.strata.measure.deposit.TermDepositTradeCalculationFunctionTest;
 import com.opengamma.strata.measure.fra.FraTradeCalculationFunctionTest;
 import com.opengamma.strata.measure.fx.FxNdfTradeCalculationFunctionTest;
@@ -34,6 +35,14 @@ public class StandardComponentsTest {
     assertEquals(test.findFunction(TermDepositTradeCalculationFunctionTest.TRADE).isPresent(), true);
   }
 
+  public void test_taskDeduplicator() {
+    TaskDeduplicator test = StandardComponents.taskDeduplicator();
+    assertEquals(test.getNormalizer(), StandardComponents.targetNormalizer());
+    assertEquals(test.getLinearMeasures().contains(Measures.PRESENT_VALUE), true);
+    assertEquals(test.getInvariantMeasures().contains(Measures.PAR_RATE), true);
+    assertEquals(test.getTaskCount(), 0);
+  }
+
   public void coverage() {
     coverPrivateConstructor(StandardComponents.class);
   }
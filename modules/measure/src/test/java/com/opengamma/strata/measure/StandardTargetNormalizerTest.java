@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_360;
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_6M;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.basics.value.ValueAdjustment;
+import com.opengamma.strata.basics.value.ValueSchedule;
+import com.opengamma.strata.basics.value.ValueStep;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.CalculationRunner;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.NormalizedTarget;
+import com.opengamma.strata.calc.runner.TaskDeduplicator;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.market.curve.ConstantCurve;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.product.fra.type.FraConvention;
+import com.opengamma.strata.product.swap.RateCalculationSwapLeg;
+import com.opengamma.strata.product.swap.Swap;
+import com.opengamma.strata.product.swap.SwapTrade;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+
+/**
+ * Test {@link StandardTargetNormalizer}.
+ */
+@Test
+public class StandardTargetNormalizerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate TRADE_DATE = date(2016, 6, 30);
+  private static final SwapTrade SWAP1 = swap(BuySell.BUY, 1_000_000);
+  private static final SwapTrade SWAP2 = swap(BuySell.BUY, 2_500_000);
+  private static final SwapTrade SWAP3 = swap(BuySell.SELL, 1_000_000);
+  private static final FraTrade FRA1 = fra(1_000_000);
+  private static final FraTrade FRA2 = fra(3_000_000);
+
+  private static final CurveId DISCOUNT_CURVE_ID = CurveId.of("Default", "Discount");
+  private static final CurveId FORWARD_CURVE_ID = CurveId.of("Default", "Forward");
+  private static final RatesMarketDataLookup RATES_LOOKUP = RatesMarketDataLookup.of(
+      ImmutableMap.of(GBP, DISCOUNT_CURVE_ID),
+      ImmutableMap.of(GBP_LIBOR_3M, FORWARD_CURVE_ID, GBP_LIBOR_6M, FORWARD_CURVE_ID));
+  private static final double TOLERANCE = 1e-8;
+
+  //-------------------------------------------------------------------------
+  public void test_normalize_swap() {
+    StandardTargetNormalizer test = StandardTargetNormalizer.INSTANCE;
+    NormalizedTarget normalized1 = test.normalize(SWAP1, REF_DATA).get();
+    NormalizedTarget normalized2 = test.normalize(SWAP2, REF_DATA).get();
+    NormalizedTarget normalized3 = test.normalize(SWAP3, REF_DATA).get();
+    assertEquals(normalized1.getSize(), 1_000_000d);
+    assertEquals(normalized2.getSize(), 2_500_000d);
+    assertEquals(normalized1.getKey(), normalized2.getKey());
+    assertNotEquals(normalized1.getKey(), normalized3.getKey());
+  }
+
+  public void test_normalize_swapAmortizing() {
+    Swap swap = SWAP1.getProduct();
+    RateCalculationSwapLeg leg = (RateCalculationSwapLeg) swap.getLegs().get(0);
+    RateCalculationSwapLeg amortizingLeg = leg.toBuilder()
+        .notionalSchedule(leg.getNotionalSchedule().toBuilder()
+            .amount(ValueSchedule.of(1_000_000, ValueStep.of(1, ValueAdjustment.ofReplace(500_000))))
+            .build())
+        .build();
+    Swap amortizing = Swap.of(amortizingLeg, swap.getLegs().get(1));
+    NormalizedTarget normalized = StandardTargetNormalizer.INSTANCE
+        .normalize(SWAP1.toBuilder().product(amortizing).build(), REF_DATA).get();
+    assertEquals(normalized, NormalizedTarget.of(amortizing, 1d));
+  }
+
+  public void test_normalize_fra() {
+    StandardTargetNormalizer test = StandardTargetNormalizer.INSTANCE;
+    NormalizedTarget normalized1 = test.normalize(FRA1, REF_DATA).get();
+    NormalizedTarget normalized2 = test.normalize(FRA2, REF_DATA).get();
+    assertEquals(normalized1.getSize(), 1_000_000d);
+    assertEquals(normalized2.getSize(), 3_000_000d);
+    assertEquals(normalized1.getKey(), FRA1.getProduct().toBuilder().notional(1d).build());
+    assertEquals(normalized1.getKey(), normalized2.getKey());
+  }
+
+  public void test_normalize_fraZeroNotional() {
+    FraTrade fra = fra(0d);
+    NormalizedTarget normalized = StandardTargetNormalizer.INSTANCE.normalize(fra, REF_DATA).get();
+    assertEquals(normalized, NormalizedTarget.of(fra.getProduct(), 1d));
+  }
+
+  public void test_normalize_unsupported() {
+    CalculationTarget target = new CalculationTarget() {};
+    assertFalse(StandardTargetNormalizer.INSTANCE.normalize(target, REF_DATA).isPresent());
+  }
+
+  public void test_scale() {
+    CurrencyParameterSensitivities sensitivities = CurrencyParameterSensitivities.of(
+        curve().createParameterSensitivity(GBP, DoubleArray.of(2d)));
+    assertEquals(
+        StandardTargetNormalizer.INSTANCE.scale(sensitivities, 3d).get(),
+        sensitivities.multipliedBy(3d));
+    assertFalse(StandardTargetNormalizer.INSTANCE.scale("A", 3d).isPresent());
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() {
+    List<SwapTrade> swaps = ImmutableList.of(SWAP1, SWAP2, SWAP3);
+    List<Column> columns = ImmutableList.of(
+        Column.of(Measures.PRESENT_VALUE),
+        Column.of(Measures.PAR_RATE),
+        Column.of(Measures.PV01_CALIBRATED_BUCKETED),
+        Column.of(Measures.CASH_FLOWS));
+    TaskDeduplicator deduplicator = StandardComponents.taskDeduplicator();
+    Results results = calculate(swaps, columns, deduplicator);
+    Results expected = calculate(swaps, columns, null);
+    // the present value, par rate and PV01 of the second swap are derived from the first
+    assertEquals(deduplicator.getTaskCount(), 6);
+    assertEquals(deduplicator.getSharedTaskCount(), 1);
+    for (int i = 0; i < swaps.size(); i++) {
+      CurrencyScenarioArray pv = (CurrencyScenarioArray) results.get(i, 0).getValue();
+      CurrencyScenarioArray expectedPv = (CurrencyScenarioArray) expected.get(i, 0).getValue();
+      assertTrue(pv.getAmounts().getValues().equalWithTolerance(expectedPv.getAmounts().getValues(), TOLERANCE * 1e6));
+      DoubleScenarioArray parRate = (DoubleScenarioArray) results.get(i, 1).getValue();
+      assertEquals(parRate.get(0), ((DoubleScenarioArray) expected.get(i, 1).getValue()).get(0), TOLERANCE);
+      CurrencyParameterSensitivities pv01 = (CurrencyParameterSensitivities) ((ScenarioArray<?>) results.get(i, 2)
+          .getValue()).get(0);
+      CurrencyParameterSensitivities expectedPv01 = (CurrencyParameterSensitivities) ((ScenarioArray<?>) expected
+          .get(i, 2).getValue()).get(0);
+      assertTrue(pv01.equalWithTolerance(expectedPv01, TOLERANCE * 1e6));
+      assertEquals(results.get(i, 3), expected.get(i, 3));
+    }
+  }
+
+  public void test_calculate_fra() {
+    List<FraTrade> fras = ImmutableList.of(FRA1, FRA2);
+    List<Column> columns = ImmutableList.of(Column.of(Measures.PRESENT_VALUE), Column.of(Measures.PAR_SPREAD));
+    TaskDeduplicator deduplicator = StandardComponents.taskDeduplicator();
+    Results results = calculate(fras, columns, deduplicator);
+    Results expected = calculate(fras, columns, null);
+    assertEquals(deduplicator.getSharedTaskCount(), 1);
+    for (int i = 0; i < fras.size(); i++) {
+      CurrencyScenarioArray pv = (CurrencyScenarioArray) results.get(i, 0).getValue();
+      CurrencyScenarioArray expectedPv = (CurrencyScenarioArray) expected.get(i, 0).getValue();
+      assertTrue(pv.getAmounts().getValues().equalWithTolerance(expectedPv.getAmounts().getValues(), TOLERANCE * 1e6));
+      assertEquals(results.get(i, 1), expected.get(i, 1));
+    }
+  }
+
+  public void test_calculate_fraZeroNotional() {
+    List<FraTrade> fras = ImmutableList.of(fra(0d), fra(0d), FRA1);
+    List<Column> columns = ImmutableList.of(Column.of(Measures.PRESENT_VALUE), Column.of(Measures.PAR_SPREAD));
+    TaskDeduplicator deduplicator = StandardComponents.taskDeduplicator();
+    Results results = calculate(fras, columns, deduplicator);
+    Results expected = calculate(fras, columns, null);
+    // the zero notional FRAs are only shared with each other
+    assertEquals(deduplicator.getSharedTaskCount(), 1);
+    for (int i = 0; i < fras.size(); i++) {
+      assertEquals(results.get(i, 0), expected.get(i, 0));
+      assertEquals(results.get(i, 1), expected.get(i, 1));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // calculates the results, with or without deduplication
+  private static Results calculate(
+      List<? extends CalculationTarget> trades,
+      List<Column> columns,
+      TaskDeduplicator deduplicator) {
+
+    CalculationRules rules = CalculationRules.of(StandardComponents.calculationFunctions(), RATES_LOOKUP);
+    ScenarioMarketData marketData = ScenarioMarketData.of(1, ImmutableMarketData.of(
+        TRADE_DATE, ImmutableMap.of(DISCOUNT_CURVE_ID, curve(), FORWARD_CURVE_ID, curve())));
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationRunner runner = deduplicator == null ?
+        CalculationRunner.of(MoreExecutors.newDirectExecutorService()) :
+        CalculationRunner.of(MoreExecutors.newDirectExecutorService(), deduplicator);
+    return runner.calculateMultiScenario(rules, trades, columns, marketData, REF_DATA);
+  }
+
+  private static Curve curve() {
+    return ConstantCurve.of(Curves.discountFactors("Test", ACT_360), 0.99);
+  }
+
+  private static SwapTrade swap(BuySell buySell, double notional) {
+    return FixedIborSwapConventions.GBP_FIXED_6M_LIBOR_6M
+        .createTrade(TRADE_DATE, Tenor.TENOR_5Y, buySell, notional, 0.01, REF_DATA);
+  }
+
+  private static FraTrade fra(double notional) {
+    return FraConvention.of(GBP_LIBOR_3M)
+        .createTrade(TRADE_DATE, Period.ofMonths(3), BuySell.BUY, notional, 0.01, REF_DATA);
+  }
+
+}
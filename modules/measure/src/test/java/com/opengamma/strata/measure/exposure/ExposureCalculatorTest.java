@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.exposure;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.FxMatrix;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.market.curve.ConstantCurve;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.pricer.fra.DiscountingFraProductPricer;
+import com.opengamma.strata.pricer.fx.DiscountingFxSingleProductPricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.TradeInfo;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.deposit.TermDeposit;
+import com.opengamma.strata.product.deposit.TermDepositTrade;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.product.fra.ResolvedFra;
+import com.opengamma.strata.product.fra.type.FraConvention;
+import com.opengamma.strata.product.fx.FxSingle;
+import com.opengamma.strata.product.fx.FxSingleTrade;
+import com.opengamma.strata.product.fx.ResolvedFxSingle;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.SwapTrade;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+
+/**
+ * Test {@link ExposureCalculator}.
+ */
+@Test
+public class ExposureCalculatorTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final StandardId CPTY_A = StandardId.of("OG-Test", "A");
+  private static final StandardId CPTY_B = StandardId.of("OG-Test", "B");
+  private static final TradeInfo INFO_A = TradeInfo.builder().tradeDate(date(2016, 6, 28)).counterparty(CPTY_A).build();
+  private static final TradeInfo INFO_B = TradeInfo.builder().tradeDate(date(2016, 6, 28)).counterparty(CPTY_B).build();
+  private static final SwapTrade SWAP = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M.toTrade(
+      INFO_A, date(2016, 6, 30), date(2018, 6, 29), BuySell.BUY, 1_000_000, 0.011);
+  private static final FraTrade FRA = FraConvention.of(USD_LIBOR_3M).toTrade(
+      INFO_A, date(2016, 9, 30), date(2016, 12, 30), date(2016, 9, 30), BuySell.SELL, 1_000_000, 0.009);
+  private static final FxSingleTrade FX = FxSingleTrade.builder()
+      .info(INFO_B)
+      .product(FxSingle.of(CurrencyAmount.of(GBP, 1_000_000), CurrencyAmount.of(USD, -1_600_000), date(2017, 1, 3)))
+      .build();
+  private static final FxSingleTrade FX_NO_COUNTERPARTY = FxSingleTrade.builder()
+      .product(FxSingle.of(CurrencyAmount.of(GBP, -500_000), CurrencyAmount.of(USD, 810_000), date(2016, 12, 1)))
+      .build();
+  private static final List<LocalDate> DATES = ImmutableList.of(
+      date(2016, 7, 1), date(2016, 10, 3), date(2017, 1, 3), date(2017, 7, 3), date(2018, 1, 2), date(2018, 7, 2));
+  private static final int NB_PATHS = 60;
+  private static final LocalDateDoubleTimeSeries FIXINGS;
+  static {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    for (LocalDate date = date(2016, 6, 1); date.isBefore(date(2018, 8, 1)); date = date.plusDays(1)) {
+      builder.put(date, 0.01);
+    }
+    FIXINGS = builder.build();
+  }
+  private static final SimulatedRatesProviders SIMULATION = new TestSimulation(DATES, NB_PATHS);
+  private static final double LEVEL = 0.95;
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() {
+    ExposureCalculator calculator = ExposureCalculator.of(USD, LEVEL);
+    ImmutableMap<StandardId, ExposureProfile> test =
+        calculator.calculate(ImmutableList.of(SWAP, FX, FRA, FX_NO_COUNTERPARTY), SIMULATION, REF_DATA);
+    assertEquals(test.keySet().asList(), ImmutableList.of(CPTY_A, CPTY_B, ExposureCalculator.UNKNOWN_COUNTERPARTY));
+    ResolvedSwap swap = SWAP.resolve(REF_DATA).getProduct();
+    ResolvedFra fra = FRA.resolve(REF_DATA).getProduct();
+    ResolvedFxSingle fx = FX.resolve(REF_DATA).getProduct();
+    ResolvedFxSingle fxNoCounterparty = FX_NO_COUNTERPARTY.resolve(REF_DATA).getProduct();
+    for (int j = 0; j < DATES.size(); j++) {
+      LocalDate date = DATES.get(j);
+      double sumA = 0d;
+      double sumB = 0d;
+      double sumUnknown = 0d;
+      StreamingQuantileEstimator quantileA = new StreamingQuantileEstimator(LEVEL);
+      StreamingQuantileEstimator quantileB = new StreamingQuantileEstimator(LEVEL);
+      for (int p = 0; p < NB_PATHS; p++) {
+        RatesProvider provider = SIMULATION.ratesProvider(p, j);
+        double pvA = DiscountingSwapProductPricer.DEFAULT.presentValue(swap, USD, provider).getAmount();
+        if (!fra.getPaymentDate().isBefore(date)) {
+          pvA += DiscountingFraProductPricer.DEFAULT.presentValue(fra, provider).getAmount();
+        }
+        double pvB = fx.getPaymentDate().isBefore(date) ? 0d :
+            DiscountingFxSingleProductPricer.DEFAULT.presentValue(fx, provider).convertedTo(USD, provider).getAmount();
+        double pvUnknown = fxNoCounterparty.getPaymentDate().isBefore(date) ? 0d :
+            DiscountingFxSingleProductPricer.DEFAULT.presentValue(fxNoCounterparty, provider)
+                .convertedTo(USD, provider).getAmount();
+        sumA += Math.max(pvA, 0d);
+        sumB += Math.max(pvB, 0d);
+        sumUnknown += Math.max(pvUnknown, 0d);
+        quantileA.add(Math.max(pvA, 0d));
+        quantileB.add(Math.max(pvB, 0d));
+      }
+      ExposureProfile profileA = test.get(CPTY_A);
+      ExposureProfile profileB = test.get(CPTY_B);
+      ExposureProfile profileUnknown = test.get(ExposureCalculator.UNKNOWN_COUNTERPARTY);
+      assertEquals(profileA.getExpectedExposure().get(j), sumA / NB_PATHS, 1e-6);
+      assertEquals(profileB.getExpectedExposure().get(j), sumB / NB_PATHS, 1e-6);
+      assertEquals(profileUnknown.getExpectedExposure().get(j), sumUnknown / NB_PATHS, 1e-6);
+      assertEquals(profileA.getPotentialFutureExposure().get(j), quantileA.quantile(), 1e-6);
+      assertEquals(profileB.getPotentialFutureExposure().get(j), quantileB.quantile(), 1e-6);
+      assertTrue(profileA.getPotentialFutureExposure().get(j) >= 0d);
+    }
+    ExposureProfile profileA = test.get(CPTY_A);
+    assertEquals(profileA.getCurrency(), USD);
+    assertEquals(profileA.getDates(), DATES);
+    assertEquals(profileA.getConfidenceLevel(), LEVEL);
+    assertTrue(profileA.getExpectedExposure().get(1) > 0d);
+    // all cash flows paid before the last date
+    assertEquals(profileA.getExpectedExposure().get(DATES.size() - 1), 0d);
+    assertEquals(test.get(CPTY_B).getExpectedExposure().get(DATES.size() - 1), 0d);
+  }
+
+  public void test_calculate_parallel() {
+    List<SwapTrade> trades = new ArrayList<>();
+    trades.add(SWAP);
+    trades.add(SWAP.toBuilder().info(INFO_B).build());
+    ImmutableMap<StandardId, ExposureProfile> sequential =
+        ExposureCalculator.of(USD, LEVEL, false).calculate(trades, SIMULATION, REF_DATA);
+    ImmutableMap<StandardId, ExposureProfile> parallel =
+        ExposureCalculator.of(USD, LEVEL, true).calculate(trades, SIMULATION, REF_DATA);
+    assertEquals(parallel, sequential);
+    assertEquals(sequential.get(CPTY_A), sequential.get(CPTY_B));
+  }
+
+  public void test_calculate_unsupported() {
+    TermDepositTrade deposit = TermDepositTrade.builder()
+        .product(TermDeposit.builder()
+            .buySell(BuySell.BUY)
+            .currency(USD)
+            .notional(1_000_000)
+            .startDate(date(2016, 6, 30))
+            .endDate(date(2016, 12, 30))
+            .dayCount(ACT_365F)
+            .rate(0.01)
+            .build())
+        .build();
+    assertThrowsIllegalArg(
+        () -> ExposureCalculator.of(USD, LEVEL).calculate(ImmutableList.of(SWAP, deposit), SIMULATION, REF_DATA));
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> ExposureCalculator.of(USD, 0d));
+    assertThrowsIllegalArg(() -> ExposureCalculator.of(USD, 1d));
+  }
+
+  //-------------------------------------------------------------------------
+  // flat curves, shifted by path and increasing with time
+  private static final class TestSimulation implements SimulatedRatesProviders {
+    private final List<LocalDate> dates;
+    private final int nbPaths;
+
+    private TestSimulation(List<LocalDate> dates, int nbPaths) {
+      this.dates = dates;
+      this.nbPaths = nbPaths;
+    }
+
+    @Override
+    public List<LocalDate> getDates() {
+      return dates;
+    }
+
+    @Override
+    public int getPathCount() {
+      return nbPaths;
+    }
+
+    @Override
+    public RatesProvider ratesProvider(int pathIndex, int dateIndex) {
+      double shock = (pathIndex - 0.5 * nbPaths) / nbPaths * Math.sqrt(dateIndex + 1d);
+      double usdRate = 0.01 + 0.01 * shock;
+      double gbpRate = 0.015 - 0.005 * shock;
+      double fxRate = 1.6 * (1d + 0.2 * Math.sin(3d * pathIndex + dateIndex));
+      return ImmutableRatesProvider.builder(dates.get(dateIndex))
+          .fxRateProvider(FxMatrix.of(GBP, USD, fxRate))
+          .discountCurve(USD, ConstantCurve.of(Curves.zeroRates("USD-Discount", ACT_365F), usdRate))
+          .discountCurve(GBP, ConstantCurve.of(Curves.zeroRates("GBP-Discount", ACT_365F), gbpRate))
+          .iborIndexCurve(USD_LIBOR_3M, ConstantCurve.of(Curves.zeroRates("USD-Libor", ACT_365F), usdRate + 0.002),
+              FIXINGS)
+          .build();
+    }
+  }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.exposure;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link ExposureProfile}.
+ */
+@Test
+public class ExposureProfileTest {
+
+  private static final List<LocalDate> DATES = ImmutableList.of(date(2016, 7, 1), date(2017, 1, 3), date(2017, 7, 3));
+  private static final DoubleArray EE = DoubleArray.of(10d, 12d, 5d);
+  private static final DoubleArray PFE = DoubleArray.of(25d, 31d, 14d);
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    ExposureProfile test = ExposureProfile.of(USD, DATES, EE, PFE, 0.95);
+    assertEquals(test.getCurrency(), USD);
+    assertEquals(test.getDates(), DATES);
+    assertEquals(test.getExpectedExposure(), EE);
+    assertEquals(test.getPotentialFutureExposure(), PFE);
+    assertEquals(test.getConfidenceLevel(), 0.95);
+    assertEquals(test.getPeakPotentialFutureExposure(), 31d);
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(
+        () -> ExposureProfile.of(USD, ImmutableList.of(), DoubleArray.EMPTY, DoubleArray.EMPTY, 0.95));
+    assertThrowsIllegalArg(() -> ExposureProfile.of(USD, DATES, DoubleArray.of(1d), PFE, 0.95));
+    assertThrowsIllegalArg(() -> ExposureProfile.of(USD, DATES, EE, DoubleArray.of(1d), 0.95));
+    assertThrowsIllegalArg(() -> ExposureProfile.of(USD, DATES, EE, PFE, 1d));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    ExposureProfile test = ExposureProfile.of(USD, DATES, EE, PFE, 0.95);
+    coverImmutableBean(test);
+    ExposureProfile test2 = ExposureProfile.of(
+        EUR, ImmutableList.of(date(2016, 8, 1)), DoubleArray.of(1d), DoubleArray.of(2d), 0.99);
+    coverBeanEquals(test, test2);
+  }
+
+  public void test_serialization() {
+    assertSerialization(ExposureProfile.of(USD, DATES, EE, PFE, 0.95));
+  }
+
+}
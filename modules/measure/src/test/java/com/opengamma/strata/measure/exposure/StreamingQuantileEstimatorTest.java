@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.exposure;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link StreamingQuantileEstimator}.
+ */
+@Test
+public class StreamingQuantileEstimatorTest {
+
+  public void test_empty() {
+    StreamingQuantileEstimator test = new StreamingQuantileEstimator(0.9);
+    assertEquals(test.getCount(), 0);
+    assertEquals(test.quantile(), 0d);
+  }
+
+  public void test_fewObservations() {
+    StreamingQuantileEstimator test = new StreamingQuantileEstimator(0.75);
+    test.add(3d);
+    assertEquals(test.quantile(), 3d);
+    test.add(1d);
+    test.add(2d);
+    assertEquals(test.getCount(), 3);
+    assertEquals(test.quantile(), 2.5d, 1e-15);
+  }
+
+  public void test_uniform() {
+    Random random = new Random(1);
+    StreamingQuantileEstimator test = new StreamingQuantileEstimator(0.95);
+    int n = 100_000;
+    double[] values = new double[n];
+    for (int i = 0; i < n; i++) {
+      values[i] = random.nextDouble();
+      test.add(values[i]);
+    }
+    Arrays.sort(values);
+    assertEquals(test.getCount(), n);
+    assertEquals(test.quantile(), values[(int) (0.95 * (n - 1))], 2e-3);
+  }
+
+  public void test_normal() {
+    Random random = new Random(2);
+    StreamingQuantileEstimator test = new StreamingQuantileEstimator(0.99);
+    int n = 100_000;
+    double[] values = new double[n];
+    for (int i = 0; i < n; i++) {
+      values[i] = Math.max(random.nextGaussian(), 0d);
+      test.add(values[i]);
+    }
+    Arrays.sort(values);
+    assertEquals(test.quantile(), values[(int) (0.99 * (n - 1))], 2e-2);
+  }
+
+}
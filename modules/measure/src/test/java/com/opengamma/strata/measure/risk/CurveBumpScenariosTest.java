@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.risk;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_10Y;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_5Y;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static com.opengamma.strata.product.common.BuySell.SELL;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.CalculationRunner;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.math.impl.differentiation.FiniteDifferenceType;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.StandardComponents;
+import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
+import com.opengamma.strata.pricer.datasets.StandardDataSets;
+import com.opengamma.strata.product.swap.SwapTrade;
+
+/**
+ * Test {@link CurveBumpScenarios}.
+ */
+@Test
+public class CurveBumpScenariosTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = StandardDataSets.VAL_DATE_2014_01_22;
+  private static final CurveGroupName GROUP = CurveGroupName.of("Test");
+  private static final CurveId DSC_ID = CurveId.of(GROUP, StandardDataSets.GROUP1_USD_DSC.getName());
+  private static final CurveId L3M_ID = CurveId.of(GROUP, StandardDataSets.GROUP1_USD_L3M.getName());
+  private static final CurveId OTHER_ID = CurveId.of(GROUP, StandardDataSets.GROUP2_EUR_DSC.getName());
+  private static final MarketData MARKET_DATA = ImmutableMarketData.builder(VAL_DATE)
+      .addValue(DSC_ID, StandardDataSets.GROUP1_USD_DSC)
+      .addValue(L3M_ID, StandardDataSets.GROUP1_USD_L3M)
+      .addValue(OTHER_ID, StandardDataSets.GROUP2_EUR_DSC)
+      .build();
+  private static final CalculationRules RULES = CalculationRules.of(
+      StandardComponents.calculationFunctions(),
+      USD,
+      RatesMarketDataLookup.of(ImmutableMap.of(USD, DSC_ID), ImmutableMap.of(USD_LIBOR_3M, L3M_ID)));
+  private static final List<SwapTrade> TRADES = ImmutableList.of(
+      USD_FIXED_6M_LIBOR_3M.createTrade(VAL_DATE, Period.ofMonths(1), TENOR_5Y, BUY, 1_000_000d, 0.015, REF_DATA),
+      USD_FIXED_6M_LIBOR_3M.createTrade(VAL_DATE, Period.ofMonths(3), TENOR_10Y, SELL, 2_000_000d, 0.025, REF_DATA));
+  private static final List<CurveId> CURVE_IDS = ImmutableList.of(DSC_ID, L3M_ID, OTHER_ID);
+  private static final double SHIFT = 1.0e-6;
+  private static final double TOLERANCE_DELTA = 1.0e-1;
+  // using the direct executor means there is no need to close/shutdown the runner
+  private static final CalculationRunner RUNNER = CalculationRunner.of(MoreExecutors.newDirectExecutorService());
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    CurveBumpScenarios test = CurveBumpScenarios.of(CURVE_IDS, SHIFT, FiniteDifferenceType.CENTRAL);
+    assertEquals(test.getCurveIds(), CURVE_IDS);
+    assertEquals(test.getShift(), SHIFT);
+    assertEquals(test.getDifferenceType(), FiniteDifferenceType.CENTRAL);
+    assertEquals(test.toString(), "CurveBumpScenarios[3 curves, CENTRAL, shift=1.0E-6]");
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> CurveBumpScenarios.of(CURVE_IDS, 0d, FiniteDifferenceType.CENTRAL));
+    assertThrowsIllegalArg(() -> CurveBumpScenarios.of(CURVE_IDS, SHIFT, null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_scenarioMarketData() {
+    CurveBumpScenarios test =
+        CurveBumpScenarios.of(ImmutableList.of(DSC_ID, L3M_ID), SHIFT, FiniteDifferenceType.CENTRAL);
+    Curve dsc = StandardDataSets.GROUP1_USD_DSC;
+    Curve l3m = StandardDataSets.GROUP1_USD_L3M;
+    int dscCount = dsc.getParameterCount();
+    ScenarioMarketData scenarios = test.scenarioMarketData(MARKET_DATA);
+    assertEquals(scenarios.getScenarioCount(), 1 + 2 * (dscCount + l3m.getParameterCount()));
+    MarketDataBox<Curve> dscBox = scenarios.getValue(DSC_ID);
+    MarketDataBox<Curve> l3mBox = scenarios.getValue(L3M_ID);
+    assertSame(dscBox.getValue(0), dsc);
+    assertSame(l3mBox.getValue(0), l3m);
+    assertEquals(dscBox.getValue(1).getParameter(0), dsc.getParameter(0) + SHIFT, 1e-15);
+    assertEquals(dscBox.getValue(2).getParameter(0), dsc.getParameter(0) - SHIFT, 1e-15);
+    assertEquals(dscBox.getValue(3).getParameter(1), dsc.getParameter(1) + SHIFT, 1e-15);
+    assertSame(l3mBox.getValue(1), l3m);
+    assertSame(dscBox.getValue(1 + 2 * dscCount), dsc);
+    assertEquals(l3mBox.getValue(1 + 2 * dscCount).getParameter(0), l3m.getParameter(0) + SHIFT, 1e-15);
+    assertSame(scenarios.scenario(5).getValue(OTHER_ID), StandardDataSets.GROUP2_EUR_DSC);
+  }
+
+  public void test_scenarioMarketData_missingCurve() {
+    CurveId missing = CurveId.of("Test", "Missing");
+    CurveBumpScenarios test = CurveBumpScenarios.of(ImmutableList.of(missing), SHIFT, FiniteDifferenceType.CENTRAL);
+    assertThrowsIllegalArg(() -> test.scenarioMarketData(MARKET_DATA));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() {
+    Results pv01 = RUNNER.calculate(
+        RULES, TRADES, ImmutableList.of(Column.of(Measures.PV01_CALIBRATED_BUCKETED)), MARKET_DATA, REF_DATA);
+    for (FiniteDifferenceType type : FiniteDifferenceType.values()) {
+      double tolerance = type == FiniteDifferenceType.CENTRAL ? TOLERANCE_DELTA : 1e3 * TOLERANCE_DELTA;
+      CurveBumpScenarios test = CurveBumpScenarios.of(CURVE_IDS, SHIFT, type);
+      List<Result<CurrencyParameterSensitivities>> computed =
+          test.calculate(RUNNER, RULES, TRADES, MARKET_DATA, REF_DATA);
+      assertEquals(computed.size(), TRADES.size());
+      for (int i = 0; i < TRADES.size(); i++) {
+        CurrencyParameterSensitivities expected =
+            ((CurrencyParameterSensitivities) pv01.get(i, 0).getValue()).multipliedBy(1e4);
+        CurrencyParameterSensitivities sensitivity = computed.get(i).getValue();
+        assertEquals(sensitivity.size(), 2);
+        assertTrue(sensitivity.equalWithTolerance(expected, tolerance));
+      }
+    }
+  }
+
+  public void test_calculate_failure() {
+    CurveBumpScenarios test = CurveBumpScenarios.of(CURVE_IDS, SHIFT, FiniteDifferenceType.CENTRAL);
+    CalculationRules rules = CalculationRules.of(
+        StandardComponents.calculationFunctions(), USD, RatesMarketDataLookup.of(ImmutableMap.of(), ImmutableMap.of()));
+    List<Result<CurrencyParameterSensitivities>> computed =
+        test.calculate(RUNNER, rules, TRADES, MARKET_DATA, REF_DATA);
+    assertEquals(computed.size(), TRADES.size());
+    assertTrue(computed.get(0).isFailure());
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_sensitivity() {
+    CurveBumpScenarios test = CurveBumpScenarios.of(ImmutableList.of(DSC_ID), 0.5d, FiniteDifferenceType.FORWARD);
+    int count = StandardDataSets.GROUP1_USD_DSC.getParameterCount();
+    double[] values = new double[count + 1];
+    values[0] = 10d;
+    values[1] = 12d;
+    values[count] = 9d;
+    CurrencyParameterSensitivities computed =
+        test.sensitivity(CurrencyScenarioArray.of(GBP, DoubleArray.ofUnsafe(values)), MARKET_DATA);
+    double[] expected = new double[count];
+    for (int i = 0; i < count; i++) {
+      expected[i] = -20d;
+    }
+    expected[0] = 4d;
+    expected[count - 1] = -2d;
+    assertEquals(
+        computed,
+        CurrencyParameterSensitivities.of(
+            StandardDataSets.GROUP1_USD_DSC.createParameterSensitivity(GBP, DoubleArray.ofUnsafe(expected))));
+  }
+
+  public void test_sensitivity_invalid() {
+    CurveBumpScenarios test = CurveBumpScenarios.of(ImmutableList.of(DSC_ID), SHIFT, FiniteDifferenceType.FORWARD);
+    assertThrowsIllegalArg(() -> test.sensitivity(CurrencyScenarioArray.of(GBP, DoubleArray.of(1, 2)), MARKET_DATA));
+    assertThrowsIllegalArg(() -> test.sensitivity("Value", MARKET_DATA));
+  }
+
+}
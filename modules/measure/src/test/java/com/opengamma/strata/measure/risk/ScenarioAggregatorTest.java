@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.risk;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.calc.runner.ColumnarResults;
+import com.opengamma.strata.calc.runner.ColumnarResultsListener;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
+import com.opengamma.strata.math.impl.statistics.descriptive.IndexAboveQuantileMethod;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.product.GenericSecurity;
+import com.opengamma.strata.product.GenericSecurityTrade;
+import com.opengamma.strata.product.SecurityId;
+import com.opengamma.strata.product.SecurityInfo;
+import com.opengamma.strata.product.TradeAttributeType;
+import com.opengamma.strata.product.TradeInfo;
+
+/**
+ * Test {@link ScenarioAggregator}, {@link ScenarioAggregation} and {@link ScenarioAggregationListener}.
+ */
+@Test
+public class ScenarioAggregatorTest {
+
+  private static final TradeAttributeType<String> BOOK = TradeAttributeType.of("book");
+  private static final StandardId CPTY_A = StandardId.of("OG-Cpty", "A");
+  private static final StandardId CPTY_B = StandardId.of("OG-Cpty", "B");
+  private static final ScenarioFxRateProvider FX_PROVIDER = ScenarioFxRateProvider.of(
+      ImmutableScenarioMarketData.builder(date(2016, 6, 30))
+          .addScenarioValue(FxRateId.of(GBP, USD), ImmutableList.of(
+              FxRate.of(GBP, USD, 1.5), FxRate.of(GBP, USD, 1.4), FxRate.of(GBP, USD, 1.6), FxRate.of(GBP, USD, 1.5)))
+          .build());
+
+  private static final CalculationTarget TRADE1 = trade(CPTY_A, "Book1");
+  private static final CalculationTarget TRADE2 = trade(CPTY_A, "Book2");
+  private static final CalculationTarget TRADE3 = trade(CPTY_B, "Book1");
+  private static final CalculationTarget OTHER = new CalculationTarget() {};
+  private static final List<CalculationTarget> TARGETS = ImmutableList.of(TRADE1, TRADE2, TRADE3, OTHER);
+
+  private static final CurrencyScenarioArray PV1 = CurrencyScenarioArray.of(USD, DoubleArray.of(10, -20, 30, 5));
+  private static final CurrencyScenarioArray PV2 = CurrencyScenarioArray.of(GBP, DoubleArray.of(10, 10, -10, 0));
+  private static final MultiCurrencyScenarioArray PV3 = MultiCurrencyScenarioArray.of(ImmutableMap.of(
+      USD, DoubleArray.of(1, 2, 3, 4),
+      GBP, DoubleArray.of(2, 2, 2, 2)));
+  private static final Result<?> PV4 = Result.failure(FailureReason.CALCULATION_FAILED, "Failed");
+
+  // expected totals in USD
+  private static final DoubleArray TOTAL1 = DoubleArray.of(10, -20, 30, 5);
+  private static final DoubleArray TOTAL2 = DoubleArray.of(15, 14, -16, 0);
+  private static final DoubleArray TOTAL3 = DoubleArray.of(4, 4.8, 6.2, 7);
+
+  //-------------------------------------------------------------------------
+  public void test_add() {
+    ScenarioAggregator test = aggregator()
+        .add(TRADE1, Result.success(PV1))
+        .add(TRADE2, Result.success(PV2))
+        .addValue(TRADE3, PV3)
+        .add(OTHER, PV4);
+    assertExpected(test.build());
+  }
+
+  public void test_addAll_results() {
+    Results results = Results.of(
+        ImmutableList.of(Column.of(Measures.PRESENT_VALUE).toHeader()),
+        ImmutableList.of(Result.success(PV1), Result.success(PV2), Result.success(PV3), PV4));
+    ScenarioAggregation test = aggregator().addAll(TARGETS, results, 0).build();
+    assertExpected(test);
+  }
+
+  public void test_addAll_columnarResults() throws IOException {
+    Path directory = Files.createTempDirectory("aggregation");
+    try {
+      ColumnarResultsListener listener = ColumnarResultsListener.of(directory);
+      listener.calculationsStarted(TARGETS, ImmutableList.of(Column.of(Measures.PRESENT_VALUE)));
+      listener.resultReceived(TRADE1, CalculationResult.of(0, 0, Result.success(PV1)));
+      listener.resultReceived(TRADE2, CalculationResult.of(1, 0, Result.success(PV2)));
+      listener.resultReceived(TRADE3, CalculationResult.of(2, 0, Result.success(PV3)));
+      listener.resultReceived(OTHER, CalculationResult.of(3, 0, PV4));
+      listener.calculationsComplete();
+      ColumnarResults results = listener.result();
+      assertExpected(aggregator().addAll(TARGETS, results, 0).build());
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.deleteIfExists(file);
+        }
+      }
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  public void test_listener() {
+    ScenarioAggregationListener listener =
+        ScenarioAggregationListener.of(aggregator(), ColumnName.of(Measures.PRESENT_VALUE.getName()));
+    listener.calculationsStarted(TARGETS, ImmutableList.of(Column.of(Measures.PAR_RATE), Column.of(Measures.PRESENT_VALUE)));
+    listener.resultReceived(TRADE1, CalculationResult.of(0, 0, Result.success(DoubleScenarioArray.of(1, i -> i))));
+    listener.resultReceived(TRADE1, CalculationResult.of(0, 1, Result.success(PV1)));
+    listener.resultReceived(TRADE2, CalculationResult.of(1, 1, Result.success(PV2)));
+    assertEquals(listener.snapshot().getTotal().getAmounts().getValues(), TOTAL1.plus(TOTAL2));
+    listener.resultReceived(TRADE3, CalculationResult.of(2, 1, Result.success(PV3)));
+    listener.resultReceived(OTHER, CalculationResult.of(3, 1, PV4));
+    listener.calculationsComplete();
+    assertExpected(listener.result());
+  }
+
+  public void test_listener_columnNotFound() {
+    ScenarioAggregationListener listener = ScenarioAggregationListener.of(aggregator(), ColumnName.of("Unknown"));
+    assertThrowsIllegalArg(
+        () -> listener.calculationsStarted(TARGETS, ImmutableList.of(Column.of(Measures.PRESENT_VALUE))),
+        "Column name not found.*");
+  }
+
+  public void test_add_invalid() {
+    assertThrowsIllegalArg(() -> aggregator().addValue(TRADE1, DoubleScenarioArray.of(4, i -> i)), "Unable to aggregate.*");
+    assertThrowsIllegalArg(
+        () -> aggregator().addValue(TRADE1, CurrencyScenarioArray.of(USD, DoubleArray.of(1, 2))),
+        "Expected 4 scenarios but received 2");
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_riskMeasures() {
+    ScenarioAggregation aggregation = aggregator()
+        .add(TRADE1, Result.success(PV1))
+        .add(TRADE2, Result.success(PV2))
+        .build();
+    IndexAboveQuantileMethod method = IndexAboveQuantileMethod.DEFAULT;
+    DoubleArray total = TOTAL1.plus(TOTAL2);
+    ScenarioRiskMeasures expected = ScenarioRiskMeasures.of(
+        0.75,
+        CurrencyAmount.of(USD, -method.quantileWithExtrapolationFromUnsorted(0.25, total)),
+        CurrencyAmount.of(USD, -method.expectedShortfallFromUnsorted(0.25, total)));
+    assertEquals(aggregation.riskMeasures(0.75, method), expected);
+    assertEquals(expected.getValueAtRisk().getAmount(), 6d);
+    ImmutableMap<ImmutableList<String>, ScenarioRiskMeasures> byPath = aggregation.riskMeasuresByPath(0.75, method);
+    assertEquals(byPath.keySet(), aggregation.getPaths());
+    assertEquals(byPath.get(ImmutableList.of()), expected);
+    assertEquals(
+        byPath.get(ImmutableList.of("OG-Cpty~A", "Book2")),
+        aggregation.riskMeasures(ImmutableList.of("OG-Cpty~A", "Book2"), 0.75, method));
+    assertThrowsIllegalArg(() -> aggregation.riskMeasures(1d, method));
+    assertThrowsIllegalArg(() -> aggregation.riskMeasures(ImmutableList.of("Unknown"), 0.75, method));
+  }
+
+  public void coverage() {
+    ScenarioAggregation test = aggregator().add(TRADE1, Result.success(PV1)).build();
+    coverImmutableBean(test);
+    ScenarioAggregation test2 = aggregator().add(TRADE2, Result.success(PV2)).build();
+    coverBeanEquals(test, test2);
+    ScenarioRiskMeasures measures = ScenarioRiskMeasures.of(0.99, CurrencyAmount.of(USD, 1), CurrencyAmount.of(USD, 2));
+    coverImmutableBean(measures);
+    ScenarioRiskMeasures measures2 = ScenarioRiskMeasures.of(0.95, CurrencyAmount.of(GBP, 3), CurrencyAmount.of(GBP, 4));
+    coverBeanEquals(measures, measures2);
+  }
+
+  //-------------------------------------------------------------------------
+  private static ScenarioAggregator aggregator() {
+    return ScenarioAggregator.of(
+        USD,
+        FX_PROVIDER,
+        ImmutableList.of(ScenarioAggregator.groupByCounterparty(), ScenarioAggregator.groupByAttribute(BOOK)));
+  }
+
+  private static void assertExpected(ScenarioAggregation test) {
+    assertEquals(test.getReportingCurrency(), USD);
+    assertEquals(test.getScenarioCount(), 4);
+    assertEquals(test.getFailureCount(), 1);
+    assertEquals(test.getPaths().size(), 6);
+    assertTotal(test, ImmutableList.of(), TOTAL1.plus(TOTAL2).plus(TOTAL3));
+    assertTotal(test, ImmutableList.of("OG-Cpty~A"), TOTAL1.plus(TOTAL2));
+    assertTotal(test, ImmutableList.of("OG-Cpty~A", "Book1"), TOTAL1);
+    assertTotal(test, ImmutableList.of("OG-Cpty~A", "Book2"), TOTAL2);
+    assertTotal(test, ImmutableList.of("OG-Cpty~B"), TOTAL3);
+    assertTotal(test, ImmutableList.of("OG-Cpty~B", "Book1"), TOTAL3);
+    assertThrowsIllegalArg(() -> test.getTotal(ImmutableList.of("Unknown")), "No aggregated values found.*");
+  }
+
+  private static void assertTotal(ScenarioAggregation test, List<String> path, DoubleArray expected) {
+    CurrencyScenarioArray total = test.getTotal(path);
+    assertEquals(total.getCurrency(), USD);
+    assertEquals(total.getAmounts().getValues().equalWithTolerance(expected, 1e-12), true, total.toString());
+  }
+
+  private static CalculationTarget trade(StandardId counterparty, String book) {
+    return GenericSecurityTrade.of(
+        TradeInfo.builder().counterparty(counterparty).addAttribute(BOOK, book).build(),
+        GenericSecurity.of(SecurityInfo.of(SecurityId.of("OG-Test", "Sec"), 1, CurrencyAmount.of(USD, 1))),
+        1,
+        1);
+  }
+
+}
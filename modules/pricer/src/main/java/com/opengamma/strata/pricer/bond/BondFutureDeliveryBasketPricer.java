@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.ToDoubleBiFunction;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.pricer.CompoundedRateType;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.product.bond.FixedCouponBondPaymentPeriod;
+import com.opengamma.strata.product.bond.ResolvedBondFuture;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+
+/**
+ * Pricer for the bonds of the delivery basket of a bond future, sharing the discount factors between the bonds.
+ * <p>
+ * The bonds of a delivery basket are typically issued by the same legal entity and have many payment dates in common.
+ * The payment dates of all of the bonds are collected for each issuer curve and repo curve, then the discount
+ * factors are computed once for each distinct date. The bond prices are computed from the resulting arrays.
+ * <p>
+ * The result for each bond is the same as the clean price of {@link DiscountingFixedCouponBondProductPricer}
+ * at the last delivery date, divided by the conversion factor.
+ */
+final class BondFutureDeliveryBasketPricer {
+
+  /**
+   * The future.
+   */
+  private final ResolvedBondFuture future;
+  /**
+   * The accrued interest of each bond at the last delivery date, divided by the notional.
+   */
+  private final double[] accruedInterest;
+
+  /**
+   * Creates an instance.
+   *
+   * @param future  the future
+   * @param bondPricer  the bond pricer, used for the accrued interest
+   */
+  BondFutureDeliveryBasketPricer(ResolvedBondFuture future, DiscountingFixedCouponBondProductPricer bondPricer) {
+    this.future = future;
+    ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
+    this.accruedInterest = new double[basket.size()];
+    for (int i = 0; i < basket.size(); i++) {
+      ResolvedFixedCouponBond bond = basket.get(i);
+      accruedInterest[i] = bondPricer.accruedInterest(bond, future.getLastDeliveryDate()) / bond.getNotional();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the price of each bond of the basket, divided by its conversion factor.
+   *
+   * @param provider  the discounting provider
+   * @return the prices, in the order of the basket
+   */
+  DoubleArray prices(LegalEntityDiscountingProvider provider) {
+    return prices(provider, DiscountFactors::discountFactor);
+  }
+
+  /**
+   * Calculates the price of each bond of the basket with z-spread, divided by its conversion factor.
+   * <p>
+   * The z-spread is applied to the issuer curves only.
+   *
+   * @param provider  the discounting provider
+   * @param zSpread  the z-spread
+   * @param compoundedRateType  the compounded rate type
+   * @param periodsPerYear  the number of periods per year
+   * @return the prices, in the order of the basket
+   */
+  DoubleArray pricesWithZSpread(
+      LegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear) {
+
+    return prices(
+        provider, (df, date) -> df.discountFactorWithSpread(date, zSpread, compoundedRateType, periodsPerYear));
+  }
+
+  //-------------------------------------------------------------------------
+  // computes the prices, the issuer discounting being specified
+  private DoubleArray prices(
+      LegalEntityDiscountingProvider provider,
+      ToDoubleBiFunction<DiscountFactors, LocalDate> issuerDiscounting) {
+
+    ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
+    int size = basket.size();
+    LocalDate settlementDate = future.getLastDeliveryDate();
+    LocalDate valuationDate = provider.getValuationDate();
+    // collect the dates of each curve
+    Map<Pair<Object, Currency>, CurveDates> curves = new HashMap<>();
+    List<CurveDates> issuerCurves = new ArrayList<>(size);
+    List<CurveDates> repoCurves = new ArrayList<>(size);
+    for (ResolvedFixedCouponBond bond : basket) {
+      Currency currency = bond.getCurrency();
+      IssuerCurveDiscountFactors issuerDf = provider.issuerCurveDiscountFactors(bond.getLegalEntityId(), currency);
+      CurveDates issuerCurve = curves.computeIfAbsent(
+          Pair.of(issuerDf.getLegalEntityGroup(), currency), k -> new CurveDates(issuerDf.getDiscountFactors()));
+      for (FixedCouponBondPaymentPeriod period : bond.getPeriodicPayments()) {
+        if (isCouponIncluded(period, settlementDate, valuationDate)) {
+          issuerCurve.add(period.getPaymentDate());
+        }
+      }
+      if (!valuationDate.isAfter(bond.getNominalPayment().getDate())) {
+        issuerCurve.add(bond.getNominalPayment().getDate());
+      }
+      issuerCurves.add(issuerCurve);
+      RepoCurveDiscountFactors repoDf =
+          provider.repoCurveDiscountFactors(bond.getSecurityId(), bond.getLegalEntityId(), currency);
+      CurveDates repoCurve = curves.computeIfAbsent(
+          Pair.of(repoDf.getRepoGroup(), currency), k -> new CurveDates(repoDf.getDiscountFactors()));
+      repoCurve.add(settlementDate);
+      repoCurves.add(repoCurve);
+    }
+    // compute the discount factors once for each curve and date
+    for (CurveDates curve : issuerCurves) {
+      curve.evaluate(issuerDiscounting);
+    }
+    for (CurveDates curve : repoCurves) {
+      curve.evaluate(DiscountFactors::discountFactor);
+    }
+    // compute the prices
+    double[] prices = new double[size];
+    for (int i = 0; i < size; i++) {
+      ResolvedFixedCouponBond bond = basket.get(i);
+      CurveDates issuerCurve = issuerCurves.get(i);
+      double pvCoupon = 0d;
+      for (FixedCouponBondPaymentPeriod period : bond.getPeriodicPayments()) {
+        if (isCouponIncluded(period, settlementDate, valuationDate)) {
+          double amount = period.getFixedRate() * period.getNotional() * period.getYearFraction();
+          pvCoupon += amount * issuerCurve.discountFactor(period.getPaymentDate());
+        }
+      }
+      LocalDate nominalDate = bond.getNominalPayment().getDate();
+      double pvNominal = valuationDate.isAfter(nominalDate) ?
+          0d :
+          bond.getNominalPayment().getAmount() * issuerCurve.discountFactor(nominalDate);
+      double pv = pvNominal + pvCoupon;
+      double dirtyPrice = pv / repoCurves.get(i).discountFactor(settlementDate) / bond.getNotional();
+      prices[i] = (dirtyPrice - accruedInterest[i]) / future.getConversionFactors().get(i);
+    }
+    return DoubleArray.ofUnsafe(prices);
+  }
+
+  // checks if the coupon is paid to the holder of the bond after delivery
+  private static boolean isCouponIncluded(
+      FixedCouponBondPaymentPeriod period,
+      LocalDate settlementDate,
+      LocalDate valuationDate) {
+
+    return period.getDetachmentDate().isAfter(settlementDate) && !period.getPaymentDate().isBefore(valuationDate);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The payment dates of one curve, with the discount factors once evaluated.
+   */
+  private static final class CurveDates {
+    private final DiscountFactors discountFactors;
+    private final TreeSet<LocalDate> collected = new TreeSet<>();
+    private LocalDate[] dates;
+    private double[] values;
+
+    private CurveDates(DiscountFactors discountFactors) {
+      this.discountFactors = discountFactors;
+    }
+
+    private void add(LocalDate date) {
+      collected.add(date);
+    }
+
+    private void evaluate(ToDoubleBiFunction<DiscountFactors, LocalDate> discounting) {
+      if (dates != null) {
+        return;  // shared by several bonds
+      }
+      dates = collected.toArray(new LocalDate[collected.size()]);
+      values = new double[dates.length];
+      for (int i = 0; i < dates.length; i++) {
+        values[i] = discounting.applyAsDouble(discountFactors, dates[i]);
+      }
+    }
+
+    private double discountFactor(LocalDate date) {
+      return values[Arrays.binarySearch(dates, date)];
+    }
+  }
+
+}
@@ -5,9 +5,8 @@
  */
 package com.opengamma.strata.pricer.bond;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.primitives.Doubles;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.CompoundedRateType;
@@ -91,16 +90,7 @@ public final class DiscountingBondFutureProductPricer {
    * @return the price of the product, in decimal form
    */
   public double price(ResolvedBondFuture future, LegalEntityDiscountingProvider discountingProvider) {
-    ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
-    int size = basket.size();
-    double[] priceBonds = new double[size];
-    for (int i = 0; i < size; ++i) {
-      ResolvedFixedCouponBond bond = basket.get(i);
-      double dirtyPrice = bondPricer.dirtyPriceFromCurves(bond, discountingProvider, future.getLastDeliveryDate());
-      priceBonds[i] = bondPricer.cleanPriceFromDirtyPrice(
-          bond, future.getLastDeliveryDate(), dirtyPrice) / future.getConversionFactors().get(i);
-    }
-    return Doubles.min(priceBonds);
+    return deliveryBasketPrices(future, discountingProvider).min();
   }
 
   /**
@@ -128,17 +118,59 @@ public final class DiscountingBondFutureProductPricer {
       CompoundedRateType compoundedRateType,
       int periodPerYear) {
 
-    ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
-    int size = basket.size();
-    double[] priceBonds = new double[size];
-    for (int i = 0; i < size; ++i) {
-      ResolvedFixedCouponBond bond = basket.get(i);
-      double dirtyPrice = bondPricer.dirtyPriceFromCurvesWithZSpread(
-          bond, discountingProvider, zSpread, compoundedRateType, periodPerYear, future.getLastDeliveryDate());
-      priceBonds[i] = bondPricer.cleanPriceFromDirtyPrice(
-          bond, future.getLastDeliveryDate(), dirtyPrice) / future.getConversionFactors().get(i);
-    }
-    return Doubles.min(priceBonds);
+    return deliveryBasketPricesWithZSpread(
+        future, discountingProvider, zSpread, compoundedRateType, periodPerYear).min();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the future price implied by each bond of the delivery basket.
+   * <p>
+   * This is the clean price of the bond at the last delivery date divided by its conversion factor.
+   * The price of the future is the minimum of these prices, the cheapest-to-deliver bond being the bond
+   * with the minimum price.
+   * <p>
+   * The payment dates of all of the bonds are collected for each curve, and the discount factors are computed
+   * once for each distinct date. This is more efficient than pricing each bond separately when the bonds
+   * share payment dates, as is usually the case.
+   * 
+   * @param future  the future
+   * @param discountingProvider  the discounting provider
+   * @return the prices, in decimal form, in the order of the delivery basket
+   */
+  public DoubleArray deliveryBasketPrices(
+      ResolvedBondFuture future,
+      LegalEntityDiscountingProvider discountingProvider) {
+
+    return new BondFutureDeliveryBasketPricer(future, bondPricer).prices(discountingProvider);
+  }
+
+  /**
+   * Calculates the future price implied by each bond of the delivery basket with z-spread.
+   * <p>
+   * This is the clean price of the bond at the last delivery date divided by its conversion factor.
+   * The price of the future is the minimum of these prices, the cheapest-to-deliver bond being the bond
+   * with the minimum price.
+   * <p>
+   * The z-spread is a parallel shift applied to continuously compounded rates or periodic compounded rates 
+   * of the issuer discounting curve.
+   * 
+   * @param future  the future
+   * @param discountingProvider  the discounting provider
+   * @param zSpread  the z-spread
+   * @param compoundedRateType  the compounded rate type
+   * @param periodPerYear  the number of periods per year
+   * @return the prices, in decimal form, in the order of the delivery basket
+   */
+  public DoubleArray deliveryBasketPricesWithZSpread(
+      ResolvedBondFuture future,
+      LegalEntityDiscountingProvider discountingProvider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodPerYear) {
+
+    return new BondFutureDeliveryBasketPricer(future, bondPricer)
+        .pricesWithZSpread(discountingProvider, zSpread, compoundedRateType, periodPerYear);
   }
 
   //-------------------------------------------------------------------------
@@ -154,22 +186,8 @@ public final class DiscountingBondFutureProductPricer {
    * @return the price curve sensitivity of the product
    */
   public PointSensitivities priceSensitivity(ResolvedBondFuture future, LegalEntityDiscountingProvider discountingProvider) {
-    ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
-    int size = basket.size();
-    double[] priceBonds = new double[size];
-    int indexCTD = 0;
-    double priceMin = 2d;
-    for (int i = 0; i < size; i++) {
-      ResolvedFixedCouponBond bond = basket.get(i);
-      double dirtyPrice = bondPricer.dirtyPriceFromCurves(bond, discountingProvider, future.getLastDeliveryDate());
-      priceBonds[i] = bondPricer.cleanPriceFromDirtyPrice(
-          bond, future.getLastDeliveryDate(), dirtyPrice) / future.getConversionFactors().get(i);
-      if (priceBonds[i] < priceMin) {
-        priceMin = priceBonds[i];
-        indexCTD = i;
-      }
-    }
-    ResolvedFixedCouponBond bond = basket.get(indexCTD);
+    int indexCTD = indexOfMinimum(deliveryBasketPrices(future, discountingProvider));
+    ResolvedFixedCouponBond bond = future.getDeliveryBasket().get(indexCTD);
     PointSensitivityBuilder pointSensi = bondPricer.dirtyPriceSensitivity(
         bond, discountingProvider, future.getLastDeliveryDate());
     return pointSensi.multipliedBy(1d / future.getConversionFactors().get(indexCTD)).build();
@@ -199,26 +217,23 @@ public final class DiscountingBondFutureProductPricer {
       CompoundedRateType compoundedRateType,
       int periodPerYear) {
 
-    ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
-    int size = basket.size();
-    double[] priceBonds = new double[size];
-    int indexCTD = 0;
-    double priceMin = 2d;
-    for (int i = 0; i < size; i++) {
-      ResolvedFixedCouponBond bond = basket.get(i);
-      double dirtyPrice = bondPricer.dirtyPriceFromCurvesWithZSpread(
-          bond, discountingProvider, zSpread, compoundedRateType, periodPerYear, future.getLastDeliveryDate());
-      priceBonds[i] = bondPricer.cleanPriceFromDirtyPrice(
-          bond, future.getLastDeliveryDate(), dirtyPrice) / future.getConversionFactors().get(i);
-      if (priceBonds[i] < priceMin) {
-        priceMin = priceBonds[i];
-        indexCTD = i;
-      }
-    }
-    ResolvedFixedCouponBond bond = basket.get(indexCTD);
+    int indexCTD = indexOfMinimum(
+        deliveryBasketPricesWithZSpread(future, discountingProvider, zSpread, compoundedRateType, periodPerYear));
+    ResolvedFixedCouponBond bond = future.getDeliveryBasket().get(indexCTD);
     PointSensitivityBuilder pointSensi = bondPricer.dirtyPriceSensitivityWithZspread(
         bond, discountingProvider, zSpread, compoundedRateType, periodPerYear, future.getLastDeliveryDate());
     return pointSensi.multipliedBy(1d / future.getConversionFactors().get(indexCTD)).build();
   }
 
+  // the index of the cheapest-to-deliver bond, the first one in case of equality
+  private static int indexOfMinimum(DoubleArray prices) {
+    int index = 0;
+    for (int i = 1; i < prices.size(); i++) {
+      if (prices.get(i) < prices.get(index)) {
+        index = i;
+      }
+    }
+    return index;
+  }
+
 }
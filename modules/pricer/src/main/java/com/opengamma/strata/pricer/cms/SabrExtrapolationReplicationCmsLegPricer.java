@@ -5,7 +5,7 @@
  */
 package com.opengamma.strata.pricer.cms;
 
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.collect.ArgChecker;
@@ -24,13 +24,26 @@ import com.opengamma.strata.product.cms.ResolvedCmsLeg;
  * <p>
  * This function provides the ability to price {@link ResolvedCmsLeg}. 
  * One must apply {@code resolved()} in order to price {@link CmsLeg}. 
+ * <p>
+ * The periods of the leg can optionally be priced in parallel, if the leg has enough periods.
+ * The results of the periods are combined in the order of the periods, thus the result only differs
+ * by rounding whether the periods are priced in parallel or not.
  */
 public class SabrExtrapolationReplicationCmsLegPricer {
 
+  /**
+   * The minimum number of periods for which the periods are priced in parallel.
+   */
+  private static final int PARALLEL_MINIMUM_PERIODS = 16;
+
   /**
    * The pricer for {@link CmsPeriod}.
    */
   private final SabrExtrapolationReplicationCmsPeriodPricer cmsPeriodPricer;
+  /**
+   * The minimum number of periods for which the periods are priced in parallel, zero if never.
+   */
+  private final int parallelMinimumPeriods;
 
   /**
    * Creates an instance.
@@ -38,7 +51,29 @@ public class SabrExtrapolationReplicationCmsLegPricer {
    * @param cmsPeriodPricer  the pricer for {@link CmsPeriod}
    */
   public SabrExtrapolationReplicationCmsLegPricer(SabrExtrapolationReplicationCmsPeriodPricer cmsPeriodPricer) {
+    this(cmsPeriodPricer, false);
+  }
+
+  /**
+   * Creates an instance, specifying whether the periods are priced in parallel.
+   * 
+   * @param cmsPeriodPricer  the pricer for {@link CmsPeriod}
+   * @param parallel  whether the periods are priced in parallel
+   */
+  public SabrExtrapolationReplicationCmsLegPricer(
+      SabrExtrapolationReplicationCmsPeriodPricer cmsPeriodPricer,
+      boolean parallel) {
+
+    this(cmsPeriodPricer, parallel ? PARALLEL_MINIMUM_PERIODS : 0);
+  }
+
+  // creates an instance, specifying the minimum number of periods for which the periods are priced in parallel
+  SabrExtrapolationReplicationCmsLegPricer(
+      SabrExtrapolationReplicationCmsPeriodPricer cmsPeriodPricer,
+      int parallelMinimumPeriods) {
+
     this.cmsPeriodPricer = ArgChecker.notNull(cmsPeriodPricer, "cmsPeriodPricer");
+    this.parallelMinimumPeriods = ArgChecker.notNegative(parallelMinimumPeriods, "parallelMinimumPeriods");
   }
 
   //-------------------------------------------------------------------------
@@ -59,7 +94,7 @@ public class SabrExtrapolationReplicationCmsLegPricer {
       SabrSwaptionVolatilities swaptionVolatilities) {
 
     validate(ratesProvider, swaptionVolatilities);
-    return cmsLeg.getCmsPeriods().stream()
+    return periods(cmsLeg)
         .map(cmsPeriod -> cmsPeriodPricer.presentValue(cmsPeriod, ratesProvider, swaptionVolatilities))
         .reduce((c1, c2) -> c1.plus(c2))
         .get();
@@ -114,7 +149,7 @@ public class SabrExtrapolationReplicationCmsLegPricer {
       SabrSwaptionVolatilities swaptionVolatilities) {
 
     validate(ratesProvider, swaptionVolatilities);
-    return cmsLeg.getCmsPeriods().stream()
+    return periods(cmsLeg)
         .map(cmsPeriod -> cmsPeriodPricer.presentValueSensitivityRates(cmsPeriod, ratesProvider, swaptionVolatilities))
         .reduce((p1, p2) -> p1.combinedWith(p2))
         .get();
@@ -138,8 +173,9 @@ public class SabrExtrapolationReplicationCmsLegPricer {
       SabrSwaptionVolatilities swaptionVolatilities) {
 
     validate(ratesProvider, swaptionVolatilities);
-    return cmsLeg.getCmsPeriods().stream()
-        .map(cmsPeriod -> cmsPeriodPricer.presentValueSensitivityModelParamsSabr(cmsPeriod, ratesProvider, swaptionVolatilities))
+    return periods(cmsLeg)
+        .map(cmsPeriod -> cmsPeriodPricer.presentValueSensitivityModelParamsSabr(
+            cmsPeriod, ratesProvider, swaptionVolatilities))
         .reduce(PointSensitivityBuilder.none(), PointSensitivityBuilder::combinedWith)
         .normalize();
   }
@@ -162,9 +198,10 @@ public class SabrExtrapolationReplicationCmsLegPricer {
       SabrSwaptionVolatilities swaptionVolatilities) {
 
     validate(ratesProvider, swaptionVolatilities);
-    return cmsLeg.getCmsPeriods().stream()
-        .map(cmsPeriod -> cmsPeriodPricer.presentValueSensitivityStrike(cmsPeriod, ratesProvider, swaptionVolatilities))
-        .collect(Collectors.summingDouble(Double::doubleValue));
+    return periods(cmsLeg)
+        .mapToDouble(cmsPeriod -> cmsPeriodPricer.presentValueSensitivityStrike(
+            cmsPeriod, ratesProvider, swaptionVolatilities))
+        .sum();
   }
 
   //-------------------------------------------------------------------------
@@ -190,6 +227,15 @@ public class SabrExtrapolationReplicationCmsLegPricer {
   }
 
   //-------------------------------------------------------------------------
+  // the periods of the leg, parallel if enabled and the leg has enough periods
+  private Stream<CmsPeriod> periods(ResolvedCmsLeg cmsLeg) {
+    int size = cmsLeg.getCmsPeriods().size();
+    if (parallelMinimumPeriods > 0 && size >= parallelMinimumPeriods) {
+      return cmsLeg.getCmsPeriods().parallelStream();
+    }
+    return cmsLeg.getCmsPeriods().stream();
+  }
+
   private void validate(RatesProvider ratesProvider, SabrSwaptionVolatilities swaptionVolatilities) {
     ArgChecker.isTrue(swaptionVolatilities.getValuationDate().equals(ratesProvider.getValuationDate()),
         "volatility and rate data must be for the same date");
@@ -27,6 +27,8 @@ import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.math.MathException;
+import com.opengamma.strata.math.impl.integration.GaussLegendreWeightAndAbscissaFunction;
+import com.opengamma.strata.math.impl.integration.GaussianQuadratureData;
 import com.opengamma.strata.math.impl.integration.RungeKuttaIntegrator1D;
 import com.opengamma.strata.pricer.impl.option.SabrExtrapolationRightFunction;
 import com.opengamma.strata.pricer.impl.volatility.smile.SabrFormulaData;
@@ -52,6 +54,11 @@ import com.opengamma.strata.product.swap.SwapLegType;
  *  <p>
  *  The replication requires numerical integration. This is completed by {@link RungeKuttaIntegrator1D}.
  *  <p>
+ *  Alternatively, the pricer can be created using {@link #ofGaussLegendre(DiscountingSwapProductPricer, double, double)}.
+ *  In that case the integration uses Gauss-Legendre quadrature on a fixed set of nodes, shared by all periods,
+ *  with the interval being bisected only where the required accuracy is not reached.
+ *  This is intended for large books of CMS, where many periods have the same expiry and tenor.
+ *  <p>
  *  The consistency between {@code RatesProvider} and {@code SabrParametersSwaptionVolatilities} is not checked in this 
  *  class, but validated only once in {@link SabrExtrapolationReplicationCmsLegPricer}.
  *  <p>
@@ -99,6 +106,22 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
    * For expiry below that value, the forward rate is used for present value.
    */
   private static final double MIN_TIME = 1e-4;
+  /**
+   * The nodes and weights of the Gauss-Legendre quadrature on [-1, 1].
+   */
+  private static final GaussianQuadratureData QUADRATURE = new GaussLegendreWeightAndAbscissaFunction().generate(12);
+  /**
+   * The nodes and weights of the lower order Gauss-Legendre quadrature on [-1, 1], used to estimate the error.
+   */
+  private static final GaussianQuadratureData QUADRATURE_LOW = new GaussLegendreWeightAndAbscissaFunction().generate(6);
+  /**
+   * The absolute tolerance for the Gauss-Legendre quadrature.
+   */
+  private static final double ABS_TOL_QUADRATURE = 1e-9;
+  /**
+   * The maximum number of times an interval is bisected by the Gauss-Legendre quadrature.
+   */
+  private static final int MAX_BISECTION = 8;
 
   /**
    * Pricer for the underlying swap.
@@ -116,6 +139,10 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
    * This must be greater than 0 in order to ensure that the call price converges to 0 for infinite strike.
    */
   private final double mu;
+  /**
+   * Whether the Gauss-Legendre quadrature is used.
+   */
+  private final boolean gaussLegendre;
 
   //-------------------------------------------------------------------------
   /**
@@ -131,7 +158,7 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
       double cutOffStrike,
       double mu) {
 
-    return new SabrExtrapolationReplicationCmsPeriodPricer(swapPricer, cutOffStrike, mu);
+    return new SabrExtrapolationReplicationCmsPeriodPricer(swapPricer, cutOffStrike, mu, false);
   }
 
   /**
@@ -145,14 +172,46 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     return of(DiscountingSwapProductPricer.DEFAULT, cutOffStrike, mu);
   }
 
-  private SabrExtrapolationReplicationCmsPeriodPricer(
+  /**
+   * Obtains the pricer using Gauss-Legendre quadrature.
+   * <p>
+   * The integration uses Gauss-Legendre quadrature on fixed nodes, with adaptive bisection
+   * of the interval only where required.
+   * 
+   * @param swapPricer  the pricer for underlying swap
+   * @param cutOffStrike  the cut-off strike value
+   * @param mu  the tail thickness
+   * @return the pricer
+   */
+  public static SabrExtrapolationReplicationCmsPeriodPricer ofGaussLegendre(
       DiscountingSwapProductPricer swapPricer,
       double cutOffStrike,
       double mu) {
 
+    return new SabrExtrapolationReplicationCmsPeriodPricer(swapPricer, cutOffStrike, mu, true);
+  }
+
+  /**
+   * Obtains the pricer using Gauss-Legendre quadrature, with default swap pricer.
+   * 
+   * @param cutOffStrike  the cut-off strike value
+   * @param mu  the tail thickness
+   * @return the pricer
+   */
+  public static SabrExtrapolationReplicationCmsPeriodPricer ofGaussLegendre(double cutOffStrike, double mu) {
+    return ofGaussLegendre(DiscountingSwapProductPricer.DEFAULT, cutOffStrike, mu);
+  }
+
+  private SabrExtrapolationReplicationCmsPeriodPricer(
+      DiscountingSwapProductPricer swapPricer,
+      double cutOffStrike,
+      double mu,
+      boolean gaussLegendre) {
+
     this.swapPricer = ArgChecker.notNull(swapPricer, "swapPricer");
     this.cutOffStrike = cutOffStrike;
     this.mu = ArgChecker.notNegativeOrZero(mu, "mu");
+    this.gaussLegendre = gaussLegendre;
   }
 
   //-------------------------------------------------------------------------
@@ -200,19 +259,18 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     }
     double eta = index.getTemplate().getConvention().getFixedLeg().getDayCount()
         .relativeYearFraction(cmsPeriod.getPaymentDate(), swap.getStartDate());
-    CmsIntegrantProvider intProv = new CmsIntegrantProvider(
-        cmsPeriod, swap, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor, cutOffStrike, eta);
+    SabrExtrapolationRightFunction smile = createSmile(swaptionVolatilities, expiryTime, tenor, forward);
+    CmsIntegrantProvider intProv = new CmsIntegrantProvider(cmsPeriod, swap, smile, forward, strikeCpn, shift, eta);
     double factor = dfPayment / intProv.h(forward) * intProv.g(forward);
     double strikePart = factor * intProv.k(strikeCpn) * intProv.bs(strikeCpn);
-    RungeKuttaIntegrator1D integrator = new RungeKuttaIntegrator1D(ABS_TOL, REL_TOL, NUM_ITER);
     double integralPart = 0d;
     Function<Double, Double> integrant = intProv.integrant();
     try {
       if (intProv.getPutCall().isCall()) {
         integralPart = dfPayment *
-            integrateCall(integrator, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
+            integrateCall(REL_TOL, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
       } else {
-        integralPart = -dfPayment * integrator.integrate(integrant, -shift + ZERO_SHIFT, strikeCpn);
+        integralPart = -dfPayment * integrate(REL_TOL, integrant, -shift + ZERO_SHIFT, strikeCpn);
       }
     } catch (Exception e) {
       throw new MathException(e);
@@ -322,9 +380,9 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     double forward = swapPricer.parRate(swap, provider);
     double eta = index.getTemplate().getConvention().getFixedLeg().getDayCount()
         .relativeYearFraction(cmsPeriod.getPaymentDate(), swap.getStartDate());
-    CmsDeltaIntegrantProvider intProv = new CmsDeltaIntegrantProvider(
-        cmsPeriod, swap, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor, cutOffStrike, eta);
-    RungeKuttaIntegrator1D integrator = new RungeKuttaIntegrator1D(ABS_TOL, REL_TOL, NUM_ITER);
+    SabrExtrapolationRightFunction smile = createSmile(swaptionVolatilities, expiryTime, tenor, forward);
+    CmsDeltaIntegrantProvider intProv =
+        new CmsDeltaIntegrantProvider(cmsPeriod, swap, smile, forward, strikeCpn, shift, eta);
     double[] bs = intProv.bsbsp(strikeCpn);
     double[] n = intProv.getNnp();
     double strikePartPrice = intProv.k(strikeCpn) * n[0] * bs[0];
@@ -335,12 +393,12 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     try {
       if (intProv.getPutCall().isCall()) {
         integralPartPrice =
-            integrateCall(integrator, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
+            integrateCall(REL_TOL, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
         integralPart = dfPayment *
-            integrateCall(integrator, integrantDelta, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
+            integrateCall(REL_TOL, integrantDelta, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
       } else {
-        integralPartPrice = -integrator.integrate(integrant, -shift + ZERO_SHIFT, strikeCpn);
-        integralPart = -dfPayment * integrator.integrate(integrantDelta, -shift, strikeCpn);
+        integralPartPrice = -integrate(REL_TOL, integrant, -shift + ZERO_SHIFT, strikeCpn);
+        integralPart = -dfPayment * integrate(REL_TOL, integrantDelta, -shift, strikeCpn);
       }
     } catch (Exception e) {
       throw new MathException(e);
@@ -397,14 +455,13 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     double forward = swapPricer.parRate(swap, provider);
     double eta = index.getTemplate().getConvention().getFixedLeg().getDayCount()
         .relativeYearFraction(cmsPeriod.getPaymentDate(), swap.getStartDate());
-    CmsIntegrantProvider intProv = new CmsIntegrantProvider(
-        cmsPeriod, swap, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor, cutOffStrike, eta);
+    SabrExtrapolationRightFunction smile = createSmile(swaptionVolatilities, expiryTime, tenor, forward);
+    CmsIntegrantProvider intProv = new CmsIntegrantProvider(cmsPeriod, swap, smile, forward, strikeCpn, shift, eta);
     double factor = dfPayment / intProv.h(forward) * intProv.g(forward);
     double factor2 = factor * intProv.k(strikeCpn);
     double[] strikePartPrice = intProv.getSabrExtrapolation()
         .priceAdjointSabr(Math.max(0d, strikeCpn + shift), intProv.getPutCall()) // handle tiny but negative number
         .getDerivatives().multipliedBy(factor2).toArray();
-    RungeKuttaIntegrator1D integrator = new RungeKuttaIntegrator1D(ABS_TOL, REL_TOL_VEGA, NUM_ITER);
     double[] totalSensi = new double[4];
     for (int loopparameter = 0; loopparameter < 4; loopparameter++) {
       double integralPart = 0d;
@@ -412,9 +469,9 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
       try {
         if (intProv.getPutCall().isCall()) {
           integralPart = dfPayment *
-              integrateCall(integrator, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
+              integrateCall(REL_TOL_VEGA, integrant, swaptionVolatilities, forward, strikeCpn, expiryTime, tenor);
         } else {
-          integralPart = -dfPayment * integrator.integrate(integrant, -shift + ZERO_SHIFT, strikeCpn);
+          integralPart = -dfPayment * integrate(REL_TOL_VEGA, integrant, -shift + ZERO_SHIFT, strikeCpn);
         }
       } catch (Exception e) {
         throw new RuntimeException(e);
@@ -483,20 +540,19 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     double forward = swapPricer.parRate(swap, provider);
     double eta = index.getTemplate().getConvention().getFixedLeg().getDayCount()
         .relativeYearFraction(cmsPeriod.getPaymentDate(), swap.getStartDate());
-    CmsIntegrantProvider intProv = new CmsIntegrantProvider(
-        cmsPeriod, swap, swaptionVolatilities, forward, strike, expiryTime, tenor, cutOffStrike, eta);
+    SabrExtrapolationRightFunction smile = createSmile(swaptionVolatilities, expiryTime, tenor, forward);
+    CmsIntegrantProvider intProv = new CmsIntegrantProvider(cmsPeriod, swap, smile, forward, strike, shift, eta);
     double factor = dfPayment * intProv.g(forward) / intProv.h(forward);
-    RungeKuttaIntegrator1D integrator = new RungeKuttaIntegrator1D(ABS_TOL, REL_TOL_STRIKE, NUM_ITER);
     double[] kpkpp = intProv.kpkpp(strike);
     double firstPart;
     double thirdPart;
     Function<Double, Double> integrant = intProv.integrantDualDelta();
     if (intProv.getPutCall().isCall()) {
       firstPart = -kpkpp[0] * intProv.bs(strike);
-      thirdPart = integrateCall(integrator, integrant, swaptionVolatilities, forward, strike, expiryTime, tenor);
+      thirdPart = integrateCall(REL_TOL_STRIKE, integrant, swaptionVolatilities, forward, strike, expiryTime, tenor);
     } else {
       firstPart = -kpkpp[0] * intProv.bs(strike);
-      thirdPart = -integrator.integrate(integrant, -shift + ZERO_SHIFT, strike);
+      thirdPart = -integrate(REL_TOL_STRIKE, integrant, -shift + ZERO_SHIFT, strike);
     }
     double secondPart =
         intProv.k(strike) * intProv.getSabrExtrapolation().priceDerivativeStrike(strike + shift, intProv.getPutCall());
@@ -522,7 +578,7 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
   }
 
   private double integrateCall(
-      RungeKuttaIntegrator1D integrator,
+      double relTol,
       Function<Double, Double> integrant,
       SabrSwaptionVolatilities swaptionVolatilities,
       double forward,
@@ -536,24 +592,85 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
         forward * Math.exp(6d * vol * Math.sqrt(expiryTime)),
         Math.max(cutOffStrike, 2d * strike));  // To ensure that the integral covers a good part of the smile
     double upper = Math.min(upper0, 1d); // To ensure that we don't miss the meaningful part
-    res = integrator.integrate(integrant, strike, upper);
+    res = integrate(relTol, integrant, strike, upper);
     double reminder = integrant.apply(upper) * upper;
     double error = reminder / res;
     int count = 0;
-    while (Math.abs(error) > integrator.getRelativeTolerance() && count < MAX_COUNT) {
-      res += integrator.integrate(integrant, upper, 2d * upper);
+    while (Math.abs(error) > relTol && count < MAX_COUNT) {
+      res += integrate(relTol, integrant, upper, 2d * upper);
       upper *= 2d;
       reminder = integrant.apply(upper) * upper;
       error = reminder / res;
       ++count;
       if (count == MAX_COUNT) {
         log.info("Maximum iteration count, " + MAX_COUNT + ", has been reached. Relative error is greater than " +
-            integrator.getRelativeTolerance());
+            relTol);
       }
     }
     return res;
   }
 
+  // integrates between the bounds, using Runge-Kutta or Gauss-Legendre quadrature
+  private double integrate(double relTol, Function<Double, Double> integrant, double lower, double upper) {
+    if (!gaussLegendre) {
+      return new RungeKuttaIntegrator1D(ABS_TOL, relTol, NUM_ITER).integrate(integrant, lower, upper);
+    }
+    return integrateGaussLegendre(integrant, lower, upper, MAX_BISECTION);
+  }
+
+  // the error of the quadrature is estimated by the difference with the lower order quadrature
+  // the interval is bisected only if the error is above the tolerance
+  // the tolerance of the present value is used for all integrals, as the integrand of the sensitivities may change sign
+  private double integrateGaussLegendre(
+      Function<Double, Double> integrant,
+      double lower,
+      double upper,
+      int depth) {
+
+    double result = integrateGaussLegendre(QUADRATURE, integrant, lower, upper);
+    double resultLow = integrateGaussLegendre(QUADRATURE_LOW, integrant, lower, upper);
+    if (depth == 0 || Math.abs(result - resultLow) <= ABS_TOL_QUADRATURE + REL_TOL * Math.abs(result)) {
+      return result;
+    }
+    double middle = 0.5 * (lower + upper);
+    return integrateGaussLegendre(integrant, lower, middle, depth - 1) +
+        integrateGaussLegendre(integrant, middle, upper, depth - 1);
+  }
+
+  // Gauss-Legendre quadrature on the interval using the shared nodes
+  private static double integrateGaussLegendre(
+      GaussianQuadratureData quadrature,
+      Function<Double, Double> integrant,
+      double lower,
+      double upper) {
+
+    double[] nodes = quadrature.getAbscissas();
+    double[] weights = quadrature.getWeights();
+    double halfWidth = 0.5 * (upper - lower);
+    double center = 0.5 * (upper + lower);
+    double sum = 0d;
+    for (int i = 0; i < nodes.length; i++) {
+      sum += weights[i] * integrant.apply(halfWidth * nodes[i] + center);
+    }
+    return halfWidth * sum;
+  }
+
+  // creates the SABR smile with extrapolation
+  private SabrExtrapolationRightFunction createSmile(
+      SabrSwaptionVolatilities swaptionVolatilities,
+      double expiryTime,
+      double tenor,
+      double forward) {
+
+    SabrFormulaData sabrPoint = SabrFormulaData.of(
+        swaptionVolatilities.alpha(expiryTime, tenor),
+        swaptionVolatilities.beta(expiryTime, tenor),
+        swaptionVolatilities.rho(expiryTime, tenor),
+        swaptionVolatilities.nu(expiryTime, tenor));
+    double shift = swaptionVolatilities.shift(expiryTime, tenor);
+    return SabrExtrapolationRightFunction.of(forward + shift, expiryTime, sabrPoint, cutOffStrike + shift, mu);
+  }
+
   //explain PV for an Cms period
   public void explainPresentValue(
       CmsPeriod period,
@@ -653,12 +770,10 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     public CmsIntegrantProvider(
         CmsPeriod cmsPeriod,
         ResolvedSwap swap,
-        SabrSwaptionVolatilities swaptionVolatilities,
+        SabrExtrapolationRightFunction sabrExtrapolation,
         double forward,
         double strike,
-        double timeToExpiry,
-        double tenor,
-        double cutOffStrike,
+        double shift,
         double eta) {
 
       ResolvedSwapLeg fixedLeg = swap.getLegs(SwapLegType.FIXED).get(0);
@@ -667,14 +782,8 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
           ((RatePaymentPeriod) fixedLeg.getPaymentPeriods().get(0)).getAccrualPeriods().get(0).getYearFraction());
       this.tau = 1d / nbFixedPaymentYear;
       this.eta = eta;
-      SabrFormulaData sabrPoint = SabrFormulaData.of(
-          swaptionVolatilities.alpha(timeToExpiry, tenor),
-          swaptionVolatilities.beta(timeToExpiry, tenor),
-          swaptionVolatilities.rho(timeToExpiry, tenor),
-          swaptionVolatilities.nu(timeToExpiry, tenor));
-      this.shift = swaptionVolatilities.shift(timeToExpiry, tenor);
-      this.sabrExtrapolation = SabrExtrapolationRightFunction
-          .of(forward + shift, timeToExpiry, sabrPoint, cutOffStrike + shift, mu);
+      this.shift = shift;
+      this.sabrExtrapolation = sabrExtrapolation;
       this.putCall = cmsPeriod.getCmsPeriodType().equals(CmsPeriodType.FLOORLET) ? PutCall.PUT : PutCall.CALL;
       this.strike = strike;
       this.factor = g(forward) / h(forward);
@@ -842,14 +951,12 @@ public final class SabrExtrapolationReplicationCmsPeriodPricer {
     public CmsDeltaIntegrantProvider(
         CmsPeriod cmsPeriod,
         ResolvedSwap swap,
-        SabrSwaptionVolatilities swaptionVolatilities,
+        SabrExtrapolationRightFunction sabrExtrapolation,
         double forward,
         double strike,
-        double timeToExpiry,
-        double tenor,
-        double cutOffStrike,
+        double shift,
         double eta) {
-      super(cmsPeriod, swap, swaptionVolatilities, forward, strike, timeToExpiry, tenor, cutOffStrike, eta);
+      super(cmsPeriod, swap, sabrExtrapolation, forward, strike, shift, eta);
       this.nnp = nnp(forward);
     }
 
@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.index.Index;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
@@ -29,6 +30,7 @@ import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
 import com.opengamma.strata.market.observable.IndexQuoteId;
+import com.opengamma.strata.math.impl.linearalgebra.Decomposition;
 import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
 import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
 import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
@@ -54,6 +56,10 @@ import com.opengamma.strata.product.ResolvedTrade;
  */
 public final class CurveCalibrator {
 
+  /**
+   * The standard decomposition, used to solve the Newton steps.
+   */
+  private static final Decomposition<?> STANDARD_DECOMPOSITION = DecompositionFactory.SV_COMMONS;
   /**
    * The standard curve calibrator.
    */
@@ -78,6 +84,10 @@ public final class CurveCalibrator {
    * This is used to compute the present value sensitivity to market quotes stored in the metadata.
    */
   private final CalibrationMeasures pvMeasures;
+  /**
+   * The decomposition used to solve the Newton steps and invert the calibration Jacobian.
+   */
+  private final Decomposition<?> decomposition;
 
   //-------------------------------------------------------------------------
   /**
@@ -125,7 +135,7 @@ public final class CurveCalibrator {
       int stepMaximum,
       CalibrationMeasures measures) {
 
-    return new CurveCalibrator(toleranceAbs, toleranceRel, stepMaximum, measures, CalibrationMeasures.PRESENT_VALUE);
+    return of(toleranceAbs, toleranceRel, stepMaximum, measures, CalibrationMeasures.PRESENT_VALUE);
   }
 
   /**
@@ -146,7 +156,35 @@ public final class CurveCalibrator {
       CalibrationMeasures measures,
       CalibrationMeasures pvMeasures) {
 
-    return new CurveCalibrator(toleranceAbs, toleranceRel, stepMaximum, measures, pvMeasures);
+    return new CurveCalibrator(toleranceAbs, toleranceRel, stepMaximum, measures, pvMeasures, STANDARD_DECOMPOSITION);
+  }
+
+  /**
+   * Obtains an instance specifying tolerances, measures and the decomposition to use.
+   * <p>
+   * The decomposition is used to solve the Newton steps of the root finder and to invert the calibration Jacobian.
+   * The standard decomposition is {@link DecompositionFactory#SV_COMMONS}.
+   * Using {@link DecompositionFactory#BLOCK_TRIANGULAR} exploits the near lower-triangular structure
+   * of calibration, falling back to SVD if the system is ill-conditioned.
+   *
+   * @param toleranceAbs  the absolute tolerance
+   * @param toleranceRel  the relative tolerance
+   * @param stepMaximum  the maximum steps
+   * @param measures  the calibration measures, used to compute the function for which the root is found
+   * @param pvMeasures  the present value measures, used to compute the present value sensitivity to market quotes
+   * stored in the metadata.
+   * @param decomposition  the decomposition used to solve the Newton steps and invert the calibration Jacobian
+   * @return the curve calibrator
+   */
+  public static CurveCalibrator of(
+      double toleranceAbs,
+      double toleranceRel,
+      int stepMaximum,
+      CalibrationMeasures measures,
+      CalibrationMeasures pvMeasures,
+      Decomposition<?> decomposition) {
+
+    return new CurveCalibrator(toleranceAbs, toleranceRel, stepMaximum, measures, pvMeasures, decomposition);
   }
 
   //-------------------------------------------------------------------------
@@ -156,15 +194,17 @@ public final class CurveCalibrator {
       double toleranceRel,
       int stepMaximum,
       CalibrationMeasures measures,
-      CalibrationMeasures pvMeasures) {
+      CalibrationMeasures pvMeasures,
+      Decomposition<?> decomposition) {
 
     this.rootFinder = new BroydenVectorRootFinder(
         toleranceAbs,
         toleranceRel,
         stepMaximum,
-        DecompositionFactory.getDecomposition(DecompositionFactory.SV_COMMONS_NAME));
+        ArgChecker.notNull(decomposition, "decomposition"));
     this.measures = measures;
     this.pvMeasures = pvMeasures;
+    this.decomposition = decomposition;
   }
 
   //-------------------------------------------------------------------------
@@ -380,7 +420,7 @@ public final class CurveCalibrator {
   }
 
   // jacobian direct, for the current group
-  private static DoubleMatrix jacobianDirect(
+  private DoubleMatrix jacobianDirect(
       DoubleMatrix res,
       int nbTrades,
       int totalParamsGroup,
@@ -390,7 +430,10 @@ public final class CurveCalibrator {
     for (int i = 0; i < nbTrades; i++) {
       System.arraycopy(res.rowArray(i), totalParamsPrevious, direct[i], 0, totalParamsGroup);
     }
-    return MATRIX_ALGEBRA.getInverse(DoubleMatrix.copyOf(direct));
+    if (decomposition == STANDARD_DECOMPOSITION) {
+      return MATRIX_ALGEBRA.getInverse(DoubleMatrix.copyOf(direct));
+    }
+    return decomposition.apply(DoubleMatrix.ofUnsafe(direct)).solve(DoubleMatrix.identity(totalParamsGroup));
   }
 
   // jacobian indirect, merging groups
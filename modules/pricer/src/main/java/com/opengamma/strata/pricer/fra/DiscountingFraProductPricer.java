@@ -9,20 +9,29 @@ import static java.time.temporal.ChronoUnit.DAYS;
 
 import java.time.LocalDate;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.index.IborIndexObservation;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.market.amount.CashFlow;
 import com.opengamma.strata.market.amount.CashFlows;
 import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMap;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.impl.rate.DispatchingRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardIborRateComputationFn;
+import com.opengamma.strata.pricer.rate.DiscountIborIndexRates;
+import com.opengamma.strata.pricer.rate.IborIndexRates;
 import com.opengamma.strata.pricer.rate.RateComputationFn;
 import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.sensitivity.DiscountFactorsTape;
 import com.opengamma.strata.product.fra.ResolvedFra;
+import com.opengamma.strata.product.rate.IborRateComputation;
 import com.opengamma.strata.product.rate.RateComputation;
 
 /**
@@ -95,6 +104,45 @@ public class DiscountingFraProductPricer {
     return iborSens.withCurrency(fra.getCurrency()).combinedWith(discSens).build();
   }
 
+  /**
+   * Calculates the present value sensitivity of the FRA product to the curve parameters.
+   * <p>
+   * This is equal to the parameter sensitivity of {@link #presentValueSensitivity(ResolvedFra, RatesProvider)}.
+   * If the floating rate is a forward Ibor rate from a curve based on discount factors, it is computed
+   * in reverse mode using a {@link DiscountFactorsTape}. The present value is computed from the discount factors
+   * of the tape, then its derivative is propagated back to each discount factor and converted directly to the
+   * curve parameters. Otherwise, the point sensitivities are converted.
+   * 
+   * @param fra  the product
+   * @param provider  the rates provider
+   * @return the present value sensitivity to the curve parameters
+   */
+  public CurrencyParameterSensitivities presentValueParameterSensitivity(ResolvedFra fra, RatesProvider provider) {
+    DiscountFactors indexDiscountFactors = forwardDiscountFactors(fra, provider);
+    if (indexDiscountFactors == null) {
+      return provider.parameterSensitivity(presentValueSensitivity(fra, provider));
+    }
+    DiscountFactors discountFactors = provider.discountFactors(fra.getCurrency());
+    IborIndexObservation observation = ((IborRateComputation) fra.getFloatingRate()).getObservation();
+    DiscountFactorsTape.Builder tapeBuilder = DiscountFactorsTape.builder(2);
+    int paymentSlot = tapeBuilder.slot(0, discountFactors.relativeYearFraction(fra.getPaymentDate()));
+    int startSlot = tapeBuilder.slot(1, indexDiscountFactors.relativeYearFraction(observation.getEffectiveDate()));
+    int endSlot = tapeBuilder.slot(1, indexDiscountFactors.relativeYearFraction(observation.getMaturityDate()));
+    DiscountFactorsTape.Evaluation evaluation =
+        tapeBuilder.build().evaluate(ImmutableList.of(discountFactors, indexDiscountFactors));
+    double accrualFactor = observation.getYearFraction();
+    double dfStart = evaluation.discountFactor(startSlot);
+    double dfEnd = evaluation.discountFactor(endSlot);
+    double forwardRate = (dfStart / dfEnd - 1) / accrualFactor;
+    double notional = fra.getNotional();
+    // backward sweep
+    evaluation.addAdjoint(paymentSlot, unitAmount(fra, forwardRate) * notional);
+    double forwardRateBar = derivative(fra, forwardRate) * evaluation.discountFactor(paymentSlot) * notional;
+    evaluation.addAdjoint(startSlot, forwardRateBar / (accrualFactor * dfEnd));
+    evaluation.addAdjoint(endSlot, -forwardRateBar * dfStart / (accrualFactor * dfEnd * dfEnd));
+    return evaluation.parameterSensitivity();
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calculates the forecast value of the FRA product.
@@ -254,38 +302,40 @@ public class DiscountingFraProductPricer {
 
   // unit amount in various discounting methods
   private double unitAmount(ResolvedFra fra, RatesProvider provider) {
+    return unitAmount(fra, forwardRate(fra, provider));
+  }
+
+  // unit amount in various discounting methods, from the forward rate
+  private double unitAmount(ResolvedFra fra, double forwardRate) {
     switch (fra.getDiscounting()) {
       case NONE:
-        return unitAmountNone(fra, provider);
+        return unitAmountNone(fra, forwardRate);
       case ISDA:
-        return unitAmountIsda(fra, provider);
+        return unitAmountIsda(fra, forwardRate);
       case AFMA:
-        return unitAmountAfma(fra, provider);
+        return unitAmountAfma(fra, forwardRate);
       default:
         throw new IllegalArgumentException("Unknown FraDiscounting value: " + fra.getDiscounting());
     }
   }
 
   // NONE discounting method
-  private double unitAmountNone(ResolvedFra fra, RatesProvider provider) {
+  private double unitAmountNone(ResolvedFra fra, double forwardRate) {
     double fixedRate = fra.getFixedRate();
-    double forwardRate = forwardRate(fra, provider);
     double yearFraction = fra.getYearFraction();
     return (forwardRate - fixedRate) * yearFraction;
   }
 
   // ISDA discounting method
-  private double unitAmountIsda(ResolvedFra fra, RatesProvider provider) {
+  private double unitAmountIsda(ResolvedFra fra, double forwardRate) {
     double fixedRate = fra.getFixedRate();
-    double forwardRate = forwardRate(fra, provider);
     double yearFraction = fra.getYearFraction();
     return ((forwardRate - fixedRate) / (1.0 + forwardRate * yearFraction)) * yearFraction;
   }
 
   // AFMA discounting method
-  private double unitAmountAfma(ResolvedFra fra, RatesProvider provider) {
+  private double unitAmountAfma(ResolvedFra fra, double forwardRate) {
     double fixedRate = fra.getFixedRate();
-    double forwardRate = forwardRate(fra, provider);
     double yearFraction = fra.getYearFraction();
     return (1.0 / (1.0 + fixedRate * yearFraction)) - (1.0 / (1.0 + forwardRate * yearFraction));
   }
@@ -293,35 +343,38 @@ public class DiscountingFraProductPricer {
   //-------------------------------------------------------------------------
   // determine the derivative
   private double derivative(ResolvedFra fra, RatesProvider provider) {
+    return derivative(fra, forwardRate(fra, provider));
+  }
+
+  // determine the derivative, from the forward rate
+  private double derivative(ResolvedFra fra, double forwardRate) {
     switch (fra.getDiscounting()) {
       case NONE:
-        return derivativeNone(fra, provider);
+        return derivativeNone(fra);
       case ISDA:
-        return derivativeIsda(fra, provider);
+        return derivativeIsda(fra, forwardRate);
       case AFMA:
-        return derivativeAfma(fra, provider);
+        return derivativeAfma(fra, forwardRate);
       default:
         throw new IllegalArgumentException("Unknown FraDiscounting value: " + fra.getDiscounting());
     }
   }
 
   // NONE discounting method
-  private double derivativeNone(ResolvedFra fra, RatesProvider provider) {
+  private double derivativeNone(ResolvedFra fra) {
     return fra.getYearFraction();
   }
 
   // ISDA discounting method
-  private double derivativeIsda(ResolvedFra fra, RatesProvider provider) {
+  private double derivativeIsda(ResolvedFra fra, double forwardRate) {
     double fixedRate = fra.getFixedRate();
-    double forwardRate = forwardRate(fra, provider);
     double yearFraction = fra.getYearFraction();
     double dsc = 1.0 / (1.0 + forwardRate * yearFraction);
     return (1.0 + fixedRate * yearFraction) * yearFraction * dsc * dsc;
   }
 
   // AFMA discounting method
-  private double derivativeAfma(ResolvedFra fra, RatesProvider provider) {
-    double forwardRate = forwardRate(fra, provider);
+  private double derivativeAfma(ResolvedFra fra, double forwardRate) {
     double yearFraction = fra.getYearFraction();
     double dsc = 1.0 / (1.0 + forwardRate * yearFraction);
     return yearFraction * dsc * dsc;
@@ -333,6 +386,30 @@ public class DiscountingFraProductPricer {
     return rateComputationFn.rate(fra.getFloatingRate(), fra.getStartDate(), fra.getEndDate(), provider);
   }
 
+  // the discount factors of the forward rate, null if the rate is not a forward rate from discount factors
+  private DiscountFactors forwardDiscountFactors(ResolvedFra fra, RatesProvider provider) {
+    // subclasses of the functions may override the rate, thus the exact classes are required
+    if (!(fra.getFloatingRate() instanceof IborRateComputation) ||
+        rateComputationFn.getClass() != DispatchingRateComputationFn.class ||
+        fra.getPaymentDate().isBefore(provider.getValuationDate())) {
+      return null;
+    }
+    RateComputationFn<?> selected = ((DispatchingRateComputationFn) rateComputationFn).select(fra.getFloatingRate());
+    if (selected.getClass() != ForwardIborRateComputationFn.class) {
+      return null;
+    }
+    IborIndexObservation observation = ((IborRateComputation) fra.getFloatingRate()).getObservation();
+    IborIndexRates rates = provider.iborIndexRates(observation.getIndex());
+    LocalDate fixingDate = observation.getFixingDate();
+    if (!(rates instanceof DiscountIborIndexRates) ||
+        !observation.getIndex().getCurrency().equals(fra.getCurrency()) ||
+        fixingDate.isBefore(provider.getValuationDate()) ||
+        (fixingDate.equals(provider.getValuationDate()) && rates.getFixings().get(fixingDate).isPresent())) {
+      return null;
+    }
+    return ((DiscountIborIndexRates) rates).getDiscountFactors();
+  }
+
   // query the sensitivity
   private PointSensitivityBuilder forwardRateSensitivity(ResolvedFra fra, RatesProvider provider) {
     return rateComputationFn.rateSensitivity(fra.getFloatingRate(), fra.getStartDate(), fra.getEndDate(), provider);
@@ -5,11 +5,15 @@
  */
 package com.opengamma.strata.pricer.fxopt;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.math.DoubleMath;
 import com.opengamma.strata.basics.currency.Currency;
@@ -19,11 +23,13 @@ import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.impl.tree.ConstantContinuousSingleBarrierKnockoutFunction;
 import com.opengamma.strata.pricer.impl.tree.EuropeanVanillaOptionFunction;
+import com.opengamma.strata.pricer.impl.tree.OptionFunction;
 import com.opengamma.strata.pricer.impl.tree.TrinomialTree;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -358,8 +364,16 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
       BlackFxOptionVolatilities volatilities,
       RecombiningTrinomialTreeData treeData) {
 
-    ResolvedFxVanillaOption underlyingOption = option.getUnderlyingOption();
     ValueDerivatives priceDerivatives = priceDerivatives(option, ratesProvider, volatilities, treeData);
+    return currencyExposure(option.getUnderlyingOption(), ratesProvider, priceDerivatives);
+  }
+
+  // the currency exposure from the price and delta
+  private MultiCurrencyAmount currencyExposure(
+      ResolvedFxVanillaOption underlyingOption,
+      RatesProvider ratesProvider,
+      ValueDerivatives priceDerivatives) {
+
     double price = priceDerivatives.getValue();
     double delta = priceDerivatives.getDerivative(0);
     CurrencyPair currencyPair = underlyingOption.getUnderlying().getCurrencyPair();
@@ -370,6 +384,86 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
     return MultiCurrencyAmount.of(domestic, foreign);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the price of each of the FX barrier option products.
+   * <p>
+   * The price of each product is as defined by
+   * {@link #price(ResolvedFxSingleBarrierOption, RatesProvider, BlackFxOptionVolatilities)}.
+   * <p>
+   * The options are grouped by currency pair and expiry. The trinomial tree is calibrated once for each group,
+   * then all of the options in the group are priced in a single backward induction through the calibrated tree.
+   * 
+   * @param options  the option products
+   * @param ratesProvider  the rates provider
+   * @param volatilities  the Black volatility provider
+   * @return the price of each product, in the order of the options
+   */
+  public DoubleArray price(
+      List<ResolvedFxSingleBarrierOption> options,
+      RatesProvider ratesProvider,
+      BlackFxOptionVolatilities volatilities) {
+
+    List<ValueDerivatives> priceDerivatives = priceDerivatives(options, ratesProvider, volatilities);
+    return DoubleArray.of(options.size(), i -> priceDerivatives.get(i).getValue());
+  }
+
+  /**
+   * Calculates the present value of each of the FX barrier option products.
+   * <p>
+   * The present value of each product is as defined by
+   * {@link #presentValue(ResolvedFxSingleBarrierOption, RatesProvider, BlackFxOptionVolatilities)}.
+   * <p>
+   * The options are grouped by currency pair and expiry. The trinomial tree is calibrated once for each group,
+   * then all of the options in the group are priced in a single backward induction through the calibrated tree.
+   * 
+   * @param options  the option products
+   * @param ratesProvider  the rates provider
+   * @param volatilities  the Black volatility provider
+   * @return the present value of each product, in the order of the options
+   */
+  public List<CurrencyAmount> presentValue(
+      List<ResolvedFxSingleBarrierOption> options,
+      RatesProvider ratesProvider,
+      BlackFxOptionVolatilities volatilities) {
+
+    List<ValueDerivatives> priceDerivatives = priceDerivatives(options, ratesProvider, volatilities);
+    ImmutableList.Builder<CurrencyAmount> builder = ImmutableList.builder();
+    for (int i = 0; i < options.size(); ++i) {
+      ResolvedFxVanillaOption underlyingOption = options.get(i).getUnderlyingOption();
+      double price = priceDerivatives.get(i).getValue();
+      builder.add(CurrencyAmount.of(underlyingOption.getCounterCurrency(), signedNotional(underlyingOption) * price));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Calculates the currency exposure of each of the FX barrier option products.
+   * <p>
+   * The currency exposure of each product is as defined by
+   * {@link #currencyExposure(ResolvedFxSingleBarrierOption, RatesProvider, BlackFxOptionVolatilities)}.
+   * <p>
+   * The options are grouped by currency pair and expiry. The trinomial tree is calibrated once for each group,
+   * then all of the options in the group are priced in a single backward induction through the calibrated tree.
+   * 
+   * @param options  the option products
+   * @param ratesProvider  the rates provider
+   * @param volatilities  the Black volatility provider
+   * @return the currency exposure of each product, in the order of the options
+   */
+  public List<MultiCurrencyAmount> currencyExposure(
+      List<ResolvedFxSingleBarrierOption> options,
+      RatesProvider ratesProvider,
+      BlackFxOptionVolatilities volatilities) {
+
+    List<ValueDerivatives> priceDerivatives = priceDerivatives(options, ratesProvider, volatilities);
+    ImmutableList.Builder<MultiCurrencyAmount> builder = ImmutableList.builder();
+    for (int i = 0; i < options.size(); ++i) {
+      builder.add(currencyExposure(options.get(i).getUnderlyingOption(), ratesProvider, priceDerivatives.get(i)));
+    }
+    return builder.build();
+  }
+
   //-------------------------------------------------------------------------
   private ValueDerivatives priceDerivatives(
       ResolvedFxSingleBarrierOption option,
@@ -377,6 +471,55 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
       BlackFxOptionVolatilities volatilities,
       RecombiningTrinomialTreeData data) {
 
+    TreePayoff payoff = treePayoff(option, ratesProvider, volatilities, data);
+    return payoff.combine(TREE.optionPriceAdjoint(payoff.functions, data));
+  }
+
+  // prices options in groups sharing the currency pair and expiry, calibrating one tree for each group
+  // all of the options in a group are priced in a single backward induction through the tree
+  private List<ValueDerivatives> priceDerivatives(
+      List<ResolvedFxSingleBarrierOption> options,
+      RatesProvider ratesProvider,
+      BlackFxOptionVolatilities volatilities) {
+
+    ArgChecker.noNulls(options, "options");
+    Map<Pair<CurrencyPair, Double>, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < options.size(); ++i) {
+      ResolvedFxVanillaOption underlyingOption = options.get(i).getUnderlyingOption();
+      Pair<CurrencyPair, Double> key = Pair.of(
+          underlyingOption.getCurrencyPair(), volatilities.relativeTime(underlyingOption.getExpiry()));
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+    }
+    ValueDerivatives[] result = new ValueDerivatives[options.size()];
+    for (List<Integer> group : groups.values()) {
+      RecombiningTrinomialTreeData data = calibrator.calibrateTrinomialTree(
+          options.get(group.get(0)).getUnderlyingOption(), ratesProvider, volatilities);
+      List<TreePayoff> payoffs = new ArrayList<>(group.size());
+      List<OptionFunction> functions = new ArrayList<>();
+      for (int index : group) {
+        TreePayoff payoff = treePayoff(options.get(index), ratesProvider, volatilities, data);
+        payoffs.add(payoff);
+        functions.addAll(payoff.functions);
+      }
+      List<ValueDerivatives> treePrices = TREE.optionPriceAdjoint(functions, data);
+      int start = 0;
+      for (int j = 0; j < group.size(); ++j) {
+        TreePayoff payoff = payoffs.get(j);
+        int end = start + payoff.functions.size();
+        result[group.get(j)] = payoff.combine(treePrices.subList(start, end));
+        start = end;
+      }
+    }
+    return ImmutableList.copyOf(result);
+  }
+
+  // the option functions to be priced on the tree for the specified option
+  private TreePayoff treePayoff(
+      ResolvedFxSingleBarrierOption option,
+      RatesProvider ratesProvider,
+      BlackFxOptionVolatilities volatilities,
+      RecombiningTrinomialTreeData data) {
+
     validate(option, ratesProvider, volatilities);
     validateData(option, ratesProvider, volatilities, data);
     int nSteps = data.getNumberOfSteps();
@@ -423,15 +566,12 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
         barrier.getBarrierType(),
         barrier.getBarrierLevel(),
         DoubleArray.ofUnsafe(rebateArray));
-    ValueDerivatives barrierPrice = TREE.optionPriceAdjoint(barrierFunction, data);
     if (barrier.getKnockType().isKnockIn()) {  // use in-out parity
       EuropeanVanillaOptionFunction vanillaFunction = EuropeanVanillaOptionFunction.of(
           underlyingOption.getStrike(), timeToExpiry, underlyingOption.getPutCall(), nSteps);
-      ValueDerivatives vanillaPrice = TREE.optionPriceAdjoint(vanillaFunction, data);
-      return ValueDerivatives.of(vanillaPrice.getValue() + rebateAtExpiry - barrierPrice.getValue(),
-          DoubleArray.of(vanillaPrice.getDerivative(0) + rebateAtExpiryDerivative - barrierPrice.getDerivative(0)));
+      return new TreePayoff(ImmutableList.of(barrierFunction, vanillaFunction), rebateAtExpiry, rebateAtExpiryDerivative);
     }
-    return barrierPrice;
+    return new TreePayoff(ImmutableList.of(barrierFunction), 0d, 0d);
   }
 
   //-------------------------------------------------------------------------
@@ -466,4 +606,34 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
         Math.abs(option.getUnderlying().getBaseCurrencyPayment().getAmount());
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The option functions to be priced on the tree for a single barrier option.
+   * <p>
+   * This is either the knock-out function alone, or the knock-out function
+   * followed by the vanilla function for a knock-in option priced by in-out parity.
+   */
+  private static final class TreePayoff {
+    private final List<OptionFunction> functions;
+    private final double rebateAtExpiry;
+    private final double rebateAtExpiryDerivative;
+
+    private TreePayoff(List<OptionFunction> functions, double rebateAtExpiry, double rebateAtExpiryDerivative) {
+      this.functions = functions;
+      this.rebateAtExpiry = rebateAtExpiry;
+      this.rebateAtExpiryDerivative = rebateAtExpiryDerivative;
+    }
+
+    // combines the tree prices of the functions into the price of the barrier option
+    private ValueDerivatives combine(List<ValueDerivatives> treePrices) {
+      ValueDerivatives barrierPrice = treePrices.get(0);
+      if (functions.size() == 1) {
+        return barrierPrice;
+      }
+      ValueDerivatives vanillaPrice = treePrices.get(1);
+      return ValueDerivatives.of(vanillaPrice.getValue() + rebateAtExpiry - barrierPrice.getValue(),
+          DoubleArray.of(vanillaPrice.getDerivative(0) + rebateAtExpiryDerivative - barrierPrice.getDerivative(0)));
+    }
+  }
+
 }
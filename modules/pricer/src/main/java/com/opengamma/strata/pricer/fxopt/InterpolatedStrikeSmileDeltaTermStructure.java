@@ -112,6 +112,18 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
    * The parameter combiner.
    */
   private final transient ParameterizedDataCombiner paramCombiner;  // not a property
+  /**
+   * The time interpolators, bound to the volatilities of each delta, null if there is only one smile.
+   */
+  private final transient BoundCurveInterpolator[] timeInterpolatorsBound;  // derived
+  /**
+   * The smile at the last expiry, cached as smiles are typically requested many times for the same expiry.
+   */
+  private transient CachedSmile cachedSmile;  // cache
+  /**
+   * The strike interpolator for the last expiry and forward.
+   */
+  private transient CachedStrikeInterpolator cachedStrikeInterpolator;  // cache
 
   //-------------------------------------------------------------------------
   /**
@@ -542,6 +554,33 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
     this.strikeExtrapolatorRight = strikeExtrapolatorRight;
     this.expiries = expiries;
     this.paramCombiner = ParameterizedDataCombiner.of(volatilityTerm);
+    this.timeInterpolatorsBound = bindTimeInterpolators(
+        this.volatilityTerm, expiries, timeInterpolator, timeExtrapolatorLeft, timeExtrapolatorRight);
+  }
+
+  // binds the time interpolator for each delta, which is only possible if there is more than one smile
+  private static BoundCurveInterpolator[] bindTimeInterpolators(
+      List<SmileDeltaParameters> volatilityTerm,
+      DoubleArray expiries,
+      CurveInterpolator timeInterpolator,
+      CurveExtrapolator timeExtrapolatorLeft,
+      CurveExtrapolator timeExtrapolatorRight) {
+
+    int nbTime = volatilityTerm.size();
+    if (nbTime <= 1) {
+      return null;
+    }
+    int nbVol = volatilityTerm.get(0).getVolatility().size();
+    BoundCurveInterpolator[] bound = new BoundCurveInterpolator[nbVol];
+    for (int loopvol = 0; loopvol < nbVol; loopvol++) {
+      double[] volDelta = new double[nbTime];
+      for (int looptime = 0; looptime < nbTime; looptime++) {
+        volDelta[looptime] = volatilityTerm.get(looptime).getVolatility().get(loopvol);
+      }
+      bound[loopvol] = timeInterpolator.bind(
+          expiries, DoubleArray.ofUnsafe(volDelta), timeExtrapolatorLeft, timeExtrapolatorRight);
+    }
+    return bound;
   }
 
   private Object readResolve() {
@@ -610,43 +649,56 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
   @Override
   public double volatility(double time, double strike, double forward) {
     ArgChecker.isTrue(time >= 0, "Positive time");
-    SmileDeltaParameters smile = smileForExpiry(time);
-    DoubleArray strikes = smile.strike(forward);
-    BoundCurveInterpolator bound = strikeInterpolator.bind(
-        strikes, smile.getVolatility(), strikeExtrapolatorLeft, strikeExtrapolatorRight);
-    return bound.interpolate(strike);
+    return strikeInterpolator(time, forward).interpolate(strike);
+  }
+
+  @Override
+  public DoubleArray volatilities(double time, DoubleArray strikes, double forward) {
+    ArgChecker.isTrue(time >= 0, "Positive time");
+    BoundCurveInterpolator bound = strikeInterpolator(time, forward);
+    return strikes.map(bound::interpolate);
   }
 
   @Override
   public VolatilityAndBucketedSensitivities volatilityAndSensitivities(double time, double strike, double forward) {
     ArgChecker.isTrue(time >= 0, "Positive time");
-    SmileDeltaParameters smile = smileForExpiry(time);
-    DoubleArray strikes = smile.strike(forward);
-    BoundCurveInterpolator bound = strikeInterpolator.bind(
-        strikes, smile.getVolatility(), strikeExtrapolatorLeft, strikeExtrapolatorRight);
+    BoundCurveInterpolator bound = strikeInterpolator(time, forward);
     double volatility = bound.interpolate(strike);
     DoubleArray smileVolatilityBar = bound.parameterSensitivity(strike);
     SmileAndBucketedSensitivities smileAndSensitivities = smileAndSensitivitiesForExpiry(time, smileVolatilityBar);
     return VolatilityAndBucketedSensitivities.of(volatility, smileAndSensitivities.getSensitivities());
   }
 
+  // obtains the strike interpolator bound to the smile at the expiry, reusing the last one if possible
+  private BoundCurveInterpolator strikeInterpolator(double time, double forward) {
+    CachedStrikeInterpolator cached = cachedStrikeInterpolator;
+    if (cached != null && cached.expiry == time && cached.forward == forward) {
+      return cached.bound;
+    }
+    SmileDeltaParameters smile = smileForExpiry(time);
+    DoubleArray strikes = smile.strike(forward);
+    BoundCurveInterpolator bound = strikeInterpolator.bind(
+        strikes, smile.getVolatility(), strikeExtrapolatorLeft, strikeExtrapolatorRight);
+    cachedStrikeInterpolator = new CachedStrikeInterpolator(time, forward, bound);
+    return bound;
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public SmileDeltaParameters smileForExpiry(double expiry) {
+    CachedSmile cached = cachedSmile;
+    if (cached != null && cached.expiry == expiry) {
+      return cached.smile;
+    }
     int nbVol = getStrikeCount();
-    int nbTime = getSmileCount();
-    ArgChecker.isTrue(nbTime > 1, "Need more than one time value to perform interpolation");
+    ArgChecker.isTrue(timeInterpolatorsBound != null, "Need more than one time value to perform interpolation");
     double[] volatilityT = new double[nbVol];
     for (int loopvol = 0; loopvol < nbVol; loopvol++) {
-      double[] volDelta = new double[nbTime];
-      for (int looptime = 0; looptime < nbTime; looptime++) {
-        volDelta[looptime] = volatilityTerm.get(looptime).getVolatility().get(loopvol);
-      }
-      BoundCurveInterpolator bound = timeInterpolator.bind(
-          getExpiries(), DoubleArray.ofUnsafe(volDelta), timeExtrapolatorLeft, timeExtrapolatorRight);
-      volatilityT[loopvol] = bound.interpolate(expiry);
+      volatilityT[loopvol] = timeInterpolatorsBound[loopvol].interpolate(expiry);
     }
-    return SmileDeltaParameters.of(expiry, getDelta(), DoubleArray.ofUnsafe(volatilityT));
+    SmileDeltaParameters smile = SmileDeltaParameters.of(expiry, getDelta(), DoubleArray.ofUnsafe(volatilityT));
+    cachedSmile = new CachedSmile(expiry, smile);
+    return smile;
   }
 
   @Override
@@ -658,27 +710,48 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
     ArgChecker.isTrue(volatilityAtTimeSensitivity.size() == nbVol, "Sensitivity with incorrect size");
     ArgChecker.isTrue(nbVol > 1, "Need more than one volatility value to perform interpolation");
     int nbTime = getSmileCount();
-    ArgChecker.isTrue(nbTime > 1, "Need more than one time value to perform interpolation");
-    double[] volatilityT = new double[nbVol];
+    ArgChecker.isTrue(timeInterpolatorsBound != null, "Need more than one time value to perform interpolation");
     double[][] volatilitySensitivity = new double[nbTime][nbVol];
     for (int loopvol = 0; loopvol < nbVol; loopvol++) {
-      double[] volDelta = new double[nbTime];
-      for (int looptime = 0; looptime < nbTime; looptime++) {
-        volDelta[looptime] = volatilityTerm.get(looptime).getVolatility().get(loopvol);
-      }
-      BoundCurveInterpolator bound = timeInterpolator.bind(
-          getExpiries(), DoubleArray.ofUnsafe(volDelta), timeExtrapolatorLeft, timeExtrapolatorRight);
-      DoubleArray volatilitySensitivityVol = bound.parameterSensitivity(expiry);
+      DoubleArray volatilitySensitivityVol = timeInterpolatorsBound[loopvol].parameterSensitivity(expiry);
       for (int looptime = 0; looptime < nbTime; looptime++) {
         volatilitySensitivity[looptime][loopvol] =
             volatilitySensitivityVol.get(looptime) * volatilityAtTimeSensitivity.get(loopvol);
       }
-      volatilityT[loopvol] = bound.interpolate(expiry);
     }
-    SmileDeltaParameters smile = SmileDeltaParameters.of(expiry, getDelta(), DoubleArray.ofUnsafe(volatilityT));
+    SmileDeltaParameters smile = smileForExpiry(expiry);
     return SmileAndBucketedSensitivities.of(smile, DoubleMatrix.ofUnsafe(volatilitySensitivity));
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The smile at an expiry.
+   */
+  private static final class CachedSmile {
+    private final double expiry;
+    private final SmileDeltaParameters smile;
+
+    private CachedSmile(double expiry, SmileDeltaParameters smile) {
+      this.expiry = expiry;
+      this.smile = smile;
+    }
+  }
+
+  /**
+   * The strike interpolator bound to the smile at an expiry and forward.
+   */
+  private static final class CachedStrikeInterpolator {
+    private final double expiry;
+    private final double forward;
+    private final BoundCurveInterpolator bound;
+
+    private CachedStrikeInterpolator(double expiry, double forward, BoundCurveInterpolator bound) {
+      this.expiry = expiry;
+      this.forward = forward;
+      this.bound = bound;
+    }
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   ///CLOVER:OFF
   /**
@@ -262,4 +262,52 @@ public class DispatchingRateComputationFn
     }
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Selects the function used for the specified computation.
+   * <p>
+   * The result is the function that this instance dispatches to for computations of the same type.
+   * It can be obtained once, for example when compiling a swap leg, then used repeatedly
+   * without the dispatch by runtime type. It must only be used with computations of the same type.
+   * <p>
+   * This instance is returned for {@link FixedRateComputation}, as the first type checked by the dispatch.
+   * This instance is always returned by subclasses, as the selected function would bypass their overrides.
+   *
+   * @param computation  the computation
+   * @return the function for computations of the same type
+   * @throws IllegalArgumentException if the computation type is not known
+   */
+  @SuppressWarnings("unchecked")
+  public RateComputationFn<RateComputation> select(RateComputation computation) {
+    if (getClass() != DispatchingRateComputationFn.class) {
+      return this;
+    }
+    // dispatch by runtime type
+    RateComputationFn<?> selected;
+    if (computation instanceof FixedRateComputation) {
+      selected = this;
+    } else if (computation instanceof IborRateComputation) {
+      selected = iborRateComputationFn;
+    } else if (computation instanceof IborInterpolatedRateComputation) {
+      selected = iborInterpolatedRateComputationFn;
+    } else if (computation instanceof IborAveragedRateComputation) {
+      selected = iborAveragedRateComputationFn;
+    } else if (computation instanceof OvernightAveragedRateComputation) {
+      selected = overnightAveragedRateComputationFn;
+    } else if (computation instanceof OvernightCompoundedRateComputation) {
+      selected = overnightCompoundedRateComputationFn;
+    } else if (computation instanceof InflationMonthlyRateComputation) {
+      selected = inflationMonthlyRateComputationFn;
+    } else if (computation instanceof InflationInterpolatedRateComputation) {
+      selected = inflationInterpolatedRateComputationFn;
+    } else if (computation instanceof InflationEndMonthRateComputation) {
+      selected = inflationEndMonthRateComputationFn;
+    } else if (computation instanceof InflationEndInterpolatedRateComputation) {
+      selected = inflationEndInterpolatedRateComputationFn;
+    } else {
+      throw new IllegalArgumentException("Unknown Rate type: " + computation.getClass().getSimpleName());
+    }
+    return (RateComputationFn<RateComputation>) selected;
+  }
+
 }
@@ -0,0 +1,354 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.random.SobolSequenceGenerator;
+import com.opengamma.strata.math.impl.random.SplittableNormalRandomNumberGenerator;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Monte Carlo simulation in the Hull-White one factor model with piecewise constant volatility.
+ * <p>
+ * The paths are simulated on a set of simulation times, see {@link HullWhiteOneFactorMonteCarloPath}.
+ * The state and its integral are jointly Gaussian, thus the transition between simulation times is exact
+ * and there is no discretization error. A function of the path returns the deflated value of the product
+ * for one path, and the present value is the average of this over the paths.
+ * <p>
+ * The paths are generated in fixed-size blocks, each with its own source of random numbers and its own
+ * preallocated buffers. For pseudo-random sampling, the stream of each block is split from the seed in block order.
+ * For Sobol sampling, each block uses its own segment of the sequence, and the seed is not used.
+ * The blocks are optionally evaluated in parallel in the common fork-join pool.
+ * As the path values are then combined in path order, the results are the same for a given seed
+ * whether or not the simulation is parallel, and whatever the number of threads.
+ */
+public final class HullWhiteOneFactorMonteCarloEngine {
+
+  /**
+   * The number of paths in each block.
+   * This is even, thus antithetic pairs are never split between blocks.
+   */
+  private static final int BLOCK_SIZE = 1024;
+  /**
+   * The standard normal distribution.
+   */
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+
+  /**
+   * The method used to sample the normal increments.
+   */
+  public enum Sampling {
+    /**
+     * Independent pseudo-random numbers.
+     */
+    PSEUDO_RANDOM,
+    /**
+     * Pseudo-random numbers, where each path is followed by the path with negated increments.
+     */
+    ANTITHETIC,
+    /**
+     * The Sobol low-discrepancy sequence, transformed by the inverse normal distribution.
+     */
+    SOBOL
+  }
+
+  /**
+   * The number of paths.
+   */
+  private final int numberOfPaths;
+  /**
+   * The seed of the pseudo-random numbers.
+   */
+  private final long seed;
+  /**
+   * The sampling method.
+   */
+  private final Sampling sampling;
+  /**
+   * Whether the blocks of paths are simulated in parallel.
+   */
+  private final boolean parallel;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance simulating the paths in parallel.
+   *
+   * @param numberOfPaths  the number of paths
+   * @param seed  the seed of the pseudo-random numbers
+   * @param sampling  the sampling method
+   * @return the instance
+   */
+  public static HullWhiteOneFactorMonteCarloEngine of(int numberOfPaths, long seed, Sampling sampling) {
+    return of(numberOfPaths, seed, sampling, true);
+  }
+
+  /**
+   * Obtains an instance.
+   * <p>
+   * The results do not depend on whether the simulation is parallel.
+   *
+   * @param numberOfPaths  the number of paths
+   * @param seed  the seed of the pseudo-random numbers
+   * @param sampling  the sampling method
+   * @param parallel  whether the paths are simulated in parallel
+   * @return the instance
+   */
+  public static HullWhiteOneFactorMonteCarloEngine of(
+      int numberOfPaths,
+      long seed,
+      Sampling sampling,
+      boolean parallel) {
+
+    ArgChecker.notNegativeOrZero(numberOfPaths, "numberOfPaths");
+    ArgChecker.notNull(sampling, "sampling");
+    return new HullWhiteOneFactorMonteCarloEngine(numberOfPaths, seed, sampling, parallel);
+  }
+
+  // restricted constructor
+  private HullWhiteOneFactorMonteCarloEngine(int numberOfPaths, long seed, Sampling sampling, boolean parallel) {
+    this.numberOfPaths = numberOfPaths;
+    this.seed = seed;
+    this.sampling = sampling;
+    this.parallel = parallel;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of paths.
+   *
+   * @return the number of paths
+   */
+  public int getNumberOfPaths() {
+    return numberOfPaths;
+  }
+
+  /**
+   * Gets the sampling method.
+   *
+   * @return the sampling method
+   */
+  public Sampling getSampling() {
+    return sampling;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value as the average of the path function over the simulated paths.
+   * <p>
+   * The path function returns the deflated value of the product for one path,
+   * typically a sum of cash flows multiplied by the deflator at their payment time.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @param discountFactors  the initial discount factors
+   * @param times  the simulation times, positive and in increasing order
+   * @param pathFunction  the function returning the deflated value of a path
+   * @return the present value
+   */
+  public double presentValue(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DiscountFactors discountFactors,
+      DoubleArray times,
+      ToDoubleFunction<HullWhiteOneFactorMonteCarloPath> pathFunction) {
+
+    return pathValues(parameters, discountFactors, times, pathFunction).sum() / numberOfPaths;
+  }
+
+  /**
+   * Calculates the value of the path function for each simulated path.
+   * <p>
+   * The values are in path order, thus the same for a given seed whether or not the simulation is parallel.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @param discountFactors  the initial discount factors
+   * @param times  the simulation times, positive and in increasing order
+   * @param pathFunction  the function returning the value of a path
+   * @return the path values
+   */
+  public DoubleArray pathValues(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DiscountFactors discountFactors,
+      DoubleArray times,
+      ToDoubleFunction<HullWhiteOneFactorMonteCarloPath> pathFunction) {
+
+    ArgChecker.notNull(parameters, "parameters");
+    ArgChecker.notNull(discountFactors, "discountFactors");
+    ArgChecker.notNull(times, "times");
+    ArgChecker.isTrue(times.size() > 0, "Simulation times must not be empty");
+    ArgChecker.notNull(pathFunction, "pathFunction");
+    ArgChecker.isTrue(times.get(0) > 0d, "Simulation times must be positive");
+    for (int i = 1; i < times.size(); i++) {
+      ArgChecker.isTrue(times.get(i) > times.get(i - 1), "Simulation times must be in increasing order");
+    }
+    Simulation simulation = new Simulation(parameters, discountFactors, times, pathFunction);
+    int nBlocks = (numberOfPaths + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    SplittableNormalRandomNumberGenerator[] streams = new SplittableNormalRandomNumberGenerator[nBlocks];
+    SobolSequenceGenerator sobol = null;
+    if (sampling == Sampling.SOBOL) {
+      sobol = new SobolSequenceGenerator(2 * times.size());
+    } else {
+      SplittableNormalRandomNumberGenerator root = new SplittableNormalRandomNumberGenerator(seed);
+      for (int b = 0; b < nBlocks; b++) {
+        streams[b] = root.split();
+      }
+    }
+    SobolSequenceGenerator sobolBase = sobol;
+    double[] values = new double[numberOfPaths];
+    IntStream blocks = IntStream.range(0, nBlocks);
+    if (parallel) {
+      blocks = blocks.parallel();
+    }
+    blocks.forEach(b -> simulation.simulateBlock(
+        b, sobolBase == null ? null : sobolBase.copy(), streams[b], values));
+    return DoubleArray.ofUnsafe(values);
+  }
+
+  //-------------------------------------------------------------------------
+  // the integral of sigma(s)^2 exp(-k (reference - s)) over the interval
+  private static double exponentialIntegral(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      double start,
+      double end,
+      double reference,
+      double k) {
+
+    double[] volatilityTime = parameters.getVolatilityTime().toArrayUnsafe();
+    double[] volatility = parameters.getVolatility().toArrayUnsafe();
+    double result = 0d;
+    for (int i = 0; i < volatility.length && volatilityTime[i] < end; i++) {
+      double low = Math.max(start, volatilityTime[i]);
+      double high = Math.min(end, volatilityTime[i + 1]);
+      if (high > low) {
+        double variance = volatility[i] * volatility[i];
+        result += k == 0d ?
+            variance * (high - low) :
+            variance * (Math.exp(-k * (reference - high)) - Math.exp(-k * (reference - low))) / k;
+      }
+    }
+    return result;
+  }
+
+  // the variance of the integral of the state over the interval, given the state at the start
+  static double integralVariance(HullWhiteOneFactorPiecewiseConstantParameters parameters, double start, double end) {
+    double a = parameters.getMeanReversion();
+    double e0 = exponentialIntegral(parameters, start, end, end, 0d);
+    double e1 = exponentialIntegral(parameters, start, end, end, a);
+    double e2 = exponentialIntegral(parameters, start, end, end, 2d * a);
+    return (e0 - 2d * e1 + e2) / (a * a);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The deterministic data of a simulation, shared by the blocks.
+   */
+  private final class Simulation {
+    private final HullWhiteOneFactorPiecewiseConstantParameters parameters;
+    private final DiscountFactors discountFactors;
+    private final DoubleArray times;
+    private final ToDoubleFunction<HullWhiteOneFactorMonteCarloPath> pathFunction;
+    private final double[] initialDiscountFactors;
+    private final double[] integralVariances;
+    // the transition of each step, from the previous simulation time (or zero)
+    private final double[] decay;
+    private final double[] integralFactor;
+    private final double[] stateStdDev;
+    private final double[] integralLoading;
+    private final double[] integralStdDev;
+
+    private Simulation(
+        HullWhiteOneFactorPiecewiseConstantParameters parameters,
+        DiscountFactors discountFactors,
+        DoubleArray times,
+        ToDoubleFunction<HullWhiteOneFactorMonteCarloPath> pathFunction) {
+
+      this.parameters = parameters;
+      this.discountFactors = discountFactors;
+      this.times = times;
+      this.pathFunction = pathFunction;
+      int nTimes = times.size();
+      double a = parameters.getMeanReversion();
+      initialDiscountFactors = new double[nTimes];
+      integralVariances = new double[nTimes];
+      decay = new double[nTimes];
+      integralFactor = new double[nTimes];
+      stateStdDev = new double[nTimes];
+      integralLoading = new double[nTimes];
+      integralStdDev = new double[nTimes];
+      for (int k = 0; k < nTimes; k++) {
+        double start = k == 0 ? 0d : times.get(k - 1);
+        double end = times.get(k);
+        initialDiscountFactors[k] = discountFactors.discountFactor(end);
+        integralVariances[k] = integralVariance(parameters, 0d, end);
+        decay[k] = Math.exp(-a * (end - start));
+        integralFactor[k] = (1d - decay[k]) / a;
+        // Cholesky decomposition of the covariance of the increments of the state and its integral
+        double e1 = exponentialIntegral(parameters, start, end, end, a);
+        double e2 = exponentialIntegral(parameters, start, end, end, 2d * a);
+        double stateVariance = e2;
+        double covariance = (e1 - e2) / a;
+        double integralVariance = integralVariance(parameters, start, end);
+        stateStdDev[k] = Math.sqrt(stateVariance);
+        integralLoading[k] = stateStdDev[k] > 0d ? covariance / stateStdDev[k] : 0d;
+        integralStdDev[k] = Math.sqrt(Math.max(integralVariance - integralLoading[k] * integralLoading[k], 0d));
+      }
+    }
+
+    // simulates the paths of the block, storing the path values
+    private void simulateBlock(
+        int block,
+        SobolSequenceGenerator sobol,
+        SplittableNormalRandomNumberGenerator stream,
+        double[] values) {
+
+      int nTimes = times.size();
+      int start = block * BLOCK_SIZE;
+      int end = Math.min(start + BLOCK_SIZE, numberOfPaths);
+      double[] normals = new double[2 * nTimes];
+      HullWhiteOneFactorMonteCarloPath path = new HullWhiteOneFactorMonteCarloPath(
+          parameters, discountFactors, times, initialDiscountFactors, integralVariances);
+      if (sobol != null) {
+        sobol.skipTo(start + 1L);
+      }
+      for (int p = start; p < end; p++) {
+        if (sobol != null) {
+          sobol.nextPoint(normals);
+          for (int i = 0; i < normals.length; i++) {
+            normals[i] = NORMAL.getInverseCDF(normals[i]);
+          }
+        } else if (sampling == Sampling.ANTITHETIC && ((p - start) & 1) == 1) {
+          for (int i = 0; i < normals.length; i++) {
+            normals[i] = -normals[i];
+          }
+        } else {
+          stream.nextNormals(normals);
+        }
+        generate(normals, path.state, path.stateIntegral);
+        values[p] = pathFunction.applyAsDouble(path);
+      }
+    }
+
+    // generates the state and its integral from the normal increments
+    private void generate(double[] normals, double[] state, double[] stateIntegral) {
+      double x = 0d;
+      double integral = 0d;
+      for (int k = 0; k < state.length; k++) {
+        double z1 = normals[2 * k];
+        double z2 = normals[2 * k + 1];
+        integral += integralFactor[k] * x + integralLoading[k] * z1 + integralStdDev[k] * z2;
+        x = decay[k] * x + stateStdDev[k] * z1;
+        state[k] = x;
+        stateIntegral[k] = integral;
+      }
+    }
+  }
+
+}
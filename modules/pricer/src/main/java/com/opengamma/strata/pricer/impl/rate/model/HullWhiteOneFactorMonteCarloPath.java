@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * A path simulated in the Hull-White one factor model.
+ * <p>
+ * The short rate is {@code r(t) = x(t) + phi(t)}, where the state {@code x} follows
+ * {@code dx = -a x dt + sigma(t) dW} with {@code x(0) = 0} under the risk neutral measure,
+ * and the deterministic function {@code phi} fits the initial discount curve.
+ * The path holds the state and the integral of the state at each simulation time.
+ * From these, the deflator and the zero-coupon bond prices are available in closed form.
+ * <p>
+ * A single instance is reused for all of the paths generated by one thread, thus the values
+ * should not be retained after the path function returns. Instances are not thread-safe.
+ */
+public final class HullWhiteOneFactorMonteCarloPath {
+
+  /**
+   * The model parameters.
+   */
+  private final HullWhiteOneFactorPiecewiseConstantParameters parameters;
+  /**
+   * The initial discount factors.
+   */
+  private final DiscountFactors discountFactors;
+  /**
+   * The simulation times.
+   */
+  private final DoubleArray times;
+  /**
+   * The initial discount factors to the simulation times.
+   */
+  private final double[] initialDiscountFactors;
+  /**
+   * The variance of the integral of the state up to the simulation times.
+   */
+  private final double[] integralVariances;
+  /**
+   * The state at the simulation times.
+   */
+  final double[] state;
+  /**
+   * The integral of the state up to the simulation times.
+   */
+  final double[] stateIntegral;
+
+  // creates an instance, sharing the deterministic data between paths
+  HullWhiteOneFactorMonteCarloPath(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DiscountFactors discountFactors,
+      DoubleArray times,
+      double[] initialDiscountFactors,
+      double[] integralVariances) {
+
+    this.parameters = parameters;
+    this.discountFactors = discountFactors;
+    this.times = times;
+    this.initialDiscountFactors = initialDiscountFactors;
+    this.integralVariances = integralVariances;
+    this.state = new double[times.size()];
+    this.stateIntegral = new double[times.size()];
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the simulation times.
+   *
+   * @return the times
+   */
+  public DoubleArray getTimes() {
+    return times;
+  }
+
+  /**
+   * Gets the state {@code x} at the specified simulation time.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @return the state
+   */
+  public double state(int timeIndex) {
+    return state[timeIndex];
+  }
+
+  /**
+   * Calculates the deflator at the specified simulation time.
+   * <p>
+   * This is the inverse of the bank account numeraire, {@code exp(-int_0^t r(s) ds)}.
+   * The discounted value of a cash flow is the cash flow multiplied by the deflator,
+   * and the present value is the average over the paths.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @return the deflator
+   */
+  public double deflator(int timeIndex) {
+    return initialDiscountFactors[timeIndex] *
+        Math.exp(-0.5 * integralVariances[timeIndex] - stateIntegral[timeIndex]);
+  }
+
+  /**
+   * Calculates the price at the specified simulation time of a zero-coupon bond paying one at maturity.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param maturity  the maturity of the bond, not before the simulation time
+   * @return the bond price
+   */
+  public double bondPrice(int timeIndex, double maturity) {
+    double time = times.get(timeIndex);
+    double meanReversion = parameters.getMeanReversion();
+    double b = (1d - Math.exp(-meanReversion * (maturity - time))) / meanReversion;
+    double varianceToMaturity = HullWhiteOneFactorMonteCarloEngine.integralVariance(parameters, 0d, maturity);
+    double varianceFromTime = HullWhiteOneFactorMonteCarloEngine.integralVariance(parameters, time, maturity);
+    return discountFactors.discountFactor(maturity) / initialDiscountFactors[timeIndex] *
+        Math.exp(0.5 * (varianceFromTime + integralVariances[timeIndex] - varianceToMaturity) - b * state[timeIndex]);
+  }
+
+  /**
+   * Calculates the deflated price at the specified simulation time of a zero-coupon bond paying one at maturity.
+   * <p>
+   * This is the bond price multiplied by the deflator.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param maturity  the maturity of the bond, not before the simulation time
+   * @return the deflated bond price
+   */
+  public double deflatedBondPrice(int timeIndex, double maturity) {
+    return deflator(timeIndex) * bondPrice(timeIndex, maturity);
+  }
+
+}
@@ -7,6 +7,7 @@ package com.opengamma.strata.pricer.impl.rate.model;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -37,6 +38,18 @@ public final class HullWhiteOneFactorPiecewiseConstantInterestRateModel implemen
    */
   public static final HullWhiteOneFactorPiecewiseConstantInterestRateModel DEFAULT =
       new HullWhiteOneFactorPiecewiseConstantInterestRateModel();
+  /**
+   * The maximum number of Newton iterations in the exercise boundary computation for several swaptions.
+   */
+  private static final int KAPPA_MAX_ITERATIONS = 50;
+  /**
+   * The maximum Newton step in the exercise boundary computation for several swaptions.
+   */
+  private static final double KAPPA_MAX_STEP = 1d;
+  /**
+   * The accuracy of the exercise boundary computation for several swaptions.
+   */
+  private static final double KAPPA_ACCURACY = 1.0E-12;
 
   //-------------------------------------------------------------------------
   /**
@@ -291,6 +304,80 @@ public final class HullWhiteOneFactorPiecewiseConstantInterestRateModel implemen
     return rootFinder.getRoot(swapValue, range[0], range[1]);
   }
 
+  /**
+   * Calculates the exercise boundaries for several swaptions.
+   * <p>
+   * The exercise boundaries are solved together by Newton iterations, each pass updating all of
+   * the swaptions that have not yet converged. The exponential weights that do not depend on
+   * the boundary are computed once. The swaptions for which the iteration does not converge are solved
+   * by {@link #kappa(DoubleArray, DoubleArray)}.
+   * <p>
+   * The boundaries are solved to a higher accuracy than {@link #kappa(DoubleArray, DoubleArray)}.
+   * As the boundary is the root of the swap value, the swaption price is not sensitive to the difference.
+   * 
+   * @param discountedCashFlows  the cash flow equivalents discounted to today, one array for each swaption
+   * @param alphas  the zero-coupon bond volatilities, one array for each swaption
+   * @return the exercise boundaries
+   */
+  public DoubleArray kappa(List<DoubleArray> discountedCashFlows, List<DoubleArray> alphas) {
+    ArgChecker.isTrue(discountedCashFlows.size() == alphas.size(),
+        "discountedCashFlows and alphas should have the same size");
+    int nSwaptions = alphas.size();
+    double[][] weights = new double[nSwaptions][];
+    double[][] slopes = new double[nSwaptions][];
+    for (int j = 0; j < nSwaptions; j++) {
+      DoubleArray discountedCashFlow = discountedCashFlows.get(j);
+      DoubleArray alpha = alphas.get(j);
+      ArgChecker.isTrue(discountedCashFlow.size() == alpha.size(), "discountedCashFlow and alpha should be of same size");
+      int nCashFlows = alpha.size();
+      weights[j] = new double[nCashFlows];
+      slopes[j] = new double[nCashFlows];
+      for (int loopcf = 0; loopcf < nCashFlows; loopcf++) {
+        weights[j][loopcf] = discountedCashFlow.get(loopcf) * Math.exp(-0.5 * alpha.get(loopcf) * alpha.get(loopcf));
+        slopes[j][loopcf] = alpha.get(loopcf) - alpha.get(0);
+      }
+    }
+    double[] kappa = new double[nSwaptions];
+    boolean[] done = new boolean[nSwaptions];
+    boolean[] converged = new boolean[nSwaptions];
+    int remaining = nSwaptions;
+    for (int iteration = 0; iteration < KAPPA_MAX_ITERATIONS && remaining > 0; iteration++) {
+      for (int j = 0; j < nSwaptions; j++) {
+        if (done[j]) {
+          continue;
+        }
+        double[] weight = weights[j];
+        double[] slope = slopes[j];
+        double value = 0d;
+        double derivative = 0d;
+        for (int loopcf = 0; loopcf < weight.length; loopcf++) {
+          double term = weight[loopcf] * Math.exp(-slope[loopcf] * kappa[j]);
+          value += term;
+          derivative -= slope[loopcf] * term;
+        }
+        double step = value / derivative;
+        if (!Double.isFinite(step)) {
+          done[j] = true;
+          remaining--;
+          continue;
+        }
+        step = Math.max(-KAPPA_MAX_STEP, Math.min(KAPPA_MAX_STEP, step));
+        kappa[j] -= step;
+        if (Math.abs(step) < KAPPA_ACCURACY) {
+          done[j] = true;
+          converged[j] = true;
+          remaining--;
+        }
+      }
+    }
+    for (int j = 0; j < nSwaptions; j++) {
+      if (!converged[j]) {
+        kappa[j] = kappa(discountedCashFlows.get(j), alphas.get(j));
+      }
+    }
+    return DoubleArray.ofUnsafe(kappa);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calculates the beta parameter.
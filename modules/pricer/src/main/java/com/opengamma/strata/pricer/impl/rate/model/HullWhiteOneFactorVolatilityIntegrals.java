@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import java.util.Arrays;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * The cumulative volatility integrals of the Hull-White one factor model with piecewise constant volatility.
+ * <p>
+ * The quantities of {@link HullWhiteOneFactorPiecewiseConstantInterestRateModel}, such as alpha and the futures
+ * convexity factor, depend on the volatility through integrals of the form {@code int_0^t sigma(s)^2 exp(k a s) ds}
+ * for {@code k} equal to 1 or 2. This class computes these integrals once at each time of the volatility grid.
+ * The integral up to any time is then obtained by a binary search on the grid and a single exponential,
+ * instead of a loop over the volatility periods.
+ * <p>
+ * This is intended for computing the model quantities for many instruments with the same parameters,
+ * such as a batch of swaptions or futures. Instances are immutable and thread-safe.
+ */
+public final class HullWhiteOneFactorVolatilityIntegrals {
+
+  /**
+   * The mean reversion.
+   */
+  private final double meanReversion;
+  /**
+   * The times separating the constant volatility periods.
+   */
+  private final double[] volatilityTime;
+  /**
+   * The squared volatilities.
+   */
+  private final double[] variance;
+  /**
+   * The value of {@code exp(a t)} at the volatility times.
+   */
+  private final double[] expTime;
+  /**
+   * The value of {@code exp(2 a t)} at the volatility times.
+   */
+  private final double[] exp2Time;
+  /**
+   * The integral of {@code sigma^2 a exp(a s)} up to the volatility times.
+   */
+  private final double[] cumulative1;
+  /**
+   * The integral of {@code sigma^2 2a exp(2 a s)} up to the volatility times.
+   */
+  private final double[] cumulative2;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the model parameters.
+   * <p>
+   * The integrals are not computed beyond the last finite volatility time,
+   * thus the large time representing infinity does not cause overflow.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @return the integrals
+   */
+  public static HullWhiteOneFactorVolatilityIntegrals of(HullWhiteOneFactorPiecewiseConstantParameters parameters) {
+    ArgChecker.notNull(parameters, "parameters");
+    return new HullWhiteOneFactorVolatilityIntegrals(parameters);
+  }
+
+  // restricted constructor
+  private HullWhiteOneFactorVolatilityIntegrals(HullWhiteOneFactorPiecewiseConstantParameters parameters) {
+    this.meanReversion = parameters.getMeanReversion();
+    this.volatilityTime = parameters.getVolatilityTime().toArray();
+    int nPeriods = parameters.getVolatility().size();
+    this.variance = new double[nPeriods];
+    this.expTime = new double[nPeriods];
+    this.exp2Time = new double[nPeriods];
+    this.cumulative1 = new double[nPeriods];
+    this.cumulative2 = new double[nPeriods];
+    for (int i = 0; i < nPeriods; i++) {
+      double volatility = parameters.getVolatility().get(i);
+      variance[i] = volatility * volatility;
+      expTime[i] = Math.exp(meanReversion * volatilityTime[i]);
+      exp2Time[i] = Math.exp(2d * meanReversion * volatilityTime[i]);
+      if (i > 0) {
+        cumulative1[i] = cumulative1[i - 1] + variance[i - 1] * (expTime[i] - expTime[i - 1]);
+        cumulative2[i] = cumulative2[i - 1] + variance[i - 1] * (exp2Time[i] - exp2Time[i - 1]);
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the (zero-coupon) bond volatility divided by a bond numeraire, i.e., alpha, for a given period.
+   * <p>
+   * This is equal to {@link HullWhiteOneFactorPiecewiseConstantInterestRateModel#alpha}.
+   *
+   * @param startExpiry the start time of the expiry period
+   * @param endExpiry  the end time of the expiry period
+   * @param numeraireTime  the time to maturity for the bond numeraire
+   * @param bondMaturity the time to maturity for the bond
+   * @return the re-based bond volatility
+   */
+  public double alpha(double startExpiry, double endExpiry, double numeraireTime, double bondMaturity) {
+    double factor1 = Math.exp(-meanReversion * numeraireTime) - Math.exp(-meanReversion * bondMaturity);
+    double numerator = 2 * meanReversion * meanReversion * meanReversion;
+    double factor2 = integral2(endExpiry) - integral2(startExpiry);
+    return factor1 * Math.sqrt(factor2 / numerator);
+  }
+
+  /**
+   * Calculates the future convexity factor used in future pricing.
+   * <p>
+   * This is equal to {@link HullWhiteOneFactorPiecewiseConstantInterestRateModel#futuresConvexityFactor}.
+   *
+   * @param t0  the first expiry time
+   * @param t1  the first reference time
+   * @param t2  the second reference time
+   * @return the factor
+   */
+  public double futuresConvexityFactor(double t0, double t1, double t2) {
+    double factor1 = Math.exp(-meanReversion * t1) - Math.exp(-meanReversion * t2);
+    double numerator = 2 * meanReversion * meanReversion * meanReversion;
+    // sigma^2 (e^{a s1} - e^{a s0}) (2 - e^{-a (t2 - s1)} - e^{-a (t2 - s0)}) summed over the periods
+    double factor2 = 2d * integral1(t0) - Math.exp(-meanReversion * t2) * integral2(t0);
+    return Math.exp(factor1 / numerator * factor2);
+  }
+
+  //-------------------------------------------------------------------------
+  // the sum of sigma^2 (exp(a s1) - exp(a s0)) over the periods up to the time
+  private double integral1(double time) {
+    int i = periodIndex(time);
+    return cumulative1[i] + variance[i] * (Math.exp(meanReversion * time) - expTime[i]);
+  }
+
+  // the sum of sigma^2 (exp(2 a s1) - exp(2 a s0)) over the periods up to the time
+  private double integral2(double time) {
+    int i = periodIndex(time);
+    return cumulative2[i] + variance[i] * (Math.exp(2d * meanReversion * time) - exp2Time[i]);
+  }
+
+  // the index of the volatility period containing the time
+  private int periodIndex(double time) {
+    int index = Arrays.binarySearch(volatilityTime, time);
+    if (index < 0) {
+      index = -index - 2;
+    }
+    return Math.max(Math.min(index, variance.length - 1), 0);
+  }
+
+}
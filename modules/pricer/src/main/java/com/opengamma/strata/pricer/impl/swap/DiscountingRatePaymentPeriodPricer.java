@@ -8,6 +8,8 @@ package com.opengamma.strata.pricer.impl.swap;
 import static java.time.temporal.ChronoUnit.DAYS;
 
 import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.currency.Currency;
@@ -20,6 +22,7 @@ import com.opengamma.strata.market.explain.ExplainMapBuilder;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.fx.FxIndexRates;
+import com.opengamma.strata.pricer.impl.rate.DispatchingRateComputationFn;
 import com.opengamma.strata.pricer.rate.RateComputationFn;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.SwapPaymentPeriodPricer;
@@ -48,6 +51,10 @@ public class DiscountingRatePaymentPeriodPricer
    * Rate computation.
    */
   private final RateComputationFn<RateComputation> rateComputationFn;
+  /**
+   * The pricers specialized by type of rate computation, see {@link #select(RatePaymentPeriod)}.
+   */
+  private final Map<Class<?>, DiscountingRatePaymentPeriodPricer> selected = new ConcurrentHashMap<>();
 
   /**
    * Creates an instance.
@@ -59,6 +66,37 @@ public class DiscountingRatePaymentPeriodPricer
     this.rateComputationFn = ArgChecker.notNull(rateComputationFn, "rateComputationFn");
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Selects the pricer used for the specified period.
+   * <p>
+   * If the rate computation function is exactly a {@link DispatchingRateComputationFn} and all the accrual
+   * periods have the same type of rate computation, the result is a pricer using the function for
+   * that type directly, avoiding the dispatch by runtime type for each accrual period.
+   * It must only be used with periods having the same type of rate computation.
+   * Otherwise, this instance is returned.
+   * <p>
+   * This instance is always returned by subclasses, as the specialized pricer would not have their overrides.
+   *
+   * @param period  the period
+   * @return the pricer for periods with the same type of rate computation
+   */
+  public DiscountingRatePaymentPeriodPricer select(RatePaymentPeriod period) {
+    if (getClass() != DiscountingRatePaymentPeriodPricer.class ||
+        rateComputationFn.getClass() != DispatchingRateComputationFn.class) {
+      return this;
+    }
+    RateComputation first = period.getAccrualPeriods().get(0).getRateComputation();
+    for (RateAccrualPeriod accrualPeriod : period.getAccrualPeriods()) {
+      if (accrualPeriod.getRateComputation().getClass() != first.getClass()) {
+        return this;
+      }
+    }
+    DispatchingRateComputationFn dispatchingFn = (DispatchingRateComputationFn) rateComputationFn;
+    return selected.computeIfAbsent(
+        first.getClass(), type -> new DiscountingRatePaymentPeriodPricer(dispatchingFn.select(first)));
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public double presentValue(RatePaymentPeriod period, RatesProvider provider) {
@@ -53,6 +53,36 @@ public class DispatchingSwapPaymentEventPricer
         ArgChecker.notNull(fxResetNotionalExchangePricer, "fxResetNotionalExchangePricer");
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Selects the pricer used for the specified event.
+   * <p>
+   * The result is the pricer that this instance dispatches to for events of the same type.
+   * It can be obtained once, for example when compiling a swap leg, then used repeatedly
+   * without the dispatch by runtime type. It must only be used with events of the same type.
+   * This instance is always returned by subclasses, as the selected pricer would bypass their overrides.
+   *
+   * @param paymentEvent  the payment event
+   * @return the pricer for events of the same type
+   * @throws IllegalArgumentException if the event type is not known
+   */
+  @SuppressWarnings("unchecked")
+  public SwapPaymentEventPricer<SwapPaymentEvent> select(SwapPaymentEvent paymentEvent) {
+    if (getClass() != DispatchingSwapPaymentEventPricer.class) {
+      return this;
+    }
+    // dispatch by runtime type
+    SwapPaymentEventPricer<?> selected;
+    if (paymentEvent instanceof NotionalExchange) {
+      selected = notionalExchangePricer;
+    } else if (paymentEvent instanceof FxResetNotionalExchange) {
+      selected = fxResetNotionalExchangePricer;
+    } else {
+      throw new IllegalArgumentException("Unknown PaymentEvent type: " + paymentEvent.getClass().getSimpleName());
+    }
+    return (SwapPaymentEventPricer<SwapPaymentEvent>) selected;
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public double presentValue(SwapPaymentEvent paymentEvent, RatesProvider provider) {
@@ -52,6 +52,40 @@ public class DispatchingSwapPaymentPeriodPricer
     this.knownAmountPaymentPeriodPricer = ArgChecker.notNull(knownAmountPaymentPeriodPricer, "knownAmountPaymentPeriodPricer");
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Selects the pricer used for the specified period.
+   * <p>
+   * The result is the pricer that this instance dispatches to for periods of the same type.
+   * It can be obtained once, for example when compiling a swap leg, then used repeatedly
+   * without the dispatch by runtime type. It must only be used with periods of the same type.
+   * If the pricer for {@link RatePaymentPeriod} is a {@link DiscountingRatePaymentPeriodPricer},
+   * it is also specialized for the type of rate computation of the period.
+   * This instance is always returned by subclasses, as the selected pricer would bypass their overrides.
+   *
+   * @param paymentPeriod  the payment period
+   * @return the pricer for periods of the same type
+   * @throws IllegalArgumentException if the period type is not known
+   */
+  @SuppressWarnings("unchecked")
+  public SwapPaymentPeriodPricer<SwapPaymentPeriod> select(SwapPaymentPeriod paymentPeriod) {
+    if (getClass() != DispatchingSwapPaymentPeriodPricer.class) {
+      return this;
+    }
+    // dispatch by runtime type
+    SwapPaymentPeriodPricer<?> selected;
+    if (paymentPeriod instanceof RatePaymentPeriod) {
+      selected = ratePaymentPeriodPricer instanceof DiscountingRatePaymentPeriodPricer ?
+          ((DiscountingRatePaymentPeriodPricer) ratePaymentPeriodPricer).select((RatePaymentPeriod) paymentPeriod) :
+          ratePaymentPeriodPricer;
+    } else if (paymentPeriod instanceof KnownAmountSwapPaymentPeriod) {
+      selected = knownAmountPaymentPeriodPricer;
+    } else {
+      throw new IllegalArgumentException("Unknown PaymentPeriod type: " + paymentPeriod.getClass().getSimpleName());
+    }
+    return (SwapPaymentPeriodPricer<SwapPaymentPeriod>) selected;
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public double presentValue(SwapPaymentPeriod paymentPeriod, RatesProvider provider) {
@@ -131,4 +131,34 @@ public interface OptionFunction {
         transitionProbability.get(j, 1) * value.get(j + 1) + transitionProbability.get(j, 0) * value.get(j)));
   }
 
+  /**
+   * Updates the option values from the (i+1)-th layer to the i-th layer, in place.
+   * <p>
+   * This is equivalent to {@link #getNextOptionValues(double, DoubleMatrix, DoubleArray, DoubleArray, int)},
+   * except that the option values in the (i+1)-th layer are replaced by the option values in the i-th layer.
+   * This allows a single array to be used for all of the time layers.
+   * On return, the first {@code (2*i+1)} elements of {@code values} are the option values in the i-th layer.
+   * <p>
+   * The default implementation delegates to {@code getNextOptionValues}, thus an option overriding that method
+   * is priced correctly. This method may be overridden to avoid the allocation of arrays, in which case
+   * {@code getNextOptionValues} must compute the same values.
+   * 
+   * @param discountFactor  the discount factor between the two layers
+   * @param transitionProbability  the transition probability
+   * @param stateValue  the state value
+   * @param values  the option values in the (i+1)-th layer, replaced by the option values in the i-th layer
+   * @param i  the step number for which the next option values are computed
+   */
+  public default void updateOptionValues(
+      double discountFactor,
+      DoubleMatrix transitionProbability,
+      DoubleArray stateValue,
+      double[] values,
+      int i) {
+
+    DoubleArray next =
+        getNextOptionValues(discountFactor, transitionProbability, stateValue, DoubleArray.ofUnsafe(values), i);
+    next.copyInto(values, 0);
+  }
+
 }
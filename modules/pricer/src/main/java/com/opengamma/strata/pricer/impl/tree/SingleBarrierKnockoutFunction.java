@@ -94,39 +94,49 @@ abstract class SingleBarrierKnockoutFunction implements OptionFunction {
       double discountFactor,
       DoubleMatrix transitionProbability,
       DoubleArray stateValue,
-      DoubleArray values,
+      DoubleArray value,
       int i) {
 
+    double[] values = value.toArray();
+    updateOptionValues(discountFactor, transitionProbability, stateValue, values, i);
+    return DoubleArray.ofUnsafe(values).subArray(0, 2 * i + 1);
+  }
+
+  @Override
+  public void updateOptionValues(
+      double discountFactor,
+      DoubleMatrix transitionProbability,
+      DoubleArray stateValue,
+      double[] values,
+      int i) {
+
+    // the value at node j depends only on nodes j to j+2, thus the values can be overwritten in ascending order
     int nNodes = 2 * i + 1;
-    double[] res = new double[nNodes];
+    double[][] probability = transitionProbability.toArrayUnsafe();
+    double[] state = stateValue.toArrayUnsafe();
     double barrierLevel = getBarrierLevel(i);
     double rebate = getRebate(i);
     boolean isDown = getBarrierType().isDown();
     for (int j = 0; j < nNodes; ++j) {
-      if ((isDown && stateValue.get(j) <= barrierLevel) ||
-          (!isDown && stateValue.get(j) >= barrierLevel)) {
-        res[j] = rebate;
+      if ((isDown && state[j] <= barrierLevel) || (!isDown && state[j] >= barrierLevel)) {
+        values[j] = rebate;
       } else {
-        double upProb = transitionProbability.get(j, 2);
-        double middleProb = transitionProbability.get(j, 1);
-        double downProb = transitionProbability.get(j, 0);
-        res[j] = discountFactor *
-            (upProb * values.get(j + 2) + middleProb * values.get(j + 1) + downProb * values.get(j));
+        double[] prob = probability[j];
+        values[j] = discountFactor * (prob[2] * values[j + 2] + prob[1] * values[j + 1] + prob[0] * values[j]);
       }
     }
     // modification if barrier lies between two consecutive nodes 
     int index = getLowerBoundIndex(stateValue, barrierLevel);
     if (index > -1 && index < nNodes - 1) {
-      double bd = barrierLevel - stateValue.get(index);
-      double ub = stateValue.get(index + 1) - barrierLevel;
-      double ud = stateValue.get(index + 1) - stateValue.get(index);
+      double bd = barrierLevel - state[index];
+      double ub = state[index + 1] - barrierLevel;
+      double ud = state[index + 1] - state[index];
       if (isDown) {
-        res[index + 1] = 0.5 * res[index + 1] + 0.5 * (bd * rebate + ub * res[index + 1]) / ud;
+        values[index + 1] = 0.5 * values[index + 1] + 0.5 * (bd * rebate + ub * values[index + 1]) / ud;
       } else {
-        res[index] = 0.5 * res[index] + 0.5 * (ub * rebate + bd * res[index]) / ud;
+        values[index] = 0.5 * values[index] + 0.5 * (ub * rebate + bd * values[index]) / ud;
       }
     }
-    return DoubleArray.ofUnsafe(res);
   }
 
   //-------------------------------------------------------------------------
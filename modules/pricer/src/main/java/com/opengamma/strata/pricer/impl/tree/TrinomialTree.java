@@ -5,9 +5,13 @@
  */
 package com.opengamma.strata.pricer.impl.tree;
 
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.pricer.fxopt.RecombiningTrinomialTreeData;
 
 /**
@@ -17,6 +21,7 @@ import com.opengamma.strata.pricer.fxopt.RecombiningTrinomialTreeData;
  * and the option to price is specified by {@code OptionFunction}. 
  * <p>
  * Option pricing with non-uniform tree is realised by specifying {@code RecombiningTrinomialTreeData}.
+ * Several options can be priced in a single backward induction through the same tree data.
  */
 public class TrinomialTree {
 
@@ -76,14 +81,29 @@ public class TrinomialTree {
       OptionFunction function,
       RecombiningTrinomialTreeData data) {
 
-    int nSteps = data.getNumberOfSteps();
-    ArgChecker.isTrue(nSteps == function.getNumberOfSteps(), "mismatch in number of steps");
-    DoubleArray values = function.getPayoffAtExpiryTrinomial(data.getStateValueAtLayer(nSteps));
-    for (int i = nSteps - 1; i > -1; --i) {
-      values = function.getNextOptionValues(
-          data.getDiscountFactorAtLayer(i), data.getProbabilityAtLayer(i), data.getStateValueAtLayer(i), values, i);
+    return optionPrice(ImmutableList.of(function), data).get(0);
+  }
+
+  /**
+   * Price options under the specified trinomial tree gird.
+   * <p>
+   * All of the options are priced in a single backward induction through the tree,
+   * thus the tree data for each time layer is accessed only once.
+   * 
+   * @param functions  the options
+   * @param data  the trinomial tree data
+   * @return the option prices, in the order of the functions
+   */
+  public DoubleArray optionPrice(
+      List<? extends OptionFunction> functions,
+      RecombiningTrinomialTreeData data) {
+
+    double[][] values = backwardInduction(functions, data, null);
+    double[] prices = new double[values.length];
+    for (int k = 0; k < values.length; ++k) {
+      prices[k] = values[k][0];
     }
-    return values.get(0);
+    return DoubleArray.ofUnsafe(prices);
   }
 
   /**
@@ -100,21 +120,70 @@ public class TrinomialTree {
       OptionFunction function,
       RecombiningTrinomialTreeData data) {
 
+    return optionPriceAdjoint(ImmutableList.of(function), data).get(0);
+  }
+
+  /**
+   * Compute option prices and deltas under the specified trinomial tree gird.
+   * <p>
+   * The delta is the first derivative of the price with respect to spot, and approximated by the data embedded in 
+   * the trinomial tree.
+   * <p>
+   * All of the options are priced in a single backward induction through the tree,
+   * thus the tree data for each time layer is accessed only once.
+   * 
+   * @param functions  the options
+   * @param data  the trinomial tree data
+   * @return the option prices and spot deltas, in the order of the functions
+   */
+  public List<ValueDerivatives> optionPriceAdjoint(
+      List<? extends OptionFunction> functions,
+      RecombiningTrinomialTreeData data) {
+
+    double[] deltas = new double[functions.size()];
+    double[][] values = backwardInduction(functions, data, deltas);
+    ImmutableList.Builder<ValueDerivatives> builder = ImmutableList.builder();
+    for (int k = 0; k < values.length; ++k) {
+      builder.add(ValueDerivatives.of(values[k][0], DoubleArray.of(deltas[k])));
+    }
+    return builder.build();
+  }
+
+  // the option values are held in a single array per option, updated in place from layer to layer
+  // the deltas are computed if the array is non-null
+  private double[][] backwardInduction(
+      List<? extends OptionFunction> functions,
+      RecombiningTrinomialTreeData data,
+      double[] deltas) {
+
+    ArgChecker.notNull(functions, "functions");
+    ArgChecker.notNull(data, "data");
     int nSteps = data.getNumberOfSteps();
-    ArgChecker.isTrue(nSteps == function.getNumberOfSteps(), "mismatch in number of steps");
-    DoubleArray values = function.getPayoffAtExpiryTrinomial(data.getStateValueAtLayer(nSteps));
-    double delta = 0d;
+    int nFunctions = functions.size();
+    OptionFunction[] fns = functions.toArray(new OptionFunction[nFunctions]);
+    double[][] values = new double[nFunctions][];
+    DoubleArray stateAtExpiry = data.getStateValueAtLayer(nSteps);
+    for (int k = 0; k < nFunctions; ++k) {
+      ArgChecker.isTrue(nSteps == fns[k].getNumberOfSteps(), "mismatch in number of steps");
+      values[k] = fns[k].getPayoffAtExpiryTrinomial(stateAtExpiry).toArray();
+    }
     for (int i = nSteps - 1; i > -1; --i) {
-      values = function.getNextOptionValues(
-          data.getDiscountFactorAtLayer(i), data.getProbabilityAtLayer(i), data.getStateValueAtLayer(i), values, i);
-      if (i == 1) {
-        DoubleArray stateValue = data.getStateValueAtLayer(1);
-        double d1 = (values.get(2) - values.get(1)) / (stateValue.get(2) - stateValue.get(1));
-        double d2 = (values.get(1) - values.get(0)) / (stateValue.get(1) - stateValue.get(0));
-        delta = 0.5 * (d1 + d2);
+      double discountFactor = data.getDiscountFactorAtLayer(i);
+      DoubleMatrix probability = data.getProbabilityAtLayer(i);
+      DoubleArray stateValue = data.getStateValueAtLayer(i);
+      for (int k = 0; k < nFunctions; ++k) {
+        fns[k].updateOptionValues(discountFactor, probability, stateValue, values[k], i);
+      }
+      if (i == 1 && deltas != null) {
+        for (int k = 0; k < nFunctions; ++k) {
+          double[] value = values[k];
+          double d1 = (value[2] - value[1]) / (stateValue.get(2) - stateValue.get(1));
+          double d2 = (value[1] - value[0]) / (stateValue.get(1) - stateValue.get(0));
+          deltas[k] = 0.5 * (d1 + d2);
+        }
       }
     }
-    return ValueDerivatives.of(values.get(0), DoubleArray.of(delta));
+    return values;
   }
 
 }
@@ -6,10 +6,12 @@
 package com.opengamma.strata.pricer.index;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import com.opengamma.strata.basics.index.IborIndexObservation;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorVolatilityIntegrals;
 import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParametersProvider;
 import com.opengamma.strata.pricer.rate.IborRateSensitivity;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -142,6 +144,56 @@ public class HullWhiteIborFutureProductPricer {
     return convexity * forward - (1d - convexity) / fixingYearFraction;
   }
 
+  /**
+  * Calculates the price of several Ibor future products with the same model.
+  * <p>
+  * The result is the same as calling {@link #price(ResolvedIborFuture, RatesProvider,
+  * HullWhiteOneFactorPiecewiseConstantParametersProvider)} for each future, but the convexity factors are
+  * obtained from the cumulative volatility integrals of the Hull-White provider.
+  * 
+  * @param futures  the futures
+  * @param ratesProvider  the rates provider
+  * @param hwProvider  the Hull-White model parameter provider
+  * @return the prices of the products, in decimal form, in the same order as the futures
+  */
+  public DoubleArray price(
+      List<ResolvedIborFuture> futures,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    return parRate(futures, ratesProvider, hwProvider).map(parRate -> 1d - parRate);
+  }
+
+  /**
+  * Calculates the par rate of several Ibor future products with the same model.
+  * <p>
+  * The result is the same as calling {@link #parRate(ResolvedIborFuture, RatesProvider,
+  * HullWhiteOneFactorPiecewiseConstantParametersProvider)} for each future, but the convexity factors are
+  * obtained from the cumulative volatility integrals of the Hull-White provider.
+  * 
+  * @param futures  the futures
+  * @param ratesProvider  the rates provider
+  * @param hwProvider  the Hull-White model parameter provider
+  * @return the par rates of the products, in decimal form, in the same order as the futures
+  */
+  public DoubleArray parRate(
+      List<ResolvedIborFuture> futures,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    HullWhiteOneFactorVolatilityIntegrals integrals = hwProvider.getVolatilityIntegrals();
+    return DoubleArray.of(futures.size(), i -> {
+      ResolvedIborFuture future = futures.get(i);
+      IborIndexObservation obs = future.getIborRate().getObservation();
+      double forward = ratesProvider.iborIndexRates(future.getIndex()).rate(obs);
+      double convexity = integrals.futuresConvexityFactor(
+          hwProvider.relativeTime(future.getLastTradeDate()),
+          hwProvider.relativeTime(obs.getEffectiveDate()),
+          hwProvider.relativeTime(obs.getMaturityDate()));
+      return convexity * forward - (1d - convexity) / obs.getYearFraction();
+    });
+  }
+
   /**
   * Calculates the price sensitivity of the Ibor future product.
   * <p>
@@ -18,6 +18,7 @@ import org.joda.beans.Bean;
 import org.joda.beans.BeanBuilder;
 import org.joda.beans.BeanDefinition;
 import org.joda.beans.ImmutableBean;
+import org.joda.beans.ImmutableConstructor;
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.Property;
@@ -31,6 +32,7 @@ import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantInterestRateModel;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorVolatilityIntegrals;
 
 /**
  * Hull-White one factor model with piecewise constant volatility.
@@ -64,6 +66,10 @@ public final class HullWhiteOneFactorPiecewiseConstantParametersProvider
    */
   @PropertyDefinition(validate = "notNull")
   private final ZonedDateTime valuationDateTime;
+  /**
+   * The cumulative volatility integrals of the parameters.
+   */
+  private final transient HullWhiteOneFactorVolatilityIntegrals volatilityIntegrals;  // derived, not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -102,6 +108,28 @@ public final class HullWhiteOneFactorPiecewiseConstantParametersProvider
     return of(parameters, dayCount, valuationDate.atTime(valuationTime).atZone(valuationZone));
   }
 
+  //-------------------------------------------------------------------------
+  // restricted constructor
+  @ImmutableConstructor
+  private HullWhiteOneFactorPiecewiseConstantParametersProvider(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DayCount dayCount,
+      ZonedDateTime valuationDateTime) {
+
+    JodaBeanUtils.notNull(parameters, "parameters");
+    JodaBeanUtils.notNull(dayCount, "dayCount");
+    JodaBeanUtils.notNull(valuationDateTime, "valuationDateTime");
+    this.parameters = parameters;
+    this.dayCount = dayCount;
+    this.valuationDateTime = valuationDateTime;
+    this.volatilityIntegrals = HullWhiteOneFactorVolatilityIntegrals.of(parameters);
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new HullWhiteOneFactorPiecewiseConstantParametersProvider(parameters, dayCount, valuationDateTime);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calculates the future convexity factor for the specified period at the future reference date.
@@ -194,6 +222,19 @@ public final class HullWhiteOneFactorPiecewiseConstantParametersProvider
     return MODEL.alphaAdjoint(parameters, startTime, endTime, numeraireTime, maturityTime);
   }
 
+  /**
+   * Gets the cumulative volatility integrals of the model parameters.
+   * <p>
+   * The integrals are computed once when this provider is created.
+   * They allow alpha and the futures convexity factor to be computed for many instruments without
+   * integrating the piecewise constant volatility for each of them.
+   * 
+   * @return the volatility integrals
+   */
+  public HullWhiteOneFactorVolatilityIntegrals getVolatilityIntegrals() {
+    return volatilityIntegrals;
+  }
+
   /**
    * Returns a Hull-White one-factor model.
    * 
@@ -222,18 +263,6 @@ public final class HullWhiteOneFactorPiecewiseConstantParametersProvider
    */
   private static final long serialVersionUID = 1L;
 
-  private HullWhiteOneFactorPiecewiseConstantParametersProvider(
-      HullWhiteOneFactorPiecewiseConstantParameters parameters,
-      DayCount dayCount,
-      ZonedDateTime valuationDateTime) {
-    JodaBeanUtils.notNull(parameters, "parameters");
-    JodaBeanUtils.notNull(dayCount, "dayCount");
-    JodaBeanUtils.notNull(valuationDateTime, "valuationDateTime");
-    this.parameters = parameters;
-    this.dayCount = dayCount;
-    this.valuationDateTime = valuationDateTime;
-  }
-
   @Override
   public HullWhiteOneFactorPiecewiseConstantParametersProvider.Meta metaBean() {
     return HullWhiteOneFactorPiecewiseConstantParametersProvider.Meta.INSTANCE;
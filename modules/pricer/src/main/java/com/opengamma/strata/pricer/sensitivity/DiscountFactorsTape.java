@@ -0,0 +1,299 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.sensitivity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.UnitParameterSensitivity;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.SimpleDiscountFactors;
+import com.opengamma.strata.pricer.ZeroRateDiscountFactors;
+import com.opengamma.strata.pricer.ZeroRateSensitivity;
+
+/**
+ * A tape of discount factors, used to compute parameter sensitivities in reverse mode.
+ * <p>
+ * The present value of a linear rates product, such as a swap or a FRA, is a function of the
+ * discount factors of a few curves at a fixed set of times. The tape records these times once,
+ * with one slot for each distinct curve and time, such that a forward rate ending at the start
+ * of the next forward rate shares its slot.
+ * <p>
+ * Each pricing evaluates the discount factors of all the slots using {@link #evaluate(List)}.
+ * The pricer computes the value from them, then propagates the derivative of the value back to
+ * each slot using {@link Evaluation#addAdjoint(int, double)}. The parameter sensitivity is obtained
+ * by accumulating the adjoint of each slot directly into one array of parameters per curve,
+ * without building, normalizing and converting point sensitivities.
+ * <p>
+ * The tape is immutable and can be reused with any curves having the day count of the curves
+ * used to compute the times. Each evaluation holds its own values and adjoints.
+ */
+public final class DiscountFactorsTape {
+
+  /**
+   * The year fraction below which a simple discount factor is one, as in {@link SimpleDiscountFactors}.
+   */
+  private static final double EFFECTIVE_ZERO = 1e-10;
+
+  /**
+   * The number of curves.
+   */
+  private final int curveCount;
+  /**
+   * The curve of each slot.
+   */
+  private final int[] slotCurves;
+  /**
+   * The time of each slot, as a year fraction relative to the valuation date.
+   */
+  private final double[] slotTimes;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a builder for a tape on the specified number of curves.
+   * <p>
+   * The curves are identified by their index, from zero.
+   *
+   * @param curveCount  the number of curves
+   * @return the builder
+   */
+  public static Builder builder(int curveCount) {
+    ArgChecker.notNegativeOrZero(curveCount, "curveCount");
+    return new Builder(curveCount);
+  }
+
+  // restricted constructor
+  private DiscountFactorsTape(int curveCount, int[] slotCurves, double[] slotTimes) {
+    this.curveCount = curveCount;
+    this.slotCurves = slotCurves;
+    this.slotTimes = slotTimes;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of curves.
+   *
+   * @return the number of curves
+   */
+  public int getCurveCount() {
+    return curveCount;
+  }
+
+  /**
+   * Gets the number of slots.
+   *
+   * @return the number of slots
+   */
+  public int size() {
+    return slotTimes.length;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Evaluates the discount factors of the slots.
+   * <p>
+   * The discount factors are listed in the order of the curve indices.
+   * The evaluation is not thread-safe, but the tape can be evaluated concurrently.
+   *
+   * @param curves  the discount factors of each curve
+   * @return the evaluation
+   */
+  public Evaluation evaluate(List<DiscountFactors> curves) {
+    ArgChecker.isTrue(curves.size() == curveCount, "Expected {} curves, but found {}", curveCount, curves.size());
+    return new Evaluation(curves.toArray(new DiscountFactors[curveCount]));
+  }
+
+  @Override
+  public String toString() {
+    return "DiscountFactorsTape[" + curveCount + " curves, " + slotTimes.length + " slots]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builder for the tape, recording the times of the discount factors.
+   */
+  public static final class Builder {
+    /**
+     * The slot of each time, for each curve.
+     */
+    private final List<Map<Double, Integer>> slots = new ArrayList<>();
+    /**
+     * The curve of each slot.
+     */
+    private final List<Integer> slotCurves = new ArrayList<>();
+    /**
+     * The time of each slot.
+     */
+    private final List<Double> slotTimes = new ArrayList<>();
+
+    // restricted constructor
+    private Builder(int curveCount) {
+      for (int i = 0; i < curveCount; i++) {
+        slots.add(new HashMap<>());
+      }
+    }
+
+    /**
+     * Records the discount factor of a curve at a time, returning its slot.
+     * <p>
+     * If the same curve and time have already been recorded, the existing slot is returned.
+     *
+     * @param curve  the index of the curve
+     * @param yearFraction  the time, as a year fraction relative to the valuation date
+     * @return the slot
+     */
+    public int slot(int curve, double yearFraction) {
+      ArgChecker.inRange(curve, 0, slots.size(), "curve");
+      return slots.get(curve).computeIfAbsent(yearFraction, t -> {
+        slotCurves.add(curve);
+        slotTimes.add(t);
+        return slotTimes.size() - 1;
+      });
+    }
+
+    /**
+     * Builds the tape.
+     *
+     * @return the tape
+     */
+    public DiscountFactorsTape build() {
+      int[] curves = slotCurves.stream().mapToInt(Integer::intValue).toArray();
+      double[] times = slotTimes.stream().mapToDouble(Double::doubleValue).toArray();
+      return new DiscountFactorsTape(slots.size(), curves, times);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * An evaluation of the tape, holding the discount factors and their adjoints.
+   * <p>
+   * The adjoint of a slot is the derivative of the value being priced with respect to its discount factor.
+   * Instances are mutable and are not thread-safe.
+   */
+  public final class Evaluation {
+    /**
+     * The discount factors of each curve.
+     */
+    private final DiscountFactors[] curves;
+    /**
+     * The discount factor of each slot.
+     */
+    private final double[] values;
+    /**
+     * The adjoint of each slot.
+     */
+    private final double[] adjoints;
+
+    // restricted constructor
+    private Evaluation(DiscountFactors[] curves) {
+      this.curves = curves;
+      this.values = new double[slotTimes.length];
+      this.adjoints = new double[slotTimes.length];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = curves[slotCurves[i]].discountFactor(slotTimes[i]);
+      }
+    }
+
+    /**
+     * Gets the discount factor of a slot.
+     *
+     * @param slot  the slot
+     * @return the discount factor
+     */
+    public double discountFactor(int slot) {
+      return values[slot];
+    }
+
+    /**
+     * Adds to the adjoint of a slot.
+     *
+     * @param slot  the slot
+     * @param adjoint  the derivative of the value with respect to the discount factor
+     */
+    public void addAdjoint(int slot, double adjoint) {
+      adjoints[slot] += adjoint;
+    }
+
+    /**
+     * Calculates the parameter sensitivity from the adjoints.
+     * <p>
+     * The sensitivity to each curve is expressed in the currency of the curve.
+     * For discount factors based on a zero rate or discount factor curve, the adjoint of each slot is
+     * accumulated directly into the parameters of its curve, resulting in one entry for each curve.
+     * Otherwise, the point sensitivity of each slot is converted.
+     *
+     * @return the parameter sensitivity
+     */
+    public CurrencyParameterSensitivities parameterSensitivity() {
+      double[][] buckets = new double[curveCount][];
+      CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
+      for (int i = 0; i < adjoints.length; i++) {
+        if (adjoints[i] == 0d) {
+          continue;
+        }
+        int curve = slotCurves[i];
+        DiscountFactors discountFactors = curves[curve];
+        Curve parameterCurve = parameterCurve(discountFactors);
+        UnitParameterSensitivity unitSens =
+            parameterCurve != null ? parameterCurve.yValueParameterSensitivity(slotTimes[i]) : null;
+        if (unitSens == null || unitSens.getParameterCount() != parameterCurve.getParameterCount()) {
+          ZeroRateSensitivity pointSens =
+              discountFactors.zeroRatePointSensitivity(slotTimes[i]).multipliedBy(adjoints[i]);
+          result = result.combinedWith(discountFactors.parameterSensitivity(pointSens));
+          continue;
+        }
+        // chain rule, from the discount factor to the y-value of the curve, then to the parameters
+        double yValueBar = adjoints[i] * yValueDerivative(discountFactors, i);
+        if (yValueBar == 0d) {
+          continue;
+        }
+        if (buckets[curve] == null) {
+          buckets[curve] = new double[parameterCurve.getParameterCount()];
+        }
+        double[] bucket = buckets[curve];
+        DoubleArray derivatives = unitSens.getSensitivity();
+        for (int j = 0; j < bucket.length; j++) {
+          bucket[j] += yValueBar * derivatives.get(j);
+        }
+      }
+      for (int curve = 0; curve < curveCount; curve++) {
+        if (buckets[curve] != null) {
+          DiscountFactors discountFactors = curves[curve];
+          result = result.combinedWith(discountFactors.createParameterSensitivity(
+              discountFactors.getCurrency(), DoubleArray.ofUnsafe(buckets[curve])));
+        }
+      }
+      return result;
+    }
+
+    // the curve whose y-value the discount factor is derived from, null if not known
+    private Curve parameterCurve(DiscountFactors discountFactors) {
+      if (discountFactors instanceof ZeroRateDiscountFactors) {
+        return ((ZeroRateDiscountFactors) discountFactors).getCurve();
+      } else if (discountFactors instanceof SimpleDiscountFactors) {
+        return ((SimpleDiscountFactors) discountFactors).getCurve();
+      }
+      return null;
+    }
+
+    // the derivative of the discount factor of the slot to the y-value of its curve
+    private double yValueDerivative(DiscountFactors discountFactors, int slot) {
+      double yearFraction = slotTimes[slot];
+      if (discountFactors instanceof ZeroRateDiscountFactors) {
+        return -yearFraction * values[slot];
+      }
+      // the discount factor at time zero is always one, thus has no sensitivity
+      return Math.abs(yearFraction) < EFFECTIVE_ZERO ? 0d : 1d;
+    }
+  }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.pricer.impl.swap.DispatchingSwapPaymentEventPricer;
+import com.opengamma.strata.pricer.impl.swap.DispatchingSwapPaymentPeriodPricer;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * A swap leg compiled for repeated pricing, with the pricer of each period and event selected once.
+ * <p>
+ * The pricers of {@link DiscountingSwapLegPricer} dispatch each period and event to the pricer for its type,
+ * and each accrual period to the rate computation function for its type, on every call.
+ * This is compiled once using {@link DiscountingSwapLegPricer#compile(ResolvedSwapLeg)}, which selects
+ * the pricer of each period and event. Pricing the compiled leg calls those pricers directly.
+ * <p>
+ * The compiled leg does not depend on market data or valuation date, thus it can be cached alongside
+ * the resolved trade and used with any {@link RatesProvider}. The results are the same as those
+ * of the pricer used to compile the leg. Instances are immutable and thread-safe.
+ */
+public final class CompiledSwapLeg {
+
+  /**
+   * The leg.
+   */
+  private final ResolvedSwapLeg leg;
+  /**
+   * The payment periods.
+   */
+  private final SwapPaymentPeriod[] periods;
+  /**
+   * The pricer of each payment period.
+   */
+  private final List<SwapPaymentPeriodPricer<SwapPaymentPeriod>> periodPricers;
+  /**
+   * The payment events.
+   */
+  private final SwapPaymentEvent[] events;
+  /**
+   * The pricer of each payment event.
+   */
+  private final List<SwapPaymentEventPricer<SwapPaymentEvent>> eventPricers;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Compiles the leg.
+   * <p>
+   * If a pricer is a {@link DispatchingSwapPaymentPeriodPricer} or {@link DispatchingSwapPaymentEventPricer},
+   * the pricer of each period or event is selected. Otherwise, the pricer is used for all of them.
+   *
+   * @param leg  the leg
+   * @param periodPricer  the pricer for payment periods
+   * @param eventPricer  the pricer for payment events
+   * @return the compiled leg
+   */
+  static CompiledSwapLeg of(
+      ResolvedSwapLeg leg,
+      SwapPaymentPeriodPricer<SwapPaymentPeriod> periodPricer,
+      SwapPaymentEventPricer<SwapPaymentEvent> eventPricer) {
+
+    ImmutableList.Builder<SwapPaymentPeriodPricer<SwapPaymentPeriod>> periodPricers = ImmutableList.builder();
+    for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+      periodPricers.add(periodPricer instanceof DispatchingSwapPaymentPeriodPricer ?
+          ((DispatchingSwapPaymentPeriodPricer) periodPricer).select(period) :
+          periodPricer);
+    }
+    ImmutableList.Builder<SwapPaymentEventPricer<SwapPaymentEvent>> eventPricers = ImmutableList.builder();
+    for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+      eventPricers.add(eventPricer instanceof DispatchingSwapPaymentEventPricer ?
+          ((DispatchingSwapPaymentEventPricer) eventPricer).select(event) :
+          eventPricer);
+    }
+    return new CompiledSwapLeg(leg, periodPricers.build(), eventPricers.build());
+  }
+
+  // restricted constructor
+  private CompiledSwapLeg(
+      ResolvedSwapLeg leg,
+      List<SwapPaymentPeriodPricer<SwapPaymentPeriod>> periodPricers,
+      List<SwapPaymentEventPricer<SwapPaymentEvent>> eventPricers) {
+
+    this.leg = leg;
+    this.periods = leg.getPaymentPeriods().toArray(new SwapPaymentPeriod[0]);
+    this.periodPricers = periodPricers;
+    this.events = leg.getPaymentEvents().toArray(new SwapPaymentEvent[0]);
+    this.eventPricers = eventPricers;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the leg that was compiled.
+   *
+   * @return the leg
+   */
+  public ResolvedSwapLeg getLeg() {
+    return leg;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the swap leg.
+   * <p>
+   * This is equal to {@link DiscountingSwapLegPricer#presentValue(ResolvedSwapLeg, RatesProvider)}.
+   * The result is returned using the payment currency of the leg.
+   *
+   * @param provider  the rates provider
+   * @return the present value of the swap leg
+   */
+  public CurrencyAmount presentValue(RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    double total = 0d;
+    for (int i = 0; i < periods.length; i++) {
+      if (!periods[i].getPaymentDate().isBefore(valuationDate)) {
+        total += periodPricers.get(i).presentValue(periods[i], provider);
+      }
+    }
+    for (int i = 0; i < events.length; i++) {
+      if (!events[i].getPaymentDate().isBefore(valuationDate)) {
+        total += eventPricers.get(i).presentValue(events[i], provider);
+      }
+    }
+    return CurrencyAmount.of(leg.getCurrency(), total);
+  }
+
+  /**
+   * Calculates the forecast value of the swap leg.
+   * <p>
+   * This is equal to {@link DiscountingSwapLegPricer#forecastValue(ResolvedSwapLeg, RatesProvider)}.
+   * The result is returned using the payment currency of the leg.
+   *
+   * @param provider  the rates provider
+   * @return the forecast value of the swap leg
+   */
+  public CurrencyAmount forecastValue(RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    double total = 0d;
+    for (int i = 0; i < periods.length; i++) {
+      if (!periods[i].getPaymentDate().isBefore(valuationDate)) {
+        total += periodPricers.get(i).forecastValue(periods[i], provider);
+      }
+    }
+    for (int i = 0; i < events.length; i++) {
+      if (!events[i].getPaymentDate().isBefore(valuationDate)) {
+        total += eventPricers.get(i).forecastValue(events[i], provider);
+      }
+    }
+    return CurrencyAmount.of(leg.getCurrency(), total);
+  }
+
+  /**
+   * Calculates the present value sensitivity of the swap leg.
+   * <p>
+   * This is equal to {@link DiscountingSwapLegPricer#presentValueSensitivity(ResolvedSwapLeg, RatesProvider)}.
+   *
+   * @param provider  the rates provider
+   * @return the present value curve sensitivity of the swap leg
+   */
+  public PointSensitivityBuilder presentValueSensitivity(RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    PointSensitivityBuilder builder = PointSensitivityBuilder.none();
+    for (int i = 0; i < periods.length; i++) {
+      if (!periods[i].getPaymentDate().isBefore(valuationDate)) {
+        builder = builder.combinedWith(periodPricers.get(i).presentValueSensitivity(periods[i], provider));
+      }
+    }
+    for (int i = 0; i < events.length; i++) {
+      if (!events[i].getPaymentDate().isBefore(valuationDate)) {
+        builder = builder.combinedWith(eventPricers.get(i).presentValueSensitivity(events[i], provider));
+      }
+    }
+    return builder;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CompiledSwapLeg[" + leg.getType() + ", " + leg.getCurrency() + ", " + periods.length + " periods]";
+  }
+
+}
@@ -88,6 +88,20 @@ public class DiscountingSwapLegPricer {
     return paymentEventPricer;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Compiles the swap leg for repeated pricing.
+   * <p>
+   * The pricer of each period and event is selected once, avoiding the dispatch by runtime type
+   * when the compiled leg is priced. The compiled leg can be cached alongside the resolved trade.
+   * 
+   * @param leg  the leg
+   * @return the compiled leg
+   */
+  public CompiledSwapLeg compile(ResolvedSwapLeg leg) {
+    return CompiledSwapLeg.of(leg, paymentPeriodPricer, paymentEventPricer);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calculates the present value of the swap leg, converted to the specified currency.
@@ -0,0 +1,594 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.rate.DiscountIborIndexRates;
+import com.opengamma.strata.pricer.rate.IborIndexRates;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.sensitivity.DiscountFactorsTape;
+import com.opengamma.strata.product.rate.FixedRateComputation;
+import com.opengamma.strata.product.rate.IborRateComputation;
+import com.opengamma.strata.product.rate.RateComputation;
+import com.opengamma.strata.product.swap.NegativeRateMethod;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * A swap leg prepared for repeated pricing at a single valuation date.
+ * <p>
+ * The pricers of {@link DiscountingSwapLegPricer} compute the year fraction of each payment date,
+ * compare each fixing date to the valuation date and look up the fixings on every call.
+ * The plan does this once, when it is created, holding the payment times, accrual factors and
+ * the times of the forward rate observations as primitive arrays. The rates of fixings that are
+ * known at the valuation date are resolved when the plan is created.
+ * <p>
+ * The plan can then price the leg against any {@link RatesProvider} with the same valuation date,
+ * such as the providers of the scenarios of a scenario calculation or of the iterations of a calibration.
+ * The times are relative to the curves of the provider used to create the plan, thus the curves
+ * must have the same day count. The results are the same as those of {@link DiscountingSwapLegPricer#DEFAULT}.
+ * <p>
+ * The plan supports legs of {@link RatePaymentPeriod} with a single accrual period, no FX reset and
+ * a fixed or Ibor rate, with a single Ibor index, and {@link NotionalExchange} events in the leg currency.
+ * This covers the legs of vanilla fixed-Ibor swaps. Instances are immutable and thread-safe.
+ */
+public final class SwapLegPricingPlan {
+
+  /**
+   * The leg.
+   */
+  private final ResolvedSwapLeg leg;
+  /**
+   * The valuation date.
+   */
+  private final LocalDate valuationDate;
+  /**
+   * The Ibor index, null if the leg has no forward rate.
+   */
+  private final IborIndex index;
+  /**
+   * The payment time of each period, relative to the discount curve.
+   */
+  private final double[] paymentTimes;
+  /**
+   * The notional of each period.
+   */
+  private final double[] notionals;
+  /**
+   * The accrual factor of each period.
+   */
+  private final double[] accrualFactors;
+  /**
+   * The gearing of each period.
+   */
+  private final double[] gearings;
+  /**
+   * The spread of each period.
+   */
+  private final double[] spreads;
+  /**
+   * The negative rate method of each period.
+   */
+  private final NegativeRateMethod[] negativeRateMethods;
+  /**
+   * The rate of each period, NaN if the rate is a forward rate.
+   */
+  private final double[] knownRates;
+  /**
+   * The observation of each period, null if the rate is known.
+   */
+  private final IborIndexObservation[] observations;
+  /**
+   * The time of the effective date of each observation, relative to the index curve, NaN if not available.
+   */
+  private final double[] fixingStartTimes;
+  /**
+   * The time of the maturity date of each observation, relative to the index curve, NaN if not available.
+   */
+  private final double[] fixingEndTimes;
+  /**
+   * The payment time of each event, relative to the discount curve.
+   */
+  private final double[] eventTimes;
+  /**
+   * The amount of each event.
+   */
+  private final double[] eventAmounts;
+  /**
+   * The date used to check the discount curve, null if nothing is paid.
+   */
+  private final LocalDate discountCheckDate;
+  /**
+   * The time of the date used to check the discount curve.
+   */
+  private final double discountCheckTime;
+  /**
+   * The date used to check the index curve, null if the times are not available.
+   */
+  private final LocalDate indexCheckDate;
+  /**
+   * The time of the date used to check the index curve.
+   */
+  private final double indexCheckTime;
+  /**
+   * The tape of the discount factors, the index curve being the second curve if the times are available.
+   */
+  private final DiscountFactorsTape tape;
+  /**
+   * The slot of the payment of each period.
+   */
+  private final int[] paymentSlots;
+  /**
+   * The slot of the effective date of each observation, -1 if not available.
+   */
+  private final int[] fixingStartSlots;
+  /**
+   * The slot of the maturity date of each observation, -1 if not available.
+   */
+  private final int[] fixingEndSlots;
+  /**
+   * The slot of the payment of each event.
+   */
+  private final int[] eventSlots;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the pricing plan of the leg.
+   * <p>
+   * The provider determines the valuation date, the known fixings and the times.
+   * Periods and events paid before the valuation date are excluded.
+   *
+   * @param leg  the leg
+   * @param provider  the rates provider
+   * @return the pricing plan
+   * @throws IllegalArgumentException if the leg is not supported or a required fixing is missing
+   */
+  public static SwapLegPricingPlan of(ResolvedSwapLeg leg, RatesProvider provider) {
+    ArgChecker.notNull(leg, "leg");
+    ArgChecker.notNull(provider, "provider");
+    return new SwapLegPricingPlan(leg, provider);
+  }
+
+  // restricted constructor
+  private SwapLegPricingPlan(ResolvedSwapLeg leg, RatesProvider provider) {
+    this.leg = leg;
+    this.valuationDate = provider.getValuationDate();
+    Currency currency = leg.getCurrency();
+    DiscountFactors discountFactors = provider.discountFactors(currency);
+    // select the periods and events paid on or after the valuation date
+    List<RatePaymentPeriod> periods = new ArrayList<>();
+    IborIndex iborIndex = null;
+    for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+      if (period.getPaymentDate().isBefore(valuationDate)) {
+        continue;
+      }
+      RatePaymentPeriod ratePeriod = checkPeriod(period, currency);
+      RateComputation computation = ratePeriod.getAccrualPeriods().get(0).getRateComputation();
+      if (computation instanceof IborRateComputation) {
+        IborIndex periodIndex = ((IborRateComputation) computation).getIndex();
+        ArgChecker.isTrue(iborIndex == null || iborIndex.equals(periodIndex),
+            "Pricing plan requires a single Ibor index, but found {} and {}", iborIndex, periodIndex);
+        iborIndex = periodIndex;
+      }
+      periods.add(ratePeriod);
+    }
+    List<NotionalExchange> events = new ArrayList<>();
+    for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+      if (!event.getPaymentDate().isBefore(valuationDate)) {
+        events.add(checkEvent(event, currency));
+      }
+    }
+    this.index = iborIndex;
+    // periods
+    int size = periods.size();
+    this.paymentTimes = new double[size];
+    this.notionals = new double[size];
+    this.accrualFactors = new double[size];
+    this.gearings = new double[size];
+    this.spreads = new double[size];
+    this.negativeRateMethods = new NegativeRateMethod[size];
+    this.knownRates = new double[size];
+    this.observations = new IborIndexObservation[size];
+    this.fixingStartTimes = new double[size];
+    this.fixingEndTimes = new double[size];
+    IborIndexRates indexRates = iborIndex != null ? provider.iborIndexRates(iborIndex) : null;
+    DiscountFactors indexDiscountFactors = indexRates instanceof DiscountIborIndexRates ?
+        ((DiscountIborIndexRates) indexRates).getDiscountFactors() :
+        null;
+    LocalDate lastPaymentDate = null;
+    LocalDate lastMaturityDate = null;
+    for (int i = 0; i < size; i++) {
+      RatePaymentPeriod period = periods.get(i);
+      RateAccrualPeriod accrualPeriod = period.getAccrualPeriods().get(0);
+      paymentTimes[i] = discountFactors.relativeYearFraction(period.getPaymentDate());
+      notionals[i] = period.getNotional();
+      accrualFactors[i] = accrualPeriod.getYearFraction();
+      gearings[i] = accrualPeriod.getGearing();
+      spreads[i] = accrualPeriod.getSpread();
+      negativeRateMethods[i] = accrualPeriod.getNegativeRateMethod();
+      knownRates[i] = Double.NaN;
+      fixingStartTimes[i] = Double.NaN;
+      fixingEndTimes[i] = Double.NaN;
+      lastPaymentDate = latest(lastPaymentDate, period.getPaymentDate());
+      RateComputation computation = accrualPeriod.getRateComputation();
+      if (computation instanceof FixedRateComputation) {
+        knownRates[i] = ((FixedRateComputation) computation).getRate();
+      } else {
+        IborIndexObservation observation = ((IborRateComputation) computation).getObservation();
+        OptionalDouble fixing = knownFixing(observation, indexRates);
+        if (fixing.isPresent()) {
+          knownRates[i] = fixing.getAsDouble();
+        } else {
+          observations[i] = observation;
+          if (indexDiscountFactors != null) {
+            fixingStartTimes[i] = indexDiscountFactors.relativeYearFraction(observation.getEffectiveDate());
+            fixingEndTimes[i] = indexDiscountFactors.relativeYearFraction(observation.getMaturityDate());
+            lastMaturityDate = latest(lastMaturityDate, observation.getMaturityDate());
+          }
+        }
+      }
+    }
+    // events
+    this.eventTimes = new double[events.size()];
+    this.eventAmounts = new double[events.size()];
+    for (int i = 0; i < events.size(); i++) {
+      NotionalExchange event = events.get(i);
+      eventTimes[i] = discountFactors.relativeYearFraction(event.getPaymentDate());
+      eventAmounts[i] = event.getPaymentAmount().getAmount();
+      lastPaymentDate = latest(lastPaymentDate, event.getPaymentDate());
+    }
+    // the dates used to check that the curves of a provider have the same day count
+    this.discountCheckDate = lastPaymentDate;
+    this.discountCheckTime = lastPaymentDate != null ? discountFactors.relativeYearFraction(lastPaymentDate) : 0d;
+    this.indexCheckDate = lastMaturityDate;
+    this.indexCheckTime = lastMaturityDate != null ? indexDiscountFactors.relativeYearFraction(lastMaturityDate) : 0d;
+    // the tape, with one slot for each distinct time of each curve
+    DiscountFactorsTape.Builder tapeBuilder = DiscountFactorsTape.builder(lastMaturityDate != null ? 2 : 1);
+    this.paymentSlots = new int[size];
+    this.fixingStartSlots = new int[size];
+    this.fixingEndSlots = new int[size];
+    for (int i = 0; i < size; i++) {
+      paymentSlots[i] = tapeBuilder.slot(0, paymentTimes[i]);
+      boolean onTape = observations[i] != null && indexDiscountFactors != null;
+      fixingStartSlots[i] = onTape ? tapeBuilder.slot(1, fixingStartTimes[i]) : -1;
+      fixingEndSlots[i] = onTape ? tapeBuilder.slot(1, fixingEndTimes[i]) : -1;
+    }
+    this.eventSlots = new int[eventTimes.length];
+    for (int i = 0; i < eventTimes.length; i++) {
+      eventSlots[i] = tapeBuilder.slot(0, eventTimes[i]);
+    }
+    this.tape = tapeBuilder.build();
+  }
+
+  // checks the period is supported
+  private static RatePaymentPeriod checkPeriod(SwapPaymentPeriod period, Currency currency) {
+    ArgChecker.isTrue(period instanceof RatePaymentPeriod,
+        "Pricing plan requires RatePaymentPeriod, but found {}", period.getClass().getSimpleName());
+    RatePaymentPeriod ratePeriod = (RatePaymentPeriod) period;
+    ArgChecker.isTrue(ratePeriod.getCurrency().equals(currency),
+        "Pricing plan requires periods in the leg currency {}, but found {}", currency, ratePeriod.getCurrency());
+    ArgChecker.isFalse(ratePeriod.getFxReset().isPresent(), "Pricing plan does not support FX reset");
+    ArgChecker.isTrue(ratePeriod.getAccrualPeriods().size() == 1, "Pricing plan does not support compounding");
+    RateComputation computation = ratePeriod.getAccrualPeriods().get(0).getRateComputation();
+    ArgChecker.isTrue(computation instanceof FixedRateComputation || computation instanceof IborRateComputation,
+        "Pricing plan requires fixed or Ibor rate, but found {}", computation.getClass().getSimpleName());
+    return ratePeriod;
+  }
+
+  // checks the event is supported
+  private static NotionalExchange checkEvent(SwapPaymentEvent event, Currency currency) {
+    ArgChecker.isTrue(event instanceof NotionalExchange,
+        "Pricing plan requires NotionalExchange, but found {}", event.getClass().getSimpleName());
+    NotionalExchange exchange = (NotionalExchange) event;
+    ArgChecker.isTrue(exchange.getCurrency().equals(currency),
+        "Pricing plan requires events in the leg currency {}, but found {}", currency, exchange.getCurrency());
+    return exchange;
+  }
+
+  // finds the fixing known at the valuation date, empty if the rate is a forward rate
+  private OptionalDouble knownFixing(IborIndexObservation observation, IborIndexRates indexRates) {
+    LocalDate fixingDate = observation.getFixingDate();
+    if (fixingDate.isAfter(valuationDate)) {
+      return OptionalDouble.empty();
+    }
+    OptionalDouble fixing = indexRates.getFixings().get(fixingDate);
+    if (!fixing.isPresent() && fixingDate.isBefore(valuationDate)) {
+      throw new IllegalArgumentException(
+          Messages.format("Unable to get fixing for {} on date {}", observation.getIndex(), fixingDate));
+    }
+    return fixing;
+  }
+
+  // the latest of two dates, the first may be null
+  private static LocalDate latest(LocalDate date1, LocalDate date2) {
+    return date1 == null || date2.isAfter(date1) ? date2 : date1;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the leg.
+   *
+   * @return the leg
+   */
+  public ResolvedSwapLeg getLeg() {
+    return leg;
+  }
+
+  /**
+   * Gets the valuation date of the plan.
+   * <p>
+   * The plan can only be used with a provider with this valuation date.
+   *
+   * @return the valuation date
+   */
+  public LocalDate getValuationDate() {
+    return valuationDate;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the swap leg.
+   * <p>
+   * This is equal to {@link DiscountingSwapLegPricer#presentValue(ResolvedSwapLeg, RatesProvider)}.
+   *
+   * @param provider  the rates provider, with the valuation date of the plan
+   * @return the present value of the swap leg
+   * @throws IllegalArgumentException if the provider is not consistent with the plan
+   */
+  public CurrencyAmount presentValue(RatesProvider provider) {
+    DiscountFactors discountFactors = discountFactors(provider);
+    double[] rates = rates(provider);
+    double total = 0d;
+    for (int i = 0; i < rates.length; i++) {
+      total += forecastValue(i, rates[i]) * discountFactors.discountFactor(paymentTimes[i]);
+    }
+    total += presentValueEvents(discountFactors);
+    return CurrencyAmount.of(leg.getCurrency(), total);
+  }
+
+  /**
+   * Calculates the forecast value of the swap leg.
+   * <p>
+   * This is equal to {@link DiscountingSwapLegPricer#forecastValue(ResolvedSwapLeg, RatesProvider)}.
+   *
+   * @param provider  the rates provider, with the valuation date of the plan
+   * @return the forecast value of the swap leg
+   * @throws IllegalArgumentException if the provider is not consistent with the plan
+   */
+  public CurrencyAmount forecastValue(RatesProvider provider) {
+    checkValuationDate(provider);
+    double[] rates = rates(provider);
+    double total = 0d;
+    for (int i = 0; i < rates.length; i++) {
+      total += forecastValue(i, rates[i]);
+    }
+    for (double amount : eventAmounts) {
+      total += amount;
+    }
+    return CurrencyAmount.of(leg.getCurrency(), total);
+  }
+
+  /**
+   * Calculates the Present Value of a Basis Point of the swap leg.
+   * <p>
+   * This is equal to {@link DiscountingSwapLegPricer#pvbp(ResolvedSwapLeg, RatesProvider)}.
+   *
+   * @param provider  the rates provider, with the valuation date of the plan
+   * @return the Present Value of a Basis Point
+   * @throws IllegalArgumentException if the provider is not consistent with the plan
+   */
+  public double pvbp(RatesProvider provider) {
+    DiscountFactors discountFactors = discountFactors(provider);
+    double pvbp = 0d;
+    for (int i = 0; i < paymentTimes.length; i++) {
+      pvbp += discountFactors.discountFactor(paymentTimes[i]) * accrualFactors[i] * notionals[i];
+    }
+    return pvbp;
+  }
+
+  /**
+   * Calculates the par rate of the swap formed by this leg and another leg.
+   * <p>
+   * This leg is the fixed leg. The par rate is the common fixed rate of the periods of this leg
+   * for which the present value of the swap is zero, the present value of the other leg being
+   * converted to the currency of this leg.
+   * This is equal to {@link DiscountingSwapProductPricer#parRate} for a swap with several fixed periods
+   * or a single fixed period without compounding.
+   *
+   * @param otherLeg  the plan of the other leg
+   * @param provider  the rates provider, with the valuation date of the plans
+   * @return the par rate
+   * @throws IllegalArgumentException if the provider is not consistent with the plans
+   */
+  public double parRate(SwapLegPricingPlan otherLeg, RatesProvider provider) {
+    Currency currency = leg.getCurrency();
+    CurrencyAmount otherPv = otherLeg.presentValue(provider);
+    double otherConvertedPv = otherPv.getAmount() * provider.fxRate(otherPv.getCurrency(), currency);
+    double eventsPv = presentValueEvents(discountFactors(provider));
+    return -(otherConvertedPv + eventsPv) / pvbp(provider);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value sensitivity of the swap leg.
+   * <p>
+   * This is equal to {@link DiscountingSwapLegPricer#presentValueSensitivity(ResolvedSwapLeg, RatesProvider)}.
+   *
+   * @param provider  the rates provider, with the valuation date of the plan
+   * @return the present value curve sensitivity of the swap leg
+   * @throws IllegalArgumentException if the provider is not consistent with the plan
+   */
+  public PointSensitivityBuilder presentValueSensitivity(RatesProvider provider) {
+    DiscountFactors discountFactors = discountFactors(provider);
+    IborIndexRates indexRates = index != null ? provider.iborIndexRates(index) : null;
+    double[] rates = rates(provider);
+    PointSensitivityBuilder builder = PointSensitivityBuilder.none();
+    for (int i = 0; i < rates.length; i++) {
+      double df = discountFactors.discountFactor(paymentTimes[i]);
+      if (observations[i] != null) {
+        builder = builder.combinedWith(indexRates.rateIgnoringFixingsPointSensitivity(observations[i])
+            .multipliedBy(notionals[i] * gearings[i] * accrualFactors[i] * df));
+      }
+      builder = builder.combinedWith(
+          discountFactors.zeroRatePointSensitivity(paymentTimes[i]).multipliedBy(forecastValue(i, rates[i])));
+    }
+    for (int i = 0; i < eventTimes.length; i++) {
+      builder = builder.combinedWith(
+          discountFactors.zeroRatePointSensitivity(eventTimes[i]).multipliedBy(eventAmounts[i]));
+    }
+    return builder;
+  }
+
+  /**
+   * Calculates the present value sensitivity of the swap leg to the curve parameters.
+   * <p>
+   * This is equal to the parameter sensitivity of {@link #presentValueSensitivity(RatesProvider)}.
+   * It is computed in reverse mode, using the {@link DiscountFactorsTape} of the plan. The discount factors
+   * of the tape are evaluated once, the present value is computed from them, then its derivative is
+   * propagated back to each discount factor and converted directly to the curve parameters.
+   * This avoids building, normalizing and converting point sensitivities.
+   * <p>
+   * If the index curve is not based on discount factors, the point sensitivities are converted instead.
+   *
+   * @param provider  the rates provider, with the valuation date of the plan
+   * @return the present value sensitivity of the swap leg to the curve parameters
+   * @throws IllegalArgumentException if the provider is not consistent with the plan
+   */
+  public CurrencyParameterSensitivities presentValueParameterSensitivity(RatesProvider provider) {
+    DiscountFactors discountFactors = discountFactors(provider);
+    DiscountFactors indexDiscountFactors = index != null ? indexDiscountFactors(provider.iborIndexRates(index)) : null;
+    if (indexDiscountFactors == null && hasForwardRates()) {
+      return provider.parameterSensitivity(presentValueSensitivity(provider).build());
+    }
+    DiscountFactorsTape.Evaluation evaluation = tape.getCurveCount() == 1 ?
+        tape.evaluate(ImmutableList.of(discountFactors)) :
+        tape.evaluate(ImmutableList.of(discountFactors, indexDiscountFactors));
+    for (int i = 0; i < paymentTimes.length; i++) {
+      double df = evaluation.discountFactor(paymentSlots[i]);
+      if (observations[i] == null) {
+        evaluation.addAdjoint(paymentSlots[i], forecastValue(i, knownRates[i]));
+        continue;
+      }
+      double accrualFactor = observations[i].getYearFraction();
+      double dfStart = evaluation.discountFactor(fixingStartSlots[i]);
+      double dfEnd = evaluation.discountFactor(fixingEndSlots[i]);
+      double rate = (dfStart / dfEnd - 1) / accrualFactor;
+      // backward sweep, the forward rate sensitivity ignoring the negative rate method as in the period pricer
+      evaluation.addAdjoint(paymentSlots[i], forecastValue(i, rate));
+      double rateBar = notionals[i] * gearings[i] * accrualFactors[i] * df;
+      evaluation.addAdjoint(fixingStartSlots[i], rateBar / (accrualFactor * dfEnd));
+      evaluation.addAdjoint(fixingEndSlots[i], -rateBar * dfStart / (accrualFactor * dfEnd * dfEnd));
+    }
+    for (int i = 0; i < eventTimes.length; i++) {
+      evaluation.addAdjoint(eventSlots[i], eventAmounts[i]);
+    }
+    return evaluation.parameterSensitivity();
+  }
+
+  //-------------------------------------------------------------------------
+  // the forecast value of the period from the rate
+  private double forecastValue(int i, double rate) {
+    double treatedRate = rate * gearings[i] + spreads[i];
+    return negativeRateMethods[i].adjust(treatedRate * accrualFactors[i]) * notionals[i];
+  }
+
+  // the present value of the events
+  private double presentValueEvents(DiscountFactors discountFactors) {
+    double total = 0d;
+    for (int i = 0; i < eventTimes.length; i++) {
+      total += eventAmounts[i] * discountFactors.discountFactor(eventTimes[i]);
+    }
+    return total;
+  }
+
+  // the rate of each period, using the times of the observations if the index curve is consistent
+  private double[] rates(RatesProvider provider) {
+    double[] rates = knownRates.clone();
+    if (index == null) {
+      return rates;
+    }
+    IborIndexRates indexRates = provider.iborIndexRates(index);
+    DiscountFactors indexDiscountFactors = indexDiscountFactors(indexRates);
+    for (int i = 0; i < rates.length; i++) {
+      if (observations[i] != null) {
+        if (indexDiscountFactors != null) {
+          double dfStart = indexDiscountFactors.discountFactor(fixingStartTimes[i]);
+          double dfEnd = indexDiscountFactors.discountFactor(fixingEndTimes[i]);
+          rates[i] = (dfStart / dfEnd - 1) / observations[i].getYearFraction();
+        } else {
+          rates[i] = indexRates.rateIgnoringFixings(observations[i]);
+        }
+      }
+    }
+    return rates;
+  }
+
+  // the discount factors of the index curve, null if not based on discount factors with the times of the plan
+  private DiscountFactors indexDiscountFactors(IborIndexRates indexRates) {
+    if (indexCheckDate != null && indexRates instanceof DiscountIborIndexRates) {
+      DiscountFactors candidate = ((DiscountIborIndexRates) indexRates).getDiscountFactors();
+      if (candidate.relativeYearFraction(indexCheckDate) == indexCheckTime) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  // checks if any rate is a forward rate
+  private boolean hasForwardRates() {
+    for (IborIndexObservation observation : observations) {
+      if (observation != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // the discount factors, checking the provider is consistent with the plan
+  private DiscountFactors discountFactors(RatesProvider provider) {
+    checkValuationDate(provider);
+    DiscountFactors discountFactors = provider.discountFactors(leg.getCurrency());
+    if (discountCheckDate != null && discountFactors.relativeYearFraction(discountCheckDate) != discountCheckTime) {
+      throw new IllegalArgumentException(Messages.format(
+          "Pricing plan requires a discount curve with the same day count, but the time of {} differs",
+          discountCheckDate));
+    }
+    return discountFactors;
+  }
+
+  // checks the valuation date of the provider
+  private void checkValuationDate(RatesProvider provider) {
+    ArgChecker.isTrue(provider.getValuationDate().equals(valuationDate),
+        "Pricing plan created for valuation date {}, but provider has valuation date {}",
+        valuationDate, provider.getValuationDate());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "SwapLegPricingPlan[" + leg.getType() + ", " + leg.getCurrency() + ", " + valuationDate + ", " +
+        paymentTimes.length + " periods]";
+  }
+
+}
@@ -6,9 +6,12 @@
 package com.opengamma.strata.pricer.swaption;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.currency.Payment;
@@ -20,6 +23,7 @@ import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
 import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
 import com.opengamma.strata.pricer.DiscountingPaymentPricer;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorVolatilityIntegrals;
 import com.opengamma.strata.pricer.impl.rate.swap.CashFlowEquivalentCalculator;
 import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParametersProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -107,6 +111,79 @@ public class HullWhiteSwaptionPhysicalProductPricer {
     return CurrencyAmount.of(cashFlowEquiv.getCurrency(), pv * (swaption.getLongShort().isLong() ? 1d : -1d));
   }
 
+  /**
+   * Calculates the present value of several swaption products with the same model.
+   * <p>
+   * The result is the same as calling {@link #presentValue(ResolvedSwaption, RatesProvider,
+   * HullWhiteOneFactorPiecewiseConstantParametersProvider)} for each swaption, but the model computations are shared.
+   * The alphas are obtained from the cumulative volatility integrals of the Hull-White provider,
+   * and the exercise boundaries of all of the swaptions are solved together.
+   * This is intended for books of swaptions, such as the co-terminal swaptions of a Bermudan swaption.
+   * <p>
+   * The result is expressed using the currency of each swaption.
+   * 
+   * @param swaptions  the products
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @return the present values, in the same order as the swaptions
+   */
+  public List<CurrencyAmount> presentValue(
+      List<ResolvedSwaption> swaptions,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider) {
+
+    int nSwaptions = swaptions.size();
+    HullWhiteOneFactorVolatilityIntegrals integrals = hwProvider.getVolatilityIntegrals();
+    double valuationTime = hwProvider.relativeTime(ratesProvider.getValuationDate());
+    CurrencyAmount[] results = new CurrencyAmount[nSwaptions];
+    double[] omegas = new double[nSwaptions];
+    List<Integer> solved = new ArrayList<>(nSwaptions);
+    List<DoubleArray> alphas = new ArrayList<>(nSwaptions);
+    List<DoubleArray> discountedCashFlows = new ArrayList<>(nSwaptions);
+    for (int j = 0; j < nSwaptions; j++) {
+      ResolvedSwaption swaption = swaptions.get(j);
+      validate(swaption, ratesProvider, hwProvider);
+      ResolvedSwap swap = swaption.getUnderlying();
+      LocalDate expiryDate = swaption.getExpiryDate();
+      if (expiryDate.isBefore(ratesProvider.getValuationDate())) { // Option has expired already
+        results[j] = CurrencyAmount.of(swap.getLegs().get(0).getCurrency(), 0d);
+        continue;
+      }
+      double expiryTime = hwProvider.relativeTime(expiryDate);
+      ResolvedSwapLeg cashFlowEquiv = CashFlowEquivalentCalculator.cashFlowEquivalentSwap(swap, ratesProvider);
+      int nPayments = cashFlowEquiv.getPaymentEvents().size();
+      double[] alpha = new double[nPayments];
+      double[] discountedCashFlow = new double[nPayments];
+      for (int loopcf = 0; loopcf < nPayments; loopcf++) {
+        NotionalExchange payment = (NotionalExchange) cashFlowEquiv.getPaymentEvents().get(loopcf);
+        double maturityTime = hwProvider.relativeTime(payment.getPaymentDate());
+        alpha[loopcf] = integrals.alpha(valuationTime, expiryTime, expiryTime, maturityTime);
+        discountedCashFlow[loopcf] = paymentPricer.presentValueAmount(payment.getPayment(), ratesProvider);
+      }
+      omegas[j] = (swap.getLegs(SwapLegType.FIXED).get(0).getPayReceive().isPay() ? -1d : 1d);
+      if (DoubleArrayMath.fuzzyEqualsZero(alpha, SMALL)) {
+        double kappa = computeKappa(hwProvider, discountedCashFlow, alpha, omegas[j]);
+        results[j] = presentValue(swaption, discountedCashFlow, alpha, omegas[j], kappa);
+      } else {
+        solved.add(j);
+        alphas.add(DoubleArray.ofUnsafe(alpha));
+        discountedCashFlows.add(DoubleArray.ofUnsafe(discountedCashFlow));
+      }
+    }
+    DoubleArray kappas = hwProvider.getModel().kappa(discountedCashFlows, alphas);
+    for (int k = 0; k < solved.size(); k++) {
+      int j = solved.get(k);
+      ResolvedSwaption swaption = swaptions.get(j);
+      results[j] = presentValue(
+          swaption,
+          discountedCashFlows.get(k).toArrayUnsafe(),
+          alphas.get(k).toArrayUnsafe(),
+          omegas[j],
+          kappas.get(k));
+    }
+    return ImmutableList.copyOf(results);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calculates the currency exposure of the swaption product.
@@ -248,4 +325,20 @@ public class HullWhiteSwaptionPhysicalProductPricer {
     return kappa;
   }
 
+  // the present value from the discounted cash flows, alphas and exercise boundary
+  private CurrencyAmount presentValue(
+      ResolvedSwaption swaption,
+      double[] discountedCashFlow,
+      double[] alpha,
+      double omega,
+      double kappa) {
+
+    double pv = 0.0;
+    for (int loopcf = 0; loopcf < alpha.length; loopcf++) {
+      pv += discountedCashFlow[loopcf] * NORMAL.getCDF(omega * (kappa + alpha[loopcf]));
+    }
+    Currency currency = swaption.getUnderlying().getLegs().get(0).getCurrency();
+    return CurrencyAmount.of(currency, pv * (swaption.getLongShort().isLong() ? 1d : -1d));
+  }
+
 }
@@ -93,6 +93,35 @@ public class DiscountingBondFutureProductPricerTest {
     assertEquals(computed, expected, TOL);
   }
 
+  public void test_deliveryBasketPrices() {
+    DoubleArray computed = FUTURE_PRICER.deliveryBasketPrices(FUTURE_PRODUCT, PROVIDER);
+    assertEquals(computed.size(), FUTURE_PRODUCT.getDeliveryBasket().size());
+    for (int i = 0; i < computed.size(); i++) {
+      ResolvedFixedCouponBond bond = FUTURE_PRODUCT.getDeliveryBasket().get(i);
+      double dirtyPrice = BOND_PRICER.dirtyPriceFromCurves(bond, PROVIDER, FUTURE_PRODUCT.getLastDeliveryDate());
+      double expected = BOND_PRICER.cleanPriceFromDirtyPrice(
+          bond, FUTURE_PRODUCT.getLastDeliveryDate(), dirtyPrice) / CONVERSION_FACTOR[i];
+      assertEquals(computed.get(i), expected, TOL);
+    }
+    assertEquals(FUTURE_PRICER.price(FUTURE_PRODUCT, PROVIDER), computed.min());
+  }
+
+  public void test_deliveryBasketPricesWithZSpread() {
+    DoubleArray computed = FUTURE_PRICER.deliveryBasketPricesWithZSpread(
+        FUTURE_PRODUCT, PROVIDER, Z_SPREAD, PERIODIC, PERIOD_PER_YEAR);
+    assertEquals(computed.size(), FUTURE_PRODUCT.getDeliveryBasket().size());
+    for (int i = 0; i < computed.size(); i++) {
+      ResolvedFixedCouponBond bond = FUTURE_PRODUCT.getDeliveryBasket().get(i);
+      double dirtyPrice = BOND_PRICER.dirtyPriceFromCurvesWithZSpread(
+          bond, PROVIDER, Z_SPREAD, PERIODIC, PERIOD_PER_YEAR, FUTURE_PRODUCT.getLastDeliveryDate());
+      double expected = BOND_PRICER.cleanPriceFromDirtyPrice(
+          bond, FUTURE_PRODUCT.getLastDeliveryDate(), dirtyPrice) / CONVERSION_FACTOR[i];
+      assertEquals(computed.get(i), expected, TOL);
+    }
+    assertEquals(
+        FUTURE_PRICER.priceWithZSpread(FUTURE_PRODUCT, PROVIDER, Z_SPREAD, PERIODIC, PERIOD_PER_YEAR), computed.min());
+  }
+
   //-------------------------------------------------------------------------
   public void test_priceSensitivity() {
     PointSensitivities point = FUTURE_PRICER.priceSensitivity(FUTURE_PRODUCT, PROVIDER);
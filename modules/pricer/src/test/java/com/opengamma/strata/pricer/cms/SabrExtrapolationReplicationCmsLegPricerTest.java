@@ -144,6 +144,13 @@ public class SabrExtrapolationReplicationCmsLegPricerTest {
       SabrExtrapolationReplicationCmsPeriodPricer.of(CUT_OFF_STRIKE, MU);
   private static final SabrExtrapolationReplicationCmsLegPricer LEG_PRICER =
       new SabrExtrapolationReplicationCmsLegPricer(PERIOD_PRICER);
+  // the periods are priced in parallel whatever the number of periods
+  private static final SabrExtrapolationReplicationCmsLegPricer LEG_PRICER_PARALLEL =
+      new SabrExtrapolationReplicationCmsLegPricer(
+          SabrExtrapolationReplicationCmsPeriodPricer.ofGaussLegendre(CUT_OFF_STRIKE, MU), 1);
+  private static final SabrExtrapolationReplicationCmsLegPricer LEG_PRICER_SEQUENTIAL =
+      new SabrExtrapolationReplicationCmsLegPricer(
+          SabrExtrapolationReplicationCmsPeriodPricer.ofGaussLegendre(CUT_OFF_STRIKE, MU), false);
   private static final RatesFiniteDifferenceSensitivityCalculator FD_CAL =
       new RatesFiniteDifferenceSensitivityCalculator(EPS);
   private static final DiscountingSwapProductPricer PRICER_SWAP =
@@ -288,6 +295,33 @@ public class SabrExtrapolationReplicationCmsLegPricerTest {
   }
   
   //-------------------------------------------------------------------------
+  public void test_parallel() {
+    double tolerance = NOTIONAL_VALUE_0 * 1.0E-12;
+    for (ResolvedCmsLeg leg : new ResolvedCmsLeg[] {CAP_LEG, FLOOR_LEG, COUPON_LEG}) {
+      assertEquals(
+          LEG_PRICER_PARALLEL.presentValue(leg, RATES_PROVIDER, VOLATILITIES).getAmount(),
+          LEG_PRICER_SEQUENTIAL.presentValue(leg, RATES_PROVIDER, VOLATILITIES).getAmount(),
+          tolerance);
+      assertTrue(LEG_PRICER_PARALLEL.presentValueSensitivityRates(leg, RATES_PROVIDER, VOLATILITIES).build()
+          .equalWithTolerance(
+              LEG_PRICER_SEQUENTIAL.presentValueSensitivityRates(leg, RATES_PROVIDER, VOLATILITIES).build(),
+              tolerance));
+      assertTrue(LEG_PRICER_PARALLEL.presentValueSensitivityModelParamsSabr(leg, RATES_PROVIDER, VOLATILITIES).build()
+          .equalWithTolerance(
+              LEG_PRICER_SEQUENTIAL.presentValueSensitivityModelParamsSabr(leg, RATES_PROVIDER, VOLATILITIES).build(),
+              tolerance));
+      assertEquals(
+          LEG_PRICER_PARALLEL.presentValue(leg, RATES_PROVIDER, VOLATILITIES).getAmount(),
+          LEG_PRICER.presentValue(leg, RATES_PROVIDER, VOLATILITIES).getAmount(),
+          NOTIONAL_VALUE_0 * 1.0E-8);
+    }
+    assertEquals(
+        LEG_PRICER_PARALLEL.presentValueSensitivityStrike(CAP_LEG, RATES_PROVIDER, VOLATILITIES),
+        LEG_PRICER_SEQUENTIAL.presentValueSensitivityStrike(CAP_LEG, RATES_PROVIDER, VOLATILITIES),
+        tolerance);
+  }
+
+
   public void test_explainPresentValue() {
     ExplainMap explain = LEG_PRICER.explainPresentValue(CAP_LEG, RATES_PROVIDER, VOLATILITIES);
     assertEquals(explain.get(ExplainKey.ENTRY_TYPE).get(), "CmsLeg");
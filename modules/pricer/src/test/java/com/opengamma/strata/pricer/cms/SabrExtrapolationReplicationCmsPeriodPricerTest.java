@@ -787,6 +787,36 @@ public class SabrExtrapolationReplicationCmsPeriodPricerTest {
     assertEquals(pvComputed.getAmount(),  pvExpected, TOLERANCE_PV);    
   }
 
+  //-------------------------------------------------------------------------
+  private static final SabrExtrapolationReplicationCmsPeriodPricer PRICER_GL =
+      SabrExtrapolationReplicationCmsPeriodPricer.ofGaussLegendre(CUT_OFF_STRIKE, MU);
+
+  /* Check the Gauss-Legendre quadrature against the Runge-Kutta integration. */
+  public void test_gaussLegendre() {
+    CmsPeriod[] periods = {COUPON, CAPLET, FLOORLET, CAPLET_NEGATIVE, FLOORLET_NEGATIVE};
+    SabrParametersSwaptionVolatilities[] volatilities = {VOLATILITIES, VOLATILITIES_SHIFT};
+    for (CmsPeriod period : periods) {
+      for (SabrParametersSwaptionVolatilities vols : volatilities) {
+        assertEquals(PRICER_GL.presentValue(period, RATES_PROVIDER, vols).getAmount(),
+            PRICER.presentValue(period, RATES_PROVIDER, vols).getAmount(), NOTIONAL * 1.0E-8);
+        CurrencyParameterSensitivities deltaComputed = RATES_PROVIDER.parameterSensitivity(
+            PRICER_GL.presentValueSensitivityRates(period, RATES_PROVIDER, vols).build());
+        CurrencyParameterSensitivities deltaExpected = RATES_PROVIDER.parameterSensitivity(
+            PRICER.presentValueSensitivityRates(period, RATES_PROVIDER, vols).build());
+        assertTrue(deltaComputed.equalWithTolerance(deltaExpected, NOTIONAL * 1.0E-6));
+        PointSensitivities vegaComputed =
+            PRICER_GL.presentValueSensitivityModelParamsSabr(period, RATES_PROVIDER, vols).build();
+        PointSensitivities vegaExpected =
+            PRICER.presentValueSensitivityModelParamsSabr(period, RATES_PROVIDER, vols).build();
+        assertTrue(vegaComputed.equalWithTolerance(vegaExpected, NOTIONAL * 1.0E-4));
+        if (period != COUPON && period.getStrike() > 0d) {
+          assertEquals(PRICER_GL.presentValueSensitivityStrike(period, RATES_PROVIDER, vols),
+              PRICER.presentValueSensitivityStrike(period, RATES_PROVIDER, vols), NOTIONAL * 1.0E-8);
+        }
+      }
+    }
+  }
+
   //---------------------------------------------------------------------
   public void test_explainPresentValue() {
     ExplainMapBuilder builder = ExplainMap.builder();
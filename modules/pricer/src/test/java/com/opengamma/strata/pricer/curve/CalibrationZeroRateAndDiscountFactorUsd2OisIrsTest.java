@@ -35,18 +35,23 @@ import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.date.Tenor;
 import com.opengamma.strata.basics.index.Index;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.ImmutableMarketDataBuilder;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroupDefinition;
 import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveMetadata;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.DefaultCurveMetadata;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurveDefinition;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
@@ -60,6 +65,7 @@ import com.opengamma.strata.market.observable.IndexQuoteId;
 import com.opengamma.strata.market.observable.QuoteId;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
 import com.opengamma.strata.pricer.deposit.DiscountingIborFixingDepositProductPricer;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
 import com.opengamma.strata.pricer.rate.IborIndexRates;
@@ -253,6 +259,8 @@ public class CalibrationZeroRateAndDiscountFactorUsd2OisIrsTest {
   // Constants
   private static final double TOLERANCE_PV = 1.0E-6;
   private static final double TOLERANCE_PV_DELTA = 1.0E+2;
+  private static final double TOLERANCE_PARAMS = 1.0E-10;
+  private static final double TOLERANCE_JACOBIAN = 1.0E-8;
 
   private static final CurveGroupName CURVE_GROUP_NAME = CurveGroupName.of("USD-DSCON-LIBOR3M");
   private static final InterpolatedNodalCurveDefinition DSC_CURVE_DEFN =
@@ -300,6 +308,29 @@ public class CalibrationZeroRateAndDiscountFactorUsd2OisIrsTest {
     assertResult(result, ALL_QUOTES_BD);
   }
   
+  public void calibration_blockTriangular() {
+    CurveCalibrator blockCalibrator = CurveCalibrator.of(1e-9, 1e-9, 100, CalibrationMeasures.PAR_SPREAD,
+        CalibrationMeasures.PRESENT_VALUE, DecompositionFactory.BLOCK_TRIANGULAR);
+    ImmutableRatesProvider expected = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES_BD, REF_DATA);
+    ImmutableRatesProvider test = blockCalibrator.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES_BD, REF_DATA);
+    assertResult(test, ALL_QUOTES_BD);
+    assertSameCurve(test.getDiscountCurves().get(USD), expected.getDiscountCurves().get(USD));
+    assertSameCurve(test.getIndexCurves().get(USD_LIBOR_3M), expected.getIndexCurves().get(USD_LIBOR_3M));
+  }
+
+  // checks the parameters and Jacobian of the curves are equal
+  private static void assertSameCurve(Curve test, Curve expected) {
+    DoubleArray testParams = ((InterpolatedNodalCurve) test).getYValues();
+    DoubleArray expectedParams = ((InterpolatedNodalCurve) expected).getYValues();
+    assertTrue(testParams.equalWithTolerance(expectedParams, TOLERANCE_PARAMS));
+    DoubleMatrix testJacobian = test.getMetadata().getInfo(CurveInfoType.JACOBIAN).getJacobianMatrix();
+    DoubleMatrix expectedJacobian = expected.getMetadata().getInfo(CurveInfoType.JACOBIAN).getJacobianMatrix();
+    assertEquals(testJacobian.rowCount(), expectedJacobian.rowCount());
+    for (int i = 0; i < testJacobian.rowCount(); i++) {
+      assertTrue(testJacobian.row(i).equalWithTolerance(expectedJacobian.row(i), TOLERANCE_JACOBIAN));
+    }
+  }
+
   public void calibration_present_value_oneGroup_fixing() {
     RatesProvider result =
         CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES_BD.combinedWith(TS_BD_LIBOR3M), REF_DATA);
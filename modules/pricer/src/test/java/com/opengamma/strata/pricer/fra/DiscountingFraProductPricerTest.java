@@ -46,6 +46,16 @@ import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.SimpleDiscountFactors;
 import com.opengamma.strata.pricer.ZeroRateSensitivity;
 import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
+import com.opengamma.strata.pricer.impl.rate.ApproxForwardOvernightAveragedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.DispatchingRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardIborAveragedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardIborInterpolatedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardIborRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardInflationEndInterpolatedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardInflationEndMonthRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardInflationInterpolatedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardInflationMonthlyRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardOvernightCompoundedRateComputationFn;
 import com.opengamma.strata.pricer.rate.IborIndexRates;
 import com.opengamma.strata.pricer.rate.IborRateSensitivity;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
@@ -676,6 +686,69 @@ public class DiscountingFraProductPricerTest {
     assertTrue(computed.equalWithTolerance(expected, eps * FRA.getNotional()));
   }
 
+  public void test_presentValueParameterSensitivity() {
+    DiscountingFraProductPricer pricer = DiscountingFraProductPricer.DEFAULT;
+    for (ImmutableRatesProvider prov : new ImmutableRatesProvider[] {
+        RatesProviderDataSets.MULTI_GBP_USD, RatesProviderDataSets.MULTI_GBP_USD_SIMPLE}) {
+      for (ResolvedFra fraExp : new ResolvedFra[] {RFRA, RFRA_NONE, RFRA_AFMA}) {
+        CurrencyParameterSensitivities computed = pricer.presentValueParameterSensitivity(fraExp, prov);
+        CurrencyParameterSensitivities expected =
+            prov.parameterSensitivity(pricer.presentValueSensitivity(fraExp, prov));
+        assertTrue(computed.equalWithTolerance(expected, TOLERANCE * Math.abs(fraExp.getNotional())));
+      }
+    }
+  }
+
+  public void test_presentValueParameterSensitivity_subclass() {
+    // the forward rate sensitivity is removed by the subclasses, which must not be bypassed
+    ForwardIborRateComputationFn iborFn = new ForwardIborRateComputationFn() {
+      @Override
+      public PointSensitivityBuilder rateSensitivity(
+          IborRateComputation computation,
+          LocalDate startDate,
+          LocalDate endDate,
+          RatesProvider provider) {
+        return PointSensitivityBuilder.none();
+      }
+    };
+    DispatchingRateComputationFn dispatchingFn = new DispatchingRateComputationFn(
+        ForwardIborRateComputationFn.DEFAULT,
+        ForwardIborInterpolatedRateComputationFn.DEFAULT,
+        ForwardIborAveragedRateComputationFn.DEFAULT,
+        ForwardOvernightCompoundedRateComputationFn.DEFAULT,
+        ApproxForwardOvernightAveragedRateComputationFn.DEFAULT,
+        ForwardInflationMonthlyRateComputationFn.DEFAULT,
+        ForwardInflationInterpolatedRateComputationFn.DEFAULT,
+        ForwardInflationEndMonthRateComputationFn.DEFAULT,
+        ForwardInflationEndInterpolatedRateComputationFn.DEFAULT) {
+      @Override
+      public PointSensitivityBuilder rateSensitivity(
+          RateComputation computation,
+          LocalDate startDate,
+          LocalDate endDate,
+          RatesProvider provider) {
+        return PointSensitivityBuilder.none();
+      }
+    };
+    DispatchingRateComputationFn withIborFn = new DispatchingRateComputationFn(
+        iborFn,
+        ForwardIborInterpolatedRateComputationFn.DEFAULT,
+        ForwardIborAveragedRateComputationFn.DEFAULT,
+        ForwardOvernightCompoundedRateComputationFn.DEFAULT,
+        ApproxForwardOvernightAveragedRateComputationFn.DEFAULT,
+        ForwardInflationMonthlyRateComputationFn.DEFAULT,
+        ForwardInflationInterpolatedRateComputationFn.DEFAULT,
+        ForwardInflationEndMonthRateComputationFn.DEFAULT,
+        ForwardInflationEndInterpolatedRateComputationFn.DEFAULT);
+    ImmutableRatesProvider prov = RatesProviderDataSets.MULTI_GBP_USD;
+    for (DispatchingRateComputationFn fn : new DispatchingRateComputationFn[] {dispatchingFn, withIborFn}) {
+      DiscountingFraProductPricer pricer = new DiscountingFraProductPricer(fn);
+      CurrencyParameterSensitivities computed = pricer.presentValueParameterSensitivity(RFRA, prov);
+      CurrencyParameterSensitivities expected = prov.parameterSensitivity(pricer.presentValueSensitivity(RFRA, prov));
+      assertTrue(computed.equalWithTolerance(expected, TOLERANCE * Math.abs(RFRA.getNotional())));
+    }
+  }
+
   //-------------------------------------------------------------------------
   private double forecastValueFwdSensitivity(ResolvedFra fra, double forwardRate, double eps) {
 
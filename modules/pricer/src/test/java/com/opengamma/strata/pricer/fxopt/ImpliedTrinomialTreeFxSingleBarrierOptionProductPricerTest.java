@@ -14,12 +14,15 @@ import static org.testng.Assert.assertTrue;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.currency.Payment;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.pricer.DiscountingPaymentPricer;
 import com.opengamma.strata.pricer.fx.RatesProviderFxDataSets;
@@ -302,6 +305,29 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricerTest {
     }
   }
 
+  //-------------------------------------------------------------------------
+  public void test_multipleOptions() {
+    ResolvedFxVanillaOption callShort = CALL.toBuilder()
+        .expiry(EXPIRY_DATETIME.minusYears(1))
+        .underlying(ResolvedFxSingle.of(EUR_AMOUNT_REC, USD_AMOUNT_PAY, PAY_DATE.minusYears(1)))
+        .build();
+    List<ResolvedFxSingleBarrierOption> options = ImmutableList.of(
+        CALL_DKO,
+        CALL_UKI_C,
+        ResolvedFxSingleBarrierOption.of(callShort, BARRIER_DKO),
+        ResolvedFxSingleBarrierOption.of(PUT, BARRIER_UKI, REBATE_BASE),
+        ResolvedFxSingleBarrierOption.of(callShort, BARRIER_UKI, REBATE));
+    DoubleArray prices = PRICER_39.price(options, RATE_PROVIDER, VOLS);
+    List<CurrencyAmount> pvs = PRICER_39.presentValue(options, RATE_PROVIDER, VOLS);
+    List<MultiCurrencyAmount> ces = PRICER_39.currencyExposure(options, RATE_PROVIDER, VOLS);
+    for (int i = 0; i < options.size(); ++i) {
+      ResolvedFxSingleBarrierOption option = options.get(i);
+      assertEquals(prices.get(i), PRICER_39.price(option, RATE_PROVIDER, VOLS));
+      assertEquals(pvs.get(i), PRICER_39.presentValue(option, RATE_PROVIDER, VOLS));
+      assertEquals(ces.get(i), PRICER_39.currencyExposure(option, RATE_PROVIDER, VOLS));
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void test_presentValueSensitivityRates() {
     ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer pricer =
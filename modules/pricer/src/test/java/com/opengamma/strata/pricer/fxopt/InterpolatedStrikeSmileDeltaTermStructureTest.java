@@ -268,6 +268,30 @@ public class InterpolatedStrikeSmileDeltaTermStructureTest {
     }
   }
 
+  /**
+   * Tests the volatilities for several strikes, and that the cached smiles do not leak between expiries.
+   */
+  public void volatilities() {
+    double forward = 1.40;
+    DoubleArray strikes = DoubleArray.of(1.20, 1.35, 1.50, 1.70);
+    double[] timeToExpiry = new double[] {0.75, 1.00, 0.75, 2.50};
+    for (double time : timeToExpiry) {
+      DoubleArray computed = SMILE_TERM.volatilities(time, strikes, forward);
+      InterpolatedStrikeSmileDeltaTermStructure fresh =
+          InterpolatedStrikeSmileDeltaTermStructure.of(VOLATILITY_TERM, ACT_360);
+      SmileDeltaParameters smile = fresh.smileForExpiry(time);
+      assertEquals(SMILE_TERM.smileForExpiry(time), smile);
+      for (int i = 0; i < strikes.size(); i++) {
+        double expected = InterpolatedStrikeSmileDeltaTermStructure.of(VOLATILITY_TERM, ACT_360)
+            .volatility(time, strikes.get(i), forward);
+        assertEquals(computed.get(i), expected, 0d);
+        assertEquals(SMILE_TERM.volatility(time, strikes.get(i), forward), expected, 0d);
+        assertEquals(SMILE_TERM.volatility(time, strikes.get(i), forward * 1.01),
+            fresh.volatility(time, strikes.get(i), forward * 1.01), 0d);
+      }
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     coverImmutableBean(SMILE_TERM);
@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.model;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.ZeroRateDiscountFactors;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorMonteCarloEngine;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorMonteCarloEngine.Sampling;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantInterestRateModel;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Test {@link HullWhiteOneFactorMonteCarloEngine}.
+ */
+@Test
+public class HullWhiteOneFactorMonteCarloEngineTest {
+
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  private static final HullWhiteOneFactorPiecewiseConstantParameters PARAMETERS =
+      HullWhiteOneFactorPiecewiseConstantParameters.of(
+          0.01, DoubleArray.of(0.01, 0.011, 0.012, 0.013, 0.014), DoubleArray.of(0.5, 1.0, 2.0, 5.0));
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  private static final DiscountFactors DISCOUNT_FACTORS = ZeroRateDiscountFactors.of(
+      EUR,
+      LocalDate.of(2016, 8, 1),
+      InterpolatedNodalCurve.of(
+          Curves.zeroRates(CurveName.of("EUR-Dsc"), ACT_365F),
+          DoubleArray.of(0.5, 1d, 2d, 5d, 10d),
+          DoubleArray.of(0.01, 0.012, 0.015, 0.02, 0.025),
+          CurveInterpolators.LINEAR));
+  private static final DoubleArray TIMES = DoubleArray.of(0.25, 0.75, 1.5, 3d, 4.5);
+  private static final int NB_PATHS = 10_000;
+
+  //-------------------------------------------------------------------------
+  public void test_martingale() {
+    double maturity = 7d;
+    for (Sampling sampling : Sampling.values()) {
+      HullWhiteOneFactorMonteCarloEngine engine = HullWhiteOneFactorMonteCarloEngine.of(NB_PATHS, 1L, sampling);
+      for (int k = 0; k < TIMES.size(); k++) {
+        int timeIndex = k;
+        DoubleArray deflators = engine.pathValues(PARAMETERS, DISCOUNT_FACTORS, TIMES, p -> p.deflator(timeIndex));
+        assertEqualsStatistically(deflators, DISCOUNT_FACTORS.discountFactor(TIMES.get(k)));
+        DoubleArray bonds = engine.pathValues(
+            PARAMETERS, DISCOUNT_FACTORS, TIMES, p -> p.deflatedBondPrice(timeIndex, maturity));
+        assertEqualsStatistically(bonds, DISCOUNT_FACTORS.discountFactor(maturity));
+        // the bond maturing at the simulation time is worth one
+        double bond = engine.presentValue(
+            PARAMETERS, DISCOUNT_FACTORS, TIMES, p -> p.bondPrice(timeIndex, TIMES.get(timeIndex)));
+        assertEquals(bond, 1d, 1.0e-12);
+      }
+    }
+  }
+
+  public void test_bondOption() {
+    // call on the bond maturing at u, with expiry theta, compared to the explicit formula
+    double theta = TIMES.get(3);
+    double u = 8d;
+    double dfTheta = DISCOUNT_FACTORS.discountFactor(theta);
+    double dfU = DISCOUNT_FACTORS.discountFactor(u);
+    double alpha = MODEL.alpha(PARAMETERS, 0d, theta, theta, u);
+    for (double strike : new double[] {0.85, 0.88, 0.9}) {
+      double kappa = (Math.log(dfU / (strike * dfTheta)) - 0.5 * alpha * alpha) / alpha;
+      double expected = dfU * NORMAL.getCDF(kappa + alpha) - strike * dfTheta * NORMAL.getCDF(kappa);
+      for (Sampling sampling : Sampling.values()) {
+        HullWhiteOneFactorMonteCarloEngine engine = HullWhiteOneFactorMonteCarloEngine.of(NB_PATHS, 2L, sampling);
+        DoubleArray values = engine.pathValues(PARAMETERS, DISCOUNT_FACTORS, TIMES,
+            p -> p.deflator(3) * Math.max(p.bondPrice(3, u) - strike, 0d));
+        assertEqualsStatistically(values, expected);
+      }
+    }
+  }
+
+  public void test_deterministic() {
+    for (Sampling sampling : Sampling.values()) {
+      HullWhiteOneFactorMonteCarloEngine parallel = HullWhiteOneFactorMonteCarloEngine.of(NB_PATHS, 3L, sampling, true);
+      HullWhiteOneFactorMonteCarloEngine sequential =
+          HullWhiteOneFactorMonteCarloEngine.of(NB_PATHS, 3L, sampling, false);
+      DoubleArray valuesParallel = parallel.pathValues(PARAMETERS, DISCOUNT_FACTORS, TIMES, p -> p.state(4));
+      DoubleArray valuesSequential = sequential.pathValues(PARAMETERS, DISCOUNT_FACTORS, TIMES, p -> p.state(4));
+      assertEquals(valuesParallel, valuesSequential);
+      HullWhiteOneFactorMonteCarloEngine otherSeed = HullWhiteOneFactorMonteCarloEngine.of(NB_PATHS, 4L, sampling);
+      DoubleArray valuesOtherSeed = otherSeed.pathValues(PARAMETERS, DISCOUNT_FACTORS, TIMES, p -> p.state(4));
+      assertEquals(valuesOtherSeed.equals(valuesParallel), sampling == Sampling.SOBOL);
+    }
+  }
+
+  public void test_antithetic() {
+    HullWhiteOneFactorMonteCarloEngine engine = HullWhiteOneFactorMonteCarloEngine.of(1001, 5L, Sampling.ANTITHETIC);
+    assertEquals(engine.getNumberOfPaths(), 1001);
+    assertEquals(engine.getSampling(), Sampling.ANTITHETIC);
+    DoubleArray values = engine.pathValues(PARAMETERS, DISCOUNT_FACTORS, TIMES, p -> p.state(2));
+    for (int i = 0; i < 1000; i += 2) {
+      assertEquals(values.get(i + 1), -values.get(i));
+    }
+    assertFalse(values.get(0) == 0d);
+  }
+
+  public void test_invalid() {
+    HullWhiteOneFactorMonteCarloEngine engine = HullWhiteOneFactorMonteCarloEngine.of(10, 1L, Sampling.SOBOL);
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorMonteCarloEngine.of(0, 1L, Sampling.SOBOL));
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorMonteCarloEngine.of(10, 1L, null));
+    assertThrowsIllegalArg(() -> engine.presentValue(PARAMETERS, DISCOUNT_FACTORS, DoubleArray.of(), p -> 1d));
+    assertThrowsIllegalArg(() -> engine.presentValue(PARAMETERS, DISCOUNT_FACTORS, DoubleArray.of(0d, 1d), p -> 1d));
+    assertThrowsIllegalArg(() -> engine.presentValue(PARAMETERS, DISCOUNT_FACTORS, DoubleArray.of(2d, 1d), p -> 1d));
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the mean is within four standard errors of the expected value
+  private static void assertEqualsStatistically(DoubleArray values, double expected) {
+    int n = values.size();
+    double mean = values.sum() / n;
+    double variance = values.map(v -> (v - mean) * (v - mean)).sum() / (n - 1);
+    double error = Math.sqrt(variance / n);
+    assertTrue(Math.abs(mean - expected) <= 4d * error + 1.0e-10,
+        "mean " + mean + " expected " + expected + " standard error " + error);
+  }
+
+}
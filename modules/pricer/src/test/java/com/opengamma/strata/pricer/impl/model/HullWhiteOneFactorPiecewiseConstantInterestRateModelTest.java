@@ -12,9 +12,12 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.date.DayCounts;
 import com.opengamma.strata.basics.index.IborIndex;
@@ -247,6 +250,44 @@ public class HullWhiteOneFactorPiecewiseConstantInterestRateModelTest {
     assertEquals(0.0, swapValue, 1.0E-1);
   }
 
+  /**
+   * Test the exercise boundaries of several swaptions against the single swaption computation.
+   */
+  public void kappa_multiple() {
+    double[] cashFlowTime = new double[] {10.0, 11.0, 12.0, 13.0, 14.00, 15.00};
+    double expiryTime = cashFlowTime[0] - 2.0 / 365.0;
+    double notional = 100000000; // 100m
+    double[] coupons = new double[] {0.01, 0.03, 0.05, 0.08};
+    int nbCF = cashFlowTime.length;
+    List<DoubleArray> discountedCashFlows = new ArrayList<>();
+    List<DoubleArray> alphas = new ArrayList<>();
+    for (double coupon : coupons) {
+      double[] discountedCashFlow = new double[nbCF];
+      double[] alpha = new double[nbCF];
+      for (int loopcf = 0; loopcf < nbCF; loopcf++) {
+        double amount = loopcf == 0 ? -1d : (loopcf == nbCF - 1 ? 1d + coupon : coupon);
+        discountedCashFlow[loopcf] = amount * Math.exp(-0.04 * cashFlowTime[loopcf]) * notional;
+        alpha[loopcf] = MODEL.alpha(MODEL_PARAMETERS, 0.0, expiryTime, expiryTime, cashFlowTime[loopcf]);
+      }
+      discountedCashFlows.add(DoubleArray.ofUnsafe(discountedCashFlow));
+      alphas.add(DoubleArray.ofUnsafe(alpha));
+    }
+    DoubleArray computed = MODEL.kappa(discountedCashFlows, alphas);
+    assertEquals(computed.size(), coupons.length);
+    for (int i = 0; i < coupons.length; i++) {
+      double expected = MODEL.kappa(discountedCashFlows.get(i), alphas.get(i));
+      assertEquals(computed.get(i), expected, 1.0E-7);
+      double swapValue = 0.0;
+      for (int loopcf = 0; loopcf < nbCF; loopcf++) {
+        double alpha = alphas.get(i).get(loopcf);
+        swapValue += discountedCashFlows.get(i).get(loopcf) *
+            Math.exp(-0.5 * alpha * alpha - (alpha - alphas.get(i).get(0)) * computed.get(i));
+      }
+      assertEquals(swapValue, 0.0, 1.0E-4);
+    }
+    assertEquals(MODEL.kappa(ImmutableList.of(), ImmutableList.of()), DoubleArray.EMPTY);
+  }
+
   public void swapRate() {
     double shift = 1.0E-4;
     double x = 0.1;
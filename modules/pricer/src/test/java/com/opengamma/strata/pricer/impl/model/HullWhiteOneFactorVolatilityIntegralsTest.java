@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.model;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantInterestRateModel;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorVolatilityIntegrals;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Test {@link HullWhiteOneFactorVolatilityIntegrals}.
+ */
+@Test
+public class HullWhiteOneFactorVolatilityIntegralsTest {
+
+  private static final HullWhiteOneFactorPiecewiseConstantParameters PARAMETERS =
+      HullWhiteOneFactorPiecewiseConstantParameters.of(
+          0.01, DoubleArray.of(0.01, 0.011, 0.012, 0.013, 0.014), DoubleArray.of(0.5, 1.0, 2.0, 5.0));
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  private static final double[] TIMES = new double[] {0.0, 0.25, 0.5, 0.75, 1.0, 1.5, 2.0, 3.0, 5.0, 7.5, 10.0, 30.0};
+  private static final double TOL = 1.0E-12;
+
+  public void test_alpha() {
+    HullWhiteOneFactorVolatilityIntegrals test = HullWhiteOneFactorVolatilityIntegrals.of(PARAMETERS);
+    for (int i = 0; i < TIMES.length; i++) {
+      for (int j = i; j < TIMES.length; j++) {
+        double start = TIMES[i];
+        double end = TIMES[j];
+        double expected = MODEL.alpha(PARAMETERS, start, end, end, end + 5d);
+        assertEquals(test.alpha(start, end, end, end + 5d), expected, Math.abs(expected) * TOL);
+        double expectedNumeraire = MODEL.alpha(PARAMETERS, start, end, 10d, 9d);
+        assertEquals(test.alpha(start, end, 10d, 9d), expectedNumeraire, Math.abs(expectedNumeraire) * TOL);
+      }
+    }
+    assertEquals(test.alpha(0d, 0d, 10d, 9d), 0d, TOL);
+  }
+
+  public void test_futuresConvexityFactor() {
+    HullWhiteOneFactorVolatilityIntegrals test = HullWhiteOneFactorVolatilityIntegrals.of(PARAMETERS);
+    for (double time : TIMES) {
+      double t1 = time + 2d / 365d;
+      double t2 = t1 + 0.25;
+      double expected = MODEL.futuresConvexityFactor(PARAMETERS, time, t1, t2);
+      assertEquals(test.futuresConvexityFactor(time, t1, t2), expected, TOL);
+    }
+  }
+
+  public void test_largeMeanReversion() {
+    HullWhiteOneFactorPiecewiseConstantParameters parameters = HullWhiteOneFactorPiecewiseConstantParameters.of(
+        0.8, DoubleArray.of(0.01, 0.012), DoubleArray.of(1.0));
+    HullWhiteOneFactorVolatilityIntegrals test = HullWhiteOneFactorVolatilityIntegrals.of(parameters);
+    double expected = MODEL.alpha(parameters, 0d, 2d, 2d, 7d);
+    double computed = test.alpha(0d, 2d, 2d, 7d);
+    assertTrue(Double.isFinite(computed));
+    assertEquals(computed, expected, Math.abs(expected) * TOL);
+  }
+
+}
@@ -15,6 +15,7 @@ import static com.opengamma.strata.collect.TestHelper.ignoreThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -294,6 +295,70 @@ public class DispatchingRateComputationFnTest {
     assertEquals(built.get(ExplainKey.COMBINED_RATE), Optional.of(0.0123d));
   }
 
+  //-------------------------------------------------------------------------
+  public void test_select() {
+    DispatchingRateComputationFn test = new DispatchingRateComputationFn(
+        MOCK_IBOR_EMPTY,
+        MOCK_IBOR_INT_EMPTY,
+        MOCK_IBOR_AVE_EMPTY,
+        MOCK_ON_CPD_EMPTY,
+        MOCK_ON_AVE_EMPTY,
+        MOCK_INF_MON_EMPTY,
+        MOCK_INF_INT_EMPTY,
+        MOCK_INF_BOND_MON_EMPTY,
+        MOCK_INF_BOND_INT_EMPTY);
+    IborRateComputation ibor = IborRateComputation.of(GBP_LIBOR_3M, FIXING_DATE, REF_DATA);
+    assertEquals(test.select(FixedRateComputation.of(0.0123d)), test);
+    assertEquals(test.select(ibor), MOCK_IBOR_EMPTY);
+    assertEquals(
+        test.select(IborInterpolatedRateComputation.of(GBP_LIBOR_3M, GBP_LIBOR_6M, FIXING_DATE, REF_DATA)),
+        MOCK_IBOR_INT_EMPTY);
+    assertEquals(
+        test.select(IborAveragedRateComputation.of(ImmutableList.of(IborAveragedFixing.of(ibor.getObservation())))),
+        MOCK_IBOR_AVE_EMPTY);
+    assertEquals(
+        test.select(OvernightCompoundedRateComputation.of(
+            USD_FED_FUND, ACCRUAL_START_DATE, ACCRUAL_END_DATE, 0, REF_DATA)),
+        MOCK_ON_CPD_EMPTY);
+    assertEquals(
+        test.select(OvernightAveragedRateComputation.of(
+            USD_FED_FUND, ACCRUAL_START_DATE, ACCRUAL_END_DATE, 0, REF_DATA)),
+        MOCK_ON_AVE_EMPTY);
+    assertEquals(
+        test.select(InflationMonthlyRateComputation.of(US_CPI_U, ACCRUAL_START_MONTH, ACCRUAL_END_MONTH)),
+        MOCK_INF_MON_EMPTY);
+    assertEquals(
+        test.select(InflationInterpolatedRateComputation.of(US_CPI_U, ACCRUAL_START_MONTH, ACCRUAL_END_MONTH, 0.3)),
+        MOCK_INF_INT_EMPTY);
+    assertEquals(
+        test.select(InflationEndMonthRateComputation.of(US_CPI_U, 234d, ACCRUAL_END_MONTH)),
+        MOCK_INF_BOND_MON_EMPTY);
+    assertEquals(
+        test.select(InflationEndInterpolatedRateComputation.of(US_CPI_U, 1234d, ACCRUAL_END_MONTH, 0.3)),
+        MOCK_INF_BOND_INT_EMPTY);
+    assertThrowsIllegalArg(() -> test.select(mock(RateComputation.class)));
+  }
+
+  public void test_select_subclass() {
+    DispatchingRateComputationFn test = new DispatchingRateComputationFn(
+        MOCK_IBOR_EMPTY,
+        MOCK_IBOR_INT_EMPTY,
+        MOCK_IBOR_AVE_EMPTY,
+        MOCK_ON_CPD_EMPTY,
+        MOCK_ON_AVE_EMPTY,
+        MOCK_INF_MON_EMPTY,
+        MOCK_INF_INT_EMPTY,
+        MOCK_INF_BOND_MON_EMPTY,
+        MOCK_INF_BOND_INT_EMPTY) {
+      @Override
+      public double rate(RateComputation computation, LocalDate startDate, LocalDate endDate, RatesProvider provider) {
+        return 0.05d;
+      }
+    };
+    // the subclass override must not be bypassed
+    assertSame(test.select(IborRateComputation.of(GBP_LIBOR_3M, FIXING_DATE, REF_DATA)), test);
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     DispatchingRateComputationFn test = new DispatchingRateComputationFn(
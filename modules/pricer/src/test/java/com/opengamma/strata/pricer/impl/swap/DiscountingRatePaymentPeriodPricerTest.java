@@ -52,6 +52,16 @@ import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.ZeroRateSensitivity;
 import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
 import com.opengamma.strata.pricer.fx.FxIndexRates;
+import com.opengamma.strata.pricer.impl.rate.ApproxForwardOvernightAveragedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.DispatchingRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardIborAveragedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardIborInterpolatedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardIborRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardInflationEndInterpolatedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardInflationEndMonthRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardInflationInterpolatedRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardInflationMonthlyRateComputationFn;
+import com.opengamma.strata.pricer.impl.rate.ForwardOvernightCompoundedRateComputationFn;
 import com.opengamma.strata.pricer.rate.IborRateSensitivity;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RateComputationFn;
@@ -197,6 +207,63 @@ public class DiscountingRatePaymentPeriodPricerTest {
       .build();
 
   // all tests use a fixed rate to avoid excessive use of mocks
+  //-------------------------------------------------------------------------
+  @SuppressWarnings("unchecked")
+  public void test_select() {
+    DiscountingRatePaymentPeriodPricer test = DiscountingRatePaymentPeriodPricer.DEFAULT;
+    DiscountingRatePaymentPeriodPricer selectedFixed = test.select(PAYMENT_PERIOD_1);
+    assertFalse(selectedFixed == test);
+    assertTrue(test.select(PAYMENT_PERIOD_FULL_GS) == selectedFixed);
+    SimpleRatesProvider prov = createProvider(VAL_DATE);
+    assertEquals(
+        selectedFixed.presentValue(PAYMENT_PERIOD_FULL_GS, prov), test.presentValue(PAYMENT_PERIOD_FULL_GS, prov), 0d);
+    RateAccrualPeriod iborPeriod = ACCRUAL_PERIOD_2_GS.toBuilder()
+        .rateComputation(IborRateComputation.of(GBP_LIBOR_3M, CPN_DATE_2, REF_DATA))
+        .build();
+    RatePaymentPeriod ibor = PAYMENT_PERIOD_1.toBuilder().accrualPeriods(iborPeriod).build();
+    DiscountingRatePaymentPeriodPricer selectedIbor = test.select(ibor);
+    assertFalse(selectedIbor == test);
+    assertFalse(selectedIbor == selectedFixed);
+    RatePaymentPeriod mixed = PAYMENT_PERIOD_1.toBuilder().accrualPeriods(ACCRUAL_PERIOD_1, iborPeriod).build();
+    assertTrue(test.select(mixed) == test);
+    DiscountingRatePaymentPeriodPricer notDispatching =
+        new DiscountingRatePaymentPeriodPricer(mock(RateComputationFn.class));
+    assertTrue(notDispatching.select(PAYMENT_PERIOD_1) == notDispatching);
+  }
+
+  public void test_select_subclass() {
+    DiscountingRatePaymentPeriodPricer subclass =
+        new DiscountingRatePaymentPeriodPricer(RateComputationFn.standard()) {
+          @Override
+          public double forecastValue(RatePaymentPeriod period, RatesProvider provider) {
+            return 1d;
+          }
+        };
+    assertTrue(subclass.select(PAYMENT_PERIOD_1) == subclass);
+  }
+
+  public void test_select_dispatchingSubclass() {
+    DispatchingRateComputationFn dispatchingFn = new DispatchingRateComputationFn(
+        ForwardIborRateComputationFn.DEFAULT,
+        ForwardIborInterpolatedRateComputationFn.DEFAULT,
+        ForwardIborAveragedRateComputationFn.DEFAULT,
+        ForwardOvernightCompoundedRateComputationFn.DEFAULT,
+        ApproxForwardOvernightAveragedRateComputationFn.DEFAULT,
+        ForwardInflationMonthlyRateComputationFn.DEFAULT,
+        ForwardInflationInterpolatedRateComputationFn.DEFAULT,
+        ForwardInflationEndMonthRateComputationFn.DEFAULT,
+        ForwardInflationEndInterpolatedRateComputationFn.DEFAULT) {
+      @Override
+      public double rate(RateComputation computation, LocalDate startDate, LocalDate endDate, RatesProvider provider) {
+        return RATE_2;
+      }
+    };
+    DiscountingRatePaymentPeriodPricer test = new DiscountingRatePaymentPeriodPricer(dispatchingFn);
+    assertTrue(test.select(PAYMENT_PERIOD_1) == test);
+    SimpleRatesProvider prov = createProvider(VAL_DATE);
+    assertEquals(test.forecastValue(PAYMENT_PERIOD_1, prov), RATE_2 * ACCRUAL_FACTOR_1 * NOTIONAL_100, TOLERANCE_PV);
+  }
+
   // rate observation is separated from this class, so nothing is missed in unit test terms
   // most testing on forecastValue as methods only differ in discountFactor
   //-------------------------------------------------------------------------
@@ -9,6 +9,7 @@ import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 import org.testng.annotations.Test;
 
@@ -33,6 +34,29 @@ public class DispatchingSwapPaymentEventPricerTest {
   private static final SwapPaymentEventPricer<FxResetNotionalExchange> MOCK_FX_NOTIONAL_EXG =
       mock(SwapPaymentEventPricer.class);
 
+  //-------------------------------------------------------------------------
+  public void test_select() {
+    DispatchingSwapPaymentEventPricer test = new DispatchingSwapPaymentEventPricer(
+        MOCK_NOTIONAL_EXG,
+        MOCK_FX_NOTIONAL_EXG);
+    assertEquals(test.select(SwapDummyData.NOTIONAL_EXCHANGE_REC_GBP), MOCK_NOTIONAL_EXG);
+    assertEquals(test.select(SwapDummyData.FX_RESET_NOTIONAL_EXCHANGE_REC_USD), MOCK_FX_NOTIONAL_EXG);
+    assertThrowsIllegalArg(() -> test.select(mock(SwapPaymentEvent.class)));
+  }
+
+  public void test_select_subclass() {
+    DispatchingSwapPaymentEventPricer test = new DispatchingSwapPaymentEventPricer(
+        MOCK_NOTIONAL_EXG,
+        MOCK_FX_NOTIONAL_EXG) {
+      @Override
+      public double presentValue(SwapPaymentEvent paymentEvent, RatesProvider provider) {
+        return 1d;
+      }
+    };
+    // the subclass override must not be bypassed
+    assertSame(test.select(SwapDummyData.NOTIONAL_EXCHANGE_REC_GBP), test);
+  }
+
   //-------------------------------------------------------------------------
   public void test_presentValue_NotionalExchange() {
     double expected = 0.0123d;
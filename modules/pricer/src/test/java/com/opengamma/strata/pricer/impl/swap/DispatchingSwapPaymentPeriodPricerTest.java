@@ -12,6 +12,9 @@ import static com.opengamma.strata.collect.TestHelper.ignoreThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 import org.testng.annotations.Test;
 
@@ -115,6 +118,34 @@ public class DispatchingSwapPaymentPeriodPricerTest {
     assertThrowsIllegalArg(() -> test.currentCash(mockPaymentPeriod, MOCK_PROV));
   }
 
+  //-------------------------------------------------------------------------
+  public void test_select() {
+    SwapPaymentPeriod knownAmount = SwapDummyData.KNOWN_AMOUNT_SWAP_LEG.getPaymentPeriods().get(0);
+    DispatchingSwapPaymentPeriodPricer test = new DispatchingSwapPaymentPeriodPricer(MOCK_RATE, MOCK_KNOWN);
+    assertEquals(test.select(SwapDummyData.FIXED_RATE_PAYMENT_PERIOD_REC_GBP), MOCK_RATE);
+    assertEquals(test.select(knownAmount), MOCK_KNOWN);
+    assertThrowsIllegalArg(() -> test.select(mock(SwapPaymentPeriod.class)));
+  }
+
+  public void test_select_subclass() {
+    DispatchingSwapPaymentPeriodPricer test = new DispatchingSwapPaymentPeriodPricer(MOCK_RATE, MOCK_KNOWN) {
+      @Override
+      public double presentValue(SwapPaymentPeriod paymentPeriod, RatesProvider provider) {
+        return 1d;
+      }
+    };
+    // the subclass override must not be bypassed
+    assertSame(test.select(SwapDummyData.FIXED_RATE_PAYMENT_PERIOD_REC_GBP), test);
+  }
+
+  public void test_select_discounting() {
+    DispatchingSwapPaymentPeriodPricer test = DispatchingSwapPaymentPeriodPricer.DEFAULT;
+    SwapPaymentPeriodPricer<?> selected = test.select(SwapDummyData.IBOR_RATE_PAYMENT_PERIOD_REC_GBP);
+    assertTrue(selected instanceof DiscountingRatePaymentPeriodPricer);
+    assertFalse(selected.equals(DiscountingRatePaymentPeriodPricer.DEFAULT));
+    assertSame(test.select(SwapDummyData.IBOR_RATE_PAYMENT_PERIOD_REC_GBP_2), selected);
+  }
+
   //------------------------------------------------------------------------- 
   public void coverage() {
     DispatchingSwapPaymentPeriodPricer test = new DispatchingSwapPaymentPeriodPricer(
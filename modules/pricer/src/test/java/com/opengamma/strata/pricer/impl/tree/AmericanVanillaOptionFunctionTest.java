@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.tree;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.DoubleArrayMath;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.product.common.PutCall;
+
+/**
+ * Test {@link AmericanVanillaOptionFunction}.
+ */
+@Test
+public class AmericanVanillaOptionFunctionTest {
+
+  private static final double STRIKE = 130d;
+  private static final double TIME_TO_EXPIRY = 0.257;
+  private static final int NUM = 35;
+
+  public void test_of() {
+    AmericanVanillaOptionFunction test = AmericanVanillaOptionFunction.of(STRIKE, TIME_TO_EXPIRY, PutCall.PUT, NUM);
+    assertEquals(test.getSign(), -1d);
+    assertEquals(test.getStrike(), STRIKE);
+    assertEquals(test.getTimeToExpiry(), TIME_TO_EXPIRY);
+    assertEquals(test.getNumberOfSteps(), NUM);
+  }
+
+  public void test_optionPrice() {
+    double tol = 1.0e-12;
+    AmericanVanillaOptionFunction test = AmericanVanillaOptionFunction.of(STRIKE, TIME_TO_EXPIRY, PutCall.PUT, NUM);
+    double spot = 100d;
+    double u = 1.05;
+    double d = 0.98;
+    double m = Math.sqrt(u * d);
+    double up = 0.29;
+    double dp = 0.25;
+    double mp = 1d - up - dp;
+    // test getNextOptionValues
+    double df = 0.92;
+    int n = 2;
+    DoubleArray values = DoubleArray.of(41.4, 35.9, 30.1, 20.05, 10.0, 0.0, 0.0);
+    DoubleArray computedNextValues = test.getNextOptionValues(df, up, mp, dp, values, spot, d, m, n);
+    double[] expectedNextValues = new double[] {
+        df * (41.4 * dp + 35.9 * mp + 30.1 * up),
+        df * (35.9 * dp + 30.1 * mp + 20.05 * up),
+        df * (30.1 * dp + 20.05 * mp + 10.0 * up),
+        df * (20.05 * dp + 10.0 * mp),
+        df * 10.0 * dp};
+    for (int k = 0; k < 2 * n + 1; ++k) {
+      double exercise = STRIKE - spot * Math.pow(d, n - k) * Math.pow(m, k);
+      expectedNextValues[k] = Math.max(expectedNextValues[k], exercise);
+    }
+    assertTrue(DoubleArrayMath.fuzzyEquals(computedNextValues.toArray(), expectedNextValues, tol));
+  }
+
+  private static final TrinomialTree TRINOMIAL_TREE = new TrinomialTree();
+  private static final double SPOT = 105.;
+  private static final double[] STRIKES = new double[] {81., 97., 105., 105.1, 114., 128. };
+  private static final double TIME = 1.25;
+  private static final double[] INTERESTS = new double[] {0.0, 0.05 };
+  private static final double[] VOLS = new double[] {0.05, 0.1, 0.5 };
+  private static final double[] DIVIDENDS = new double[] {0.0, 0.02 };
+
+  public void test_trinomialTree() {
+    int nSteps = 135;
+    LatticeSpecification lattice = new CoxRossRubinsteinLatticeSpecification();
+    double tol = 1.0e-12;
+    for (boolean isCall : new boolean[] {true, false }) {
+      for (double strike : STRIKES) {
+        for (double interest : INTERESTS) {
+          for (double vol : VOLS) {
+            for (double dividend : DIVIDENDS) {
+              PutCall putCall = PutCall.ofPut(!isCall);
+              OptionFunction american = AmericanVanillaOptionFunction.of(strike, TIME, putCall, nSteps);
+              OptionFunction european = EuropeanVanillaOptionFunction.of(strike, TIME, putCall, nSteps);
+              double priceAmerican = TRINOMIAL_TREE.optionPrice(american, lattice, SPOT, vol, interest, dividend);
+              double priceEuropean = TRINOMIAL_TREE.optionPrice(european, lattice, SPOT, vol, interest, dividend);
+              assertTrue(priceAmerican >= priceEuropean - tol);
+              assertTrue(priceAmerican >= Math.max((isCall ? 1d : -1d) * (SPOT - strike), 0d) - tol);
+              if (isCall && dividend == 0d) {
+                // early exercise of call is not optimal without dividend
+                assertEquals(priceAmerican, priceEuropean, Math.max(priceEuropean, 1d) * tol);
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+}
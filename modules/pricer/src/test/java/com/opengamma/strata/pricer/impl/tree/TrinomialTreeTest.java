@@ -6,6 +6,7 @@
 package com.opengamma.strata.pricer.impl.tree;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,6 +19,7 @@ import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.pricer.fxopt.RecombiningTrinomialTreeData;
 import com.opengamma.strata.product.common.PutCall;
+import com.opengamma.strata.product.option.BarrierType;
 
 /**
  * Test {@link TrinomialTree}.
@@ -82,4 +84,138 @@ public class TrinomialTreeTest {
     }
   }
 
+  /**
+   * Test options priced in a single backward induction are the same as options priced individually.
+   */
+  public void test_trinomialTree_multipleOptions() {
+    int nSteps = 91;
+    double dt = TIME / nSteps;
+    double interest = 0.05;
+    double vol = 0.1;
+    double dividend = 0.02;
+    LatticeSpecification lattice = new CoxRossRubinsteinLatticeSpecification();
+    double[] params = lattice.getParametersTrinomial(vol, interest - dividend, dt).toArray();
+    DoubleArray time = DoubleArray.of(nSteps + 1, i -> dt * i);
+    DoubleArray df = DoubleArray.of(nSteps, i -> Math.exp(-interest * dt));
+    double[][] stateValue = new double[nSteps + 1][];
+    stateValue[0] = new double[] {SPOT };
+    List<DoubleMatrix> prob = new ArrayList<DoubleMatrix>();
+    double[] probs = new double[] {params[5], params[4], params[3] };
+    for (int i = 0; i < nSteps; ++i) {
+      int index = i;
+      stateValue[i + 1] = DoubleArray.of(2 * i + 3,
+          j -> SPOT * Math.pow(params[2], index + 1 - j) * Math.pow(params[1], j)).toArray();
+      double[][] probMatrix = new double[2 * i + 1][];
+      Arrays.fill(probMatrix, probs);
+      prob.add(DoubleMatrix.ofUnsafe(probMatrix));
+    }
+    RecombiningTrinomialTreeData treeData =
+        RecombiningTrinomialTreeData.of(DoubleMatrix.ofUnsafe(stateValue), prob, df, time);
+    List<OptionFunction> functions = new ArrayList<>();
+    for (double strike : STRIKES) {
+      for (PutCall putCall : PutCall.values()) {
+        functions.add(EuropeanVanillaOptionFunction.of(strike, TIME, putCall, nSteps));
+        functions.add(AmericanVanillaOptionFunction.of(strike, TIME, putCall, nSteps));
+        functions.add(ConstantContinuousSingleBarrierKnockoutFunction.of(
+            strike, TIME, putCall, nSteps, BarrierType.DOWN, 90d, DoubleArray.filled(nSteps + 1, 1d)));
+      }
+    }
+    DoubleArray prices = TRINOMIAL_TREE.optionPrice(functions, treeData);
+    List<ValueDerivatives> priceDerivs = TRINOMIAL_TREE.optionPriceAdjoint(functions, treeData);
+    assertEquals(prices.size(), functions.size());
+    assertEquals(priceDerivs.size(), functions.size());
+    for (int i = 0; i < functions.size(); ++i) {
+      OptionFunction function = functions.get(i);
+      // in-place update must agree with the allocating update
+      DoubleArray values = function.getPayoffAtExpiryTrinomial(treeData.getStateValueAtLayer(nSteps));
+      for (int j = nSteps - 1; j > -1; --j) {
+        values = function.getNextOptionValues(
+            treeData.getDiscountFactorAtLayer(j), treeData.getProbabilityAtLayer(j), treeData.getStateValueAtLayer(j),
+            values, j);
+      }
+      assertEquals(prices.get(i), values.get(0));
+      assertEquals(prices.get(i), TRINOMIAL_TREE.optionPrice(function, treeData));
+      assertEquals(priceDerivs.get(i), TRINOMIAL_TREE.optionPriceAdjoint(function, treeData));
+      assertEquals(priceDerivs.get(i).getValue(), prices.get(i));
+    }
+  }
+
+  /**
+   * Test an option overriding only {@code getNextOptionValues} is priced using the override.
+   */
+  public void test_trinomialTree_getNextOptionValuesOverride() {
+    int nSteps = 51;
+    double dt = TIME / nSteps;
+    double interest = 0.05;
+    LatticeSpecification lattice = new CoxRossRubinsteinLatticeSpecification();
+    double[] params = lattice.getParametersTrinomial(0.1, interest, dt).toArray();
+    DoubleArray time = DoubleArray.of(nSteps + 1, i -> dt * i);
+    DoubleArray df = DoubleArray.of(nSteps, i -> Math.exp(-interest * dt));
+    double[][] stateValue = new double[nSteps + 1][];
+    stateValue[0] = new double[] {SPOT };
+    List<DoubleMatrix> prob = new ArrayList<DoubleMatrix>();
+    double[] probs = new double[] {params[5], params[4], params[3] };
+    for (int i = 0; i < nSteps; ++i) {
+      int index = i;
+      stateValue[i + 1] = DoubleArray.of(2 * i + 3,
+          j -> SPOT * Math.pow(params[2], index + 1 - j) * Math.pow(params[1], j)).toArray();
+      double[][] probMatrix = new double[2 * i + 1][];
+      Arrays.fill(probMatrix, probs);
+      prob.add(DoubleMatrix.ofUnsafe(probMatrix));
+    }
+    RecombiningTrinomialTreeData treeData =
+        RecombiningTrinomialTreeData.of(DoubleMatrix.ofUnsafe(stateValue), prob, df, time);
+    double strike = 114d;
+    OptionFunction european = EuropeanVanillaOptionFunction.of(strike, TIME, PutCall.PUT, nSteps);
+    OptionFunction american = AmericanVanillaOptionFunction.of(strike, TIME, PutCall.PUT, nSteps);
+    OptionFunction overridden = new EarlyExercisePutFunction(strike, nSteps);
+    double expected = TRINOMIAL_TREE.optionPrice(american, treeData);
+    assertTrue(expected > TRINOMIAL_TREE.optionPrice(european, treeData));
+    assertEquals(TRINOMIAL_TREE.optionPrice(overridden, treeData), expected, 1e-12);
+    assertEquals(TRINOMIAL_TREE.optionPriceAdjoint(overridden, treeData).getValue(), expected, 1e-12);
+    DoubleArray batch = TRINOMIAL_TREE.optionPrice(Arrays.asList(european, overridden), treeData);
+    assertEquals(batch.get(1), expected, 1e-12);
+  }
+
+  //-------------------------------------------------------------------------
+  // an American put implemented by overriding only getNextOptionValues
+  private static final class EarlyExercisePutFunction implements OptionFunction {
+    private final double strike;
+    private final int numberOfSteps;
+
+    private EarlyExercisePutFunction(double strike, int numberOfSteps) {
+      this.strike = strike;
+      this.numberOfSteps = numberOfSteps;
+    }
+
+    @Override
+    public double getTimeToExpiry() {
+      return TIME;
+    }
+
+    @Override
+    public int getNumberOfSteps() {
+      return numberOfSteps;
+    }
+
+    @Override
+    public DoubleArray getPayoffAtExpiryTrinomial(DoubleArray stateValue) {
+      return stateValue.map(s -> Math.max(strike - s, 0d));
+    }
+
+    @Override
+    public DoubleArray getNextOptionValues(
+        double discountFactor,
+        DoubleMatrix transitionProbability,
+        DoubleArray stateValue,
+        DoubleArray value,
+        int i) {
+
+      return DoubleArray.of(2 * i + 1, j -> Math.max(
+          discountFactor * (transitionProbability.get(j, 2) * value.get(j + 2) +
+              transitionProbability.get(j, 1) * value.get(j + 1) + transitionProbability.get(j, 0) * value.get(j)),
+          strike - stateValue.get(j)));
+    }
+  }
+
 }
@@ -11,6 +11,8 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
@@ -63,6 +65,24 @@ public class HullWhiteIborFutureProductPricerTest {
     assertEquals(computed, 1d - price, TOL);
   }
 
+  public void test_price_multiple() {
+    List<ResolvedIborFuture> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      LocalDate lastTradeDate = FUTURE.getLastTradeDate().plusMonths(3 * i);
+      futures.add(HullWhiteIborFutureDataSet.IBOR_FUTURE.toBuilder()
+          .lastTradeDate(EUR_EURIBOR_3M.getFixingCalendar().resolve(REF_DATA).nextOrSame(lastTradeDate))
+          .build()
+          .resolve(REF_DATA));
+    }
+    DoubleArray computedPrice = PRICER.price(futures, RATE_PROVIDER, HW_PROVIDER);
+    DoubleArray computedParRate = PRICER.parRate(futures, RATE_PROVIDER, HW_PROVIDER);
+    assertEquals(computedPrice.size(), futures.size());
+    for (int i = 0; i < futures.size(); i++) {
+      assertEquals(computedPrice.get(i), PRICER.price(futures.get(i), RATE_PROVIDER, HW_PROVIDER), TOL);
+      assertEquals(computedParRate.get(i), PRICER.parRate(futures.get(i), RATE_PROVIDER, HW_PROVIDER), TOL);
+    }
+  }
+
   public void test_convexityAdjustment() {
     double computed = PRICER.convexityAdjustment(FUTURE, RATE_PROVIDER, HW_PROVIDER);
     double priceHw = PRICER.price(FUTURE, RATE_PROVIDER, HW_PROVIDER);
@@ -19,6 +19,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertSame;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 
 import org.joda.beans.Bean;
@@ -36,6 +39,7 @@ import com.opengamma.strata.market.curve.Curves;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
 import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
 import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.snapshot.BinarySnapshot;
 import com.opengamma.strata.pricer.ZeroRateDiscountFactors;
 import com.opengamma.strata.pricer.fx.DiscountFxForwardRates;
 
@@ -189,6 +193,28 @@ public class ImmutableRatesProviderTest {
     cycleBean(ImmutableRatesProvider.builder(VAL_DATE).build());
   }
   
+  public void testBinarySnapshot() throws IOException {
+    LocalDateDoubleTimeSeries ts = LocalDateDoubleTimeSeries.builder()
+        .put(PREV_DATE.minusDays(1), 0.61d)
+        .put(PREV_DATE, 0.62d)
+        .build();
+    ImmutableRatesProvider test = ImmutableRatesProvider.builder(VAL_DATE)
+        .fxRateProvider(FX_MATRIX)
+        .discountCurve(GBP, DISCOUNT_CURVE_GBP)
+        .discountCurve(USD, DISCOUNT_CURVE_USD)
+        .iborIndexCurve(USD_LIBOR_3M, USD_LIBOR_CURVE)
+        .priceIndexCurve(GB_RPI, GBPRI_CURVE)
+        .timeSeries(USD_LIBOR_3M, ts)
+        .build();
+    Path file = Files.createTempFile("snapshot", ".bin");
+    try {
+      BinarySnapshot.write(test, file);
+      assertEquals(BinarySnapshot.read(file, ImmutableRatesProvider.class), test);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
   private void cycleBean(Bean bean) {
     JodaBeanSer ser = JodaBeanSer.COMPACT;
     String result = ser.xmlWriter().write(bean);
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.sensitivity;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveInfoType;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.ZeroRateDiscountFactors;
+import com.opengamma.strata.pricer.ZeroRatePeriodicDiscountFactors;
+import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
+import com.opengamma.strata.pricer.rate.DiscountIborIndexRates;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+
+/**
+ * Test {@link DiscountFactorsTape}.
+ */
+@Test
+public class DiscountFactorsTapeTest {
+
+  private static final ImmutableRatesProvider PROVIDER = RatesProviderDataSets.MULTI_GBP;
+  private static final DiscountFactors DSC = PROVIDER.discountFactors(GBP);
+  private static final DiscountFactors FWD =
+      ((DiscountIborIndexRates) PROVIDER.iborIndexRates(GBP_LIBOR_3M)).getDiscountFactors();
+  private static final double TOLERANCE = 1.0e-12;
+
+  //-------------------------------------------------------------------------
+  public void test_builder() {
+    DiscountFactorsTape.Builder builder = DiscountFactorsTape.builder(2);
+    assertEquals(builder.slot(0, 1d), 0);
+    assertEquals(builder.slot(1, 1d), 1);
+    assertEquals(builder.slot(0, 2d), 2);
+    assertEquals(builder.slot(0, 1d), 0);
+    DiscountFactorsTape test = builder.build();
+    assertEquals(test.getCurveCount(), 2);
+    assertEquals(test.size(), 3);
+    assertEquals(test.toString(), "DiscountFactorsTape[2 curves, 3 slots]");
+  }
+
+  public void test_builder_invalid() {
+    assertThrowsIllegalArg(() -> DiscountFactorsTape.builder(0));
+    assertThrowsIllegalArg(() -> DiscountFactorsTape.builder(1).slot(1, 1d));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_evaluate() {
+    DiscountFactorsTape.Builder builder = DiscountFactorsTape.builder(2);
+    int slot0 = builder.slot(0, 0.5d);
+    int slot1 = builder.slot(1, 0.5d);
+    int slot2 = builder.slot(1, 2.5d);
+    DiscountFactorsTape test = builder.build();
+    DiscountFactorsTape.Evaluation evaluation = test.evaluate(ImmutableList.of(DSC, FWD));
+    assertEquals(evaluation.discountFactor(slot0), DSC.discountFactor(0.5d));
+    assertEquals(evaluation.discountFactor(slot1), FWD.discountFactor(0.5d));
+    assertEquals(evaluation.discountFactor(slot2), FWD.discountFactor(2.5d));
+    assertThrowsIllegalArg(() -> test.evaluate(ImmutableList.of(DSC)));
+  }
+
+  public void test_parameterSensitivity() {
+    DiscountFactorsTape.Builder builder = DiscountFactorsTape.builder(2);
+    int slot0 = builder.slot(0, 0.5d);
+    int slot1 = builder.slot(1, 0.5d);
+    int slot2 = builder.slot(1, 2.5d);
+    DiscountFactorsTape.Evaluation evaluation = builder.build().evaluate(ImmutableList.of(DSC, FWD));
+    evaluation.addAdjoint(slot0, 100d);
+    evaluation.addAdjoint(slot1, 200d);
+    evaluation.addAdjoint(slot2, 300d);
+    evaluation.addAdjoint(slot2, -50d);
+    CurrencyParameterSensitivities computed = evaluation.parameterSensitivity();
+    CurrencyParameterSensitivities expected = DSC
+        .parameterSensitivity(DSC.zeroRatePointSensitivity(0.5d).multipliedBy(100d))
+        .combinedWith(FWD.parameterSensitivity(FWD.zeroRatePointSensitivity(0.5d).multipliedBy(200d)))
+        .combinedWith(FWD.parameterSensitivity(FWD.zeroRatePointSensitivity(2.5d).multipliedBy(250d)));
+    assertEquals(computed.size(), 2);
+    assertTrue(computed.equalWithTolerance(expected, TOLERANCE));
+  }
+
+  public void test_parameterSensitivity_simple() {
+    DiscountFactors simple = RatesProviderDataSets.MULTI_GBP_USD_SIMPLE.discountFactors(GBP);
+    DiscountFactorsTape.Builder builder = DiscountFactorsTape.builder(1);
+    int slot0 = builder.slot(0, 0d);
+    int slot1 = builder.slot(0, 0.5d);
+    int slot2 = builder.slot(0, 2.5d);
+    DiscountFactorsTape.Evaluation evaluation = builder.build().evaluate(ImmutableList.of(simple));
+    evaluation.addAdjoint(slot0, 100d);
+    evaluation.addAdjoint(slot1, 200d);
+    evaluation.addAdjoint(slot2, 300d);
+    CurrencyParameterSensitivities computed = evaluation.parameterSensitivity();
+    CurrencyParameterSensitivities expected = simple
+        .parameterSensitivity(simple.zeroRatePointSensitivity(0.5d).multipliedBy(200d))
+        .combinedWith(simple.parameterSensitivity(simple.zeroRatePointSensitivity(2.5d).multipliedBy(300d)));
+    assertEquals(computed.size(), 1);
+    assertTrue(computed.equalWithTolerance(expected, TOLERANCE));
+  }
+
+  public void test_parameterSensitivity_periodic() {
+    // the point sensitivity is converted for other types of discount factors
+    Curve curve = ((ZeroRateDiscountFactors) DSC).getCurve();
+    DiscountFactors periodic = ZeroRatePeriodicDiscountFactors.of(GBP, PROVIDER.getValuationDate(),
+        curve.withMetadata(curve.getMetadata().withInfo(CurveInfoType.COMPOUNDING_PER_YEAR, 2)));
+    DiscountFactorsTape.Builder builder = DiscountFactorsTape.builder(2);
+    int slot0 = builder.slot(0, 0.5d);
+    int slot1 = builder.slot(1, 2.5d);
+    DiscountFactorsTape.Evaluation evaluation = builder.build().evaluate(ImmutableList.of(periodic, FWD));
+    evaluation.addAdjoint(slot0, 100d);
+    evaluation.addAdjoint(slot1, 300d);
+    CurrencyParameterSensitivities computed = evaluation.parameterSensitivity();
+    CurrencyParameterSensitivities expected = periodic
+        .parameterSensitivity(periodic.zeroRatePointSensitivity(0.5d).multipliedBy(100d))
+        .combinedWith(FWD.parameterSensitivity(FWD.zeroRatePointSensitivity(2.5d).multipliedBy(300d)));
+    assertTrue(computed.equalWithTolerance(expected, TOLERANCE));
+  }
+
+  public void test_parameterSensitivity_none() {
+    DiscountFactorsTape.Builder builder = DiscountFactorsTape.builder(1);
+    builder.slot(0, 0.5d);
+    DiscountFactorsTape.Evaluation evaluation = builder.build().evaluate(ImmutableList.of(DSC));
+    assertEquals(evaluation.parameterSensitivity(), CurrencyParameterSensitivities.empty());
+  }
+
+}
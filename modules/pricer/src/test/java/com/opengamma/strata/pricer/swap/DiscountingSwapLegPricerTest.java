@@ -31,6 +31,7 @@ import static com.opengamma.strata.pricer.swap.SwapDummyData.IBOR_RATE_PAYMENT_P
 import static com.opengamma.strata.pricer.swap.SwapDummyData.IBOR_RATE_PAYMENT_PERIOD_REC_GBP_2;
 import static com.opengamma.strata.pricer.swap.SwapDummyData.IBOR_SWAP_LEG_REC_GBP;
 import static com.opengamma.strata.pricer.swap.SwapDummyData.IBOR_SWAP_LEG_REC_GBP_MULTI;
+import static com.opengamma.strata.pricer.swap.SwapDummyData.KNOWN_AMOUNT_SWAP_LEG;
 import static com.opengamma.strata.pricer.swap.SwapDummyData.NOTIONAL_EXCHANGE_REC_GBP;
 import static com.opengamma.strata.product.common.PayReceive.PAY;
 import static com.opengamma.strata.product.common.PayReceive.RECEIVE;
@@ -47,6 +48,7 @@ import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.List;
 import java.util.Map;
 
 import org.testng.annotations.Test;
@@ -80,7 +82,12 @@ import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
 import com.opengamma.strata.pricer.impl.MockRatesProvider;
 import com.opengamma.strata.pricer.impl.rate.ForwardInflationInterpolatedRateComputationFn;
 import com.opengamma.strata.pricer.impl.rate.ForwardInflationMonthlyRateComputationFn;
+import com.opengamma.strata.pricer.impl.swap.DiscountingFxResetNotionalExchangePricer;
+import com.opengamma.strata.pricer.impl.swap.DiscountingKnownAmountPaymentPeriodPricer;
+import com.opengamma.strata.pricer.impl.swap.DiscountingNotionalExchangePricer;
+import com.opengamma.strata.pricer.impl.swap.DiscountingRatePaymentPeriodPricer;
 import com.opengamma.strata.pricer.impl.swap.DispatchingSwapPaymentEventPricer;
+import com.opengamma.strata.pricer.impl.swap.DispatchingSwapPaymentPeriodPricer;
 import com.opengamma.strata.pricer.rate.IborRateSensitivity;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -301,6 +308,65 @@ public class DiscountingSwapLegPricerTest {
     assertEquals(test.presentValuePeriodsInternal(IBOR_SWAP_LEG_REC_GBP, MOCK_PROV), 500d);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_compile() {
+    List<ResolvedSwapLeg> legs = ImmutableList.of(
+        IBOR_SWAP_LEG_REC_GBP,
+        IBOR_SWAP_LEG_REC_GBP_MULTI,
+        FIXED_SWAP_LEG_PAY_USD,
+        FIXED_CMP_FLAT_SWAP_LEG_PAY_GBP,
+        FIXED_FX_RESET_SWAP_LEG_PAY_GBP,
+        KNOWN_AMOUNT_SWAP_LEG);
+    for (ResolvedSwapLeg leg : legs) {
+      CompiledSwapLeg test = PRICER_LEG.compile(leg);
+      assertEquals(test.getLeg(), leg);
+      assertEquals(test.presentValue(RATES_GBP_USD), PRICER_LEG.presentValue(leg, RATES_GBP_USD));
+      assertEquals(test.forecastValue(RATES_GBP_USD), PRICER_LEG.forecastValue(leg, RATES_GBP_USD));
+      assertEquals(
+          test.presentValueSensitivity(RATES_GBP_USD).build(),
+          PRICER_LEG.presentValueSensitivity(leg, RATES_GBP_USD).build());
+      assertTrue(test.toString().startsWith("CompiledSwapLeg["));
+    }
+  }
+
+  public void test_compile_notDispatching() {
+    SwapPaymentPeriodPricer<SwapPaymentPeriod> mockPeriod = mock(SwapPaymentPeriodPricer.class);
+    when(mockPeriod.presentValue(IBOR_RATE_PAYMENT_PERIOD_REC_GBP, MOCK_PROV))
+        .thenReturn(500d);
+    when(mockPeriod.forecastValue(IBOR_RATE_PAYMENT_PERIOD_REC_GBP, MOCK_PROV))
+        .thenReturn(600d);
+    SwapPaymentEventPricer<SwapPaymentEvent> mockEvent = mock(SwapPaymentEventPricer.class);
+    when(mockEvent.presentValue(NOTIONAL_EXCHANGE_REC_GBP, MOCK_PROV))
+        .thenReturn(1000d);
+    when(mockEvent.forecastValue(NOTIONAL_EXCHANGE_REC_GBP, MOCK_PROV))
+        .thenReturn(1100d);
+    CompiledSwapLeg test = new DiscountingSwapLegPricer(mockPeriod, mockEvent).compile(IBOR_SWAP_LEG_REC_GBP);
+    assertEquals(test.presentValue(MOCK_PROV), CurrencyAmount.of(GBP, 1500d));
+    assertEquals(test.forecastValue(MOCK_PROV), CurrencyAmount.of(GBP, 1700d));
+    assertEquals(test.presentValue(MOCK_PROV_FUTURE), CurrencyAmount.of(GBP, 0d));
+    assertEquals(test.presentValueSensitivity(MOCK_PROV_FUTURE), PointSensitivityBuilder.none());
+  }
+
+  public void test_compile_dispatchingSubclass() {
+    DispatchingSwapPaymentPeriodPricer periodPricer = new DispatchingSwapPaymentPeriodPricer(
+        DiscountingRatePaymentPeriodPricer.DEFAULT, DiscountingKnownAmountPaymentPeriodPricer.DEFAULT) {
+      @Override
+      public double presentValue(SwapPaymentPeriod paymentPeriod, RatesProvider provider) {
+        return 500d;
+      }
+    };
+    DispatchingSwapPaymentEventPricer eventPricer = new DispatchingSwapPaymentEventPricer(
+        DiscountingNotionalExchangePricer.DEFAULT, DiscountingFxResetNotionalExchangePricer.DEFAULT) {
+      @Override
+      public double presentValue(SwapPaymentEvent paymentEvent, RatesProvider provider) {
+        return 1000d;
+      }
+    };
+    // the compiled leg must use the overrides of the subclasses
+    CompiledSwapLeg test = new DiscountingSwapLegPricer(periodPricer, eventPricer).compile(IBOR_SWAP_LEG_REC_GBP);
+    assertEquals(test.presentValue(MOCK_PROV), CurrencyAmount.of(GBP, 1500d));
+  }
+
   //-------------------------------------------------------------------------
   public void test_forecastValue() {
     SwapPaymentPeriodPricer<SwapPaymentPeriod> mockPeriod = mock(SwapPaymentPeriodPricer.class);
@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_5Y;
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.pricer.swap.SwapDummyData.FIXED_CMP_FLAT_SWAP_LEG_PAY_GBP;
+import static com.opengamma.strata.pricer.swap.SwapDummyData.FIXED_FX_RESET_SWAP_LEG_PAY_GBP;
+import static com.opengamma.strata.pricer.swap.SwapDummyData.IBOR_SWAP_LEG_REC_GBP;
+import static com.opengamma.strata.pricer.swap.SwapDummyData.KNOWN_AMOUNT_SWAP_LEG;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.GBP_FIXED_1Y_LIBOR_3M;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapLegType;
+
+/**
+ * Test {@link SwapLegPricingPlan}.
+ */
+@Test
+public class SwapLegPricingPlanTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final double NOTIONAL = 1_000_000d;
+  private static final double TOLERANCE_PV = 1.0e-7;
+  private static final double TOLERANCE_RATE = 1.0e-12;
+  private static final DiscountingSwapLegPricer PRICER_LEG = DiscountingSwapLegPricer.DEFAULT;
+  private static final DiscountingSwapProductPricer PRICER_SWAP = DiscountingSwapProductPricer.DEFAULT;
+
+  private static final LocalDate VAL_DATE = RatesProviderDataSets.VAL_DATE_2014_01_22;
+  private static final LocalDateDoubleTimeSeries FIXINGS = fixings();
+  private static final ImmutableRatesProvider RATES = RatesProviderDataSets.MULTI_GBP.toBuilder()
+      .timeSeries(GBP_LIBOR_3M, FIXINGS)
+      .build();
+  private static final ImmutableRatesProvider RATES_BUMPED = RATES.toBuilder()
+      .discountCurve(GBP, RATES.getDiscountCurves().get(GBP).withPerturbation((i, v, m) -> v + 1.0e-4))
+      .iborIndexCurve(GBP_LIBOR_3M, RATES.getIndexCurves().get(GBP_LIBOR_3M).withPerturbation((i, v, m) -> v * 1.1))
+      .build();
+  private static final ImmutableRatesProvider RATES_OTHER_INDEX = RATES.toBuilder()
+      .iborIndexCurve(GBP_LIBOR_3M, RATES.getIndexCurves().get(GBP_LIBOR_3M)
+          .withMetadata(Curves.zeroRates(RatesProviderDataSets.GBP_L3_NAME, ACT_365F)))
+      .build();
+  private static final ResolvedSwap SWAP = GBP_FIXED_1Y_LIBOR_3M
+      .createTrade(VAL_DATE, TENOR_5Y, BUY, NOTIONAL, 0.02, REF_DATA)
+      .resolve(REF_DATA)
+      .getProduct();
+  private static final ResolvedSwap SWAP_SEASONED = GBP_FIXED_1Y_LIBOR_3M
+      .toTrade(date(2013, 10, 10), date(2013, 10, 14), date(2016, 10, 14), BUY, NOTIONAL, 0.015)
+      .resolve(REF_DATA)
+      .getProduct();
+
+  private static LocalDateDoubleTimeSeries fixings() {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    for (LocalDate date = date(2013, 9, 1); date.isBefore(VAL_DATE); date = date.plusDays(1)) {
+      builder.put(date, 0.005);
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    ResolvedSwapLeg leg = SWAP.getLegs(SwapLegType.IBOR).get(0);
+    SwapLegPricingPlan test = SwapLegPricingPlan.of(leg, RATES);
+    assertEquals(test.getLeg(), leg);
+    assertEquals(test.getValuationDate(), VAL_DATE);
+    assertTrue(test.toString().startsWith("SwapLegPricingPlan["));
+  }
+
+  public void test_pricing() {
+    for (ResolvedSwap swap : new ResolvedSwap[] {SWAP, SWAP_SEASONED}) {
+      for (ResolvedSwapLeg leg : swap.getLegs()) {
+        SwapLegPricingPlan test = SwapLegPricingPlan.of(leg, RATES);
+        for (ImmutableRatesProvider provider : new ImmutableRatesProvider[] {RATES, RATES_BUMPED, RATES_OTHER_INDEX}) {
+          assertPricing(test, leg, provider);
+        }
+      }
+    }
+  }
+
+  public void test_pricing_notionalExchange() {
+    ImmutableRatesProvider provider = RatesProviderDataSets.MULTI_GBP_USD;
+    assertPricing(SwapLegPricingPlan.of(IBOR_SWAP_LEG_REC_GBP, provider), IBOR_SWAP_LEG_REC_GBP, provider);
+  }
+
+  public void test_pvbp() {
+    ResolvedSwapLeg leg = SWAP.getLegs(SwapLegType.FIXED).get(0);
+    SwapLegPricingPlan test = SwapLegPricingPlan.of(leg, RATES);
+    assertEquals(test.pvbp(RATES), PRICER_LEG.pvbp(leg, RATES), TOLERANCE_PV);
+    assertEquals(test.pvbp(RATES_BUMPED), PRICER_LEG.pvbp(leg, RATES_BUMPED), TOLERANCE_PV);
+  }
+
+  public void test_parRate() {
+    for (ResolvedSwap swap : new ResolvedSwap[] {SWAP, SWAP_SEASONED}) {
+      SwapLegPricingPlan fixed = SwapLegPricingPlan.of(swap.getLegs(SwapLegType.FIXED).get(0), RATES);
+      SwapLegPricingPlan ibor = SwapLegPricingPlan.of(swap.getLegs(SwapLegType.IBOR).get(0), RATES);
+      for (ImmutableRatesProvider provider : new ImmutableRatesProvider[] {RATES, RATES_BUMPED}) {
+        assertEquals(fixed.parRate(ibor, provider), PRICER_SWAP.parRate(swap, provider), TOLERANCE_RATE);
+      }
+    }
+  }
+
+  public void test_presentValueParameterSensitivity() {
+    for (ResolvedSwap swap : new ResolvedSwap[] {SWAP, SWAP_SEASONED}) {
+      for (ResolvedSwapLeg leg : swap.getLegs()) {
+        SwapLegPricingPlan test = SwapLegPricingPlan.of(leg, RATES);
+        for (ImmutableRatesProvider provider : new ImmutableRatesProvider[] {RATES, RATES_BUMPED, RATES_OTHER_INDEX}) {
+          assertParameterSensitivity(test, leg, provider);
+        }
+      }
+    }
+    ImmutableRatesProvider provider = RatesProviderDataSets.MULTI_GBP_USD_SIMPLE;
+    assertParameterSensitivity(SwapLegPricingPlan.of(IBOR_SWAP_LEG_REC_GBP, provider), IBOR_SWAP_LEG_REC_GBP, provider);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_unsupported() {
+    assertThrowsIllegalArg(() -> SwapLegPricingPlan.of(FIXED_CMP_FLAT_SWAP_LEG_PAY_GBP, RATES));
+    assertThrowsIllegalArg(() -> SwapLegPricingPlan.of(FIXED_FX_RESET_SWAP_LEG_PAY_GBP, RATES));
+    assertThrowsIllegalArg(() -> SwapLegPricingPlan.of(KNOWN_AMOUNT_SWAP_LEG, RATES));
+  }
+
+  public void test_missingFixing() {
+    ResolvedSwapLeg leg = SWAP_SEASONED.getLegs(SwapLegType.IBOR).get(0);
+    assertThrowsIllegalArg(() -> SwapLegPricingPlan.of(leg, RatesProviderDataSets.MULTI_GBP));
+  }
+
+  public void test_otherValuationDate() {
+    SwapLegPricingPlan test = SwapLegPricingPlan.of(SWAP.getLegs(SwapLegType.IBOR).get(0), RATES);
+    ImmutableRatesProvider provider = RatesProviderDataSets.multiGbp(VAL_DATE.plusDays(1));
+    assertThrowsIllegalArg(() -> test.presentValue(provider));
+    assertThrowsIllegalArg(() -> test.forecastValue(provider));
+    assertThrowsIllegalArg(() -> test.presentValueSensitivity(provider));
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the plan against the leg pricer
+  private static void assertPricing(SwapLegPricingPlan test, ResolvedSwapLeg leg, ImmutableRatesProvider provider) {
+    CurrencyAmount pv = test.presentValue(provider);
+    CurrencyAmount pvExpected = PRICER_LEG.presentValue(leg, provider);
+    assertEquals(pv.getCurrency(), pvExpected.getCurrency());
+    assertEquals(pv.getAmount(), pvExpected.getAmount(), TOLERANCE_PV);
+    assertEquals(
+        test.forecastValue(provider).getAmount(), PRICER_LEG.forecastValue(leg, provider).getAmount(), TOLERANCE_PV);
+    PointSensitivities sensi = test.presentValueSensitivity(provider).build().normalized();
+    PointSensitivities sensiExpected = PRICER_LEG.presentValueSensitivity(leg, provider).build().normalized();
+    assertTrue(sensi.equalWithTolerance(sensiExpected, TOLERANCE_PV));
+  }
+
+  // checks the parameter sensitivity against the point sensitivity of the leg pricer
+  private static void assertParameterSensitivity(
+      SwapLegPricingPlan test,
+      ResolvedSwapLeg leg,
+      ImmutableRatesProvider provider) {
+
+    CurrencyParameterSensitivities computed = test.presentValueParameterSensitivity(provider);
+    CurrencyParameterSensitivities expected =
+        provider.parameterSensitivity(PRICER_LEG.presentValueSensitivity(leg, provider).build());
+    assertTrue(computed.equalWithTolerance(expected, TOLERANCE_PV));
+  }
+
+}
@@ -22,9 +22,12 @@ import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
@@ -53,17 +56,19 @@ import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.sensitivity.RatesFiniteDifferenceSensitivityCalculator;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
 import com.opengamma.strata.pricer.swap.SwapPaymentEventPricer;
+import com.opengamma.strata.product.common.BuySell;
 import com.opengamma.strata.product.common.LongShort;
 import com.opengamma.strata.product.swap.FixedRateCalculation;
 import com.opengamma.strata.product.swap.IborRateCalculation;
 import com.opengamma.strata.product.swap.NotionalSchedule;
-import com.opengamma.strata.product.swap.SwapPaymentEvent;
 import com.opengamma.strata.product.swap.PaymentSchedule;
 import com.opengamma.strata.product.swap.RateCalculationSwapLeg;
 import com.opengamma.strata.product.swap.ResolvedSwap;
 import com.opengamma.strata.product.swap.ResolvedSwapLeg;
 import com.opengamma.strata.product.swap.Swap;
 import com.opengamma.strata.product.swap.SwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
 import com.opengamma.strata.product.swaption.CashSwaptionSettlement;
 import com.opengamma.strata.product.swaption.CashSwaptionSettlementMethod;
 import com.opengamma.strata.product.swaption.PhysicalSwaptionSettlement;
@@ -257,6 +262,38 @@ public class HullWhiteSwaptionPhysicalProductPricerTest {
     assertEquals(computedPay.getAmount(), expectedPay, NOTIONAL * TOL);
   }
 
+  public void test_presentValue_multiple() {
+    List<ResolvedSwaption> swaptions = new ArrayList<>();
+    swaptions.add(SWAPTION_REC_LONG);
+    swaptions.add(SWAPTION_PAY_SHORT);
+    for (int i = 1; i <= 4; i++) {
+      LocalDate expiry = MATURITY.toLocalDate().minusYears(i);
+      LocalDate start = expiry.plusDays(2);
+      swaptions.add(Swaption.builder()
+          .expiryDate(AdjustableDate.of(expiry, BDA_MF))
+          .expiryTime(MATURITY.toLocalTime())
+          .expiryZone(MATURITY.getZone())
+          .swaptionSettlement(PhysicalSwaptionSettlement.DEFAULT)
+          .longShort(i % 2 == 0 ? LONG : SHORT)
+          .underlying(FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_3M
+              .toTrade(VALUATION, start, END, i % 2 == 0 ? BuySell.BUY : BuySell.SELL, NOTIONAL, RATE)
+              .getProduct())
+          .build()
+          .resolve(REF_DATA));
+    }
+    ZonedDateTime expired = VALUATION.minusDays(1).atStartOfDay(MATURITY.getZone());
+    swaptions.add(SWAPTION_PAY_LONG.toBuilder().expiry(expired).build());
+    List<CurrencyAmount> computed = PRICER.presentValue(swaptions, RATE_PROVIDER, HW_PROVIDER);
+    assertEquals(computed.size(), swaptions.size());
+    for (int i = 0; i < swaptions.size(); i++) {
+      CurrencyAmount expected = PRICER.presentValue(swaptions.get(i), RATE_PROVIDER, HW_PROVIDER);
+      assertEquals(computed.get(i).getCurrency(), expected.getCurrency());
+      assertEquals(computed.get(i).getAmount(), expected.getAmount(), NOTIONAL * TOL);
+    }
+    assertEquals(computed.get(swaptions.size() - 1).getAmount(), 0d);
+    assertThrowsIllegalArg(() -> PRICER.presentValue(ImmutableList.of(SWAPTION_CASH), RATE_PROVIDER, HW_PROVIDER));
+  }
+
   public void test_presentValue_atMaturity() {
     CurrencyAmount computedRec =
         PRICER.presentValue(SWAPTION_REC_LONG, RATES_PROVIDER_AT_MATURITY, HW_PROVIDER_AT_MATURITY);